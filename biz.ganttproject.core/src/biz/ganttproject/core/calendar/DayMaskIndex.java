@@ -0,0 +1,190 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.core.calendar;
+
+import java.util.BitSet;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import biz.ganttproject.core.calendar.GPCalendar.DayMask;
+import biz.ganttproject.core.time.TimeEngine;
+
+/**
+ * Compiled index of calendar day masks. Days are numbered as epoch days in the calendar time zone
+ * and grouped into blocks of {@link #BLOCK_SIZE} days. Each block keeps day start instants,
+ * day masks and a bit set of working days, so that mask lookup is an array access and searching
+ * for the closest working or non-working day is a bit scan.
+ *
+ * Blocks are built lazily from the slow day mask computation. Index is immutable
+ * from the reader's point of view and is safe for concurrent reads; when calendar settings change,
+ * the owner drops the whole index and creates a new one.
+ */
+class DayMaskIndex {
+  static interface DayMaskSource {
+    /**
+     * @return mask of a day which starts at the given instant
+     */
+    int computeDayMask(Date dayStart);
+  }
+
+  private static final int BLOCK_BITS = 9;
+  static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+  // How far we search for a working or non-working day if no limit is specified
+  private static final int MAX_SEARCH_BLOCKS = 64;
+
+  private static class Block {
+    private final long myFirstDay;
+    private final long[] myDayStarts = new long[BLOCK_SIZE];
+    private final byte[] myMasks = new byte[BLOCK_SIZE];
+    private final BitSet myWorkingDays = new BitSet(BLOCK_SIZE);
+
+    Block(long firstDay) {
+      myFirstDay = firstDay;
+    }
+  }
+
+  private final ConcurrentMap<Long, Block> myBlocks = new ConcurrentHashMap<Long, Block>();
+  private final TimeEngine myTimeEngine;
+  private final DayMaskSource mySource;
+  private volatile Block myLastBlock;
+
+  DayMaskIndex(TimeEngine timeEngine, DayMaskSource source) {
+    myTimeEngine = timeEngine;
+    mySource = source;
+  }
+
+  long getEpochDay(long instant) {
+    return myTimeEngine.getEpochDay(instant);
+  }
+
+  long getDayStart(long epochDay) {
+    Block block = getBlock(epochDay);
+    return block.myDayStarts[(int) (epochDay - block.myFirstDay)];
+  }
+
+  /**
+   * @return mask of the day which starts at the given instant or -1 if instant is not a day start
+   */
+  int getDayStartMask(long instant) {
+    long epochDay = getEpochDay(instant);
+    Block block = getBlock(epochDay);
+    int pos = (int) (epochDay - block.myFirstDay);
+    return block.myDayStarts[pos] == instant ? block.myMasks[pos] : -1;
+  }
+
+  /**
+   * Searches for the closest day with the requested working state, in the same manner
+   * as {@link GPCalendarBase#doFindClosest} does when moving with a day framer: forward search
+   * starts from the day which follows the day of {@code time}, backward search starts
+   * from the day which precedes it.
+   *
+   * @return start of the found day or {@code null} if limit was reached before
+   *   any day with the requested state was found
+   */
+  Date findClosest(long time, boolean forward, boolean working, Date limit) {
+    long startDay = getEpochDay(time) + (forward ? 1 : -1);
+    long endDay;
+    if (limit != null) {
+      long limitDay = getEpochDay(limit.getTime());
+      if (forward) {
+        if (getDayStart(limitDay) < limit.getTime()) {
+          limitDay++;
+        }
+        endDay = Math.max(startDay, limitDay);
+      } else {
+        endDay = Math.min(startDay, limitDay);
+      }
+    } else {
+      endDay = forward ? startDay + MAX_SEARCH_BLOCKS * BLOCK_SIZE : startDay - MAX_SEARCH_BLOCKS * BLOCK_SIZE;
+    }
+    long found = forward ? scanForward(startDay, endDay, working) : scanBackward(startDay, endDay, working);
+    return found == Long.MIN_VALUE ? null : new Date(getDayStart(found));
+  }
+
+  private long scanForward(long fromDay, long toDay, boolean working) {
+    long day = fromDay;
+    while (day <= toDay) {
+      Block block = getBlock(day);
+      int pos = (int) (day - block.myFirstDay);
+      int next = working ? block.myWorkingDays.nextSetBit(pos) : block.myWorkingDays.nextClearBit(pos);
+      if (next >= 0 && next < BLOCK_SIZE) {
+        long result = block.myFirstDay + next;
+        return result <= toDay ? result : Long.MIN_VALUE;
+      }
+      day = block.myFirstDay + BLOCK_SIZE;
+    }
+    return Long.MIN_VALUE;
+  }
+
+  private long scanBackward(long fromDay, long toDay, boolean working) {
+    long day = fromDay;
+    while (day >= toDay) {
+      Block block = getBlock(day);
+      int pos = (int) (day - block.myFirstDay);
+      int prev = working ? block.myWorkingDays.previousSetBit(pos) : block.myWorkingDays.previousClearBit(pos);
+      if (prev >= 0) {
+        long result = block.myFirstDay + prev;
+        return result >= toDay ? result : Long.MIN_VALUE;
+      }
+      day = block.myFirstDay - 1;
+    }
+    return Long.MIN_VALUE;
+  }
+
+  private Block getBlock(long epochDay) {
+    Block last = myLastBlock;
+    if (last != null && epochDay >= last.myFirstDay && epochDay < last.myFirstDay + BLOCK_SIZE) {
+      return last;
+    }
+    Long key = floorDiv(epochDay, BLOCK_SIZE);
+    Block result = myBlocks.get(key);
+    if (result == null) {
+      result = buildBlock(key * BLOCK_SIZE);
+      Block existing = myBlocks.putIfAbsent(key, result);
+      if (existing != null) {
+        result = existing;
+      }
+    }
+    myLastBlock = result;
+    return result;
+  }
+
+  private Block buildBlock(long firstDay) {
+    Block block = new Block(firstDay);
+    for (int i = 0; i < BLOCK_SIZE; i++) {
+      long dayStart = myTimeEngine.getDayStart(firstDay + i);
+      int mask = mySource.computeDayMask(new Date(dayStart));
+      block.myDayStarts[i] = dayStart;
+      block.myMasks[i] = (byte) mask;
+      if ((mask & DayMask.WORKING) == DayMask.WORKING) {
+        block.myWorkingDays.set(i);
+      }
+    }
+    return block;
+  }
+
+  private static long floorDiv(long x, long y) {
+    long result = x / y;
+    if ((x % y != 0) && ((x ^ y) < 0)) {
+      result--;
+    }
+    return result;
+  }
+}
@@ -31,9 +31,13 @@ import java.util.Map;
 import biz.ganttproject.core.calendar.CalendarEvent.Type;
 import biz.ganttproject.core.calendar.walker.ForwardTimeWalker;
 import biz.ganttproject.core.time.CalendarFactory;
+import biz.ganttproject.core.time.DateFrameable;
+import biz.ganttproject.core.time.TimeEngine;
 import biz.ganttproject.core.time.TimeDuration;
 import biz.ganttproject.core.time.TimeUnit;
 import biz.ganttproject.core.time.impl.FramerImpl;
+import biz.ganttproject.core.time.impl.GPTimeUnitStack;
+import biz.ganttproject.core.time.impl.GregorianTimeUnitStack;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -53,12 +57,17 @@ import com.google.common.collect.Sets;
  * -- there is one-off event at date D with type HOLIDAY
  * -- there is a recurring event at date D with type HOLIDAY and no one-off event at date D with type WORKING
  * 
+ * Day masks are compiled into {@link DayMaskIndex} on demand, and the index is dropped whenever
+ * calendar settings change.
+ * 
  * @author dbarashev (Dmitry Barashev)
  */
 public class WeekendCalendarImpl extends GPCalendarBase implements GPCalendarCalc {
 
   private final Calendar myCalendar = CalendarFactory.newCalendar();
 
+  private final TimeEngine myTimeEngine = TimeEngine.getInstance(myCalendar.getTimeZone());
+
   private final FramerImpl myFramer = new FramerImpl(Calendar.DAY_OF_WEEK);
 
   private final DayType[] myTypes = new DayType[7];
@@ -74,6 +83,15 @@ public class WeekendCalendarImpl extends GPCalendarBase implements GPCalendarCal
 
   private String myBaseCalendarID;
 
+  private volatile DayMaskIndex myDayMaskIndex;
+
+  private final DayMaskIndex.DayMaskSource myDayMaskSource = new DayMaskIndex.DayMaskSource() {
+    @Override
+    public int computeDayMask(Date dayStart) {
+      return WeekendCalendarImpl.this.computeDayMask(dayStart);
+    }
+  };
+
   public WeekendCalendarImpl() {
     this(null);
   }
@@ -123,10 +141,7 @@ public class WeekendCalendarImpl extends GPCalendarBase implements GPCalendarCal
     if (myOnlyShowWeekends) {
       return false;
     }
-
-    myCalendar.setTime(curDayStart);
-    int dayOfWeek = myCalendar.get(Calendar.DAY_OF_WEEK);
-    return myTypes[dayOfWeek - 1] == GPCalendar.DayType.WEEKEND;
+    return myTypes[TimeEngine.getDayOfWeek(myTimeEngine.getEpochDay(curDayStart.getTime())) - 1] == GPCalendar.DayType.WEEKEND;
   }
 
   @Override
@@ -254,15 +269,66 @@ public class WeekendCalendarImpl extends GPCalendarBase implements GPCalendarCal
   }
   
   private Date getRecurringDate(Date date) {
-    myCalendar.setTime(date);
-    myCalendar.set(Calendar.YEAR, 1);
-    return myCalendar.getTime();
+    synchronized (myCalendar) {
+      myCalendar.setTime(date);
+      myCalendar.set(Calendar.YEAR, 1);
+      return myCalendar.getTime();
+    }
   }
   @Override
   public int getDayMask(Date date) {
+    DayMaskIndex index = getDayMaskIndex();
+    int result = index.getDayStartMask(date.getTime());
+    if (result >= 0) {
+      return result;
+    }
+    // Holidays are attached to day starts, so any other moment is either weekend or working time
+    boolean isWeekend = myTypes[TimeEngine.getDayOfWeek(index.getEpochDay(date.getTime())) - 1] == DayType.WEEKEND;
+    result = isWeekend ? DayMask.WEEKEND : 0;
+    if (!isWeekend || myOnlyShowWeekends) {
+      result |= DayMask.WORKING;
+    }
+    return result;
+  }
+
+  @Override
+  protected Date doFindClosest(Date time, DateFrameable framer, MoveDirection direction, DayType dayType, Date limit) {
+    if (!isDayFramer(framer)) {
+      return super.doFindClosest(time, framer, direction, dayType, limit);
+    }
+    DayMaskIndex index = getDayMaskIndex();
+    if (direction == MoveDirection.BACKWARD && index.getDayStartMask(time.getTime()) < 0) {
+      // Day framer jumps left preserving time of the day, and we index day starts only
+      return super.doFindClosest(time, framer, direction, dayType, limit);
+    }
+    return index.findClosest(time.getTime(), direction == MoveDirection.FORWARD, dayType == DayType.WORKING, limit);
+  }
+
+  private boolean isDayFramer(DateFrameable framer) {
+    return framer == myFramer || framer == GPTimeUnitStack.DAY || framer == GregorianTimeUnitStack.DAY;
+  }
+
+  private DayMaskIndex getDayMaskIndex() {
+    DayMaskIndex result = myDayMaskIndex;
+    if (result == null) {
+      result = new DayMaskIndex(myTimeEngine, myDayMaskSource);
+      myDayMaskIndex = result;
+    }
+    return result;
+  }
+
+  @Override
+  protected void fireCalendarChanged() {
+    myDayMaskIndex = null;
+    super.fireCalendarChanged();
+  }
+
+  /**
+   * Computes day mask from the weekend settings and holiday maps, bypassing the index.
+   */
+  int computeDayMask(Date date) {
     int result = 0;
-    myCalendar.setTime(date);
-    int dayOfWeek = myCalendar.get(Calendar.DAY_OF_WEEK);
+    int dayOfWeek = TimeEngine.getDayOfWeek(myTimeEngine.getEpochDay(date.getTime()));
     boolean isHoliday = isPublicHoliDay(date);
     boolean isWeekend = myTypes[dayOfWeek - 1] == DayType.WEEKEND;
     if (isWeekend) {
@@ -293,9 +359,7 @@ public class WeekendCalendarImpl extends GPCalendarBase implements GPCalendarCal
     myOneOffEvents.clear();
     for (CalendarEvent h : holidays) {
       if (h.isRecurring) {
-        myCalendar.setTime(h.myDate);
-        myCalendar.set(Calendar.YEAR, 1);
-        myRecurringEvents.put(myCalendar.getTime(), h);
+        myRecurringEvents.put(getRecurringDate(h.myDate), h);
       } else {
         myOneOffEvents.put(h.myDate, h);
       }
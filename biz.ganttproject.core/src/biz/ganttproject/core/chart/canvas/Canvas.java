@@ -54,9 +54,17 @@ public class Canvas {
 
   private List<TextGroup> myTextGroups = new ArrayList<TextGroup>();
 
-  private final DummySpatialIndex<Text> myTextIndex = new DummySpatialIndex<Text>();
+  private final GridSpatialIndex<Rectangle> myRectangleIndex = new GridSpatialIndex<Rectangle>();
 
-  private final DummySpatialIndex<Polygon> myPolygonIndex = new DummySpatialIndex<Canvas.Polygon>();
+  private final GridSpatialIndex<Text> myTextIndex = new GridSpatialIndex<Text>();
+
+  private final GridSpatialIndex<Polygon> myPolygonIndex = new GridSpatialIndex<Canvas.Polygon>();
+
+  // Borders, shadows and arrow heads may stick out of the shape bounds
+  private static final int SHAPE_CULL_MARGIN = 8;
+
+  // Texts may be aligned above or below their anchor point
+  private static final int TEXT_CULL_MARGIN = 100;
   
   /** Horizontal alignments for texts */
   public enum HAlignment {
@@ -344,7 +352,10 @@ public class Canvas {
     void index(Label label) {
       assert label.myOwner == this;
       if (myIndex != null && label.heightPx != Integer.MIN_VALUE) {
-        myIndex.put(this, myLeftX, myBottomY, label.lengthPx, label.heightPx);
+        // Chart export may paint the same scene in several threads
+        synchronized (myIndex) {
+          myIndex.put(this, myLeftX, myBottomY, label.lengthPx, label.heightPx);
+        }
       }
     }
 
@@ -535,6 +546,7 @@ public class Canvas {
   public Rectangle createRectangle(int leftx, int topy, int width, int height) {
     Rectangle result = createDetachedRectangle(leftx, topy, width, height);
     myRectangles.add(result);
+    myRectangleIndex.put(result, result.getLeftX(), result.getBottomY(), result.getWidth(), result.getHeight());
     return result;
   }
 
@@ -571,36 +583,59 @@ public class Canvas {
   }
 
   public void paint(Painter painter) {
+    paint(painter, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Paints only the primitives which may be visible between the given Y-coordinates.
+   * Shapes are culled by their bounds expanded by a few pixels for borders and arrows.
+   * Text bounds are not known until its labels are calculated, so texts are culled
+   * by their anchor point with a generous margin.
+   *
+   * @param painter painter
+   * @param topY top edge of the painted area
+   * @param bottomY bottom edge of the painted area
+   */
+  public void paint(Painter painter, int topY, int bottomY) {
     painter.prePaint();
     for (int i = 0; i < myRectangles.size(); i++) {
       Rectangle next = myRectangles.get(i);
-      if (next.isVisible()) {
+      if (next.isVisible() && isVisible(next.getTopY(), next.getBottomY(), SHAPE_CULL_MARGIN, topY, bottomY)) {
         painter.paint(next);
       }
     }
     for (Polygon p : myPolygonIndex.values()) {
-      if (p.isVisible()) {
+      if (p.isVisible() && isVisible(p.getTopY(), p.getBottomY(), SHAPE_CULL_MARGIN, topY, bottomY)) {
         painter.paint(p);
       }
     }
     for (int i = 0; i < myLines.size(); i++) {
       Line next = myLines.get(i);
-      if (next.isVisible()) {
+      if (next.isVisible()
+          && isVisible(Math.min(next.getStartY(), next.getFinishY()), Math.max(next.getStartY(), next.getFinishY()),
+              SHAPE_CULL_MARGIN, topY, bottomY)) {
         painter.paint(next);
       }
     }
     for (int i = 0; i < myTexts.size(); i++) {
       Text next = myTexts.get(i);
-      if (next.isVisible()) {
+      if (next.isVisible() && isVisible(next.getBottomY(), next.getBottomY(), TEXT_CULL_MARGIN, topY, bottomY)) {
         painter.paint(next);
       }
     }
     for (TextGroup textGroup : myTextGroups) {
-      painter.paint(textGroup);
+      if (isVisible(textGroup.getBottomY(), textGroup.getBottomY() + textGroup.myHeight, TEXT_CULL_MARGIN, topY, bottomY)) {
+        painter.paint(textGroup);
+      }
     }
   }
 
+  private static boolean isVisible(int shapeTopY, int shapeBottomY, int margin, int topY, int bottomY) {
+    return (long) shapeBottomY + margin >= topY && (long) shapeTopY - margin <= bottomY;
+  }
+
   public void clear() {
+    myRectangleIndex.clear();
     myTextIndex.clear();
     myPolygonIndex.clear();
     myRectangles.clear();
@@ -627,16 +662,7 @@ public class Canvas {
   }
 
   public Shape getPrimitive(int x, int xThreshold, int y, int yThreshold) {
-    Shape result = null;
-    for (int i = 0; i < myRectangles.size(); i++) {
-      Rectangle next = myRectangles.get(i);
-      // System.err.println(" next rectangle="+next);
-      if (next.getLeftX() <= x + xThreshold && next.getRightX() >= x - xThreshold
-          && next.getTopY() <= y + yThreshold && next.getBottomY() >= y - yThreshold) {
-        result = next;
-        break;
-      }
-    }
+    Shape result = myRectangleIndex.get(x, xThreshold, y, yThreshold);
     if (result != null) {
       return result;
     }
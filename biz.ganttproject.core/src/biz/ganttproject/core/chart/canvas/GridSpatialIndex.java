@@ -0,0 +1,206 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.core.chart.canvas;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Spatial index which hashes rectangles into the cells of a uniform grid. Search by point
+ * only looks at the rectangles registered in the cells which intersect the search area.
+ * Rectangles which cover too many cells, like full-height weekend columns, are kept in
+ * a separate list which is scanned linearly.
+ *
+ * If several rectangles contain the search point, the one which was inserted first is returned,
+ * exactly like {@link DummySpatialIndex} does.
+ */
+public class GridSpatialIndex<T> implements SpatialIndex<T> {
+  private static final int DEFAULT_CELL_WIDTH = 128;
+  private static final int DEFAULT_CELL_HEIGHT = 32;
+  // Rectangles covering more cells than this are not hashed
+  private static final int MAX_CELLS_PER_RECT = 64;
+
+  private static class Rect<T> {
+    final T myObject;
+    final int myOrdinal;
+    final int myLeftX;
+    final int myBottomY;
+    final int myWidth;
+    final int myHeight;
+
+    Rect(T object, int ordinal, int leftX, int bottomY, int width, int height) {
+      myObject = object;
+      myOrdinal = ordinal;
+      myLeftX = leftX;
+      myBottomY = bottomY;
+      myWidth = width;
+      myHeight = height;
+    }
+
+    boolean contains(int x, int xpadding, int y, int ypadding) {
+      return myLeftX <= x + xpadding && myLeftX + myWidth >= x - xpadding
+          && myBottomY >= y - ypadding && myBottomY - myHeight <= y + ypadding;
+    }
+
+    boolean isSame(T object, int leftX, int bottomY, int width, int height) {
+      return myObject == object && myLeftX == leftX && myBottomY == bottomY && myWidth == width && myHeight == height;
+    }
+
+    @Override
+    public String toString() {
+      return "x=" + myLeftX + " y=" + myBottomY + " width=" + myWidth;
+    }
+  }
+
+  private final int myCellWidth;
+  private final int myCellHeight;
+  private final Map<Long, List<Rect<T>>> myCells = Maps.newHashMap();
+  private final List<Rect<T>> myLargeRects = Lists.newArrayList();
+  private final List<T> myValues = Lists.newArrayList();
+  private int myRectCount;
+
+  public GridSpatialIndex() {
+    this(DEFAULT_CELL_WIDTH, DEFAULT_CELL_HEIGHT);
+  }
+
+  public GridSpatialIndex(int cellWidth, int cellHeight) {
+    myCellWidth = cellWidth;
+    myCellHeight = cellHeight;
+  }
+
+  @Override
+  public void put(T data, int x, int y, int width, int height) {
+    int firstCol = getColumn(Math.min(x, x + width));
+    int lastCol = getColumn(Math.max(x, x + width));
+    int firstRow = getRow(Math.min(y, y - height));
+    int lastRow = getRow(Math.max(y, y - height));
+    long cellCount = (long) (lastCol - firstCol + 1) * (lastRow - firstRow + 1);
+    if (cellCount > MAX_CELLS_PER_RECT) {
+      for (Rect<T> r : myLargeRects) {
+        if (r.isSame(data, x, y, width, height)) {
+          return;
+        }
+      }
+      myLargeRects.add(new Rect<T>(data, myRectCount++, x, y, width, height));
+      myValues.add(data);
+      return;
+    }
+    // Texts are indexed every time their labels are shown, so we skip the rectangles which are already here
+    List<Rect<T>> firstCell = myCells.get(getKey(firstCol, firstRow));
+    if (firstCell != null) {
+      for (Rect<T> r : firstCell) {
+        if (r.isSame(data, x, y, width, height)) {
+          return;
+        }
+      }
+    }
+    Rect<T> rect = new Rect<T>(data, myRectCount++, x, y, width, height);
+    for (int col = firstCol; col <= lastCol; col++) {
+      for (int row = firstRow; row <= lastRow; row++) {
+        Long key = getKey(col, row);
+        List<Rect<T>> cell = myCells.get(key);
+        if (cell == null) {
+          cell = Lists.newArrayListWithExpectedSize(4);
+          myCells.put(key, cell);
+        }
+        cell.add(rect);
+      }
+    }
+    myValues.add(data);
+  }
+
+  @Override
+  public T get(int x, int y) {
+    return get(x, 0, y, 0);
+  }
+
+  @Override
+  public T get(int x, int xpadding, int y, int ypadding) {
+    Rect<T> result = null;
+    for (Rect<T> r : myLargeRects) {
+      if (r.contains(x, xpadding, y, ypadding)) {
+        result = r;
+        break;
+      }
+    }
+    if (!myCells.isEmpty()) {
+      int lastCol = getColumn(x + xpadding);
+      int lastRow = getRow(y + ypadding);
+      for (int col = getColumn(x - xpadding); col <= lastCol; col++) {
+        for (int row = getRow(y - ypadding); row <= lastRow; row++) {
+          List<Rect<T>> cell = myCells.get(getKey(col, row));
+          if (cell == null) {
+            continue;
+          }
+          for (int i = 0; i < cell.size(); i++) {
+            Rect<T> r = cell.get(i);
+            if (result != null && r.myOrdinal >= result.myOrdinal) {
+              // Rectangles in a cell are ordered by insertion
+              break;
+            }
+            if (r.contains(x, xpadding, y, ypadding)) {
+              result = r;
+              break;
+            }
+          }
+        }
+      }
+    }
+    return result == null ? null : result.myObject;
+  }
+
+  public void clear() {
+    myCells.clear();
+    myLargeRects.clear();
+    myValues.clear();
+    myRectCount = 0;
+  }
+
+  /**
+   * @return values in the order of insertion
+   */
+  public Collection<T> values() {
+    return Collections.unmodifiableList(myValues);
+  }
+
+  private int getColumn(int x) {
+    return floorDiv(x, myCellWidth);
+  }
+
+  private int getRow(int y) {
+    return floorDiv(y, myCellHeight);
+  }
+
+  private static Long getKey(int col, int row) {
+    return ((long) col << 32) | (row & 0xffffffffL);
+  }
+
+  private static int floorDiv(int x, int y) {
+    int result = x / y;
+    if ((x % y != 0) && ((x ^ y) < 0)) {
+      result--;
+    }
+    return result;
+  }
+}
@@ -396,7 +396,7 @@ class Style {
     return myBorders;
   }
   
-  static Style getStyle(Properties props, String styleName) {
+  static synchronized Style getStyle(Properties props, String styleName) {
     Style result = ourCache.get(styleName);
     if (result == null) {
       result = new Style(props, styleName);
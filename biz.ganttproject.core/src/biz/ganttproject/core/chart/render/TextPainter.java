@@ -127,9 +127,12 @@ public class TextPainter {
   public void paint(TextGroup textGroup) {
     TextLengthCalculatorImpl calculator = new TextLengthCalculatorImpl((Graphics2D) myGraphics.create());
     FontChooser fontChooser = new FontChooser(myProperties, calculator, myBaseFont);
-    textGroup.setFonts(fontChooser);
-    for (int i = 0; i < textGroup.getLineCount(); i++) {
-      paintTextLine(textGroup, i);
+    // Fonts are stored in the group, and chart export may paint it from several threads
+    synchronized (textGroup) {
+      textGroup.setFonts(fontChooser);
+      for (int i = 0; i < textGroup.getLineCount(); i++) {
+        paintTextLine(textGroup, i);
+      }
     }
   }
 
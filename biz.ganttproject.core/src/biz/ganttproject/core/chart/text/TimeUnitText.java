@@ -50,7 +50,7 @@ public class TimeUnitText {
     myShortText = mediumText;
   }
 
-  public Label[] getLabels(int requestedMaxLength, TextMetrics calculator) {
+  public synchronized Label[] getLabels(int requestedMaxLength, TextMetrics calculator) {
     if (!calculator.getState().equals(myCalculatorState)) {
       myCalculatorState = calculator.getState();
       myLabels = new Label[] { new Label(null, myShortText, calculator.getTextLength(myShortText)),
@@ -48,7 +48,8 @@ public enum TaskDefaultColumn {
   PREDECESSORS(new ColumnList.ColumnStub("tpd9", null, false, -1, 200), String.class, "tableColPredecessors"),
   ID(new ColumnList.ColumnStub("tpd10", null, false, -1, 20), Integer.class, "tableColID", Functions.NOT_EDITABLE),
   OUTLINE_NUMBER(new ColumnList.ColumnStub("tpd11", null, false, 4, 20), String.class, "tableColOutline", Functions.NOT_EDITABLE),
-  COST(new ColumnList.ColumnStub("tpd12", null, false, -1, 20), Double.class, "tableColCost");
+  COST(new ColumnList.ColumnStub("tpd12", null, false, -1, 20), Double.class, "tableColCost"),
+  TOTAL_FLOAT(new ColumnList.ColumnStub("tpd13", null, false, -1, 50), Integer.class, "tableColTotalFloat", Functions.NOT_EDITABLE);
 
   public interface LocaleApi {
     String i18n(String key);
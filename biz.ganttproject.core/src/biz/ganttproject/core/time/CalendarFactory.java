@@ -21,7 +21,11 @@ package biz.ganttproject.core.time;
 import java.text.DateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public abstract class CalendarFactory {
   public static interface LocaleApi {
@@ -30,13 +34,56 @@ public abstract class CalendarFactory {
   }
 
   private static LocaleApi ourLocaleApi;
-  
+
+  private static volatile TimeEngine ourTimeEngine;
+
+  private static final ConcurrentMap<Locale, Calendar> ourLocaleCalendars = new ConcurrentHashMap<Locale, Calendar>();
+
   public static Calendar newCalendar() {
     return (Calendar) Calendar.getInstance(ourLocaleApi.getLocale()).clone();
   }
-  
+
+  /**
+   * Time engine is initialized with the default time zone when this method is called for the first time
+   * after {@link #setLocaleApi(LocaleApi)}. Calendar factory is expected to be installed after the default
+   * time zone is set.
+   *
+   * @return time engine for the calendars created by this factory or {@code null} if the calendar of the
+   *   current locale is not Gregorian
+   */
+  public static TimeEngine getTimeEngine() {
+    if (!(getLocaleCalendar() instanceof GregorianCalendar)) {
+      return null;
+    }
+    TimeEngine result = ourTimeEngine;
+    if (result == null) {
+      result = TimeEngine.getInstance(TimeZone.getDefault());
+      ourTimeEngine = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return first day of week in the current locale, as {@link Calendar#DAY_OF_WEEK} value
+   */
+  public static int getFirstDayOfWeek() {
+    return getLocaleCalendar().getFirstDayOfWeek();
+  }
+
+  private static Calendar getLocaleCalendar() {
+    Locale locale = ourLocaleApi.getLocale();
+    Calendar result = ourLocaleCalendars.get(locale);
+    if (result == null) {
+      // Calendar instance is never modified, we only query its type and locale settings
+      result = Calendar.getInstance(locale);
+      ourLocaleCalendars.putIfAbsent(locale, result);
+    }
+    return result;
+  }
+
   protected static void setLocaleApi(LocaleApi localeApi) {
     ourLocaleApi = localeApi;
+    ourTimeEngine = null;
   }
 
   public static GanttCalendar createGanttCalendar(Date date) {
@@ -0,0 +1,418 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.core.time;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Calendar arithmetic on primitive epoch milliseconds and epoch days in a fixed time zone.
+ *
+ * Engine reproduces the results of {@link java.util.GregorianCalendar} for the operations
+ * which time unit framers need: clearing the fields below the given one, adding units
+ * and getting day of week. Zone offsets are precomputed lazily as tables of offset transitions
+ * grouped into segments of {@link #SEGMENT_DAYS} days, so that after warm-up the engine
+ * doesn't allocate anything. Instances are immutable from the client's point of view and
+ * safe for concurrent use.
+ *
+ * Only proleptic Gregorian calendar is supported; callers are expected to check
+ * {@link #isSupported(long)} and fall back to {@link Calendar} for dates out of range.
+ */
+public final class TimeEngine {
+  public static final long MINUTE_MILLIS = 60L * 1000;
+  public static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+  public static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+  private static final int SEGMENT_DAYS = 512;
+  private static final long SEGMENT_MILLIS = SEGMENT_DAYS * DAY_MILLIS;
+  // Segments with indices in [-SEGMENT_COUNT/2, SEGMENT_COUNT/2) are cached, that is years 1611..2328
+  private static final int SEGMENT_COUNT = 512;
+  // Offset tables are built by probing the zone with this step and binary searching the transitions
+  private static final long PROBE_STEP = 6 * HOUR_MILLIS;
+  // Supported range is narrower than cached range, so that adding a year never leaves the cache
+  private static final long MIN_SUPPORTED = (-SEGMENT_COUNT / 2 + 1) * SEGMENT_MILLIS;
+  private static final long MAX_SUPPORTED = (SEGMENT_COUNT / 2 - 1) * SEGMENT_MILLIS;
+  private static final int[] MONTH_LENGTH = new int[] { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+  private static final ConcurrentMap<String, TimeEngine> ourEngines = new ConcurrentHashMap<String, TimeEngine>();
+
+  private static class Segment {
+    // Instants when offset changes, in ascending order
+    private final long[] myTransitions;
+    // myOffsets[0] is offset at the segment start, myOffsets[i + 1] is offset since myTransitions[i]
+    private final int[] myOffsets;
+
+    Segment(long[] transitions, int[] offsets) {
+      myTransitions = transitions;
+      myOffsets = offsets;
+    }
+
+    int getOffset(long instant) {
+      return myOffsets[countTransitions(instant)];
+    }
+
+    /**
+     * @return number of transitions which happened at or before the given instant
+     */
+    int countTransitions(long instant) {
+      int low = 0;
+      int high = myTransitions.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (myTransitions[mid] <= instant) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+
+  private final TimeZone myZone;
+  private final int myRawOffset;
+  private final AtomicReferenceArray<Segment> mySegments = new AtomicReferenceArray<Segment>(SEGMENT_COUNT);
+
+  private TimeEngine(TimeZone zone) {
+    myZone = zone;
+    myRawOffset = zone.getRawOffset();
+  }
+
+  /**
+   * @return engine for the given time zone. Engines are cached, so it is cheap to call
+   *   this method many times, however it is not supposed to be called on hot paths.
+   */
+  public static TimeEngine getInstance(TimeZone zone) {
+    String key = zone.getID() + ":" + zone.getRawOffset() + ":" + zone.getDSTSavings() + ":" + zone.useDaylightTime();
+    TimeEngine result = ourEngines.get(key);
+    if (result == null) {
+      result = new TimeEngine((TimeZone) zone.clone());
+      TimeEngine existing = ourEngines.putIfAbsent(key, result);
+      if (existing != null) {
+        result = existing;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return {@code true} if this engine can process the given instant. Instants out of range
+   *   must be processed with {@link Calendar}
+   */
+  public boolean isSupported(long instant) {
+    return instant >= MIN_SUPPORTED && instant < MAX_SUPPORTED;
+  }
+
+  /**
+   * @return {@code true} if calendar field can be passed to the framing methods
+   */
+  public static boolean isSupportedField(int calendarField) {
+    switch (calendarField) {
+    case Calendar.YEAR:
+    case Calendar.MONTH:
+    case Calendar.DATE:
+    case Calendar.DAY_OF_WEEK:
+    case Calendar.HOUR:
+    case Calendar.HOUR_OF_DAY:
+    case Calendar.MINUTE:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * @return total zone offset (raw offset plus daylight saving) at the given instant
+   */
+  public int getOffset(long instant) {
+    Segment segment = getSegment(instant);
+    return segment == null ? myZone.getOffset(instant) : segment.getOffset(instant);
+  }
+
+  public long getEpochDay(long instant) {
+    return floorDiv(instant + getOffset(instant), DAY_MILLIS);
+  }
+
+  /**
+   * @return instant when the given epoch day starts
+   */
+  public long getDayStart(long epochDay) {
+    return toInstant(epochDay * DAY_MILLIS);
+  }
+
+  /**
+   * @return day of week of the given epoch day as {@link Calendar#DAY_OF_WEEK} value
+   */
+  public static int getDayOfWeek(long epochDay) {
+    // 1970-01-01 was Thursday
+    return (int) floorMod(epochDay + 4, 7) + 1;
+  }
+
+  /**
+   * Converts local wall time to instant. Wall times which fall into the gap or overlap
+   * at offset transition are resolved the same way as {@link java.util.GregorianCalendar} does.
+   */
+  public long toInstant(long wallMillis) {
+    long from = wallMillis - myRawOffset - DAY_MILLIS;
+    Segment segment = getSegment(from);
+    if (segment == null) {
+      return wallMillis - myZone.getOffset(wallMillis - myZone.getOffset(wallMillis - myRawOffset));
+    }
+    // We pick the offset set up by the last transition whose start in wall time
+    // is not later than the given wall time.
+    int offset = getOffset(from);
+    long to = wallMillis - myRawOffset + DAY_MILLIS;
+    long transition = nextTransition(from, to);
+    while (transition != Long.MIN_VALUE) {
+      int newOffset = getOffset(transition);
+      if (transition + newOffset > wallMillis) {
+        break;
+      }
+      offset = newOffset;
+      transition = nextTransition(transition, to);
+    }
+    return wallMillis - offset;
+  }
+
+  /**
+   * Equivalent of {@link Calendar#clear(int)} applied to all fields which follow the given one.
+   */
+  public long adjustLeft(long instant, int calendarField) {
+    long wall = instant + getOffset(instant);
+    switch (calendarField) {
+    case Calendar.YEAR: {
+      long civil = toCivil(floorDiv(wall, DAY_MILLIS));
+      return toInstant(fromCivil(getYear(civil), 1, 1) * DAY_MILLIS);
+    }
+    case Calendar.MONTH: {
+      long civil = toCivil(floorDiv(wall, DAY_MILLIS));
+      return toInstant(fromCivil(getYear(civil), getMonth(civil), 1) * DAY_MILLIS);
+    }
+    case Calendar.DATE:
+    case Calendar.DAY_OF_WEEK:
+      return toInstant(floorDiv(wall, DAY_MILLIS) * DAY_MILLIS);
+    case Calendar.HOUR:
+    case Calendar.HOUR_OF_DAY:
+      return toInstant(floorDiv(wall, HOUR_MILLIS) * HOUR_MILLIS);
+    case Calendar.MINUTE:
+      return toInstant(floorDiv(wall, MINUTE_MILLIS) * MINUTE_MILLIS);
+    default:
+      throw new IllegalArgumentException("Unsupported calendar field=" + calendarField);
+    }
+  }
+
+  /**
+   * Equivalent of {@link Calendar#add(int, int)}
+   */
+  public long add(long instant, int calendarField, int amount) {
+    switch (calendarField) {
+    case Calendar.YEAR:
+      return addMonths(instant, amount * 12);
+    case Calendar.MONTH:
+      return addMonths(instant, amount);
+    case Calendar.DATE:
+    case Calendar.DAY_OF_WEEK:
+      return addDays(instant, amount);
+    case Calendar.HOUR:
+    case Calendar.HOUR_OF_DAY:
+      return instant + amount * HOUR_MILLIS;
+    case Calendar.MINUTE:
+      return instant + amount * MINUTE_MILLIS;
+    default:
+      throw new IllegalArgumentException("Unsupported calendar field=" + calendarField);
+    }
+  }
+
+  /**
+   * Adds the given number of days preserving the time of the day. If zone offset changes,
+   * the result is corrected unless correction moves it to another day, exactly like
+   * {@link java.util.GregorianCalendar#add(int, int)} does.
+   */
+  public long addDays(long instant, int days) {
+    int offset = getOffset(instant);
+    long wall = instant + offset;
+    long expectedDay = floorDiv(wall, DAY_MILLIS) + days;
+    long result = wall + days * DAY_MILLIS - offset;
+    int delta = offset - getOffset(result);
+    if (delta != 0) {
+      long corrected = result + delta;
+      if (getEpochDay(corrected) == expectedDay) {
+        result = corrected;
+      }
+    }
+    return result;
+  }
+
+  private long addMonths(long instant, int months) {
+    long wall = instant + getOffset(instant);
+    long epochDay = floorDiv(wall, DAY_MILLIS);
+    long timeOfDay = wall - epochDay * DAY_MILLIS;
+    long civil = toCivil(epochDay);
+    long monthIndex = getYear(civil) * 12L + getMonth(civil) - 1 + months;
+    int year = (int) floorDiv(monthIndex, 12);
+    int month = (int) floorMod(monthIndex, 12) + 1;
+    int day = Math.min(getDay(civil), getMonthLength(year, month));
+    return toInstant(fromCivil(year, month, day) * DAY_MILLIS + timeOfDay);
+  }
+
+  private long nextTransition(long after, long limit) {
+    for (long segmentStart = floorDiv(after, SEGMENT_MILLIS) * SEGMENT_MILLIS; segmentStart <= limit; segmentStart += SEGMENT_MILLIS) {
+      Segment segment = getSegment(segmentStart);
+      if (segment == null) {
+        break;
+      }
+      int idx = segment.countTransitions(after);
+      if (idx < segment.myTransitions.length) {
+        long result = segment.myTransitions[idx];
+        return result <= limit ? result : Long.MIN_VALUE;
+      }
+    }
+    return Long.MIN_VALUE;
+  }
+
+  private Segment getSegment(long instant) {
+    long idx = floorDiv(instant, SEGMENT_MILLIS) + SEGMENT_COUNT / 2;
+    if (idx < 0 || idx >= SEGMENT_COUNT) {
+      return null;
+    }
+    Segment result = mySegments.get((int) idx);
+    if (result == null) {
+      result = buildSegment((idx - SEGMENT_COUNT / 2) * SEGMENT_MILLIS);
+      if (!mySegments.compareAndSet((int) idx, null, result)) {
+        result = mySegments.get((int) idx);
+      }
+    }
+    return result;
+  }
+
+  private Segment buildSegment(long start) {
+    long end = start + SEGMENT_MILLIS;
+    int transitionCount = 0;
+    long[] transitions = new long[8];
+    int[] offsets = new int[9];
+    int offset = myZone.getOffset(start);
+    offsets[0] = offset;
+    for (long probe = start; probe < end;) {
+      long nextProbe = Math.min(probe + PROBE_STEP, end - 1);
+      int nextOffset = myZone.getOffset(nextProbe);
+      if (nextOffset != offset) {
+        // Binary search for the first instant with the new offset
+        long low = probe;
+        long high = nextProbe;
+        while (high - low > 1) {
+          long mid = (low + high) >>> 1;
+          if (myZone.getOffset(mid) == offset) {
+            low = mid;
+          } else {
+            high = mid;
+          }
+        }
+        if (transitionCount == transitions.length) {
+          long[] newTransitions = new long[transitionCount * 2];
+          System.arraycopy(transitions, 0, newTransitions, 0, transitionCount);
+          transitions = newTransitions;
+          int[] newOffsets = new int[transitionCount * 2 + 1];
+          System.arraycopy(offsets, 0, newOffsets, 0, transitionCount + 1);
+          offsets = newOffsets;
+        }
+        offset = myZone.getOffset(high);
+        transitions[transitionCount++] = high;
+        offsets[transitionCount] = offset;
+        probe = high;
+        continue;
+      }
+      if (nextProbe == end - 1) {
+        break;
+      }
+      probe = nextProbe;
+    }
+    long[] resultTransitions = new long[transitionCount];
+    System.arraycopy(transitions, 0, resultTransitions, 0, transitionCount);
+    int[] resultOffsets = new int[transitionCount + 1];
+    System.arraycopy(offsets, 0, resultOffsets, 0, transitionCount + 1);
+    return new Segment(resultTransitions, resultOffsets);
+  }
+
+  /**
+   * @return epoch day of the given date in proleptic Gregorian calendar. Month is 1-based.
+   */
+  public static long fromCivil(int year, int month, int day) {
+    long y = month <= 2 ? year - 1 : year;
+    long era = floorDiv(y, 400);
+    long yearOfEra = y - era * 400;
+    long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /**
+   * @return year, 1-based month and day of the given epoch day packed into a single long value.
+   *   Use {@link #getYear(long)}, {@link #getMonth(long)} and {@link #getDay(long)} to unpack it.
+   */
+  public static long toCivil(long epochDay) {
+    long z = epochDay + 719468;
+    long era = floorDiv(z, 146097);
+    long dayOfEra = z - era * 146097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long mp = (5 * dayOfYear + 2) / 153;
+    long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+    long month = mp < 10 ? mp + 3 : mp - 9;
+    long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    return (year << 9) | (month << 5) | day;
+  }
+
+  public static int getYear(long civil) {
+    return (int) (civil >> 9);
+  }
+
+  public static int getMonth(long civil) {
+    return (int) ((civil >> 5) & 0xf);
+  }
+
+  public static int getDay(long civil) {
+    return (int) (civil & 0x1f);
+  }
+
+  static int getMonthLength(int year, int month) {
+    if (month == 2 && isLeapYear(year)) {
+      return 29;
+    }
+    return MONTH_LENGTH[month - 1];
+  }
+
+  static boolean isLeapYear(int year) {
+    return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+  }
+
+  static long floorDiv(long x, long y) {
+    long result = x / y;
+    if ((x % y != 0) && ((x ^ y) < 0)) {
+      result--;
+    }
+    return result;
+  }
+
+  static long floorMod(long x, long y) {
+    return x - floorDiv(x, y) * y;
+  }
+}
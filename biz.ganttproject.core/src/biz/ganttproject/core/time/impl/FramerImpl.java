@@ -15,6 +15,7 @@ import java.util.Date;
 
 import biz.ganttproject.core.time.CalendarFactory;
 import biz.ganttproject.core.time.DateFrameable;
+import biz.ganttproject.core.time.TimeEngine;
 
 /**
  * Created by IntelliJ IDEA.
@@ -24,17 +25,38 @@ import biz.ganttproject.core.time.DateFrameable;
 public class FramerImpl implements DateFrameable {
   private final int myCalendarField;
 
+  private final boolean isEngineSupported;
+
   public FramerImpl(int calendarField) {
     myCalendarField = calendarField;
+    isEngineSupported = TimeEngine.isSupportedField(calendarField);
   }
 
   @Override
   public Date adjustRight(Date baseDate) {
+    return new Date(adjustRight(baseDate.getTime()));
+  }
+
+  @Override
+  public Date adjustLeft(Date baseDate) {
+    return new Date(adjustLeft(baseDate.getTime()));
+  }
+
+  @Override
+  public Date jumpLeft(Date baseDate) {
+    return new Date(jumpLeft(baseDate.getTime()));
+  }
+
+  public long adjustRight(long baseTime) {
+    TimeEngine engine = getTimeEngine(baseTime);
+    if (engine != null) {
+      return engine.add(engine.adjustLeft(baseTime, myCalendarField), myCalendarField, 1);
+    }
     Calendar c = CalendarFactory.newCalendar();
-    c.setTime(baseDate);
+    c.setTimeInMillis(baseTime);
     clearFields(c);
     c.add(myCalendarField, 1);
-    return c.getTime();
+    return c.getTimeInMillis();
   }
 
   private void clearFields(Calendar c) {
@@ -43,23 +65,37 @@ public class FramerImpl implements DateFrameable {
     }
   }
 
-  @Override
-  public Date adjustLeft(Date baseDate) {
+  public long adjustLeft(long baseTime) {
+    TimeEngine engine = getTimeEngine(baseTime);
+    if (engine != null) {
+      return engine.adjustLeft(baseTime, myCalendarField);
+    }
     Calendar c = CalendarFactory.newCalendar();
-    c.setTime(baseDate);
+    c.setTimeInMillis(baseTime);
     clearFields(c);
-    // Date beforeClear = c.getTime();
-    // if (beforeClear.compareTo(c.getTime())==0) {
-    // c.add(Calendar.MILLISECOND, -1);
-    // }
-    return c.getTime();
+    return c.getTimeInMillis();
   }
 
-  @Override
-  public Date jumpLeft(Date baseDate) {
+  public long jumpLeft(long baseTime) {
+    TimeEngine engine = getTimeEngine(baseTime);
+    if (engine != null) {
+      return engine.add(baseTime, myCalendarField, -1);
+    }
     Calendar c = CalendarFactory.newCalendar();
-    c.setTime(baseDate);
+    c.setTimeInMillis(baseTime);
     c.add(myCalendarField, -1);
-    return c.getTime();
+    return c.getTimeInMillis();
+  }
+
+  /**
+   * @return engine which can process the given time or {@code null} if we need to fall back to
+   *   {@link Calendar} arithmetic
+   */
+  private TimeEngine getTimeEngine(long time) {
+    if (!isEngineSupported) {
+      return null;
+    }
+    TimeEngine result = CalendarFactory.getTimeEngine();
+    return result != null && result.isSupported(time) ? result : null;
   }
 }
@@ -33,13 +33,17 @@ public class GPTimeUnitStack implements TimeUnitStack {
 
   public static final TimeUnit YEAR;
 
+  private static final FramerImpl DAY_FRAMER = new FramerImpl(Calendar.DATE);
+
+  private static final WeekFramerImpl WEEK_FRAMER = new WeekFramerImpl();
+
   private final TimeUnitPair[] myPairs;
 
   static {
     TimeUnit atom = ourGraph.createAtomTimeUnit("atom");
-    DAY = ourGraph.createDateFrameableTimeUnit("day", atom, 1, new FramerImpl(Calendar.DATE));
+    DAY = ourGraph.createDateFrameableTimeUnit("day", atom, 1, DAY_FRAMER);
     MONTH = ourGraph.createTimeUnitFunctionOfDate("month", DAY, new FramerImpl(Calendar.MONTH));
-    WEEK = ourGraph.createDateFrameableTimeUnit("week", DAY, 7, new WeekFramerImpl());
+    WEEK = ourGraph.createDateFrameableTimeUnit("week", DAY, 7, WEEK_FRAMER);
     QUARTER = ourGraph.createTimeUnitFunctionOfDate("quarter", MONTH, new FramerImpl(Calendar.MONTH));
     YEAR = ourGraph.createTimeUnitFunctionOfDate("year", DAY, new FramerImpl(Calendar.YEAR));
   }
@@ -150,8 +154,16 @@ public class GPTimeUnitStack implements TimeUnitStack {
       startDate = temp;
     }
     int unitCount = 0;
-    for (; startDate.before(endDate); unitCount++) {
-      startDate = timeUnit.adjustRight(startDate);
+    if (timeUnit == DAY || timeUnit == WEEK) {
+      // Count on primitive values, without creating intermediate dates
+      long endTime = endDate.getTime();
+      for (long time = startDate.getTime(); time < endTime; unitCount++) {
+        time = timeUnit == DAY ? DAY_FRAMER.adjustRight(time) : WEEK_FRAMER.adjustRight(time);
+      }
+    } else {
+      for (; startDate.before(endDate); unitCount++) {
+        startDate = timeUnit.adjustRight(startDate);
+      }
     }
     result = new TimeDurationImpl(timeUnit, unitCount * sign);
     return result;
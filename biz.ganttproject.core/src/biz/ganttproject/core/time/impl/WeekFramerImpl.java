@@ -23,6 +23,7 @@ import java.util.Date;
 
 import biz.ganttproject.core.time.CalendarFactory;
 import biz.ganttproject.core.time.DateFrameable;
+import biz.ganttproject.core.time.TimeEngine;
 
 
 public class WeekFramerImpl implements DateFrameable {
@@ -33,50 +34,79 @@ public class WeekFramerImpl implements DateFrameable {
     Calendar newCalendar();
   }
 
-  private static class DefaultCalendarFactory implements ICalendarFactory {
-    @Override
-    public Calendar newCalendar() {
-      return CalendarFactory.newCalendar();
-    }
-  }
-
   public WeekFramerImpl() {
-    this(new DefaultCalendarFactory());
+    this(null);
   }
 
+  /**
+   * @param calendarFactory factory of calendars which define the first day of week and time zone.
+   *   If {@code null}, the settings of {@link CalendarFactory} are used.
+   */
   public WeekFramerImpl(ICalendarFactory calendarFactory) {
     myCalendarFactory = calendarFactory;
   }
 
   @Override
   public Date adjustRight(Date baseDate) {
-    Calendar c = myCalendarFactory.newCalendar();
-    do {
-      baseDate = myDayFramer.adjustRight(baseDate);
-      c.setTime(baseDate);
-    } while (c.get(Calendar.DAY_OF_WEEK) != c.getFirstDayOfWeek());
-    return c.getTime();
+    return new Date(adjustRight(baseDate.getTime()));
   }
 
   @Override
   public Date adjustLeft(Date baseDate) {
-    Calendar c = myCalendarFactory.newCalendar();
-    c.setTime(myDayFramer.adjustLeft(baseDate));
-    while (c.get(Calendar.DAY_OF_WEEK) != c.getFirstDayOfWeek()) {
-      c.setTime(myDayFramer.adjustLeft(myDayFramer.jumpLeft(c.getTime())));
-    }
-    return c.getTime();
+    return new Date(adjustLeft(baseDate.getTime()));
   }
 
   @Override
   public Date jumpLeft(Date baseDate) {
-    Calendar c = myCalendarFactory.newCalendar();
-    c.setTime(myDayFramer.adjustLeft(baseDate));
-    int dayOfWeek = c.get(Calendar.DAY_OF_WEEK);
+    return new Date(jumpLeft(baseDate.getTime()));
+  }
+
+  public long adjustRight(long baseTime) {
+    TimeEngine engine = getTimeEngine();
+    int firstDayOfWeek = getFirstDayOfWeek();
+    do {
+      baseTime = myDayFramer.adjustRight(baseTime);
+    } while (getDayOfWeek(engine, baseTime) != firstDayOfWeek);
+    return baseTime;
+  }
+
+  public long adjustLeft(long baseTime) {
+    TimeEngine engine = getTimeEngine();
+    int firstDayOfWeek = getFirstDayOfWeek();
+    long result = myDayFramer.adjustLeft(baseTime);
+    while (getDayOfWeek(engine, result) != firstDayOfWeek) {
+      result = myDayFramer.adjustLeft(myDayFramer.jumpLeft(result));
+    }
+    return result;
+  }
+
+  public long jumpLeft(long baseTime) {
+    TimeEngine engine = getTimeEngine();
+    int dayOfWeek = getDayOfWeek(engine, myDayFramer.adjustLeft(baseTime));
     do {
-      baseDate = myDayFramer.jumpLeft(baseDate);
-      c.setTime(baseDate);
-    } while (c.get(Calendar.DAY_OF_WEEK) != dayOfWeek);
-    return c.getTime();
+      baseTime = myDayFramer.jumpLeft(baseTime);
+    } while (getDayOfWeek(engine, baseTime) != dayOfWeek);
+    return baseTime;
+  }
+
+  private static int getDayOfWeek(TimeEngine engine, long time) {
+    // Day of week doesn't depend on the calendar system, so we can use engine even for
+    // the dates which it doesn't support
+    return TimeEngine.getDayOfWeek(engine.getEpochDay(time));
+  }
+
+  private int getFirstDayOfWeek() {
+    return myCalendarFactory == null ? CalendarFactory.getFirstDayOfWeek() : myCalendarFactory.newCalendar().getFirstDayOfWeek();
+  }
+
+  private TimeEngine getTimeEngine() {
+    if (myCalendarFactory == null) {
+      TimeEngine result = CalendarFactory.getTimeEngine();
+      if (result != null) {
+        return result;
+      }
+    }
+    Calendar c = myCalendarFactory == null ? CalendarFactory.newCalendar() : myCalendarFactory.newCalendar();
+    return TimeEngine.getInstance(c.getTimeZone());
   }
-}
\ No newline at end of file
+}
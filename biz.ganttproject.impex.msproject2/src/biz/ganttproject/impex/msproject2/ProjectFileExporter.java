@@ -22,8 +22,8 @@ import java.math.BigDecimal;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import javax.swing.DefaultListModel;
 
@@ -51,15 +51,14 @@ import net.sf.mpxj.ResourceType;
 import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TaskMode;
 import net.sf.mpxj.TimeUnit;
-import net.sourceforge.ganttproject.CustomProperty;
 import net.sourceforge.ganttproject.CustomPropertyClass;
 import net.sourceforge.ganttproject.CustomPropertyDefinition;
-import net.sourceforge.ganttproject.CustomPropertyHolder;
 import net.sourceforge.ganttproject.CustomPropertyManager;
 import net.sourceforge.ganttproject.GanttTask;
 import net.sourceforge.ganttproject.IGanttProject;
 import net.sourceforge.ganttproject.resource.HumanResource;
 import net.sourceforge.ganttproject.resource.HumanResourceManager;
+import net.sourceforge.ganttproject.task.CustomColumnsValues;
 import net.sourceforge.ganttproject.task.ResourceAssignment;
 import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.TaskContainmentHierarchyFacade;
@@ -67,6 +66,8 @@ import net.sourceforge.ganttproject.task.TaskManager;
 import net.sourceforge.ganttproject.task.dependency.TaskDependency;
 import net.sourceforge.ganttproject.task.dependency.TaskDependencySlice;
 
+import com.google.common.collect.Lists;
+
 /**
  * Creates MPXJ ProjectFile from GanttProject's IGanttProject.
  *
@@ -142,10 +143,9 @@ class ProjectFileExporter {
   }
 
   private void exportTasks(Map<Integer, net.sf.mpxj.Task> id2mpxjTask) {
-    Map<CustomPropertyDefinition, FieldType> customProperty_fieldType = new HashMap<CustomPropertyDefinition, FieldType>();
-    collectCustomProperties(getTaskManager().getCustomPropertyManager(), customProperty_fieldType, TaskField.class);
-    for (Entry<CustomPropertyDefinition, FieldType> e : customProperty_fieldType.entrySet()) {
-      myOutputProject.setTaskFieldAlias((TaskField) e.getValue(), e.getKey().getName());
+    List<CustomFieldMapping> customFields = collectCustomProperties(getTaskManager().getCustomPropertyManager(), TaskField.class);
+    for (CustomFieldMapping mapping : customFields) {
+      myOutputProject.setTaskFieldAlias((TaskField) mapping.fieldType, mapping.definition.getName());
     }
     net.sf.mpxj.Task rootTask = myOutputProject.addTask();
     rootTask.setEffortDriven(false);
@@ -164,12 +164,12 @@ class ProjectFileExporter {
 
     int i = 0;
     for (Task t : getTaskHierarchy().getNestedTasks(getTaskHierarchy().getRootTask())) {
-      exportTask(t, null, 1, ++i, id2mpxjTask, customProperty_fieldType);
+      exportTask(t, null, 1, ++i, id2mpxjTask, customFields);
     }
   }
 
   private void exportTask(Task t, net.sf.mpxj.Task mpxjParentTask, int outlineLevel, int ordinalNum,
-      Map<Integer, net.sf.mpxj.Task> id2mpxjTask, Map<CustomPropertyDefinition, FieldType> customProperty_fieldType) {
+      Map<Integer, net.sf.mpxj.Task> id2mpxjTask, List<CustomFieldMapping> customFields) {
     final net.sf.mpxj.Task mpxjTask = mpxjParentTask == null ? myOutputProject.addTask() : mpxjParentTask.addTask();
     mpxjTask.setOutlineLevel(outlineLevel);
     String wbs = (mpxjParentTask == null ? "" : mpxjParentTask.getWBS() + ".") + String.valueOf(ordinalNum);
@@ -200,7 +200,7 @@ class ProjectFileExporter {
     mpxjTask.setRemainingDuration(durations[1]);
     mpxjTask.setPriority(convertPriority(t));
 
-    exportCustomProperties(t.getCustomValues(), customProperty_fieldType, new CustomPropertySetter() {
+    exportCustomProperties(t.getCustomValues(), customFields, new CustomPropertySetter() {
       @Override
       public void set(FieldType ft, Object value) {
         mpxjTask.set(ft, value);
@@ -210,7 +210,7 @@ class ProjectFileExporter {
 
     int i = 0;
     for (Task child : nestedTasks) {
-      exportTask(child, mpxjTask, outlineLevel + 1, ++i, id2mpxjTask, customProperty_fieldType);
+      exportTask(child, mpxjTask, outlineLevel + 1, ++i, id2mpxjTask, customFields);
     }
 
   }
@@ -321,19 +321,18 @@ class ProjectFileExporter {
   }
 
   private void exportResources(Map<Integer, Resource> id2mpxjResource) throws MPXJException {
-    Map<CustomPropertyDefinition, FieldType> customProperty_fieldType = new HashMap<CustomPropertyDefinition, FieldType>();
-    collectCustomProperties(getResourceManager().getCustomPropertyManager(), customProperty_fieldType,
+    List<CustomFieldMapping> customFields = collectCustomProperties(getResourceManager().getCustomPropertyManager(),
         ResourceField.class);
-    for (Entry<CustomPropertyDefinition, FieldType> e : customProperty_fieldType.entrySet()) {
-      myOutputProject.setResourceFieldAlias((ResourceField) e.getValue(), e.getKey().getName());
+    for (CustomFieldMapping mapping : customFields) {
+      myOutputProject.setResourceFieldAlias((ResourceField) mapping.fieldType, mapping.definition.getName());
     }
     for (HumanResource hr : getResourceManager().getResources()) {
-      exportResource(hr, id2mpxjResource, customProperty_fieldType);
+      exportResource(hr, id2mpxjResource, customFields);
     }
   }
 
   private void exportResource(HumanResource hr, Map<Integer, Resource> id2mpxjResource,
-      Map<CustomPropertyDefinition, FieldType> customProperty_fieldType) throws MPXJException {
+      List<CustomFieldMapping> customFields) throws MPXJException {
     final Resource mpxjResource = myOutputProject.addResource();
     mpxjResource.setUniqueID(hr.getId()  + 1);
     mpxjResource.setID(id2mpxjResource.size() + 1);
@@ -346,7 +345,7 @@ class ProjectFileExporter {
     }
 
     exportDaysOff(hr, mpxjResource);
-    exportCustomProperties(hr, customProperty_fieldType, new CustomPropertySetter() {
+    exportCustomProperties(hr.getCustomValues(), customFields, new CustomPropertySetter() {
       @Override
       public void set(FieldType ft, Object value) {
         mpxjResource.set(ft, value);
@@ -355,8 +354,29 @@ class ProjectFileExporter {
     id2mpxjResource.put(hr.getId(), mpxjResource);
   }
 
-  private static <T extends Enum<T>> void collectCustomProperties(CustomPropertyManager customPropertyManager,
-      Map<CustomPropertyDefinition, FieldType> customProperty_fieldType, Class<T> fieldTypeClass) {
+  /**
+   * Custom property definition mapped to MS Project field. Mappings are computed once per
+   * export and then applied to every task or resource.
+   */
+  private static class CustomFieldMapping {
+    final CustomPropertyDefinition definition;
+    final FieldType fieldType;
+    final boolean isDate;
+
+    CustomFieldMapping(CustomPropertyDefinition definition, FieldType fieldType) {
+      this.definition = definition;
+      this.fieldType = fieldType;
+      this.isDate = definition.getPropertyClass() == CustomPropertyClass.DATE;
+    }
+
+    Object convertValue(Object value) {
+      return isDate ? ((GanttCalendar) value).getTime() : value;
+    }
+  }
+
+  private static <T extends Enum<T>> List<CustomFieldMapping> collectCustomProperties(
+      CustomPropertyManager customPropertyManager, Class<T> fieldTypeClass) {
+    List<CustomFieldMapping> result = Lists.newArrayList();
     Map<String, Integer> typeCounter = new HashMap<String, Integer>();
     for (CustomPropertyDefinition def : customPropertyManager.getDefinitions()) {
       Integer count = typeCounter.get(def.getTypeAsString());
@@ -367,8 +387,11 @@ class ProjectFileExporter {
       }
       typeCounter.put(def.getTypeAsString(), count);
       FieldType ft = getFieldType(fieldTypeClass, def, count);
-      customProperty_fieldType.put(def, ft);
+      if (ft != null) {
+        result.add(new CustomFieldMapping(def, ft));
+      }
     }
+    return result;
   }
 
   private static <T extends Enum<T>> FieldType getFieldType(Class<T> enumClass, CustomPropertyDefinition def,
@@ -403,24 +426,15 @@ class ProjectFileExporter {
     void set(FieldType ft, Object value);
   }
 
-  private static void exportCustomProperties(CustomPropertyHolder holder,
-      Map<CustomPropertyDefinition, FieldType> customProperty_fieldType, CustomPropertySetter setter) {
-    for (CustomProperty cp : holder.getCustomProperties()) {
-      FieldType ft = customProperty_fieldType.get(cp.getDefinition());
-      if (ft != null) {
-        setter.set(ft, convertValue(cp));
+  private static void exportCustomProperties(CustomColumnsValues values, List<CustomFieldMapping> customFields,
+      CustomPropertySetter setter) {
+    for (CustomFieldMapping mapping : customFields) {
+      if (values.hasOwnValue(mapping.definition)) {
+        setter.set(mapping.fieldType, mapping.convertValue(values.getValue(mapping.definition)));
       }
     }
   }
 
-  private static Object convertValue(CustomProperty cp) {
-    if (cp.getDefinition().getPropertyClass() == CustomPropertyClass.DATE) {
-      GanttCalendar value = (GanttCalendar) cp.getValue();
-      return value.getTime();
-    }
-    return cp.getValue();
-  }
-
   private void exportDaysOff(HumanResource hr, Resource mpxjResource) throws MPXJException {
     DefaultListModel daysOff = hr.getDaysOff();
     if (!daysOff.isEmpty()) {
@@ -19,12 +19,13 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 package biz.ganttproject.impex.msproject2;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -34,21 +35,25 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
 
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactoryConfigurationError;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.transform.stream.StreamSource;
 
 import net.sf.mpxj.DateRange;
 import net.sf.mpxj.Day;
 import net.sf.mpxj.Duration;
+import net.sf.mpxj.FieldContainer;
 import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectCalendar;
@@ -68,6 +73,7 @@ import net.sf.mpxj.mspdi.MSPDIReader;
 import net.sf.mpxj.reader.ProjectReader;
 import net.sourceforge.ganttproject.CustomPropertyClass;
 import net.sourceforge.ganttproject.CustomPropertyDefinition;
+import net.sourceforge.ganttproject.CustomPropertyManager;
 import net.sourceforge.ganttproject.GPLogger;
 import net.sourceforge.ganttproject.GanttTask;
 import net.sourceforge.ganttproject.IGanttProject;
@@ -85,6 +91,13 @@ import net.sourceforge.ganttproject.task.dependency.constraint.FinishStartConstr
 import net.sourceforge.ganttproject.task.dependency.constraint.StartFinishConstraintImpl;
 import net.sourceforge.ganttproject.task.dependency.constraint.StartStartConstraintImpl;
 import net.sourceforge.ganttproject.util.collect.Pair;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLFilterImpl;
+
 import biz.ganttproject.core.calendar.CalendarEvent;
 import biz.ganttproject.core.calendar.GPCalendarCalc;
 import biz.ganttproject.core.calendar.GanttDaysOff;
@@ -97,16 +110,19 @@ import biz.ganttproject.core.time.impl.GPTimeUnitStack;
 import biz.ganttproject.core.time.impl.GregorianTimeUnitStack;
 
 import com.google.common.base.Function;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 class ProjectFileImporter {
+  private static final String MSPDI_NAMESPACE = "http://schemas.microsoft.com/project";
+  private static final int PIPE_BUFFER_SIZE = 64 * 1024;
   private final IGanttProject myNativeProject;
   private final ProjectReader myReader;
   private final File myForeignFile;
-  private Map<ResourceField, CustomPropertyDefinition> myResourceCustomPropertyMapping;
-  private Map<TaskField, CustomPropertyDefinition> myTaskCustomPropertyMapping;
-  private Map<String, Object> myCustomPropertyUniqueValueMapping = new HashMap<String, Object>();
+  private List<CustomFieldPlan> myResourceCustomFields;
+  private List<CustomFieldPlan> myTaskCustomFields;
   private ColumnList myTaskFields;
   private List<Pair<Level, String>> myErrors = Lists.newArrayList();
   private ProjectFile myProjectFile;
@@ -131,6 +147,78 @@ class ProjectFileImporter {
     void addHoliday(Date date);
   }
 
+  /**
+   * Custom field of the foreign project which has a value in at least one task or resource.
+   * Native custom property definition is created when the first value is imported.
+   * Plan also tracks if all imported values are the same.
+   */
+  private static class CustomFieldPlan {
+    private final FieldType myField;
+    private final String myName;
+    private CustomPropertyDefinition myDefinition;
+    private boolean hasValues = false;
+    private Object myUniqueValue;
+
+    CustomFieldPlan(FieldType field, String alias) {
+      myField = field;
+      myName = alias == null ? field.getName() : alias;
+    }
+
+    CustomPropertyDefinition getDefinition(CustomPropertyManager customPropertyManager) {
+      if (myDefinition == null) {
+        myDefinition = customPropertyManager.createDefinition(convertDataType(myField), myName, null);
+      }
+      return myDefinition;
+    }
+
+    void trackValue(Object value) {
+      if (!hasValues) {
+        hasValues = true;
+        myUniqueValue = value;
+      } else if (!Objects.equal(value, myUniqueValue)) {
+        myUniqueValue = null;
+      }
+    }
+  }
+
+  /**
+   * Fixes projects created by Planta Project, where elements have no associated namespace.
+   * See http://code.google.com/p/ganttproject/issues/detail?id=438
+   */
+  private static class MspdiNamespaceFilter extends XMLFilterImpl {
+    private int myDepth = 0;
+    private boolean isNamespaceDeclared = false;
+
+    MspdiNamespaceFilter(XMLReader parent) {
+      super(parent);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+      if (myDepth++ == 0 && uri.isEmpty()) {
+        isNamespaceDeclared = true;
+        super.startPrefixMapping("", MSPDI_NAMESPACE);
+      }
+      if (uri.isEmpty()) {
+        super.startElement(MSPDI_NAMESPACE, localName, localName, atts);
+      } else {
+        super.startElement(uri, localName, qName, atts);
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+      if (uri.isEmpty()) {
+        super.endElement(MSPDI_NAMESPACE, localName, localName);
+      } else {
+        super.endElement(uri, localName, qName);
+      }
+      if (--myDepth == 0 && isNamespaceDeclared) {
+        super.endPrefixMapping("");
+      }
+    }
+  }
+
   public ProjectFileImporter(IGanttProject nativeProject, TaskTreeUIFacade taskTreeUIFacade, File foreignProjectFile) {
     myNativeProject = nativeProject;
     myTaskFields = taskTreeUIFacade.getVisibleFields();
@@ -142,26 +230,118 @@ class ProjectFileImporter {
     return myNativeProject.getTaskManager();
   }
 
-  private static InputStream createPatchedStream(final File inputFile) throws TransformerConfigurationException,
+  /**
+   * Transformation of MSPDI file which writes the patched document into a pipe in a separate
+   * thread while the reader consumes it, so the document is never kept in memory as a whole.
+   * Transformation failure is kept until the reader is done.
+   */
+  private static class MspdiTransformation implements Runnable {
+    private final Transformer myTransformer;
+    private final SAXSource mySource;
+    private final PipedOutputStream myOutput;
+    private final PipedInputStream myInput;
+    private final Thread myThread;
+    // Written before the output is closed, so the reader sees it once it gets the end of stream
+    private volatile Exception myFailure;
+
+    MspdiTransformation(Transformer transformer, SAXSource source) throws IOException {
+      myTransformer = transformer;
+      mySource = source;
+      myOutput = new PipedOutputStream();
+      myInput = new PipedInputStream(myOutput, PIPE_BUFFER_SIZE);
+      myThread = new Thread(this, "MSPDI transformation");
+      myThread.setDaemon(true);
+    }
+
+    void start() {
+      myThread.start();
+    }
+
+    /**
+     * @return stream of the patched document. The reader may close it, but the pipe stays
+     * open until the transformation is completed or aborted.
+     */
+    InputStream getInput() {
+      return new FilterInputStream(myInput) {
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    @Override
+    public void run() {
+      try {
+        myTransformer.transform(mySource, new StreamResult(myOutput));
+      } catch (TransformerException | RuntimeException e) {
+        myFailure = e;
+      } finally {
+        try {
+          myOutput.close();
+        } catch (IOException e) {
+          GPLogger.log(e);
+        }
+      }
+    }
+
+    /**
+     * Called when the reader has read the document. The rest of the output is drained,
+     * so that the transformation completes.
+     *
+     * @return transformation failure or null
+     */
+    Exception complete() throws IOException, InterruptedException {
+      try {
+        byte[] buffer = new byte[4096];
+        while (myInput.read(buffer) >= 0) {
+        }
+      } finally {
+        myInput.close();
+      }
+      myThread.join();
+      return myFailure;
+    }
+
+    /**
+     * Called when the reader has failed. Closing the input stops the transformation, and
+     * only the failure which happened before that is returned, because it is the likely
+     * reason of the reader failure.
+     *
+     * @return transformation failure or null
+     */
+    Exception abort() {
+      Exception result = myFailure;
+      try {
+        myInput.close();
+      } catch (IOException e) {
+        GPLogger.log(e);
+      }
+      return result;
+    }
+  }
+
+  private static MspdiTransformation startTransformation(final File inputFile) throws TransformerConfigurationException,
       TransformerFactoryConfigurationError, IOException {
-    final Transformer transformer = SAXTransformerFactory.newInstance().newTransformer(
-        new StreamSource(ProjectFileImporter.class.getResourceAsStream("/mspdi_fix.xsl")));
+    final Transformer transformer = SAXTransformerFactory.newInstance().newTransformer();
     transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-
-    ByteArrayOutputStream transformationOut = new ByteArrayOutputStream();
+    final SAXSource source;
     try {
-      transformer.transform(new StreamSource(inputFile), new StreamResult(transformationOut));
-    } catch (TransformerException e) {
-      GPLogger.log(new RuntimeException("Failed to transform file=" + inputFile.getAbsolutePath(), e));
+      SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+      parserFactory.setNamespaceAware(true);
+      source = new SAXSource(new MspdiNamespaceFilter(parserFactory.newSAXParser().getXMLReader()),
+          new InputSource(inputFile.toURI().toString()));
+    } catch (ParserConfigurationException | SAXException e) {
+      throw new TransformerConfigurationException(e);
     }
-
-    return new ByteArrayInputStream(transformationOut.toByteArray());
+    MspdiTransformation result = new MspdiTransformation(transformer, source);
+    result.start();
+    return result;
   }
 
   @SuppressWarnings("unused")
   private List<String> debugTransformation() throws MPXJException {
     try {
-      BufferedReader is = new BufferedReader(new InputStreamReader(createPatchedStream(myForeignFile)));
+      BufferedReader is = new BufferedReader(new InputStreamReader(startTransformation(myForeignFile).getInput()));
       for (String s = is.readLine(); s != null; s = is.readLine()) {
         System.out.println(s);
       }
@@ -172,45 +352,82 @@ class ProjectFileImporter {
   }
 
   public List<Pair<Level, String>> run() throws MPXJException {
-    ProjectFile pf;
+    final ProjectFile pf = readProjectFile();
+    myProjectFile = pf;
+    final Map<Integer, GanttTask> foreignId2nativeTask = new HashMap<Integer, GanttTask>();
+    final Map<Integer, HumanResource> foreignId2nativeResource = new HashMap<Integer, HumanResource>();
+    importCalendar(pf);
+    importResources(pf, foreignId2nativeResource);
+
+    // Scheduler and task events run once, when all tasks and dependencies are imported
+    getTaskManager().runBatch(new Runnable() {
+      @Override
+      public void run() {
+        importTasks(pf, foreignId2nativeTask);
+        hideCustomProperties();
+        importDependencies(pf, foreignId2nativeTask);
+        List<net.sourceforge.ganttproject.task.Task> leafTasks = Lists.newArrayList();
+        for (GanttTask task : foreignId2nativeTask.values()) {
+          if (!getTaskManager().getTaskHierarchy().hasNestedTasks(task)) {
+            leafTasks.add(task);
+          }
+        }
+        getTaskManager().getAlgorithmCollection().getAdjustTaskBoundsAlgorithm().run(leafTasks);
+        importResourceAssignments(pf, foreignId2nativeTask, foreignId2nativeResource);
+      }
+    });
+    return myErrors;
+  }
+
+  private ProjectFile readProjectFile() throws MPXJException {
+    return readProjectFile(myReader, myForeignFile);
+  }
+
+  static ProjectFile readProjectFile(ProjectReader reader, File file) throws MPXJException {
     try {
-      pf = (myReader instanceof MSPDIReader) ? myReader.read(createPatchedStream(myForeignFile))
-          : myReader.read(myForeignFile);
+      if (reader instanceof MSPDIReader) {
+        return readPatchedFile(reader, file);
+      }
+      return reader.read(file);
     } catch (TransformerConfigurationException e) {
-      throw new MPXJException("Failed to read input file=" + myForeignFile.getAbsolutePath() + "<br>" + e.getMessage(),
+      throw new MPXJException("Failed to read input file=" + file.getAbsolutePath() + "<br>" + e.getMessage(),
           e);
     } catch (TransformerFactoryConfigurationError e) {
       throw new MPXJException("Failed to create a transformer factory");
     } catch (IOException e) {
-      throw new MPXJException("Failed to read input file=" + myForeignFile.getAbsolutePath(), e);
+      throw new MPXJException("Failed to read input file=" + file.getAbsolutePath(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MPXJException("Interrupted while reading input file=" + file.getAbsolutePath(), e);
     } catch (RuntimeException e) {
-      throw new MPXJException("Failed to read input file=" + myForeignFile.getAbsolutePath(), e);
+      throw new MPXJException("Failed to read input file=" + file.getAbsolutePath(), e);
     }
-    myProjectFile = pf;
-    Map<Integer, GanttTask> foreignId2nativeTask = new HashMap<Integer, GanttTask>();
-    Map<Integer, HumanResource> foreignId2nativeResource = new HashMap<Integer, HumanResource>();
-    importCalendar(pf);
-    importResources(pf, foreignId2nativeResource);
+  }
 
-    importTasks(pf, foreignId2nativeTask);
-    hideCustomProperties();
-    importDependencies(pf, foreignId2nativeTask);
-    List<net.sourceforge.ganttproject.task.Task> leafTasks = Lists.newArrayList();
-    for (GanttTask task : foreignId2nativeTask.values()) {
-      if (!getTaskManager().getTaskHierarchy().hasNestedTasks(task)) {
-        leafTasks.add(task);
+  private static ProjectFile readPatchedFile(ProjectReader reader, File file) throws MPXJException,
+      TransformerConfigurationException, IOException, InterruptedException {
+    MspdiTransformation transformation = startTransformation(file);
+    ProjectFile result;
+    try {
+      result = reader.read(transformation.getInput());
+    } catch (MPXJException | RuntimeException e) {
+      Exception failure = transformation.abort();
+      if (failure != null) {
+        throw new MPXJException("Failed to transform input file=" + file.getAbsolutePath(), failure);
       }
+      throw e;
     }
-    myNativeProject.getTaskManager().getAlgorithmCollection().getAdjustTaskBoundsAlgorithm().run(leafTasks);
-    importResourceAssignments(pf, foreignId2nativeTask, foreignId2nativeResource);
-
-    return myErrors;
+    Exception failure = transformation.complete();
+    if (failure != null) {
+      throw new MPXJException("Failed to transform input file=" + file.getAbsolutePath(), failure);
+    }
+    return result;
   }
 
   private void hideCustomProperties() {
-    for (Map.Entry<String, Object> it : myCustomPropertyUniqueValueMapping.entrySet()) {
-      if (it.getValue() != null) {
-        hideCustomColumn(it.getKey());
+    for (CustomFieldPlan plan : myTaskCustomFields) {
+      if (plan.myUniqueValue != null) {
+        hideCustomColumn(plan.myDefinition.getName());
       }
     }
   }
@@ -283,7 +500,10 @@ class ProjectFileImporter {
   }
 
   private void importResources(ProjectFile pf, Map<Integer, HumanResource> foreignId2humanResource) {
-    myResourceCustomPropertyMapping = new HashMap<ResourceField, CustomPropertyDefinition>();
+    myResourceCustomFields = Lists.newArrayList();
+    for (FieldType rf : collectPopulatedCustomFields(ResourceField.values(), pf.getAllResources())) {
+      myResourceCustomFields.add(new CustomFieldPlan(rf, pf.getResourceFieldAlias((ResourceField) rf)));
+    }
     for (Resource r : pf.getAllResources()) {
       HumanResource nativeResource = myNativeProject.getHumanResourceManager().newHumanResource();
       nativeResource.setId(r.getUniqueID());
@@ -301,21 +521,13 @@ class ProjectFileImporter {
   }
 
   private void importCustomProperties(Resource r, HumanResource nativeResource) {
-    for (ResourceField rf : ResourceField.values()) {
-      if (r.getCurrentValue(rf) == null || !isCustomField(rf)) {
+    for (CustomFieldPlan plan : myResourceCustomFields) {
+      Object value = r.getCurrentValue(plan.myField);
+      if (value == null) {
         continue;
       }
-      CustomPropertyDefinition def = myResourceCustomPropertyMapping.get(rf);
-      if (def == null) {
-        String typeAsString = convertDataType(rf);
-        String name = r.getParentFile().getResourceFieldAlias(rf);
-        if (name == null) {
-          name = rf.getName();
-        }
-        def = myNativeProject.getResourceCustomPropertyManager().createDefinition(typeAsString, name, null);
-        myResourceCustomPropertyMapping.put(rf, def);
-      }
-      nativeResource.setCustomField(def, convertDataValue(rf, r.getCurrentValue(rf)));
+      CustomPropertyDefinition def = plan.getDefinition(myNativeProject.getResourceCustomPropertyManager());
+      nativeResource.setCustomField(def, convertDataValue(plan.myField, value));
     }
   }
 
@@ -335,7 +547,10 @@ class ProjectFileImporter {
   }
 
   private void importTasks(ProjectFile foreignProject, Map<Integer, GanttTask> foreignId2nativeTask) {
-    myTaskCustomPropertyMapping = new HashMap<TaskField, CustomPropertyDefinition>();
+    myTaskCustomFields = Lists.newArrayList();
+    for (FieldType tf : collectPopulatedCustomFields(TaskField.values(), foreignProject.getAllTasks())) {
+      myTaskCustomFields.add(new CustomFieldPlan(tf, foreignProject.getTaskFieldAlias((TaskField) tf)));
+    }
     for (Task t : foreignProject.getChildTasks()) {
       importTask(foreignProject, t, getTaskManager().getRootTask(), foreignId2nativeTask);
     }
@@ -441,31 +656,15 @@ class ProjectFileImporter {
   }
 
   private void importCustomFields(Task t, GanttTask nativeTask) {
-    for (TaskField tf : TaskField.values()) {
-      if (!isCustomField(tf) || t.getCurrentValue(tf) == null) {
+    for (CustomFieldPlan plan : myTaskCustomFields) {
+      Object foreignValue = t.getCurrentValue(plan.myField);
+      if (foreignValue == null) {
         continue;
       }
-
-      CustomPropertyDefinition def = myTaskCustomPropertyMapping.get(tf);
-      if (def == null) {
-        String typeAsString = convertDataType(tf);
-        String name = t.getParentFile().getTaskFieldAlias(tf);
-        if (name == null) {
-          name = tf.getName();
-        }
-
-        def = myNativeProject.getTaskCustomColumnManager().createDefinition(typeAsString, name, null);
-        myTaskCustomPropertyMapping.put(tf, def);
-      }
+      CustomPropertyDefinition def = plan.getDefinition(myNativeProject.getTaskCustomColumnManager());
       try {
-        Object value = convertDataValue(tf, t.getCurrentValue(tf));
-        if (!myCustomPropertyUniqueValueMapping.containsKey(def.getName())) {
-          myCustomPropertyUniqueValueMapping.put(def.getName(), value);
-        } else {
-          if (!value.equals(myCustomPropertyUniqueValueMapping.get(def.getName()))) {
-            myCustomPropertyUniqueValueMapping.put(def.getName(), null);
-          }
-        }
+        Object value = convertDataValue(plan.myField, foreignValue);
+        plan.trackValue(value);
         nativeTask.getCustomValues().setValue(def, value);
       } catch (CustomColumnsException e) {
         // TODO Auto-generated catch block
@@ -474,14 +673,40 @@ class ProjectFileImporter {
     }
   }
 
+  /**
+   * @return custom fields which have a value in at least one of the containers,
+   *   in the order of the given field array
+   */
+  private static List<FieldType> collectPopulatedCustomFields(FieldType[] fields, List<? extends FieldContainer> containers) {
+    List<FieldType> customFields = Lists.newArrayList();
+    for (FieldType field : fields) {
+      if (isCustomField(field)) {
+        customFields.add(field);
+      }
+    }
+    Set<FieldType> populated = Sets.newHashSet();
+    for (FieldContainer container : containers) {
+      for (FieldType field : customFields) {
+        if (!populated.contains(field) && container.getCurrentValue(field) != null) {
+          populated.add(field);
+        }
+      }
+      if (populated.size() == customFields.size()) {
+        break;
+      }
+    }
+    customFields.retainAll(populated);
+    return customFields;
+  }
+
   private static Pattern CUSTOM_FIELD_NAME = Pattern.compile("^\\p{Lower}+\\p{Digit}+$");
 
-  private boolean isCustomField(FieldType tf) {
+  private static boolean isCustomField(FieldType tf) {
     return tf != null && tf.getName() != null
         && ProjectFileImporter.CUSTOM_FIELD_NAME.matcher(tf.getName().toLowerCase()).matches();
   }
 
-  private String convertDataType(FieldType tf) {
+  private static String convertDataType(FieldType tf) {
     switch (tf.getDataType()) {
     case ACCRUE:
     case CONSTRAINT:
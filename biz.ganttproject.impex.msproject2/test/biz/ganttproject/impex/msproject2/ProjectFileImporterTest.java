@@ -0,0 +1,93 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.impex.msproject2;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import javax.xml.transform.TransformerException;
+
+import junit.framework.TestCase;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.mspdi.MSPDIReader;
+
+/**
+ * Tests for reading MSPDI files through the namespace patching transformation
+ */
+public class ProjectFileImporterTest extends TestCase {
+  private static final String TASKS = "<Tasks>"
+      + "<Task><UID>1</UID><ID>1</ID><Name>Design</Name><Start>2014-01-06T08:00:00</Start>"
+      + "<Finish>2014-01-07T17:00:00</Finish></Task>"
+      + "<Task><UID>2</UID><ID>2</ID><Name>Build</Name><Start>2014-01-08T08:00:00</Start>"
+      + "<Finish>2014-01-10T17:00:00</Finish></Task>"
+      + "</Tasks>";
+
+  private File myFile;
+
+  @Override
+  protected void tearDown() throws Exception {
+    if (myFile != null) {
+      myFile.delete();
+    }
+    super.tearDown();
+  }
+
+  private File createFile(String content) throws IOException {
+    myFile = File.createTempFile("mspdi", ".xml");
+    Files.write(myFile.toPath(), content.getBytes(Charset.forName("UTF-8")));
+    return myFile;
+  }
+
+  private static void assertTasks(ProjectFile projectFile) {
+    Task design = projectFile.getTaskByUniqueID(1);
+    Task build = projectFile.getTaskByUniqueID(2);
+    assertNotNull(design);
+    assertNotNull(build);
+    assertEquals("Design", design.getName());
+    assertEquals("Build", build.getName());
+  }
+
+  public void testNamespaceLessInput() throws Exception {
+    // Planta Project writes MSPDI elements without the namespace
+    File file = createFile("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<Project><Name>Planta</Name>" + TASKS + "</Project>");
+    assertTasks(ProjectFileImporter.readProjectFile(new MSPDIReader(), file));
+  }
+
+  public void testNamespacedInput() throws Exception {
+    File file = createFile("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<Project xmlns=\"http://schemas.microsoft.com/project\"><Name>MS Project</Name>" + TASKS + "</Project>");
+    assertTasks(ProjectFileImporter.readProjectFile(new MSPDIReader(), file));
+  }
+
+  public void testTransformationFailureIsReported() throws Exception {
+    File file = createFile("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<Project><Name>Broken</Name>" + TASKS + "<Tasks></Project>");
+    try {
+      ProjectFileImporter.readProjectFile(new MSPDIReader(), file);
+      fail("Malformed input must not be read");
+    } catch (MPXJException e) {
+      assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof TransformerException);
+    }
+  }
+}
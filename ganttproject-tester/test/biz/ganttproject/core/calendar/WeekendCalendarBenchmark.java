@@ -0,0 +1,168 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.core.calendar;
+
+import java.text.DateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import biz.ganttproject.core.calendar.GPCalendar.DayMask;
+import biz.ganttproject.core.calendar.GPCalendar.DayType;
+import biz.ganttproject.core.time.CalendarFactory;
+import biz.ganttproject.core.time.impl.GPTimeUnitStack;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Compares day mask lookups and closest working day search in {@link WeekendCalendarImpl}
+ * with the day mask index against the direct computation from holiday maps.
+ *
+ * Calendar is configured with the default weekends and a national holiday set: ten recurring
+ * holidays and a few one-off holidays and working days per year. Queries run over every day
+ * in a 10-year range. Run with main() and compare ns/op figures.
+ */
+public class WeekendCalendarBenchmark {
+  static {
+    new CalendarFactory() {
+      {
+        setLocaleApi(new LocaleApi() {
+          @Override
+          public Locale getLocale() {
+            return Locale.US;
+          }
+          @Override
+          public DateFormat getShortDateFormat() {
+            return DateFormat.getDateInstance(DateFormat.SHORT, Locale.US);
+          }
+        });
+      }
+    };
+  }
+
+  private static final int YEARS = 10;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 10;
+
+  private static List<CalendarEvent> createNationalHolidays() {
+    List<CalendarEvent> result = Lists.newArrayList();
+    int[][] recurring = new int[][] {{0, 1}, {0, 7}, {2, 8}, {4, 1}, {4, 9}, {5, 12}, {10, 4}, {11, 24}, {11, 25}, {11, 31}};
+    for (int[] monthDay : recurring) {
+      result.add(CalendarEvent.newEvent(CalendarFactory.createGanttCalendar(2014, monthDay[0], monthDay[1]).getTime(),
+          true, CalendarEvent.Type.HOLIDAY, "Recurring holiday", null));
+    }
+    for (int year = 2014; year < 2014 + YEARS; year++) {
+      result.add(CalendarEvent.newEvent(CalendarFactory.createGanttCalendar(year, 0, 2).getTime(),
+          false, CalendarEvent.Type.HOLIDAY, "Bridge holiday", null));
+      result.add(CalendarEvent.newEvent(CalendarFactory.createGanttCalendar(year, 4, 3).getTime(),
+          false, CalendarEvent.Type.HOLIDAY, "Bridge holiday", null));
+      result.add(CalendarEvent.newEvent(CalendarFactory.createGanttCalendar(year, 0, 11).getTime(),
+          false, CalendarEvent.Type.WORKING_DAY, "Working weekend", null));
+    }
+    return result;
+  }
+
+  private static Date[] createDays() {
+    Calendar c = CalendarFactory.newCalendar();
+    c.setTime(CalendarFactory.createGanttCalendar(2014, 0, 1).getTime());
+    List<Date> result = Lists.newArrayList();
+    for (int year = 0; year < YEARS; year++) {
+      for (int day = c.getActualMaximum(Calendar.DAY_OF_YEAR); day > 0; day--) {
+        result.add(c.getTime());
+        c.add(Calendar.DATE, 1);
+      }
+    }
+    return result.toArray(new Date[result.size()]);
+  }
+
+  private static abstract class Case {
+    private final String myName;
+
+    Case(String name) {
+      myName = name;
+    }
+
+    abstract long run(Date[] days);
+
+    void measure(Date[] days) {
+      long blackhole = 0;
+      for (int i = 0; i < WARMUP_ROUNDS; i++) {
+        blackhole += run(days);
+      }
+      long start = System.nanoTime();
+      for (int i = 0; i < MEASURED_ROUNDS; i++) {
+        blackhole += run(days);
+      }
+      long elapsed = System.nanoTime() - start;
+      System.out.println(String.format("%-40s %10.1f ns/op (%d)", myName, (double) elapsed / MEASURED_ROUNDS / days.length, blackhole));
+    }
+  }
+
+  public static void main(String[] args) {
+    final WeekendCalendarImpl calendar = new WeekendCalendarImpl();
+    calendar.setPublicHolidays(createNationalHolidays());
+    final Date[] days = createDays();
+
+    new Case("getDayMask, direct computation") {
+      @Override
+      long run(Date[] days) {
+        long result = 0;
+        for (Date day : days) {
+          result += calendar.computeDayMask(day);
+        }
+        return result;
+      }
+    }.measure(days);
+    new Case("getDayMask, index") {
+      @Override
+      long run(Date[] days) {
+        long result = 0;
+        for (Date day : days) {
+          result += calendar.getDayMask(day);
+        }
+        return result;
+      }
+    }.measure(days);
+    new Case("findClosest working, direct computation") {
+      @Override
+      long run(Date[] days) {
+        long result = 0;
+        for (Date day : days) {
+          Date next = GPTimeUnitStack.DAY.adjustRight(day);
+          while ((calendar.computeDayMask(next) & DayMask.WORKING) == 0) {
+            next = GPTimeUnitStack.DAY.adjustRight(next);
+          }
+          result += next.getTime();
+        }
+        return result;
+      }
+    }.measure(days);
+    new Case("findClosest working, index") {
+      @Override
+      long run(Date[] days) {
+        long result = 0;
+        for (Date day : days) {
+          result += calendar.findClosest(day, GPTimeUnitStack.DAY, GPCalendarCalc.MoveDirection.FORWARD, DayType.WORKING).getTime();
+        }
+        return result;
+      }
+    }.measure(days);
+  }
+}
@@ -27,6 +27,7 @@ import biz.ganttproject.core.calendar.CalendarEvent.Type;
 import biz.ganttproject.core.calendar.GPCalendar.DayMask;
 import biz.ganttproject.core.calendar.GPCalendar.DayType;
 import biz.ganttproject.core.time.CalendarFactory;
+import biz.ganttproject.core.time.impl.GPTimeUnitStack;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Collections2;
@@ -130,4 +131,42 @@ public class WeekendCalendarImplTest extends TestCase {
     assertEquals(0, calendar.getDayMask(CalendarFactory.createGanttCalendar(2014, 0, 11).getTime()) & DayMask.WORKING);
     assertEquals(DayMask.WEEKEND, calendar.getDayMask(CalendarFactory.createGanttCalendar(2014, 0, 11).getTime()) & DayMask.WEEKEND);
   }
+
+  public void testIndexMatchesComputedMasks() {
+    WeekendCalendarImpl calendar = new WeekendCalendarImpl();
+    calendar.setPublicHolidays(TEST_EVENTS);
+    Calendar c = CalendarFactory.newCalendar();
+    c.setTime(CalendarFactory.createGanttCalendar(2010, 0, 1).getTime());
+    for (int i = 0; i < 3660; i++) {
+      assertEquals(c.getTime().toString(), calendar.computeDayMask(c.getTime()), calendar.getDayMask(c.getTime()));
+      c.add(Calendar.DATE, 1);
+    }
+  }
+
+  public void testIndexIsInvalidatedOnChange() {
+    WeekendCalendarImpl calendar = new WeekendCalendarImpl();
+    // Jan 1, 2014 is Wednesday
+    assertEquals(DayMask.WORKING, calendar.getDayMask(CalendarFactory.createGanttCalendar(2014, 0, 1).getTime()));
+    calendar.setPublicHolidays(TEST_EVENTS);
+    assertEquals(DayMask.HOLIDAY, calendar.getDayMask(CalendarFactory.createGanttCalendar(2014, 0, 1).getTime()));
+    calendar.setWeekDayType(Calendar.WEDNESDAY, DayType.WEEKEND);
+    assertEquals(DayMask.HOLIDAY | DayMask.WEEKEND, calendar.getDayMask(CalendarFactory.createGanttCalendar(2014, 0, 1).getTime()));
+  }
+
+  public void testFindClosestSkipsHolidaysAndWeekends() {
+    WeekendCalendarImpl calendar = new WeekendCalendarImpl();
+    calendar.setPublicHolidays(ImmutableList.of(
+        CalendarEvent.newEvent(CalendarFactory.createGanttCalendar(2014, 0, 6).getTime(), false, CalendarEvent.Type.HOLIDAY, "Jan 6, Monday", null)
+    ));
+    // From Friday Jan 3 forward the closest working day is Tuesday Jan 7
+    assertEquals(CalendarFactory.createGanttCalendar(2014, 0, 7).getTime(), calendar.findClosest(
+        CalendarFactory.createGanttCalendar(2014, 0, 3).getTime(), GPTimeUnitStack.DAY, GPCalendarCalc.MoveDirection.FORWARD, DayType.WORKING));
+    // From Tuesday Jan 7 backward the closest working day is Friday Jan 3
+    assertEquals(CalendarFactory.createGanttCalendar(2014, 0, 3).getTime(), calendar.findClosest(
+        CalendarFactory.createGanttCalendar(2014, 0, 7).getTime(), GPTimeUnitStack.DAY, GPCalendarCalc.MoveDirection.BACKWARD, DayType.WORKING));
+    // Limit is reached before any working day is found
+    assertNull(calendar.findClosest(
+        CalendarFactory.createGanttCalendar(2014, 0, 3).getTime(), GPTimeUnitStack.DAY, GPCalendarCalc.MoveDirection.FORWARD, DayType.WORKING,
+        CalendarFactory.createGanttCalendar(2014, 0, 5).getTime()));
+  }
 }
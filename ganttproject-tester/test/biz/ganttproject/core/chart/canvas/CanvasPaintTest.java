@@ -0,0 +1,100 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.core.chart.canvas;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for painting a part of {@link Canvas}
+ */
+public class CanvasPaintTest extends TestCase {
+  private static class RecordingPainter implements Painter {
+    private final List<Object> myPainted = Lists.newArrayList();
+
+    @Override
+    public void prePaint() {
+    }
+
+    @Override
+    public void paint(Canvas.Rectangle rectangle) {
+      myPainted.add(rectangle);
+    }
+
+    @Override
+    public void paint(Canvas.Line line) {
+      myPainted.add(line);
+    }
+
+    @Override
+    public void paint(Canvas.Text next) {
+      myPainted.add(next);
+    }
+
+    @Override
+    public void paint(Canvas.TextGroup textGroup) {
+      myPainted.add(textGroup);
+    }
+
+    @Override
+    public void paint(Canvas.Polygon p) {
+      myPainted.add(p);
+    }
+  }
+
+  public void testShapesOutsideAreCulled() {
+    Canvas canvas = new Canvas();
+    Canvas.Rectangle top = canvas.createRectangle(0, 0, 100, 20);
+    Canvas.Rectangle bottom = canvas.createRectangle(0, 1000, 100, 20);
+    Canvas.Line line = canvas.createLine(0, 10, 0, 1010);
+    Canvas.Polygon polygon = canvas.createPolygon(0, 1000, 10, 1010, 0, 1020);
+
+    RecordingPainter painter = new RecordingPainter();
+    canvas.paint(painter, 0, 100);
+    assertEquals(Lists.newArrayList(top, line), painter.myPainted);
+
+    painter = new RecordingPainter();
+    canvas.paint(painter, 990, 1100);
+    assertEquals(Lists.newArrayList(bottom, polygon, line), painter.myPainted);
+  }
+
+  public void testTextsAreCulledWithMargin() {
+    Canvas canvas = new Canvas();
+    Canvas.Text near = canvas.createText(0, 150, "near");
+    canvas.createText(0, 1000, "far");
+
+    RecordingPainter painter = new RecordingPainter();
+    canvas.paint(painter, 0, 100);
+    assertEquals(Lists.newArrayList(near), painter.myPainted);
+  }
+
+  public void testUnboundedPaintPaintsEverything() {
+    Canvas canvas = new Canvas();
+    canvas.createRectangle(0, -1000, 100, 20);
+    canvas.createRectangle(0, 100000, 100, 20);
+    canvas.createText(0, 50000, "text");
+
+    RecordingPainter painter = new RecordingPainter();
+    canvas.paint(painter);
+    assertEquals(3, painter.myPainted.size());
+  }
+}
@@ -0,0 +1,73 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.core.chart.canvas;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link GridSpatialIndex}
+ */
+public class GridSpatialIndexTest extends TestCase {
+  public void testFirstInsertedWins() {
+    GridSpatialIndex<String> index = new GridSpatialIndex<String>();
+    index.put("big", 0, 100, 1000, 100);
+    index.put("small", 10, 20, 10, 10);
+    assertEquals("big", index.get(15, 15));
+
+    index.clear();
+    index.put("small", 10, 20, 10, 10);
+    index.put("big", 0, 100, 1000, 100);
+    assertEquals("small", index.get(15, 15));
+    assertEquals("big", index.get(500, 50));
+    assertNull(index.get(1001, 50));
+  }
+
+  public void testPadding() {
+    GridSpatialIndex<String> index = new GridSpatialIndex<String>(16, 16);
+    index.put("rect", 100, 50, 20, 10);
+    assertNull(index.get(95, 45));
+    assertEquals("rect", index.get(95, 5, 45, 0));
+    assertNull(index.get(110, 55));
+    assertEquals("rect", index.get(110, 0, 55, 5));
+  }
+
+  public void testMatchesDummyIndex() {
+    Random random = new Random(42);
+    GridSpatialIndex<Integer> gridIndex = new GridSpatialIndex<Integer>();
+    DummySpatialIndex<Integer> dummyIndex = new DummySpatialIndex<Integer>();
+    for (int i = 0; i < 2000; i++) {
+      int x = random.nextInt(5000) - 500;
+      int y = random.nextInt(5000) - 500;
+      // Mostly bar-like rectangles and a few huge ones
+      int width = random.nextInt(10) == 0 ? random.nextInt(5000) : random.nextInt(200);
+      int height = random.nextInt(10) == 0 ? random.nextInt(5000) : random.nextInt(30);
+      gridIndex.put(i, x, y, width, height);
+      dummyIndex.put(i, x, y, width, height);
+    }
+    for (int i = 0; i < 20000; i++) {
+      int x = random.nextInt(6000) - 1000;
+      int y = random.nextInt(6000) - 1000;
+      int xpadding = random.nextInt(5);
+      int ypadding = random.nextInt(5);
+      assertEquals(dummyIndex.get(x, xpadding, y, ypadding), gridIndex.get(x, xpadding, y, ypadding));
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.core.chart.canvas;
+
+import java.util.Random;
+
+/**
+ * Compares hit-test latency of {@link GridSpatialIndex} against {@link DummySpatialIndex}.
+ *
+ * The scene imitates a Gantt chart with 10000 rows: every row has one or two task bars
+ * and there are full-height weekend columns. Queries are random points with a small padding,
+ * like the ones which come from mouse moves. Run with main() and compare ns/op figures.
+ */
+public class SpatialIndexBenchmark {
+  private static final int ROWS = 10000;
+  private static final int ROW_HEIGHT = 24;
+  private static final int CHART_WIDTH = 4000;
+  private static final int QUERIES = 20000;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 10;
+
+  private static void fill(SpatialIndex<Integer> index) {
+    Random random = new Random(42);
+    int value = 0;
+    for (int column = 0; column < CHART_WIDTH; column += 140) {
+      index.put(value++, column, ROWS * ROW_HEIGHT, 40, ROWS * ROW_HEIGHT);
+    }
+    for (int row = 0; row < ROWS; row++) {
+      int bars = 1 + random.nextInt(2);
+      for (int i = 0; i < bars; i++) {
+        int x = random.nextInt(CHART_WIDTH);
+        index.put(value++, x, row * ROW_HEIGHT + 20, 20 + random.nextInt(400), 16);
+      }
+    }
+  }
+
+  private static int[] createQueries() {
+    Random random = new Random(7);
+    int[] result = new int[QUERIES * 2];
+    for (int i = 0; i < QUERIES; i++) {
+      result[i * 2] = random.nextInt(CHART_WIDTH);
+      result[i * 2 + 1] = random.nextInt(ROWS * ROW_HEIGHT);
+    }
+    return result;
+  }
+
+  private static long run(SpatialIndex<Integer> index, int[] queries) {
+    long result = 0;
+    for (int i = 0; i < queries.length; i += 2) {
+      Integer value = index.get(queries[i], 4, queries[i + 1], 0);
+      result += value == null ? 0 : value;
+    }
+    return result;
+  }
+
+  private static void measure(String name, SpatialIndex<Integer> index, int[] queries) {
+    long blackhole = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      blackhole += run(index, queries);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      blackhole += run(index, queries);
+    }
+    long elapsed = System.nanoTime() - start;
+    System.out.println(String.format("%-30s %10.1f ns/op (%d)", name, (double) elapsed / MEASURED_ROUNDS / QUERIES, blackhole));
+  }
+
+  public static void main(String[] args) {
+    DummySpatialIndex<Integer> dummyIndex = new DummySpatialIndex<Integer>();
+    fill(dummyIndex);
+    GridSpatialIndex<Integer> gridIndex = new GridSpatialIndex<Integer>();
+    fill(gridIndex);
+    int[] queries = createQueries();
+    measure("DummySpatialIndex", dummyIndex, queries);
+    measure("GridSpatialIndex", gridIndex, queries);
+  }
+}
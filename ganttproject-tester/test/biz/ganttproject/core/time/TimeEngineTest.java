@@ -0,0 +1,160 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package biz.ganttproject.core.time;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link TimeEngine} which compare its results with {@link GregorianCalendar}.
+ */
+public class TimeEngineTest extends TestCase {
+  private static final String[] ZONES = new String[] {
+    "UTC", "Europe/Berlin", "America/New_York", "America/Sao_Paulo", "Australia/Lord_Howe", "Asia/Kolkata"
+  };
+  private static final int[] FIELDS = new int[] {
+    Calendar.YEAR, Calendar.MONTH, Calendar.DATE, Calendar.DAY_OF_WEEK, Calendar.HOUR, Calendar.MINUTE
+  };
+  // Odd step makes samples fall on different times of the day
+  private static final long STEP = 13 * TimeEngine.HOUR_MILLIS + 13 * TimeEngine.MINUTE_MILLIS + 17001;
+
+  public void testCivilDates() {
+    Calendar c = new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.US);
+    c.clear();
+    c.set(1700, Calendar.JANUARY, 1);
+    for (int i = 0; i < 200000; i++) {
+      long epochDay = TimeEngine.floorDiv(c.getTimeInMillis(), TimeEngine.DAY_MILLIS);
+      long civil = TimeEngine.toCivil(epochDay);
+      assertEquals(c.get(Calendar.YEAR), TimeEngine.getYear(civil));
+      assertEquals(c.get(Calendar.MONTH) + 1, TimeEngine.getMonth(civil));
+      assertEquals(c.get(Calendar.DAY_OF_MONTH), TimeEngine.getDay(civil));
+      assertEquals(epochDay, TimeEngine.fromCivil(TimeEngine.getYear(civil), TimeEngine.getMonth(civil), TimeEngine.getDay(civil)));
+      assertEquals(c.get(Calendar.DAY_OF_WEEK), TimeEngine.getDayOfWeek(epochDay));
+      c.add(Calendar.DATE, 1);
+    }
+  }
+
+  public void testOffsetsAndDayStarts() {
+    for (String zoneId : ZONES) {
+      TimeZone zone = TimeZone.getTimeZone(zoneId);
+      TimeEngine engine = TimeEngine.getInstance(zone);
+      Calendar c = new GregorianCalendar(zone, Locale.US);
+      for (long time = newInstant(zone, 1990); time < newInstant(zone, 2030); time += STEP) {
+        assertEquals(zoneId + " " + new Date(time), zone.getOffset(time), engine.getOffset(time));
+        c.setTimeInMillis(time);
+        c.set(Calendar.HOUR_OF_DAY, 0);
+        c.set(Calendar.MINUTE, 0);
+        c.set(Calendar.SECOND, 0);
+        c.set(Calendar.MILLISECOND, 0);
+        assertEquals(zoneId + " " + new Date(time), c.getTimeInMillis(), engine.getDayStart(engine.getEpochDay(time)));
+      }
+    }
+  }
+
+  public void testFramingMatchesGregorianCalendar() {
+    for (String zoneId : ZONES) {
+      TimeZone zone = TimeZone.getTimeZone(zoneId);
+      TimeEngine engine = TimeEngine.getInstance(zone);
+      for (long time = newInstant(zone, 2008); time < newInstant(zone, 2020); time += STEP) {
+        for (int field : FIELDS) {
+          String message = zoneId + " field=" + field + " " + new Date(time);
+          assertEquals(message, calendarAdjustLeft(zone, time, field), engine.adjustLeft(time, field));
+          assertEquals(message, calendarAdjustRight(zone, time, field),
+              engine.add(engine.adjustLeft(time, field), field, 1));
+          assertEquals(message, calendarAdd(zone, time, field, -1), engine.add(time, field, -1));
+          assertEquals(message, calendarAdd(zone, time, field, 3), engine.add(time, field, 3));
+        }
+      }
+    }
+  }
+
+  public void testFramingAroundOffsetTransitions() {
+    for (String zoneId : ZONES) {
+      TimeZone zone = TimeZone.getTimeZone(zoneId);
+      TimeEngine engine = TimeEngine.getInstance(zone);
+      for (long day = newInstant(zone, 2010); day < newInstant(zone, 2020); day += TimeEngine.DAY_MILLIS) {
+        if (zone.getOffset(day) == zone.getOffset(day + TimeEngine.DAY_MILLIS)) {
+          continue;
+        }
+        for (long time = day - TimeEngine.DAY_MILLIS; time < day + 2 * TimeEngine.DAY_MILLIS; time += 15 * TimeEngine.MINUTE_MILLIS) {
+          for (int field : FIELDS) {
+            String message = zoneId + " field=" + field + " " + new Date(time);
+            assertEquals(message, calendarAdjustLeft(zone, time, field), engine.adjustLeft(time, field));
+            assertEquals(message, calendarAdjustRight(zone, time, field),
+                engine.add(engine.adjustLeft(time, field), field, 1));
+            assertEquals(message, calendarAdd(zone, time, field, -1), engine.add(time, field, -1));
+          }
+        }
+      }
+    }
+  }
+
+  public void testMonthEndIsPinned() {
+    TimeZone zone = TimeZone.getTimeZone("Europe/Berlin");
+    TimeEngine engine = TimeEngine.getInstance(zone);
+    Calendar c = new GregorianCalendar(zone, Locale.US);
+    c.clear();
+    c.set(2012, Calendar.JANUARY, 31, 10, 0);
+    long result = engine.add(c.getTimeInMillis(), Calendar.MONTH, 1);
+    c.set(2012, Calendar.FEBRUARY, 29, 10, 0);
+    assertEquals(c.getTimeInMillis(), result);
+
+    result = engine.add(c.getTimeInMillis(), Calendar.YEAR, 1);
+    c.set(2013, Calendar.FEBRUARY, 28, 10, 0);
+    assertEquals(c.getTimeInMillis(), result);
+  }
+
+  private static long newInstant(TimeZone zone, int year) {
+    Calendar c = new GregorianCalendar(zone, Locale.US);
+    c.clear();
+    c.set(year, Calendar.JANUARY, 1);
+    return c.getTimeInMillis();
+  }
+
+  private static long calendarAdjustLeft(TimeZone zone, long time, int field) {
+    Calendar c = new GregorianCalendar(zone, Locale.US);
+    c.setTimeInMillis(time);
+    for (int i = field + 1; i <= Calendar.MILLISECOND; i++) {
+      c.clear(i);
+    }
+    return c.getTimeInMillis();
+  }
+
+  private static long calendarAdjustRight(TimeZone zone, long time, int field) {
+    Calendar c = new GregorianCalendar(zone, Locale.US);
+    c.setTimeInMillis(time);
+    for (int i = field + 1; i <= Calendar.MILLISECOND; i++) {
+      c.clear(i);
+    }
+    c.add(field, 1);
+    return c.getTimeInMillis();
+  }
+
+  private static long calendarAdd(TimeZone zone, long time, int field, int amount) {
+    Calendar c = new GregorianCalendar(zone, Locale.US);
+    c.setTimeInMillis(time);
+    c.add(field, amount);
+    return c.getTimeInMillis();
+  }
+}
@@ -0,0 +1,84 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.chart;
+
+import java.util.List;
+
+import net.sourceforge.ganttproject.GanttPreviousState;
+import net.sourceforge.ganttproject.GanttPreviousStateTask;
+import net.sourceforge.ganttproject.TestSetupHelper;
+import net.sourceforge.ganttproject.test.task.TaskTestCase;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for {@link BaselineIndex}
+ */
+public class BaselineIndexTest extends TaskTestCase {
+  public void testLookupById() {
+    List<GanttPreviousStateTask> tasks = Lists.newArrayList();
+    for (int i = 0; i < 1000; i++) {
+      // Ids which collide in the low bits
+      tasks.add(new GanttPreviousStateTask(i * 1024, TestSetupHelper.newMonday(), 1 + i % 5, false, false));
+    }
+    BaselineIndex index = new BaselineIndex(tasks);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, index.indexOf(i * 1024));
+      assertEquals(1 + i % 5, index.get(i).getDuration());
+    }
+    assertEquals(-1, index.indexOf(1));
+    assertEquals(-1, index.indexOf(-1024));
+  }
+
+  public void testFirstRecordWins() {
+    List<GanttPreviousStateTask> tasks = Lists.newArrayList(
+        new GanttPreviousStateTask(0, TestSetupHelper.newMonday(), 1, false, false),
+        new GanttPreviousStateTask(0, TestSetupHelper.newTuesday(), 1, false, false));
+    BaselineIndex index = new BaselineIndex(tasks);
+    assertEquals(0, index.indexOf(0));
+    assertEquals(TestSetupHelper.newMonday().getTime(), index.getStartDate(0));
+  }
+
+  public void testEndDates() {
+    List<GanttPreviousStateTask> tasks = Lists.newArrayList(
+        new GanttPreviousStateTask(1, TestSetupHelper.newMonday(), 2, false, false),
+        new GanttPreviousStateTask(2, TestSetupHelper.newWendesday(), 0, true, false));
+    BaselineIndex index = new BaselineIndex(tasks);
+    assertEquals(TestSetupHelper.newWendesday().getTime(), index.getEndDate(0, getTaskManager()));
+    assertEquals(TestSetupHelper.newWendesday().getTime(), index.getEndDate(1, getTaskManager()));
+    index.resetEndDates();
+    assertEquals(TestSetupHelper.newWendesday().getTime(), index.getEndDate(0, getTaskManager()));
+  }
+
+  public void testBaselineIsReadFromMemoryAfterSave() throws Exception {
+    List<GanttPreviousStateTask> tasks = Lists.newArrayList(
+        new GanttPreviousStateTask(1, TestSetupHelper.newMonday(), 2, false, false));
+    GanttPreviousState baseline = new GanttPreviousState("test", tasks);
+    baseline.init();
+    baseline.saveFile();
+    try {
+      List<GanttPreviousStateTask> loaded = baseline.load();
+      assertSame(loaded, baseline.load());
+      assertEquals(1, loaded.size());
+      assertEquals(2, loaded.get(0).getDuration());
+    } finally {
+      baseline.remove();
+    }
+  }
+}
@@ -98,4 +98,21 @@ public class TaskRendererImplTest extends TestCase {
     }
   }
 
+  public void testVerticalPartitioningWithRows() {
+    TaskManager taskManager = TestSetupHelper.newTaskManagerBuilder().build();
+    List<Task> allTasks = createTasks(taskManager, 10);
+    {
+      VerticalPartitioning partitioning = new TaskRendererImpl2.VerticalPartitioning(allTasks.subList(3, 7));
+      partitioning.build(allTasks, 3);
+      assertEquals(allTasks.subList(0, 3), partitioning.aboveViewport);
+      assertEquals(allTasks.subList(7, 10), partitioning.belowViewport);
+    }
+    {
+      VerticalPartitioning partitioning = new TaskRendererImpl2.VerticalPartitioning(allTasks.subList(8, 10));
+      partitioning.build(allTasks, 8);
+      assertEquals(8, partitioning.aboveViewport.size());
+      assertTrue(partitioning.belowViewport.isEmpty());
+    }
+  }
+
 }
@@ -0,0 +1,69 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.chart;
+
+import java.util.List;
+
+import org.jdesktop.swingx.JXTreeTable;
+import org.jdesktop.swingx.treetable.DefaultMutableTreeTableNode;
+import org.jdesktop.swingx.treetable.DefaultTreeTableModel;
+
+import com.google.common.collect.Lists;
+
+import net.sourceforge.ganttproject.TreeUtil;
+import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.test.task.TaskTestCase;
+
+/**
+ * Tests for the flattened row model of the task tree
+ */
+public class VisibleNodesFilterTest extends TaskTestCase {
+  private static final int ROW_HEIGHT = 20;
+
+  public void testRowsFollowExpansionAndStructure() {
+    List<Task> tasks = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      tasks.add(createTask());
+    }
+    DefaultMutableTreeTableNode root = new DefaultMutableTreeTableNode();
+    DefaultMutableTreeTableNode node0 = new DefaultMutableTreeTableNode(tasks.get(0));
+    DefaultMutableTreeTableNode node1 = new DefaultMutableTreeTableNode(tasks.get(1));
+    root.add(node0);
+    node0.add(node1);
+    node0.add(new DefaultMutableTreeTableNode(tasks.get(2)));
+    root.add(new DefaultMutableTreeTableNode(tasks.get(3)));
+    DefaultTreeTableModel model = new DefaultTreeTableModel(root);
+    JXTreeTable tree = new JXTreeTable(model);
+    tree.setRootVisible(false);
+    tree.expandAll();
+
+    VisibleNodesFilter filter = new VisibleNodesFilter(tree);
+    assertEquals(Lists.newArrayList(tasks.get(0), tasks.get(1), tasks.get(2), tasks.get(3)), filter.getRows());
+    assertEquals(Lists.newArrayList(tasks.get(1), tasks.get(2)), filter.getVisibleNodes(25, 20, ROW_HEIGHT));
+    assertEquals(1, filter.findFirstRow(25, ROW_HEIGHT));
+    assertEquals(4, filter.findFirstRow(100, ROW_HEIGHT));
+
+    tree.collapsePath(TreeUtil.createPath(node0));
+    assertEquals(Lists.newArrayList(tasks.get(0), tasks.get(3)), filter.getRows());
+    assertEquals(Lists.newArrayList(tasks.get(3)), filter.getVisibleNodes(20, 10, ROW_HEIGHT));
+
+    model.insertNodeInto(new DefaultMutableTreeTableNode(tasks.get(4)), root, 2);
+    assertEquals(Lists.newArrayList(tasks.get(0), tasks.get(3), tasks.get(4)), filter.getRows());
+  }
+}
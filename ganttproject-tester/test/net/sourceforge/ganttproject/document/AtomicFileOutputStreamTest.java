@@ -0,0 +1,94 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.document;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Tests for {@link AtomicFileOutputStream}
+ */
+public class AtomicFileOutputStreamTest extends TestCase {
+  private File myDir;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    myDir = Files.createTempDirectory("atomic-output").toFile();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    for (File f : myDir.listFiles()) {
+      f.delete();
+    }
+    myDir.delete();
+    super.tearDown();
+  }
+
+  private static String read(File file) throws Exception {
+    return new String(Files.readAllBytes(file.toPath()), Charsets.UTF_8);
+  }
+
+  public void testTargetIsReplacedOnClose() throws Exception {
+    File target = new File(myDir, "project.gan");
+    Files.write(target.toPath(), "old".getBytes(Charsets.UTF_8));
+
+    AtomicFileOutputStream output = new AtomicFileOutputStream(target);
+    byte[] big = new byte[200 * 1024];
+    Arrays.fill(big, (byte) 'x');
+    output.write("new".getBytes(Charsets.UTF_8));
+    output.write(big);
+    output.write('!');
+    assertEquals("old", read(target));
+    output.close();
+
+    String written = read(target);
+    assertEquals(3 + big.length + 1, written.length());
+    assertTrue(written.startsWith("newxxx"));
+    assertTrue(written.endsWith("x!"));
+    assertEquals(1, myDir.listFiles().length);
+  }
+
+  public void testDiscardKeepsTarget() throws Exception {
+    File target = new File(myDir, "project.gan");
+    Files.write(target.toPath(), "old".getBytes(Charsets.UTF_8));
+
+    AtomicFileOutputStream output = new AtomicFileOutputStream(target);
+    output.write("partial".getBytes(Charsets.UTF_8));
+    output.discard();
+    output.close();
+
+    assertEquals("old", read(target));
+    assertEquals(1, myDir.listFiles().length);
+  }
+
+  public void testNewFileIsCreated() throws Exception {
+    File target = new File(myDir, "new.gan");
+    AtomicFileOutputStream output = new AtomicFileOutputStream(target);
+    output.write("content".getBytes(Charsets.UTF_8));
+    output.close();
+    assertEquals("content", read(target));
+  }
+}
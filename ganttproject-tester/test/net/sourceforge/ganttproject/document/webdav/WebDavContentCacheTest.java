@@ -0,0 +1,334 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.document.webdav;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.List;
+
+import junit.framework.TestCase;
+import biz.ganttproject.core.option.DefaultStringOption;
+
+import com.google.common.collect.Lists;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for WebDAV content and listing caches. Runs against a WebDAV stand-in
+ * which serves a single file from a single collection.
+ */
+public class WebDavContentCacheTest extends TestCase {
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static class WebDavStandIn implements HttpHandler {
+    private final List<String> myRequests = Lists.newArrayList();
+    private String myContent = "<project/>";
+    private int myVersion = 1;
+
+    synchronized void setContent(String content) {
+      myContent = content;
+      myVersion++;
+    }
+
+    synchronized List<String> getRequests() {
+      return Lists.newArrayList(myRequests);
+    }
+
+    private String getEtag() {
+      return "\"v" + myVersion + "\"";
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      synchronized (this) {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if ("PROPFIND".equals(method)) {
+          myRequests.add("PROPFIND " + path);
+          drain(exchange.getRequestBody());
+          String depth = exchange.getRequestHeaders().getFirst("Depth");
+          respond(exchange, 207, "application/xml", buildMultistatus(path, !"0".equals(depth)));
+        } else if ("GET".equals(method) && "/dav/project.gan".equals(path)) {
+          if (getEtag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            myRequests.add("GET 304");
+            exchange.getResponseHeaders().set("ETag", getEtag());
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+          } else {
+            myRequests.add("GET 200");
+            exchange.getResponseHeaders().set("ETag", getEtag());
+            respond(exchange, 200, "application/xml", myContent);
+          }
+        } else {
+          myRequests.add(method + " " + path);
+          respond(exchange, 404, "text/plain", "");
+        }
+      }
+    }
+
+    private String buildMultistatus(String path, boolean withChildren) {
+      StringBuilder result = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?><D:multistatus xmlns:D=\"DAV:\">");
+      if (path.startsWith("/dav/project.gan")) {
+        appendFile(result);
+      } else {
+        result.append("<D:response><D:href>/dav/</D:href><D:propstat><D:prop>")
+            .append("<D:displayname>dav</D:displayname><D:resourcetype><D:collection/></D:resourcetype>")
+            .append("</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat></D:response>");
+        if (withChildren) {
+          appendFile(result);
+        }
+      }
+      return result.append("</D:multistatus>").toString();
+    }
+
+    private void appendFile(StringBuilder result) {
+      result.append("<D:response><D:href>/dav/project.gan</D:href><D:propstat><D:prop>")
+          .append("<D:displayname>project.gan</D:displayname><D:resourcetype/>")
+          .append("<D:getcontentlength>").append(myContent.getBytes(UTF8).length).append("</D:getcontentlength>")
+          .append("<D:getcontenttype>application/xml</D:getcontenttype>")
+          .append("<D:getetag>").append(getEtag().replace("\"", "&quot;")).append("</D:getetag>")
+          .append("</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat></D:response>");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+      byte[] bytes = body.getBytes(UTF8);
+      exchange.getResponseHeaders().set("Content-Type", contentType);
+      exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+      OutputStream output = exchange.getResponseBody();
+      output.write(bytes);
+      output.close();
+    }
+
+    private static void drain(InputStream input) throws IOException {
+      byte[] buffer = new byte[4096];
+      while (input.read(buffer) >= 0) {
+      }
+    }
+  }
+
+  private HttpServer myServer;
+  private WebDavStandIn myStandIn;
+  private File myTempDir;
+  private File myCacheDir;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    myStandIn = new WebDavStandIn();
+    myServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    myServer.createContext("/", myStandIn);
+    myServer.start();
+    myTempDir = Files.createTempDirectory("webdav-cache").toFile();
+    myCacheDir = new File(myTempDir, "cache");
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    myServer.stop(0);
+    delete(myTempDir);
+    super.tearDown();
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  private MiltonResourceFactory createFactory() {
+    return createFactory(new WebDavContentCache(myCacheDir));
+  }
+
+  private MiltonResourceFactory createFactory(WebDavContentCache cache) {
+    return new MiltonResourceFactory("user", "password", new DefaultStringOption("proxy", ""), cache);
+  }
+
+  private File createEntry(String key, int size, long lastModified) throws IOException {
+    File content = new File(myCacheDir, key + ".content");
+    Files.write(content.toPath(), new byte[size]);
+    Files.write(new File(myCacheDir, key + ".etag").toPath(), "\"v1\"".getBytes(UTF8));
+    content.setLastModified(lastModified);
+    return content;
+  }
+
+  private File[] getContentFiles() {
+    File[] result = myCacheDir.listFiles();
+    List<File> contentFiles = Lists.newArrayList();
+    for (File file : result) {
+      if (file.getName().endsWith(".content")) {
+        contentFiles.add(file);
+      }
+    }
+    return contentFiles.toArray(new File[0]);
+  }
+
+  private WebDavUri createUri(String path) {
+    return new WebDavUri("stand-in", "http://127.0.0.1:" + myServer.getAddress().getPort() + "/dav", path);
+  }
+
+  private static String read(WebDavResource resource) throws Exception {
+    InputStream input = resource.getInputStream();
+    try {
+      ByteArrayOutputStream result = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      for (int count = input.read(buffer); count >= 0; count = input.read(buffer)) {
+        result.write(buffer, 0, count);
+      }
+      return new String(result.toByteArray(), UTF8);
+    } finally {
+      input.close();
+    }
+  }
+
+  private int countRequests(String request) {
+    int result = 0;
+    for (String r : myStandIn.getRequests()) {
+      if (r.equals(request)) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  public void testSecondOpenIsConditional() throws Exception {
+    WebDavResource resource = createFactory().createResource(createUri("/project.gan"));
+    assertEquals("<project/>", read(resource));
+    assertEquals(1, countRequests("GET 200"));
+
+    WebDavResource reopened = createFactory().createResource(createUri("/project.gan"));
+    assertEquals("<project/>", read(reopened));
+    assertEquals(1, countRequests("GET 200"));
+    assertEquals(1, countRequests("GET 304"));
+
+    myStandIn.setContent("<project name=\"changed\"/>");
+    assertEquals("<project name=\"changed\"/>", read(reopened));
+    assertEquals(2, countRequests("GET 200"));
+  }
+
+  public void testListingIsCached() throws Exception {
+    MiltonResourceFactory factory = createFactory();
+    WebDavResource folder = factory.createResource(createUri(""));
+    assertTrue(folder.exists());
+    assertEquals(1, folder.getChildResources().size());
+    int propfindCount = myStandIn.getRequests().size();
+
+    factory.clearCache();
+    WebDavResource file = factory.createResource(createUri("/project.gan"));
+    assertTrue(file.exists());
+    folder = factory.createResource(createUri(""));
+    assertEquals(1, folder.getChildResources().size());
+    assertEquals(propfindCount, myStandIn.getRequests().size());
+  }
+
+  public void testCacheDirIsPrivate() throws Exception {
+    read(createFactory().createResource(createUri("/project.gan")));
+    assertTrue(myCacheDir.isDirectory());
+    if (myCacheDir.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(myCacheDir.toPath())));
+    }
+  }
+
+  public void testExistingCacheDirPermissionsAreReset() throws Exception {
+    if (!myCacheDir.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      return;
+    }
+    Files.createDirectory(myCacheDir.toPath(), PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxrwxrwx")));
+    Files.setPosixFilePermissions(myCacheDir.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+    read(createFactory().createResource(createUri("/project.gan")));
+    assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(myCacheDir.toPath())));
+  }
+
+  public void testForeignEntriesAreNotRead() throws Exception {
+    WebDavResource resource = createFactory().createResource(createUri("/project.gan"));
+    assertEquals("<project/>", read(resource));
+    try {
+      UserPrincipal nobody = myCacheDir.toPath().getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName("nobody");
+      for (File file : myCacheDir.listFiles()) {
+        Files.setOwner(file.toPath(), nobody);
+      }
+    } catch (IOException e) {
+      // Changing the owner needs superuser privileges
+      return;
+    } catch (UnsupportedOperationException e) {
+      return;
+    }
+    assertEquals("<project/>", read(createFactory().createResource(createUri("/project.gan"))));
+    assertEquals(2, countRequests("GET 200"));
+    assertEquals(0, countRequests("GET 304"));
+  }
+
+  public void testForeignCacheDirIsNotUsed() throws Exception {
+    assertTrue(myCacheDir.mkdir());
+    try {
+      UserPrincipal nobody = myCacheDir.toPath().getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName("nobody");
+      Files.setOwner(myCacheDir.toPath(), nobody);
+    } catch (IOException e) {
+      // Changing the owner needs superuser privileges
+      return;
+    } catch (UnsupportedOperationException e) {
+      return;
+    }
+    MiltonResourceFactory factory = createFactory();
+    assertEquals("<project/>", read(factory.createResource(createUri("/project.gan"))));
+    assertEquals("<project/>", read(createFactory().createResource(createUri("/project.gan"))));
+    assertEquals(2, countRequests("GET 200"));
+    assertEquals(0, myCacheDir.listFiles().length);
+  }
+
+  public void testExpiredEntriesAreEvicted() throws Exception {
+    assertTrue(myCacheDir.mkdir());
+    long now = System.currentTimeMillis();
+    File expired = createEntry("expired", 10, now - 2000000);
+    File fresh = createEntry("fresh", 10, now - 1000);
+    WebDavContentCache cache = new WebDavContentCache(myCacheDir, 1000000, 1000000);
+    read(createFactory(cache).createResource(createUri("/project.gan")));
+    assertFalse(expired.exists());
+    assertFalse(new File(myCacheDir, "expired.etag").exists());
+    assertTrue(fresh.exists());
+    assertEquals(2, getContentFiles().length);
+  }
+
+  public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+    assertTrue(myCacheDir.mkdir());
+    long now = System.currentTimeMillis();
+    File oldest = createEntry("oldest", 100, now - 3000);
+    File older = createEntry("older", 100, now - 2000);
+    File newest = createEntry("newest", 100, now - 1000);
+    // Only the downloaded file and the most recently used entry fit
+    WebDavContentCache cache = new WebDavContentCache(myCacheDir, 150, 1000000);
+    assertEquals("<project/>", read(createFactory(cache).createResource(createUri("/project.gan"))));
+    assertFalse(oldest.exists());
+    assertTrue(newest.exists());
+    assertFalse(older.exists());
+    assertEquals(2, getContentFiles().length);
+  }
+}
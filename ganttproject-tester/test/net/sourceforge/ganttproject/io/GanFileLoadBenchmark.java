@@ -0,0 +1,127 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+import net.sourceforge.ganttproject.TestSetupHelper;
+import net.sourceforge.ganttproject.gui.TaskTreeUIFacade;
+import net.sourceforge.ganttproject.parser.DependencyTagHandler;
+import net.sourceforge.ganttproject.parser.TaskTagHandler;
+import net.sourceforge.ganttproject.task.TaskManager;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Measures how long it takes to load tasks and dependencies of a generated project.
+ *
+ * Projects have 1000, 10000 and 100000 tasks. Tasks are grouped by 20 under summary tasks,
+ * every task depends on its previous sibling and every summary task depends on a random
+ * task from some earlier group. Run with main() and compare ms figures.
+ */
+public class GanFileLoadBenchmark {
+  private static final int[] TASK_COUNTS = {1000, 10000, 100000};
+  private static final int GROUP_SIZE = 20;
+  private static final int WARMUP_ROUNDS = 2;
+  private static final int MEASURED_ROUNDS = 3;
+
+  private static byte[] generate(int taskCount) {
+    Random random = new Random(42);
+    StringBuilder result = new StringBuilder();
+    result.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    result.append("<project name=\"benchmark\" version=\"2.6\">\n<tasks>\n");
+    int id = 0;
+    while (id < taskCount) {
+      int groupId = id++;
+      result.append("<task id=\"").append(groupId).append("\" name=\"Group ").append(groupId)
+          .append("\" start=\"2014-01-06\" duration=\"1\" expand=\"true\">\n");
+      if (groupId >= GROUP_SIZE) {
+        appendDependency(result, random.nextInt(groupId));
+      }
+      for (int i = 1; i < GROUP_SIZE && id < taskCount; i++) {
+        int taskId = id++;
+        result.append("<task id=\"").append(taskId).append("\" name=\"Task ").append(taskId)
+            .append("\" start=\"2014-01-06\" duration=\"").append(1 + random.nextInt(5))
+            .append("\" complete=\"").append(random.nextInt(101)).append("\">\n");
+        if (i + 1 < GROUP_SIZE && id < taskCount) {
+          appendDependency(result, taskId + 1);
+        }
+        result.append("</task>\n");
+      }
+      result.append("</task>\n");
+    }
+    result.append("</tasks>\n</project>\n");
+    return result.toString().getBytes(Charsets.UTF_8);
+  }
+
+  private static void appendDependency(StringBuilder result, int successorId) {
+    result.append("<depend id=\"").append(successorId).append("\" type=\"2\" difference=\"0\" hardness=\"Strong\"/>\n");
+  }
+
+  private static TaskTreeUIFacade createTreeFacade() {
+    return (TaskTreeUIFacade) Proxy.newProxyInstance(GanFileLoadBenchmark.class.getClassLoader(),
+        new Class<?>[] {TaskTreeUIFacade.class}, new InvocationHandler() {
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            return method.getReturnType() == Boolean.TYPE ? Boolean.FALSE : null;
+          }
+        });
+  }
+
+  private static TaskManager load(byte[] project) throws IOException {
+    TaskManager taskManager = TestSetupHelper.newTaskManagerBuilder().build();
+    GanttXMLOpen opener = new GanttXMLOpen(taskManager);
+    TaskTagHandler taskHandler = new TaskTagHandler(taskManager, opener.getContext(), createTreeFacade());
+    DependencyTagHandler dependencyHandler = new DependencyTagHandler(opener.getContext(), taskManager, null);
+    opener.addTagHandler(taskHandler);
+    opener.addParsingListener(taskHandler);
+    opener.addTagHandler(dependencyHandler);
+    opener.addParsingListener(dependencyHandler);
+    opener.load(new ByteArrayInputStream(project));
+    return taskManager;
+  }
+
+  private static void measure(int taskCount) throws IOException {
+    byte[] project = generate(taskCount);
+    int rounds = taskCount >= 100000 ? 1 : MEASURED_ROUNDS;
+    for (int i = 0; i < WARMUP_ROUNDS && taskCount < 100000; i++) {
+      load(project);
+    }
+    long start = System.nanoTime();
+    int loaded = 0;
+    for (int i = 0; i < rounds; i++) {
+      TaskManager taskManager = load(project);
+      loaded = taskManager.getTaskCount() + taskManager.getDependencyCollection().getDependencies().length;
+    }
+    long elapsed = System.nanoTime() - start;
+    System.out.println(String.format("%7d tasks, %8d KB %10.1f ms (%d tasks and dependencies)",
+        taskCount, project.length / 1024, elapsed / 1e6 / rounds, loaded));
+  }
+
+  public static void main(String[] args) throws IOException {
+    for (int taskCount : TASK_COUNTS) {
+      measure(taskCount);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+import net.sourceforge.ganttproject.TestSetupHelper;
+import net.sourceforge.ganttproject.TestSetupHelper.TaskManagerBuilder;
+import net.sourceforge.ganttproject.gui.TaskTreeUIFacade;
+import net.sourceforge.ganttproject.parser.AllocationTagHandler;
+import net.sourceforge.ganttproject.parser.ResourceTagHandler;
+import net.sourceforge.ganttproject.parser.TaskTagHandler;
+import net.sourceforge.ganttproject.resource.HumanResourceManager;
+import net.sourceforge.ganttproject.resource.HumanResourceMerger.MergeResourcesOption;
+import net.sourceforge.ganttproject.resource.OverwritingMerger;
+import net.sourceforge.ganttproject.roles.RoleManager;
+import net.sourceforge.ganttproject.roles.RoleManagerImpl;
+import net.sourceforge.ganttproject.task.TaskManager;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Measures how long it takes to load a project with a large resource pool and to merge
+ * the pool into another project.
+ *
+ * Projects have 500, 5000 and 20000 resources, 10000 tasks and 5 allocations per resource.
+ * Merging imports the loaded pool into a project which has the same resources, so every
+ * foreign resource has a native counterpart. Run with main() and compare ms figures.
+ */
+public class ResourcePoolLoadBenchmark {
+  private static final int[] RESOURCE_COUNTS = {500, 5000, 20000};
+  private static final int TASK_COUNT = 10000;
+  private static final int ALLOCATIONS_PER_RESOURCE = 5;
+  private static final int WARMUP_ROUNDS = 2;
+  private static final int MEASURED_ROUNDS = 3;
+  private static final String[] MERGE_OPTIONS = {
+    MergeResourcesOption.BY_ID, MergeResourcesOption.BY_EMAIL, MergeResourcesOption.BY_NAME
+  };
+
+  private static byte[] generate(int resourceCount) {
+    Random random = new Random(42);
+    StringBuilder result = new StringBuilder();
+    result.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    result.append("<project name=\"benchmark\" version=\"2.6\">\n<tasks>\n");
+    for (int id = 0; id < TASK_COUNT; id++) {
+      result.append("<task id=\"").append(id).append("\" name=\"Task ").append(id)
+          .append("\" start=\"2014-01-06\" duration=\"").append(1 + random.nextInt(5)).append("\"/>\n");
+    }
+    result.append("</tasks>\n<resources>\n");
+    for (int id = 0; id < resourceCount; id++) {
+      result.append("<resource id=\"").append(id).append("\" name=\"Person ").append(id)
+          .append("\" function=\"Default:1\" contacts=\"person").append(id)
+          .append("@example.com\" phone=\"\"/>\n");
+    }
+    result.append("</resources>\n<allocations>\n");
+    for (int id = 0; id < resourceCount; id++) {
+      int taskId = random.nextInt(TASK_COUNT);
+      for (int i = 0; i < ALLOCATIONS_PER_RESOURCE; i++) {
+        result.append("<allocation task-id=\"").append((taskId + i) % TASK_COUNT).append("\" resource-id=\"")
+            .append(id).append("\" function=\"Default:1\" responsible=\"false\" load=\"100.0\"/>\n");
+      }
+    }
+    result.append("</allocations>\n</project>\n");
+    return result.toString().getBytes(Charsets.UTF_8);
+  }
+
+  private static TaskTreeUIFacade createTreeFacade() {
+    return (TaskTreeUIFacade) Proxy.newProxyInstance(ResourcePoolLoadBenchmark.class.getClassLoader(),
+        new Class<?>[] {TaskTreeUIFacade.class}, new InvocationHandler() {
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            return method.getReturnType() == Boolean.TYPE ? Boolean.FALSE : null;
+          }
+        });
+  }
+
+  private static TaskManagerBuilder load(byte[] project) throws IOException {
+    TaskManagerBuilder builder = TestSetupHelper.newTaskManagerBuilder();
+    TaskManager taskManager = builder.build();
+    HumanResourceManager resourceManager = builder.getResourceManager();
+    RoleManager roleManager = new RoleManagerImpl();
+    GanttXMLOpen opener = new GanttXMLOpen(taskManager);
+    TaskTagHandler taskHandler = new TaskTagHandler(taskManager, opener.getContext(), createTreeFacade());
+    ResourceTagHandler resourceHandler = new ResourceTagHandler(resourceManager, roleManager,
+        resourceManager.getCustomPropertyManager());
+    AllocationTagHandler allocationHandler = new AllocationTagHandler(resourceManager, taskManager, roleManager);
+    opener.addTagHandler(taskHandler);
+    opener.addParsingListener(taskHandler);
+    opener.addTagHandler(resourceHandler);
+    opener.addParsingListener(resourceHandler);
+    opener.addTagHandler(allocationHandler);
+    opener.addParsingListener(allocationHandler);
+    opener.load(new ByteArrayInputStream(project));
+    return builder;
+  }
+
+  private static void measureLoad(byte[] project, int resourceCount) throws IOException {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      load(project);
+    }
+    long start = System.nanoTime();
+    int loaded = 0;
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      HumanResourceManager resourceManager = load(project).getResourceManager();
+      loaded = resourceManager.getResources().size();
+    }
+    long elapsed = System.nanoTime() - start;
+    System.out.println(String.format("%6d resources, %8d KB load  %10.1f ms (%d resources)",
+        resourceCount, project.length / 1024, elapsed / 1e6 / MEASURED_ROUNDS, loaded));
+  }
+
+  private static void measureMerge(byte[] project, int resourceCount, String mergeOptionValue) throws IOException {
+    HumanResourceManager foreign = load(project).getResourceManager();
+    long elapsed = 0;
+    int merged = 0;
+    for (int i = 0; i < WARMUP_ROUNDS + MEASURED_ROUNDS; i++) {
+      HumanResourceManager target = load(project).getResourceManager();
+      MergeResourcesOption mergeOption = new MergeResourcesOption();
+      mergeOption.setValue(mergeOptionValue);
+      long start = System.nanoTime();
+      target.importData(foreign, new OverwritingMerger(mergeOption));
+      if (i >= WARMUP_ROUNDS) {
+        elapsed += System.nanoTime() - start;
+      }
+      merged = target.getResources().size();
+    }
+    System.out.println(String.format("%6d resources, %-24s %10.1f ms (%d resources)",
+        resourceCount, mergeOptionValue, elapsed / 1e6 / MEASURED_ROUNDS, merged));
+  }
+
+  public static void main(String[] args) throws IOException {
+    for (int resourceCount : RESOURCE_COUNTS) {
+      byte[] project = generate(resourceCount);
+      measureLoad(project, resourceCount);
+      for (String mergeOption : MERGE_OPTIONS) {
+        measureMerge(project, resourceCount, mergeOption);
+      }
+    }
+  }
+}
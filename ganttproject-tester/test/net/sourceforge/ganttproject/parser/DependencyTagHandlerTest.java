@@ -0,0 +1,96 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.parser;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import net.sourceforge.ganttproject.gui.TaskTreeUIFacade;
+import net.sourceforge.ganttproject.io.GanttXMLOpen;
+import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskManager;
+import net.sourceforge.ganttproject.task.dependency.TaskDependency;
+import net.sourceforge.ganttproject.task.dependency.TaskDependencyConstraint;
+import net.sourceforge.ganttproject.test.task.TaskTestCase;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Tests loading dependencies from the project file
+ */
+public class DependencyTagHandlerTest extends TaskTestCase {
+  private void load(String tasksXml) throws Exception {
+    TaskManager taskManager = getTaskManager();
+    GanttXMLOpen opener = new GanttXMLOpen(taskManager);
+    TaskTreeUIFacade treeFacade = (TaskTreeUIFacade) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {TaskTreeUIFacade.class}, new InvocationHandler() {
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            return method.getReturnType() == Boolean.TYPE ? Boolean.FALSE : null;
+          }
+        });
+    TaskTagHandler taskHandler = new TaskTagHandler(taskManager, opener.getContext(), treeFacade);
+    DependencyTagHandler dependencyHandler = new DependencyTagHandler(opener.getContext(), taskManager, null);
+    opener.addTagHandler(taskHandler);
+    opener.addParsingListener(taskHandler);
+    opener.addTagHandler(dependencyHandler);
+    opener.addParsingListener(dependencyHandler);
+    String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><project><tasks>" + tasksXml + "</tasks></project>";
+    opener.load(new ByteArrayInputStream(xml.getBytes(Charsets.UTF_8)));
+  }
+
+  private static String task(int id, String nested) {
+    return "<task id=\"" + id + "\" name=\"t" + id + "\" start=\"2014-01-06\" duration=\"1\">" + nested + "</task>";
+  }
+
+  private static String depend(int successorId, int difference) {
+    return "<depend id=\"" + successorId + "\" type=\"2\" difference=\"" + difference + "\" hardness=\"Strong\"/>";
+  }
+
+  public void testDependenciesInReverseFileOrder() throws Exception {
+    load(task(3, depend(4, 2)) + task(2, depend(3, 0)) + task(1, depend(2, 0)) + task(4, ""));
+    TaskManager taskManager = getTaskManager();
+    assertEquals(3, taskManager.getDependencyCollection().getDependencies().length);
+    TaskDependency[] deps = taskManager.getDependencyCollection().getDependenciesAsDependant(taskManager.getTask(4));
+    assertEquals(1, deps.length);
+    assertEquals(taskManager.getTask(3), deps[0].getDependee());
+    assertEquals(2, deps[0].getDifference());
+    assertEquals(TaskDependencyConstraint.Type.finishstart, deps[0].getConstraint().getType());
+    assertTrue(taskManager.getTask(4).getStart().after(taskManager.getTask(1).getStart()));
+  }
+
+  public void testDependenciesOnSupertasks() throws Exception {
+    load(task(1, task(2, depend(4, 0)) + task(3, ""))
+        + task(4, task(5, depend(6, 0)) + task(6, ""))
+        + task(7, depend(1, 0)));
+    TaskManager taskManager = getTaskManager();
+    assertEquals(3, taskManager.getDependencyCollection().getDependencies().length);
+    Task last = taskManager.getTask(6);
+    assertTrue(last.getStart().after(taskManager.getTask(5).getStart()));
+    assertTrue(taskManager.getTask(5).getStart().after(taskManager.getTask(2).getStart()));
+    assertTrue(taskManager.getTask(2).getStart().after(taskManager.getTask(7).getStart()));
+  }
+
+  public void testLoopingDependencyIsRejected() throws Exception {
+    load(task(1, depend(2, 0)) + task(2, depend(3, 0)) + task(3, depend(1, 0)) + task(4, depend(1, 0)));
+    assertEquals(3, getTaskManager().getDependencyCollection().getDependencies().length);
+  }
+}
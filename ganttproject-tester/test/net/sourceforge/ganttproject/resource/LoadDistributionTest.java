@@ -0,0 +1,98 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.resource;
+
+import java.util.List;
+import java.util.Map;
+
+import biz.ganttproject.core.time.GanttCalendar;
+import net.sourceforge.ganttproject.TestSetupHelper;
+import net.sourceforge.ganttproject.resource.LoadDistribution.Load;
+import net.sourceforge.ganttproject.task.CustomColumnsManager;
+import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.test.task.TaskTestCase;
+
+/**
+ * Tests for {@link LoadDistribution}
+ */
+public class LoadDistributionTest extends TaskTestCase {
+  private HumanResource myResource;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    HumanResourceManager resourceManager = new HumanResourceManager(null, new CustomColumnsManager());
+    myResource = resourceManager.create("test resource", 1);
+  }
+
+  public void testOverlappingAssignments() {
+    Task t1 = createTask(TestSetupHelper.newMonday(), 3);
+    Task t2 = createTask(TestSetupHelper.newTuesday(), 1);
+    t1.getAssignmentCollection().addAssignment(myResource).setLoad(50);
+    t2.getAssignmentCollection().addAssignment(myResource).setLoad(100);
+
+    LoadDistribution distribution = myResource.getLoadDistribution();
+    assertLoads(distribution.getLoads(), new GanttCalendar[] {
+        TestSetupHelper.newMonday(), TestSetupHelper.newTuesday(), TestSetupHelper.newWendesday(), TestSetupHelper.newThursday()
+    }, new float[] {50, 150, 50, 0});
+
+    Map<Task, List<Load>> taskLoads = distribution.getSeparatedTaskLoads();
+    assertEquals(1, taskLoads.get(t1).size());
+    assertEquals(50f, taskLoads.get(t1).get(0).load);
+    assertEquals(1, taskLoads.get(t2).size());
+    assertEquals(100f, taskLoads.get(t2).get(0).load);
+  }
+
+  public void testAdjacentAssignments() {
+    Task t1 = createTask(TestSetupHelper.newMonday(), 1);
+    Task t2 = createTask(TestSetupHelper.newTuesday(), 1);
+    t1.getAssignmentCollection().addAssignment(myResource).setLoad(100);
+    t2.getAssignmentCollection().addAssignment(myResource).setLoad(100);
+
+    assertLoads(myResource.getLoadDistribution().getLoads(), new GanttCalendar[] {
+        TestSetupHelper.newMonday(), TestSetupHelper.newTuesday(), TestSetupHelper.newWendesday()
+    }, new float[] {100, 100, 0});
+  }
+
+  public void testDistributionIsCachedUntilScheduleChanges() {
+    createTask(TestSetupHelper.newMonday(), 3).getAssignmentCollection().addAssignment(myResource).setLoad(50);
+    Task t2 = createTask(TestSetupHelper.newTuesday(), 1);
+    t2.getAssignmentCollection().addAssignment(myResource).setLoad(100);
+
+    LoadDistribution distribution = myResource.getLoadDistribution();
+    assertSame(distribution, myResource.getLoadDistribution());
+
+    t2.shift(getTaskManager().createLength(1));
+    LoadDistribution newDistribution = myResource.getLoadDistribution();
+    assertNotSame(distribution, newDistribution);
+    assertLoads(newDistribution.getLoads(), new GanttCalendar[] {
+        TestSetupHelper.newMonday(), TestSetupHelper.newWendesday(), TestSetupHelper.newThursday()
+    }, new float[] {50, 150, 0});
+  }
+
+  private static void assertLoads(List<Load> loads, GanttCalendar[] expectedDates, float[] expectedLoads) {
+    // The first load is a sentinel which starts at the beginning of time
+    assertEquals(expectedDates.length + 1, loads.size());
+    assertNull(loads.get(0).startDate);
+    for (int i = 0; i < expectedDates.length; i++) {
+      assertEquals(expectedDates[i].getTime(), loads.get(i + 1).startDate);
+      assertEquals(expectedLoads[i], loads.get(i + 1).load);
+    }
+  }
+}
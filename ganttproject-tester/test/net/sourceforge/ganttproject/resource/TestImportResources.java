@@ -46,5 +46,111 @@ public class TestImportResources extends TestCase {
         assertEquals("joe", mergeTo.getById(3).getName());
     }
 
+    public void testMergeByEmail() {
+        MergeResourcesOption mergeOption = new MergeResourcesOption();
+        mergeOption.setValue(MergeResourcesOption.BY_EMAIL);
+
+        HumanResourceManager mergeTo = new HumanResourceManager(null, new CustomColumnsManager());
+        mergeTo.add(new HumanResource("joe", 1, mergeTo));
+        mergeTo.getById(1).setMail("joe@example.com");
+
+        HumanResourceManager mergeFrom = new HumanResourceManager(null, new CustomColumnsManager());
+        mergeFrom.add(new HumanResource("joseph", 5, mergeFrom));
+        mergeFrom.getById(5).setMail("joe@example.com");
+        mergeFrom.add(new HumanResource("jack", 6, mergeFrom));
+        mergeFrom.getById(6).setMail("jack@example.com");
+
+        mergeTo.importData(mergeFrom, new OverwritingMerger(mergeOption));
+
+        assertEquals(2, mergeTo.getResources().size());
+        assertEquals("joseph", mergeTo.getById(1).getName());
+        assertEquals("jack", mergeTo.getByEmail("jack@example.com").getName());
+    }
 
+    public void testMergeByNameUsesFirstAddedDuplicate() {
+        MergeResourcesOption mergeOption = new MergeResourcesOption();
+        mergeOption.setValue(MergeResourcesOption.BY_NAME);
+
+        HumanResourceManager mergeTo = new HumanResourceManager(null, new CustomColumnsManager());
+        mergeTo.add(new HumanResource("joe", 1, mergeTo));
+        mergeTo.add(new HumanResource("joe", 2, mergeTo));
+
+        HumanResourceManager mergeFrom = new HumanResourceManager(null, new CustomColumnsManager());
+        mergeFrom.add(new HumanResource("joe", 5, mergeFrom));
+        mergeFrom.getById(5).setMail("joe@example.com");
+
+        mergeTo.importData(mergeFrom, new OverwritingMerger(mergeOption));
+
+        assertEquals(2, mergeTo.getResources().size());
+        assertEquals("joe@example.com", mergeTo.getById(1).getMail());
+        assertFalse("joe@example.com".equals(mergeTo.getById(2).getMail()));
+    }
+
+    public void testRenameUpdatesIndices() {
+        HumanResourceManager manager = new HumanResourceManager(null, new CustomColumnsManager());
+        HumanResource joe = new HumanResource("joe", 1, manager);
+        manager.add(joe);
+        assertSame(joe, manager.getByName("joe"));
+
+        joe.setName("joseph");
+        joe.setMail("joe@example.com");
+        assertNull(manager.getByName("joe"));
+        assertSame(joe, manager.getByName("joseph"));
+        assertSame(joe, manager.getByEmail("joe@example.com"));
+
+        joe.setMail("joseph@example.com");
+        assertNull(manager.getByEmail("joe@example.com"));
+        assertSame(joe, manager.getByEmail("joseph@example.com"));
+    }
+
+    public void testDuplicateNameResolvesToFirstAdded() {
+        HumanResourceManager manager = new HumanResourceManager(null, new CustomColumnsManager());
+        HumanResource joe = new HumanResource("joe", 1, manager);
+        HumanResource john = new HumanResource("john", 2, manager);
+        manager.add(joe);
+        manager.add(john);
+
+        john.setName("joe");
+        assertSame(joe, manager.getByName("joe"));
+        assertSame(john, manager.getById(2));
+    }
+
+    public void testRemoveUpdatesIndices() {
+        HumanResourceManager manager = new HumanResourceManager(null, new CustomColumnsManager());
+        HumanResource joe = new HumanResource("joe", 1, manager);
+        HumanResource otherJoe = new HumanResource("joe", 2, manager);
+        manager.add(joe);
+        manager.add(otherJoe);
+        joe.setMail("joe@example.com");
+
+        manager.remove(joe);
+        assertNull(manager.getById(1));
+        assertNull(manager.getByEmail("joe@example.com"));
+        assertSame(otherJoe, manager.getByName("joe"));
+    }
+
+    public void testUnpluggedCloneDoesNotChangeIndices() {
+        HumanResourceManager manager = new HumanResourceManager(null, new CustomColumnsManager());
+        HumanResource joe = new HumanResource("joe", 1, manager);
+        manager.add(joe);
+
+        HumanResource copy = joe.unpluggedClone();
+        copy.setName("jack");
+        copy.setMail("jack@example.com");
+        assertNull(manager.getByName("jack"));
+        assertNull(manager.getByEmail("jack@example.com"));
+        assertSame(joe, manager.getByName("joe"));
+    }
+
+    public void testClearEmptiesIndices() {
+        HumanResourceManager manager = new HumanResourceManager(null, new CustomColumnsManager());
+        HumanResource joe = new HumanResource("joe", 1, manager);
+        manager.add(joe);
+        joe.setMail("joe@example.com");
+
+        manager.clear();
+        assertNull(manager.getById(1));
+        assertNull(manager.getByName("joe"));
+        assertNull(manager.getByEmail("joe@example.com"));
+    }
 }
@@ -0,0 +1,156 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.search;
+
+import java.util.Arrays;
+
+import net.sourceforge.ganttproject.CustomPropertyDefinition;
+
+import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskMutator;
+import net.sourceforge.ganttproject.test.task.TaskTestCase;
+
+/**
+ * Tests for the task search index
+ */
+public class TaskSearchIndexTest extends TaskTestCase {
+  private SearchIndex<Task> myIndex;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    myIndex = TaskSearchService.createIndex();
+    getTaskManager().addTaskListener(TaskSearchService.createIndexListener(myIndex));
+  }
+
+  public void testSubstringSearch() {
+    Task t1 = createTask();
+    t1.setName("Support");
+    Task t2 = createTask();
+    t2.setName("Port review");
+    t2.setNotes("Check the spelling");
+    Task t3 = createTask();
+    t3.setName("Deploy");
+    myIndex.rebuild(Arrays.asList(getTaskManager().getTasks()));
+
+    // Word start match ranks higher than a match in the middle of the word
+    assertEquals(Arrays.asList(t2, t1), myIndex.search("PORT"));
+    assertEquals(Arrays.asList(t2, t1), myIndex.search("po"));
+    assertEquals(Arrays.asList(t1), myIndex.search("uppo"));
+    assertEquals(Arrays.asList(t3), myIndex.search("lo"));
+    assertEquals(Arrays.asList(t2), myIndex.search("spell"));
+    assertTrue(myIndex.search("ports").isEmpty());
+  }
+
+  public void testFieldFilters() {
+    Task t1 = createTask();
+    t1.setName("Notes");
+    Task t2 = createTask();
+    t2.setName("Design");
+    t2.setNotes("Notes about " + t1.getTaskID());
+    myIndex.rebuild(Arrays.asList(getTaskManager().getTasks()));
+
+    // Name match ranks higher than notes match
+    assertEquals(Arrays.asList(t1, t2), myIndex.search("notes"));
+    assertEquals(Arrays.asList(t2), myIndex.search("notes:notes"));
+    assertEquals(Arrays.asList(t1), myIndex.search("name: notes"));
+    assertEquals(Arrays.asList(t2), myIndex.search("id:" + t2.getTaskID()));
+    // Unknown field prefix is a part of the query text
+    assertTrue(myIndex.search("foo:notes").isEmpty());
+  }
+
+  public void testIndexFollowsTaskEvents() {
+    Task t1 = createTask();
+    t1.setName("Alpha");
+    assertEquals(Arrays.asList(t1), myIndex.search("alpha"));
+
+    TaskMutator mutator = t1.createMutator();
+    mutator.setName("Beta");
+    mutator.commit();
+    assertTrue(myIndex.search("alpha").isEmpty());
+    assertEquals(Arrays.asList(t1), myIndex.search("beta"));
+
+    getTaskManager().deleteTask(t1);
+    assertTrue(myIndex.search("beta").isEmpty());
+    assertEquals(0, myIndex.size());
+  }
+
+  public void testIndexFollowsCustomPropertyEdits() throws Exception {
+    CustomPropertyDefinition def = getTaskManager().getCustomPropertyManager().createDefinition(
+        "text", "reviewer", null);
+    Task t1 = createTask();
+    t1.setName("Alpha");
+    myIndex.rebuild(Arrays.asList(getTaskManager().getTasks()));
+    assertTrue(myIndex.search("custom:zebra").isEmpty());
+
+    TaskMutator mutator = t1.createMutator();
+    mutator.setCustomProperty(def, "Zebra");
+    mutator.commit();
+    assertEquals("Zebra", t1.getCustomValues().getValue(def));
+    assertEquals(Arrays.asList(t1), myIndex.search("custom:zebra"));
+    assertEquals(Arrays.asList(t1), myIndex.search("zebra"));
+
+    mutator = t1.createMutator();
+    mutator.setCustomProperty(def, null);
+    mutator.commit();
+    assertFalse(t1.getCustomValues().hasOwnValue(def));
+    assertTrue(myIndex.search("zebra").isEmpty());
+  }
+
+  public void testStaleSnapshotIsDiscarded() {
+    Task t1 = createTask();
+    t1.setName("Alpha");
+    SearchIndex.Snapshot<Task> oldSnapshot = myIndex.snapshot(Arrays.asList(getTaskManager().getTasks()));
+    myIndex.clear();
+    assertTrue(myIndex.isStale());
+    myIndex.rebuild(oldSnapshot);
+    assertEquals(0, myIndex.size());
+
+    oldSnapshot = myIndex.snapshot(Arrays.asList(getTaskManager().getTasks()));
+    assertFalse(myIndex.isStale());
+    t1.setName("Beta");
+    SearchIndex.Snapshot<Task> newSnapshot = myIndex.snapshot(Arrays.asList(getTaskManager().getTasks()));
+    myIndex.rebuild(newSnapshot);
+    myIndex.rebuild(oldSnapshot);
+    assertTrue(myIndex.search("alpha").isEmpty());
+    assertEquals(Arrays.asList(t1), myIndex.search("beta"));
+  }
+
+  public void testChangesDuringRebuildAreApplied() {
+    Task t1 = createTask();
+    t1.setName("Alpha");
+    Task t2 = createTask();
+    t2.setName("Delta");
+    SearchIndex.Snapshot<Task> snapshot = myIndex.snapshot(Arrays.asList(getTaskManager().getTasks()));
+
+    TaskMutator mutator = t1.createMutator();
+    mutator.setName("Beta");
+    mutator.commit();
+    Task t3 = createTask();
+    t3.setName("Gamma");
+    getTaskManager().deleteTask(t2);
+    myIndex.rebuild(snapshot);
+
+    assertTrue(myIndex.search("alpha").isEmpty());
+    assertEquals(Arrays.asList(t1), myIndex.search("beta"));
+    assertEquals(Arrays.asList(t3), myIndex.search("gamma"));
+    assertTrue(myIndex.search("delta").isEmpty());
+    assertEquals(2, myIndex.size());
+  }
+}
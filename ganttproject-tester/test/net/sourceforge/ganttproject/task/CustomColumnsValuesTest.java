@@ -0,0 +1,189 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.task;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+import net.sourceforge.ganttproject.CustomProperty;
+import net.sourceforge.ganttproject.CustomPropertyClass;
+import net.sourceforge.ganttproject.CustomPropertyDefinition;
+import biz.ganttproject.core.time.CalendarFactory;
+import biz.ganttproject.core.time.GanttCalendar;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for custom property values kept in the column store
+ */
+public class CustomColumnsValuesTest extends TestCase {
+  public void testTypedValues() throws Exception {
+    CustomColumnsManager manager = new CustomColumnsManager();
+    CustomPropertyDefinition text = manager.createDefinition("text", "text", "default");
+    CustomPropertyDefinition integer = manager.createDefinition("int", "integer", "0");
+    CustomPropertyDefinition dbl = manager.createDefinition("double", "double", "0.0");
+    CustomPropertyDefinition bool = manager.createDefinition("boolean", "boolean", "false");
+    CustomPropertyDefinition date = manager.createDefinition("date", "date", null);
+
+    CustomColumnsValues values = new CustomColumnsValues(manager);
+    assertEquals("default", values.getValue(text));
+    assertFalse(values.hasOwnValue(text));
+
+    GanttCalendar calendar = CalendarFactory.createGanttCalendar(2014, 0, 15);
+    values.setValue(text, "foo");
+    values.setValue(integer, 42);
+    values.setValue(dbl, 3.5);
+    values.setValue(bool, true);
+    values.setValue(date, calendar);
+
+    assertEquals("foo", values.getValue(text));
+    assertEquals(42, values.getValue(integer));
+    assertEquals(3.5, values.getValue(dbl));
+    assertEquals(true, values.getValue(bool));
+    assertEquals(calendar.getTime(), ((GanttCalendar) values.getValue(date)).getTime());
+    assertEquals(5, values.getCustomProperties().size());
+
+    values.setValue(integer, null);
+    assertFalse(values.hasOwnValue(integer));
+    assertEquals(0, values.getValue(integer));
+  }
+
+  public void testHoldersDoNotShareValues() throws Exception {
+    CustomColumnsManager manager = new CustomColumnsManager();
+    CustomPropertyDefinition text = manager.createDefinition("text", "text", null);
+    CustomColumnsValues values1 = new CustomColumnsValues(manager);
+    CustomColumnsValues values2 = new CustomColumnsValues(manager);
+    values1.setValue(text, "foo");
+    assertFalse(values2.hasOwnValue(text));
+
+    CustomColumnsValues copy = (CustomColumnsValues) values1.clone();
+    assertEquals("foo", copy.getValue(text));
+    copy.setValue(text, "bar");
+    assertEquals("foo", values1.getValue(text));
+    assertEquals("bar", copy.getValue(text));
+  }
+
+  public void testColumnValues() throws Exception {
+    CustomColumnsManager manager = new CustomColumnsManager();
+    CustomPropertyDefinition text = manager.createDefinition("text", "text", "default");
+    CustomColumnsValues values1 = new CustomColumnsValues(manager);
+    CustomColumnsValues values2 = new CustomColumnsValues(manager);
+    CustomColumnsValues values3 = new CustomColumnsValues(manager);
+    values1.setValue(text, "foo");
+    values3.setValue(text, "bar");
+    assertEquals(Lists.newArrayList("foo", "default", "bar"),
+        CustomColumnsValues.getColumnValues(text, Lists.newArrayList(values1, values2, values3)));
+
+    CustomColumnsManager otherManager = new CustomColumnsManager();
+    CustomPropertyDefinition otherText = otherManager.createDefinition(text.getID(), "text", "text", "default");
+    CustomColumnsValues otherValues = new CustomColumnsValues(otherManager);
+    otherValues.setValue(otherText, "baz");
+    assertEquals(Lists.newArrayList("foo", "baz"),
+        CustomColumnsValues.getColumnValues(text, Lists.newArrayList(values1, otherValues)));
+  }
+
+  public void testTypeChangeKeepsOldValues() throws Exception {
+    CustomColumnsManager manager = new CustomColumnsManager();
+    CustomPropertyDefinition def = manager.createDefinition("int", "number", "0");
+    CustomColumnsValues values1 = new CustomColumnsValues(manager);
+    CustomColumnsValues values2 = new CustomColumnsValues(manager);
+    values1.setValue(def, 1);
+
+    def.setPropertyClass(CustomPropertyClass.TEXT);
+    values2.setValue(def, "two");
+    assertEquals(1, values1.getValue(def));
+    assertEquals("two", values2.getValue(def));
+  }
+
+  public void testDeletedDefinitionValuesAreDropped() throws Exception {
+    CustomColumnsManager manager = new CustomColumnsManager();
+    CustomPropertyDefinition def = manager.createDefinition("text", "text", null);
+    CustomColumnsValues values = new CustomColumnsValues(manager);
+    values.setValue(def, "foo");
+    manager.deleteDefinition(def);
+    assertTrue(values.getCustomProperties().isEmpty());
+    assertFalse(values.hasOwnValue(def));
+  }
+
+  public void testStringDictionaryIsCompacted() throws Exception {
+    CustomColumnsManager manager = new CustomColumnsManager();
+    CustomPropertyDefinition def = manager.createDefinition("text", "text", null);
+    List<CustomColumnsValues> holders = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      holders.add(new CustomColumnsValues(manager));
+    }
+    for (int round = 0; round < 100; round++) {
+      for (int i = 0; i < holders.size(); i++) {
+        holders.get(i).setValue(def, "value" + round + "_" + i);
+      }
+    }
+    for (int i = 0; i < holders.size(); i++) {
+      List<CustomProperty> properties = holders.get(i).getCustomProperties();
+      assertEquals(1, properties.size());
+      assertEquals("value99_" + i, properties.get(0).getValue());
+    }
+  }
+
+  public void testConcurrentHolders() throws Exception {
+    final CustomColumnsManager manager = new CustomColumnsManager();
+    final CustomPropertyDefinition text = manager.createDefinition("text", "text", null);
+    final CustomPropertyDefinition integer = manager.createDefinition("int", "integer", "0");
+    final int threadCount = 8;
+    final int holderCount = 5000;
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    List<Thread> threads = Lists.newArrayList();
+    for (int t = 0; t < threadCount; t++) {
+      final int threadNum = t;
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+            // New holders grow the columns and new strings grow the dictionary while other threads write
+            List<CustomColumnsValues> holders = Lists.newArrayList();
+            for (int i = 0; i < holderCount; i++) {
+              CustomColumnsValues values = new CustomColumnsValues(manager);
+              values.setValue(text, "value" + threadNum + "_" + i);
+              values.setValue(integer, i);
+              holders.add(values);
+            }
+            for (int i = 0; i < holderCount; i++) {
+              assertEquals("value" + threadNum + "_" + i, holders.get(i).getValue(text));
+              assertEquals(i, holders.get(i).getValue(integer));
+            }
+          } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+  }
+}
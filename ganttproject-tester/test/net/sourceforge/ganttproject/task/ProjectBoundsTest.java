@@ -0,0 +1,66 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.task;
+
+import net.sourceforge.ganttproject.TestSetupHelper;
+import net.sourceforge.ganttproject.test.task.TaskTestCase;
+
+/**
+ * Tests for incrementally maintained project start and end
+ */
+public class ProjectBoundsTest extends TaskTestCase {
+  public void testBoundsFollowTaskChanges() {
+    Task t1 = createTask(TestSetupHelper.newMonday(), 1);
+    Task t2 = createTask(TestSetupHelper.newTuesday(), 2);
+    assertEquals(TestSetupHelper.newMonday().getTime(), getTaskManager().getProjectStart());
+    assertEquals(TestSetupHelper.newThursday().getTime(), getTaskManager().getProjectEnd());
+
+    t1.shift(getTaskManager().createLength(1));
+    assertEquals(TestSetupHelper.newTuesday().getTime(), getTaskManager().getProjectStart());
+    assertEquals(TestSetupHelper.newThursday().getTime(), getTaskManager().getProjectEnd());
+
+    t2.setDuration(getTaskManager().createLength(1));
+    assertEquals(TestSetupHelper.newWendesday().getTime(), getTaskManager().getProjectEnd());
+    assertEquals(1, getTaskManager().getProjectLength().getLength());
+  }
+
+  public void testBoundsFollowMutator() {
+    Task t1 = createTask(TestSetupHelper.newMonday(), 1);
+    createTask(TestSetupHelper.newTuesday(), 1);
+    TaskMutator mutator = t1.createMutator();
+    mutator.setStart(TestSetupHelper.newFriday());
+    // Uncommitted changes are visible to the readers
+    assertEquals(TestSetupHelper.newFriday().getTime(), getTaskManager().getProjectStart());
+    mutator.commit();
+    assertEquals(TestSetupHelper.newFriday().getTime(), getTaskManager().getProjectStart());
+  }
+
+  public void testBoundsFollowDeletion() {
+    Task t1 = createTask(TestSetupHelper.newMonday(), 1);
+    Task t2 = createTask(TestSetupHelper.newTuesday(), 1);
+    Task t3 = createTask(TestSetupHelper.newWendesday(), 2);
+    t3.move(t2);
+    getTaskManager().deleteTask(t2);
+    assertEquals(TestSetupHelper.newMonday().getTime(), getTaskManager().getProjectStart());
+    assertEquals(TestSetupHelper.newTuesday().getTime(), getTaskManager().getProjectEnd());
+
+    getTaskManager().deleteTask(t1);
+    assertEquals(getTaskManager().getRootTask().getStart().getTime(), getTaskManager().getProjectStart());
+  }
+}
@@ -76,4 +76,35 @@ public class CostAlgorithmTest extends TaskTestCase {
     assertEquals(BigDecimal.valueOf(10), t.getCost().getValue());
   }
 
+  public void testCachedCostIsReset() {
+    TaskManagerBuilder builder = TestSetupHelper.newTaskManagerBuilder();
+    setTaskManager(builder.build());
+    HumanResource joe = new HumanResource("Joe", 1, builder.getResourceManager());
+    joe.setStandardPayRate(BigDecimal.valueOf(5));
+    builder.getResourceManager().add(joe);
+
+    Task supertask = createTask();
+    Task subtask1 = createTask();
+    Task subtask2 = createTask();
+    subtask1.move(supertask);
+    subtask1.getAssignmentCollection().addAssignment(joe).setLoad(100f);
+    subtask2.getCost().setCalculated(false);
+    subtask2.getCost().setValue(BigDecimal.valueOf(3));
+    assertEquals(BigDecimal.valueOf(5f), supertask.getCost().getValue());
+
+    subtask1.setDuration(getTaskManager().createLength(2));
+    assertEquals(BigDecimal.valueOf(10f), supertask.getCost().getValue());
+
+    joe.setStandardPayRate(BigDecimal.valueOf(10));
+    assertEquals(BigDecimal.valueOf(20f), supertask.getCost().getValue());
+
+    subtask1.getAssignmentCollection().getAssignment(joe).setLoad(50f);
+    assertEquals(BigDecimal.valueOf(10f), supertask.getCost().getValue());
+
+    subtask2.move(supertask);
+    assertEquals(BigDecimal.valueOf(13f), supertask.getCost().getValue());
+
+    subtask1.getAssignmentCollection().deleteAssignment(joe);
+    assertEquals(0, BigDecimal.valueOf(3).compareTo(supertask.getCost().getValue()));
+  }
 }
@@ -226,6 +226,46 @@ public class SchedulerTest extends TaskTestCase {
     assertEquals(TestSetupHelper.newTuesday(), tasks[3].getStart());
   }
 
+  public void testIncrementalPassFollowsChangedTask() throws Exception {
+    getTaskManager().getAlgorithmCollection().getRecalculateTaskScheduleAlgorithm().setEnabled(false);
+    // t0 -> t1 -> t2 FS and unrelated t3 which violates nothing
+    Task[] tasks = new Task[] {
+        createTask(TestSetupHelper.newMonday()), createTask(TestSetupHelper.newMonday()),
+        createTask(TestSetupHelper.newMonday()), createTask(TestSetupHelper.newMonday())};
+    TaskDependency[] deps = new TaskDependency[] {createDependency(tasks[2], tasks[1]), createDependency(tasks[1], tasks[0])};
+    DependencyGraph graph = createGraph(tasks, deps);
+
+    SchedulerImpl scheduler = new SchedulerImpl(graph, Suppliers.ofInstance(getTaskManager().getTaskHierarchy()));
+    scheduler.run();
+    assertEquals(TestSetupHelper.newWendesday(), tasks[2].getStart());
+
+    scheduler.setVerificationEnabled(true);
+    tasks[0].shift(getTaskManager().createLength(1));
+    scheduler.run(tasks[0]);
+
+    assertEquals(TestSetupHelper.newTuesday(), tasks[0].getStart());
+    assertEquals(TestSetupHelper.newWendesday(), tasks[1].getStart());
+    assertEquals(TestSetupHelper.newThursday(), tasks[2].getStart());
+    assertEquals(TestSetupHelper.newMonday(), tasks[3].getStart());
+    assertEquals(0, scheduler.getVerificationMismatchCount());
+  }
+
+  public void testIncrementalPassReschedulesChangedTask() throws Exception {
+    getTaskManager().getAlgorithmCollection().getRecalculateTaskScheduleAlgorithm().setEnabled(false);
+    Task[] tasks = new Task[] {createTask(TestSetupHelper.newMonday()), createTask(TestSetupHelper.newMonday())};
+    TaskDependency[] deps = new TaskDependency[] {createDependency(tasks[1], tasks[0])};
+    DependencyGraph graph = createGraph(tasks, deps);
+
+    SchedulerImpl scheduler = new SchedulerImpl(graph, Suppliers.ofInstance(getTaskManager().getTaskHierarchy()));
+    scheduler.run();
+    assertEquals(TestSetupHelper.newTuesday(), tasks[1].getStart());
+
+    // moving dependant task to the left is not allowed by strong FS dependency
+    tasks[1].shift(getTaskManager().createLength(-1));
+    scheduler.run(tasks[1]);
+    assertEquals(TestSetupHelper.newTuesday(), tasks[1].getStart());
+  }
+
   private DependencyGraph createGraph(Task[] tasks, TaskDependency[] deps) {
     DependencyGraph graph = new DependencyGraph(Suppliers.ofInstance(getTaskManager().getTaskHierarchy()));
     initGraph(graph, tasks, deps);
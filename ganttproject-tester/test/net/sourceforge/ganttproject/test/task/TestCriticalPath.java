@@ -19,12 +19,17 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 package net.sourceforge.ganttproject.test.task;
 
 import java.util.Arrays;
+import java.util.Calendar;
 import java.util.HashSet;
 import java.util.Set;
 
+import biz.ganttproject.core.calendar.GPCalendar.DayType;
+import biz.ganttproject.core.calendar.WeekendCalendarImpl;
+import net.sourceforge.ganttproject.TestSetupHelper;
 import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.TaskManager;
 import net.sourceforge.ganttproject.task.TaskMutator;
+import net.sourceforge.ganttproject.task.algorithm.CriticalPathAlgorithm;
 import net.sourceforge.ganttproject.task.dependency.TaskDependency;
 import net.sourceforge.ganttproject.task.dependency.TaskDependencyConstraint;
 import net.sourceforge.ganttproject.task.dependency.constraint.FinishFinishConstraintImpl;
@@ -177,6 +182,46 @@ public class TestCriticalPath extends TaskTestCase {
         assertFalse(criticalTasks.contains(t2));
     }
 
+    public void testTotalAndFreeFloat() throws Exception {
+        TaskManager mgr = getTaskManager();
+        Task t1 = createTask();
+        Task t2 = createTask();
+        Task t3 = createTask();
+        Task t4 = createTask();
+        createDependency(t2, t1);
+        createDependency(t4, t3);
+        t4.setDuration(mgr.createLength(2));
+
+        CriticalPathAlgorithm alg = mgr.getAlgorithmCollection().getCriticalPathAlgorithm();
+        assertEquals(0, alg.getTotalFloat(t3).getLength());
+        assertEquals(0, alg.getTotalFloat(t4).getLength());
+        assertEquals(1, alg.getTotalFloat(t1).getLength());
+        assertEquals(0, alg.getFreeFloat(t1).getLength());
+        assertEquals(1, alg.getTotalFloat(t2).getLength());
+        assertEquals(1, alg.getFreeFloat(t2).getLength());
+
+        // Results are recalculated when schedule changes
+        t2.setDuration(mgr.createLength(3));
+        assertEquals(1, alg.getTotalFloat(t3).getLength());
+        assertEquals(0, alg.getTotalFloat(t2).getLength());
+        assertFalse(Arrays.asList(alg.getCriticalTasks()).contains(t4));
+    }
+
+    public void testFloatFollowsCalendarChanges() throws Exception {
+        WeekendCalendarImpl calendar = new WeekendCalendarImpl();
+        setTaskManager(TestSetupHelper.newTaskManagerBuilder().withCalendar(calendar).build());
+        calendar.addListener(getTaskManager().getCalendarListener());
+        Task t1 = createTask(TestSetupHelper.newMonday(), 1);
+        createTask(TestSetupHelper.newThursday(), 1);
+
+        CriticalPathAlgorithm alg = getTaskManager().getAlgorithmCollection().getCriticalPathAlgorithm();
+        assertEquals(3, alg.getTotalFloat(t1).getLength());
+
+        // Task dates do not change, but working time between them does
+        calendar.setWeekDayType(Calendar.WEDNESDAY, DayType.WEEKEND);
+        assertEquals(2, alg.getTotalFloat(t1).getLength());
+    }
+
     class LaggedDependencyChainCriticalPathTester {
         private final Task t1;
         private final Task t2;
@@ -126,4 +126,37 @@ public class TestTaskCompletionPercentage extends TaskTestCase {
     alg.run(supertask);
     assertEquals("Unexpected completion percentage of supertask=" + supertask, 75, supertask.getCompletionPercentage());
   }
+
+  public void testNestedSupertasksAreRecalculatedOnce() {
+    Task supertask = createTask();
+    Task middle = createTask();
+    Task task1 = createTask();
+    Task task2 = createTask();
+    Task task3 = createTask();
+    task3.setDuration(getTaskManager().createLength(2));
+    middle.move(supertask);
+    task1.move(middle);
+    task2.move(middle);
+    task3.move(supertask);
+    task1.setCompletionPercentage(100);
+    task3.setCompletionPercentage(50);
+
+    RecalculateTaskCompletionPercentageAlgorithm alg = getTaskManager().getAlgorithmCollection().getRecalculateTaskCompletionPercentageAlgorithm();
+    alg.run();
+    assertEquals(50, middle.getCompletionPercentage());
+    // middle lasts 1 day and it is 50% complete, task3 lasts 2 days and it is 50% complete
+    assertEquals(50, supertask.getCompletionPercentage());
+
+    // Incremental update goes up the supertask chain
+    task2.setCompletionPercentage(100);
+    alg.run(task2);
+    assertEquals(100, middle.getCompletionPercentage());
+    assertEquals(66, supertask.getCompletionPercentage());
+
+    // Sums are dropped when durations change
+    task3.setDuration(getTaskManager().createLength(1));
+    task3.setCompletionPercentage(0);
+    alg.run(task3);
+    assertEquals(50, supertask.getCompletionPercentage());
+  }
 }
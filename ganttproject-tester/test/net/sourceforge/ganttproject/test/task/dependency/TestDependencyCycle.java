@@ -6,6 +6,9 @@
  */
 package net.sourceforge.ganttproject.test.task.dependency;
 
+import java.util.Arrays;
+import java.util.List;
+
 import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.dependency.TaskDependency;
 import net.sourceforge.ganttproject.task.dependency.TaskDependencyException;
@@ -36,6 +39,42 @@ public class TestDependencyCycle extends TaskTestCase {
         assertIsLooping(supertask, nestedTask);
     }
 
+    public void testCanCreateDependencyInChain() throws Exception {
+        Task t1 = createTask();
+        Task t2 = createTask();
+        Task t3 = createTask();
+        Task t4 = createTask();
+        createDependency(t2, t1);
+        createDependency(t3, t2);
+        assertFalse(getTaskManager().getDependencyCollection().canCreateDependency(t1, t3));
+        assertTrue(getTaskManager().getDependencyCollection().canCreateDependency(t3, t1));
+        assertTrue(getTaskManager().getDependencyCollection().canCreateDependency(t1, t4));
+        assertTrue(getTaskManager().getDependencyCollection().canCreateDependency(t4, t3));
+        // Graph is left untouched
+        assertEquals(1, t1.getDependencies().toArray().length);
+        assertEquals(0, t4.getDependencies().toArray().length);
+    }
+
+    public void testPossibleDependeesExcludeLoops() throws Exception {
+        Task supertask = createTask();
+        Task nested = createTask();
+        nested.move(supertask);
+        Task t1 = createTask();
+        Task t2 = createTask();
+        Task t3 = createTask();
+        createDependency(t1, nested);
+        createDependency(t2, t1);
+
+        List<Task> possible = Arrays.asList(getTaskManager().getAlgorithmCollection().getFindPossibleDependeesAlgorithm().run(supertask));
+        assertFalse(possible.contains(nested));
+        assertFalse(possible.contains(t1));
+        assertFalse(possible.contains(t2));
+        assertTrue(possible.contains(t3));
+
+        possible = Arrays.asList(getTaskManager().getAlgorithmCollection().getFindPossibleDependeesAlgorithm().run(t3));
+        assertEquals(4, possible.size());
+    }
+
     private void assertIsLooping(Task dependant, Task dependee) {
         boolean loopCreated = true;
         try {
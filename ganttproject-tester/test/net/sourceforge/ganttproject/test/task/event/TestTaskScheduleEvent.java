@@ -5,6 +5,7 @@ import java.util.Calendar;
 import biz.ganttproject.core.time.GanttCalendar;
 import biz.ganttproject.core.time.impl.GregorianTimeUnitStack;
 
+import net.sourceforge.ganttproject.TestSetupHelper;
 import net.sourceforge.ganttproject.test.task.TaskTestCase;
 import net.sourceforge.ganttproject.task.TaskManager;
 import net.sourceforge.ganttproject.task.Task;
@@ -57,8 +58,32 @@ public class TestTaskScheduleEvent extends TaskTestCase {
                 listener.hasBeenCalled());
     }
 
+    public void testScheduleEventsAreCompactedInBatch() throws Exception {
+        final TaskManager taskManager = getTaskManager();
+        final Task task1 = createTask(TestSetupHelper.newMonday());
+        final Task task2 = createTask(TestSetupHelper.newMonday());
+        createDependency(task2, task1);
+        assertEquals(TestSetupHelper.newTuesday(), task2.getStart());
+
+        final TaskListenerImpl listener = new TaskListenerImpl(taskManager);
+        taskManager.addTaskListener(listener);
+        taskManager.runBatch(new Runnable() {
+            @Override
+            public void run() {
+                task1.shift(taskManager.createLength(1));
+                task1.shift(taskManager.createLength(1));
+                assertFalse("Listener has been called inside the batch", listener.hasBeenCalled());
+                assertEquals(TestSetupHelper.newTuesday(), task2.getStart());
+            }
+        });
+        assertEquals(TestSetupHelper.newWendesday(), task1.getStart());
+        assertEquals(TestSetupHelper.newThursday(), task2.getStart());
+        assertEquals(2, listener.getCallCount());
+    }
+
     private static class TaskListenerImpl extends TaskListenerAdapter {
         private boolean hasBeenCalled;
+        private int myCallCount;
 
         public TaskListenerImpl(TaskManager taskManager) {
             super();
@@ -67,10 +92,15 @@ public class TestTaskScheduleEvent extends TaskTestCase {
         @Override
         public void taskScheduleChanged(TaskScheduleEvent e) {
             hasBeenCalled = true;
+            myCallCount++;
         }
 
         boolean hasBeenCalled() {
             return hasBeenCalled;
         }
+
+        int getCallCount() {
+            return myCallCount;
+        }
     }
 }
@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskContainmentHierarchyFacade;
 import net.sourceforge.ganttproject.test.task.TaskTestCase;
 
 public class TestTaskDocumentOrder extends TaskTestCase {
@@ -30,4 +31,35 @@ public class TestTaskDocumentOrder extends TaskTestCase {
         List<Task> actualOrder = Arrays.asList(getTaskManager().getTasks());
         assertEquals("Unexpected order of tasks returnedby TaskManager.getTasks()", expectedOrder, actualOrder);
     }
+
+    public void testHasNestedTasks() {
+        Task task1 = getTaskManager().createTask();
+        Task task2 = getTaskManager().createTask();
+        TaskContainmentHierarchyFacade facade = getTaskManager().getTaskHierarchy();
+        assertFalse(facade.hasNestedTasks(task1));
+        task2.move(task1);
+        assertTrue(facade.hasNestedTasks(task1));
+        task2.move(getTaskManager().getRootTask());
+        assertFalse(facade.hasNestedTasks(task1));
+    }
+
+    public void testDocumentOrderIsUpdatedOnMove() {
+        Task task1 = getTaskManager().createTask();
+        Task task2 = getTaskManager().createTask();
+        Task task3 = getTaskManager().createTask();
+        TaskContainmentHierarchyFacade facade = getTaskManager().getTaskHierarchy();
+        assertTrue(facade.compareDocumentOrder(task1, task3) < 0);
+        assertTrue(facade.compareDocumentOrder(task3, task2) > 0);
+
+        task1.move(task3);
+        assertTrue(facade.compareDocumentOrder(task1, task3) > 0);
+        assertTrue(facade.compareDocumentOrder(task2, task1) < 0);
+        assertEquals(0, facade.compareDocumentOrder(task1, task1));
+        assertEquals(Arrays.asList(task2, task3, task1), Arrays.asList(getTaskManager().getTasks()));
+
+        task1.move(getTaskManager().getRootTask());
+        assertTrue(facade.compareDocumentOrder(task1, task3) > 0);
+        assertTrue(facade.compareDocumentOrder(task1, task2) > 0);
+        assertEquals(Arrays.asList(task2, task3, task1), Arrays.asList(getTaskManager().getTasks()));
+    }
 }
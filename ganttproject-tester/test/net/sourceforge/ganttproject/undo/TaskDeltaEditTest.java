@@ -0,0 +1,173 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.undo;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.swing.undo.AbstractUndoableEdit;
+import javax.swing.undo.UndoManager;
+
+import biz.ganttproject.core.time.GanttCalendar;
+import biz.ganttproject.core.time.TimeDuration;
+import net.sourceforge.ganttproject.TestSetupHelper;
+import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskMutator;
+import net.sourceforge.ganttproject.task.dependency.TaskDependencyException;
+import net.sourceforge.ganttproject.test.task.TaskTestCase;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for {@link TaskDeltaEditImpl}
+ */
+public class TaskDeltaEditTest extends TaskTestCase {
+  /**
+   * Stands in for {@link UndoableEditImpl}: restoring the state closes the project and
+   * creates all tasks anew, with the same ids.
+   */
+  private class SnapshotEdit extends AbstractUndoableEdit {
+    private final List<Object[]> myBefore;
+    private final List<Object[]> myAfter;
+
+    SnapshotEdit(Runnable editImpl) {
+      myBefore = save();
+      editImpl.run();
+      myAfter = save();
+    }
+
+    private List<Object[]> save() {
+      List<Object[]> result = Lists.newArrayList();
+      for (Task task : getTaskManager().getTasks()) {
+        result.add(new Object[] {task.getTaskID(), task.getName(), task.getStart().getTime(),
+            task.getDuration(), task.getCompletionPercentage()});
+      }
+      return result;
+    }
+
+    private void restore(List<Object[]> states) {
+      getTaskManager().getProjectListener().projectClosed();
+      for (Object[] state : states) {
+        getTaskManager().newTaskBuilder().withId((Integer) state[0]).withName((String) state[1])
+            .withStartDate((Date) state[2]).withDuration((TimeDuration) state[3])
+            .withCompletion((Integer) state[4]).build();
+      }
+    }
+
+    @Override
+    public void undo() {
+      super.undo();
+      restore(myBefore);
+    }
+
+    @Override
+    public void redo() {
+      super.redo();
+      restore(myAfter);
+    }
+  }
+
+  public void testUndoRedoRestoresDependantTasks() throws Exception {
+    final Task dependee = createTask(TestSetupHelper.newMonday(), 1);
+    final Task dependant = createTask(TestSetupHelper.newTuesday(), 2);
+    dependee.setCompletionPercentage(10);
+    createDependency(dependant, dependee);
+
+    TaskDeltaEditImpl edit = new TaskDeltaEditImpl("test", new Runnable() {
+      @Override
+      public void run() {
+        TaskMutator mutator = dependee.createMutator();
+        mutator.setDuration(getTaskManager().createLength(2));
+        mutator.setCompletionPercentage(50);
+        mutator.setName("changed");
+        mutator.commit();
+      }
+    }, getTaskManager());
+    assertFalse(edit.isStructureChanged());
+    assertEquals(TestSetupHelper.newWendesday(), dependant.getStart());
+    GanttCalendar dependantEnd = dependant.getEnd();
+
+    edit.undo();
+    assertEquals(TestSetupHelper.newMonday(), dependee.getStart());
+    assertEquals(TestSetupHelper.newTuesday(), dependee.getEnd());
+    assertEquals(10, dependee.getCompletionPercentage());
+    assertEquals(String.valueOf(dependee.getTaskID()), dependee.getName());
+    assertEquals(TestSetupHelper.newTuesday(), dependant.getStart());
+    assertEquals(TestSetupHelper.newThursday(), dependant.getEnd());
+
+    edit.redo();
+    assertEquals(TestSetupHelper.newWendesday(), dependee.getEnd());
+    assertEquals(50, dependee.getCompletionPercentage());
+    assertEquals("changed", dependee.getName());
+    assertEquals(TestSetupHelper.newWendesday(), dependant.getStart());
+    assertEquals(dependantEnd, dependant.getEnd());
+  }
+
+  public void testStructureChangeIsDetected() {
+    final Task dependee = createTask(TestSetupHelper.newMonday(), 1);
+    final Task dependant = createTask(TestSetupHelper.newMonday(), 1);
+    TaskDeltaEditImpl edit = new TaskDeltaEditImpl("test", new Runnable() {
+      @Override
+      public void run() {
+        try {
+          createDependency(dependant, dependee);
+        } catch (TaskDependencyException e) {
+          fail(e.getMessage());
+        }
+      }
+    }, getTaskManager());
+    assertTrue(edit.isStructureChanged());
+    assertNull(getTaskManager().getChangeRecorder());
+  }
+
+  public void testDeltaEditAfterSnapshotRestore() throws Exception {
+    final Task task = createTask(TestSetupHelper.newMonday(), 1);
+    final int taskId = task.getTaskID();
+    UndoManager undoManager = new UndoManager();
+    undoManager.addEdit(new TaskDeltaEditImpl("delta", new Runnable() {
+      @Override
+      public void run() {
+        TaskMutator mutator = task.createMutator();
+        mutator.setName("changed");
+        mutator.setCompletionPercentage(50);
+        mutator.commit();
+      }
+    }, getTaskManager()));
+    undoManager.addEdit(new SnapshotEdit(new Runnable() {
+      @Override
+      public void run() {
+        createTask(TestSetupHelper.newTuesday(), 1);
+      }
+    }));
+    assertEquals(2, getTaskManager().getTaskCount());
+
+    undoManager.undo();
+    assertEquals(1, getTaskManager().getTaskCount());
+    assertNotSame(task, getTaskManager().getTask(taskId));
+    assertEquals("changed", getTaskManager().getTask(taskId).getName());
+
+    undoManager.undo();
+    assertEquals(String.valueOf(taskId), getTaskManager().getTask(taskId).getName());
+    assertEquals(0, getTaskManager().getTask(taskId).getCompletionPercentage());
+
+    undoManager.redo();
+    assertEquals("changed", getTaskManager().getTask(taskId).getName());
+    assertEquals(50, getTaskManager().getTask(taskId).getCompletionPercentage());
+  }
+}
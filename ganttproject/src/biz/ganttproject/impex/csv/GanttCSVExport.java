@@ -30,6 +30,7 @@ import org.apache.commons.csv.CSVPrinter;
 
 import biz.ganttproject.core.model.task.TaskDefaultColumn;
 import biz.ganttproject.core.option.BooleanOption;
+import biz.ganttproject.core.time.TimeDuration;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Function;
@@ -138,7 +139,10 @@ public class GanttCSVExport {
     writeTaskHeaders(writer);
     Map<String, BooleanOption> options = csvOptions.getTaskOptions();
     List<CustomPropertyDefinition> customFields = myProject.getTaskCustomColumnManager().getDefinitions();
-    for (Task task : myProject.getTaskManager().getTasks()) {
+    Task[] tasks = myProject.getTaskManager().getTasks();
+    List<List<Object>> customFieldValues = getCustomFieldValues(customFields, tasks);
+    for (int i = 0; i < tasks.length; i++) {
+      Task task = tasks[i];
       for (Map.Entry<String, BooleanOption> entry : csvOptions.getTaskOptions().entrySet()) {
         if (!entry.getValue().isChecked()) {
           continue;
@@ -191,6 +195,10 @@ public class GanttCSVExport {
           case COST:
             writer.print(task.getCost().getValue().toPlainString());
             break;
+          case TOTAL_FLOAT:
+            TimeDuration totalFloat = task.getManager().getAlgorithmCollection().getCriticalPathAlgorithm().getTotalFloat(task);
+            writer.print(totalFloat == null ? "" : String.valueOf(totalFloat.getLength()));
+            break;
           case INFO:
           case PRIORITY:
           case TYPE:
@@ -198,15 +206,27 @@ public class GanttCSVExport {
           }
         }
       }
-      CustomColumnsValues customValues = task.getCustomValues();
       for (int j = 0; j < customFields.size(); j++) {
-        Object nextCustomFieldValue = customValues.getValue(customFields.get(j));
+        Object nextCustomFieldValue = customFieldValues.get(j).get(i);
         writer.print(nextCustomFieldValue == null ? "" : String.valueOf(nextCustomFieldValue));
       }
       writer.println();
     }
   }
 
+  /** @return values of every custom field for all the tasks, read column by column */
+  private static List<List<Object>> getCustomFieldValues(List<CustomPropertyDefinition> customFields, Task[] tasks) {
+    List<CustomColumnsValues> holders = Lists.newArrayListWithCapacity(tasks.length);
+    for (Task task : tasks) {
+      holders.add(task.getCustomValues());
+    }
+    List<List<Object>> result = Lists.newArrayListWithCapacity(customFields.size());
+    for (CustomPropertyDefinition def : customFields) {
+      result.add(CustomColumnsValues.getColumnValues(def, holders));
+    }
+    return result;
+  }
+
   private void writeResourceHeaders(CSVPrinter writer) throws IOException {
     for (Map.Entry<String, BooleanOption> entry : csvOptions.getResourceOptions().entrySet()) {
       ResourceDefaultColumn defaultColumn = ResourceDefaultColumn.find(entry.getKey());
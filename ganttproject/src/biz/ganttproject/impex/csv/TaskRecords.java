@@ -41,7 +41,6 @@ import org.apache.commons.csv.CSVRecord;
 import biz.ganttproject.core.model.task.TaskDefaultColumn;
 import biz.ganttproject.core.time.TimeUnitStack;
 
-import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Objects;
 import com.google.common.base.Strings;
@@ -59,7 +58,9 @@ class TaskRecords extends RecordGroup {
     ID(TaskDefaultColumn.ID.getNameKey()),
     NAME("tableColName"), BEGIN_DATE("tableColBegDate"), END_DATE("tableColEndDate"), WEB_LINK("webLink"),
     NOTES("notes"), COMPLETION("tableColCompletion"), RESOURCES("resources"), DURATION("tableColDuration"),
-    PREDECESSORS(TaskDefaultColumn.PREDECESSORS.getNameKey()), OUTLINE_NUMBER(TaskDefaultColumn.OUTLINE_NUMBER.getNameKey());
+    PREDECESSORS(TaskDefaultColumn.PREDECESSORS.getNameKey()), OUTLINE_NUMBER(TaskDefaultColumn.OUTLINE_NUMBER.getNameKey()),
+    // Float is calculated, we recognize it only to avoid creating a custom column
+    TOTAL_FLOAT(TaskDefaultColumn.TOTAL_FLOAT.getNameKey());
 
     private final String text;
 
@@ -185,19 +186,13 @@ class TaskRecords extends RecordGroup {
       taskManager.getTaskHierarchy().move(wbsEntry.getValue(), parentTask, 0);
     }
     if (resourceManager != null) {
-      Map<String, HumanResource> resourceMap = Maps.uniqueIndex(resourceManager.getResources(), new Function<HumanResource, String>() {
-        @Override
-        public String apply(HumanResource input) {
-          return input.getName();
-        }
-      });
       for (Entry<Task, String> assignment : myAssignmentMap.entrySet()) {
         if (assignment.getValue() == null) {
           continue;
         }
         String[] names = assignment.getValue().split(";");
         for (String name : names) {
-          HumanResource resource = resourceMap.get(name);
+          HumanResource resource = resourceManager.getByName(name);
           if (resource != null) {
             assignment.getKey().getAssignmentCollection().addAssignment(resource);
           }
@@ -19,7 +19,9 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 package net.sourceforge.ganttproject;
 
 import java.io.*;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -38,10 +40,16 @@ import net.sourceforge.ganttproject.task.TaskManager;
 import org.xml.sax.SAXException;
 
 /**
+ * Baseline is kept in memory and the temporary file serves as a spill store: once
+ * the baseline is written to the file, the in-memory task list is only softly reachable
+ * and is re-read from the file if it was collected.
+ *
  * @author nbohn
  */
 public class GanttPreviousState {
-  private final List<GanttPreviousStateTask> myTasks;
+  private List<GanttPreviousStateTask> myTasks;
+
+  private SoftReference<List<GanttPreviousStateTask>> mySpilledTasks;
 
   private String myName;
 
@@ -49,7 +57,7 @@ public class GanttPreviousState {
 
   public GanttPreviousState(String name, List<GanttPreviousStateTask> tasks) {
     myName = name;
-    myTasks = tasks;
+    myTasks = Collections.unmodifiableList(tasks);
   }
 
   public void init() throws IOException {
@@ -72,10 +80,13 @@ public class GanttPreviousState {
     }
   }
 
-  public void saveFile() throws IOException {
+  public synchronized void saveFile() throws IOException {
+    List<GanttPreviousStateTask> tasks = load();
     BaselineSaver saver = new BaselineSaver();
     try {
-      saver.save(myFile, myTasks);
+      saver.save(myFile, tasks);
+      mySpilledTasks = new SoftReference<List<GanttPreviousStateTask>>(tasks);
+      myTasks = null;
     } catch (TransformerConfigurationException e) {
       throw new IOException(e);
     } catch (SAXException e) {
@@ -92,12 +103,30 @@ public class GanttPreviousState {
     return myName;
   }
 
-  public void remove() {
-    myFile.delete();
+  public synchronized void remove() {
+    if (myFile != null) {
+      myFile.delete();
+    }
+  }
+
+  /**
+   * @return unmodifiable list of baseline tasks or {@code null} if baseline could not be read
+   */
+  public synchronized List<GanttPreviousStateTask> load() {
+    if (myTasks != null) {
+      return myTasks;
+    }
+    List<GanttPreviousStateTask> tasks = mySpilledTasks == null ? null : mySpilledTasks.get();
+    if (tasks == null) {
+      tasks = loadFile();
+      if (tasks != null) {
+        mySpilledTasks = new SoftReference<List<GanttPreviousStateTask>>(tasks);
+      }
+    }
+    return tasks;
   }
 
-  public List<GanttPreviousStateTask> load() {
-    ArrayList<GanttPreviousStateTask> tasks = null;
+  private List<GanttPreviousStateTask> loadFile() {
     PreviousStateTasksTagHandler handler = new PreviousStateTasksTagHandler();
     SAXParserFactory factory = SAXParserFactory.newInstance();
     try {
@@ -113,8 +142,7 @@ public class GanttPreviousState {
       e.printStackTrace();
       return null;
     }
-    tasks = handler.getTasks();
-    return tasks;
+    return Collections.unmodifiableList(handler.getTasks());
   }
 
   public static List<GanttPreviousStateTask> createTasks(TaskManager taskManager) {
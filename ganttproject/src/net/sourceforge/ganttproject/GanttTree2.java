@@ -127,6 +127,8 @@ public class GanttTree2 extends TreeTableContainer<Task, GanttTreeTable, GanttTr
 
   private boolean isOnTaskSelectionEventProcessing;
 
+  private VisibleNodesFilter myVisibleNodesFilter;
+
   private Highlighter myDragHighlighter;
 
   private static Runnable createDirtyfier(final GanttProjectBase project) {
@@ -215,6 +217,7 @@ public class GanttTree2 extends TreeTableContainer<Task, GanttTreeTable, GanttTr
     });
 
     getTreeTable().getTree().addTreeExpansionListener(new GanttTreeExpansionListener());
+    myVisibleNodesFilter = new VisibleNodesFilter(getJTree());
 
     ToolTipManager.sharedInstance().registerComponent(getTreeTable());
 
@@ -571,11 +574,26 @@ public class GanttTree2 extends TreeTableContainer<Task, GanttTreeTable, GanttTr
     return getTreeTable().getVisibleFields();
   }
 
-  public List<Task> getVisibleNodes(VisibleNodesFilter visibleNodesFilter) {
-    return visibleNodesFilter.getVisibleNodes(getJTree(), getTreeTable().getVerticalScrollBar().getValue(),
+  public List<Task> getVisibleNodes() {
+    return myVisibleNodesFilter.getVisibleNodes(getTreeTable().getVerticalScrollBar().getValue(),
         getHeight(), getTreeTable().getRowHeight());
   }
 
+  /**
+   * @return tasks of all rows which are not hidden under collapsed nodes, in document order
+   */
+  public List<Task> getVisibleRows() {
+    return myVisibleNodesFilter.getRows();
+  }
+
+  /**
+   * @return index in {@link #getVisibleRows()} of the first task returned from {@link #getVisibleNodes()}
+   */
+  public int getFirstVisibleRow() {
+    return myVisibleNodesFilter.findFirstRow(getTreeTable().getVerticalScrollBar().getValue(),
+        getTreeTable().getRowHeight());
+  }
+
   @Override
   public void startDefaultEditing(Task modelElement) {
     if (getTable().isEditing()) {
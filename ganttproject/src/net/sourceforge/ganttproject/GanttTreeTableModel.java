@@ -38,6 +38,7 @@ import net.sourceforge.ganttproject.task.CustomColumnsException;
 import net.sourceforge.ganttproject.task.ResourceAssignment;
 import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.TaskManager;
+import net.sourceforge.ganttproject.task.TaskMutator;
 import net.sourceforge.ganttproject.task.TaskNode;
 import net.sourceforge.ganttproject.task.dependency.TaskDependency;
 import net.sourceforge.ganttproject.task.dependency.TaskDependencyException;
@@ -292,6 +293,10 @@ public class GanttTreeTableModel extends DefaultTreeTableModel implements TableC
       case COST:
         res = t.getCost().getValue();
         break;
+      case TOTAL_FLOAT:
+        TimeDuration totalFloat = t.getManager().getAlgorithmCollection().getCriticalPathAlgorithm().getTotalFloat(t);
+        res = totalFloat == null ? null : totalFloat.getLength();
+        break;
       default:
         break;
       }
@@ -312,12 +317,17 @@ public class GanttTreeTableModel extends DefaultTreeTableModel implements TableC
     }
     if (isCellEditable(node, column) && !Objects.equal(value, getValueAt(node, column))) {
       // System.out.println("undoable column: " + column);
-      myUiFacade.getUndoManager().undoableEdit("Change properties column", new Runnable() {
+      Runnable edit = new Runnable() {
         @Override
         public void run() {
           setValue(value, node, column);
         }
-      });
+      };
+      if (isTaskAttributeColumn(column)) {
+        myUiFacade.getUndoManager().undoableTaskEdit("Change properties column", edit);
+      } else {
+        myUiFacade.getUndoManager().undoableEdit("Change properties column", edit);
+      }
     } else {
       // System.out.println("NOT undoable column: " + column);
       setValue(value, node, column);
@@ -325,6 +335,27 @@ public class GanttTreeTableModel extends DefaultTreeTableModel implements TableC
     myUiFacade.getActiveChart().reset();
   }
 
+  /**
+   * @return true if editing the column changes only task attributes and can be undone
+   *   with task state deltas
+   */
+  private static boolean isTaskAttributeColumn(int column) {
+    if (column >= STANDARD_COLUMN_COUNT) {
+      return false;
+    }
+    switch (TaskDefaultColumn.values()[column]) {
+    case NAME:
+    case BEGIN_DATE:
+    case END_DATE:
+    case DURATION:
+    case COMPLETION:
+    case COST:
+      return true;
+    default:
+      return false;
+    }
+  }
+
   /**
    * Set value in left pane cell
    *
@@ -422,7 +453,10 @@ public class GanttTreeTableModel extends DefaultTreeTableModel implements TableC
 
   private void setCustomPropertyValue(Object value, Object node, int column) {
     try {
-      ((Task) ((TaskNode) node).getUserObject()).getCustomValues().setValue(getCustomProperty(column), value);
+      // Mutator fires the task event, so listeners like the search index see the new value
+      TaskMutator mutator = ((Task) ((TaskNode) node).getUserObject()).createMutator();
+      mutator.setCustomProperty(getCustomProperty(column), value);
+      mutator.commit();
     } catch (CustomColumnsException e) {
       if (!GPLogger.log(e)) {
         e.printStackTrace(System.err);
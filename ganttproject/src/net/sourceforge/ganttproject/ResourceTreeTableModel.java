@@ -81,7 +81,6 @@ public class ResourceTreeTableModel extends DefaultTreeTableModel {
       void fireResourceChange(Task task) {
         ResourceAssignment[] assignments = task.getAssignments();
         for (int i = 0; i < assignments.length; i++) {
-          assignments[i].getResource().resetLoads();
           resourceAssignmentsChanged(new HumanResource[] { assignments[i].getResource() });
         }
       }
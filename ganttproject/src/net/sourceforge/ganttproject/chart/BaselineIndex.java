@@ -0,0 +1,119 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.chart;
+
+import java.util.Date;
+import java.util.List;
+
+import net.sourceforge.ganttproject.GanttPreviousStateTask;
+import net.sourceforge.ganttproject.task.TaskManager;
+
+/**
+ * Baseline tasks indexed by task id. Lookup is a probe in an open addressing
+ * int-to-int hash table, start dates are extracted once and end dates are computed
+ * for all tasks at once and kept until the calendar changes.
+ *
+ * If baseline contains several records with the same id, the first one wins,
+ * like it used to be with the linear search.
+ */
+class BaselineIndex {
+  private final List<GanttPreviousStateTask> myTasks;
+  private final int[] myIds;
+  // Position of the task in myTasks plus one; zero marks an empty slot
+  private final int[] mySlots;
+  private final int myMask;
+  private final long[] myStartDates;
+  private volatile long[] myEndDates;
+
+  BaselineIndex(List<GanttPreviousStateTask> tasks) {
+    myTasks = tasks;
+    int capacity = Integer.highestOneBit(Math.max(4, tasks.size()) * 2 - 1) << 1;
+    myIds = new int[capacity];
+    mySlots = new int[capacity];
+    myMask = capacity - 1;
+    myStartDates = new long[tasks.size()];
+    for (int i = 0; i < tasks.size(); i++) {
+      GanttPreviousStateTask task = tasks.get(i);
+      myStartDates[i] = task.getStart().getTimeInMillis();
+      int slot = findSlot(task.getId());
+      if (mySlots[slot] == 0) {
+        myIds[slot] = task.getId();
+        mySlots[slot] = i + 1;
+      }
+    }
+  }
+
+  List<GanttPreviousStateTask> getTasks() {
+    return myTasks;
+  }
+
+  /**
+   * @return position of the baseline record of the given task or -1 if baseline has no such task
+   */
+  int indexOf(int taskId) {
+    return mySlots[findSlot(taskId)] - 1;
+  }
+
+  GanttPreviousStateTask get(int index) {
+    return myTasks.get(index);
+  }
+
+  Date getStartDate(int index) {
+    return new Date(myStartDates[index]);
+  }
+
+  Date getEndDate(int index, TaskManager taskManager) {
+    long[] endDates = myEndDates;
+    if (endDates == null) {
+      endDates = computeEndDates(taskManager);
+      myEndDates = endDates;
+    }
+    return new Date(endDates[index]);
+  }
+
+  /**
+   * Drops end dates which were computed with the previous calendar settings
+   */
+  void resetEndDates() {
+    myEndDates = null;
+  }
+
+  private long[] computeEndDates(TaskManager taskManager) {
+    long[] result = new long[myTasks.size()];
+    for (int i = 0; i < result.length; i++) {
+      Date endDate = taskManager.getCalendar().shiftDate(new Date(myStartDates[i]),
+          taskManager.createLength(myTasks.get(i).getDuration()));
+      result[i] = endDate.getTime();
+    }
+    return result;
+  }
+
+  private int findSlot(int taskId) {
+    int slot = mix(taskId) & myMask;
+    while (mySlots[slot] != 0 && myIds[slot] != taskId) {
+      slot = (slot + 1) & myMask;
+    }
+    return slot;
+  }
+
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
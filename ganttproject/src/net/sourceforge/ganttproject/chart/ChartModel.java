@@ -69,6 +69,18 @@ public interface ChartModel {
 
   void paint(Graphics g);
 
+  /**
+   * Builds the scene for the current bounds without painting it.
+   */
+  void buildScene();
+
+  /**
+   * Paints the scene built by the last {@link #buildScene()} call, skipping the primitives
+   * which are entirely above topY or below bottomY. Each call uses its own painter, so
+   * the same scene may be painted into several images concurrently.
+   */
+  void paintScene(Graphics g, int topY, int bottomY);
+
   void setVerticalOffset(int i);
 
   ChartUIConfiguration getChartUIConfiguration();
@@ -430,6 +430,13 @@ public abstract class ChartModelBase implements /* TimeUnitStack.Listener, */Cha
 
   @Override
   public void paint(Graphics g) {
+    buildScene();
+    myPainter.setGraphics(g);
+    paintScene(myPainter, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void buildScene() {
     int height = (int) getBounds().getHeight();
     for (SceneBuilder renderer : getRenderers()) {
       renderer.reset(height);
@@ -437,16 +444,25 @@ public abstract class ChartModelBase implements /* TimeUnitStack.Listener, */Cha
     for (SceneBuilder renderer : getRenderers()) {
       renderer.build();
     }
-    myPainter.setGraphics(g);
+  }
+
+  @Override
+  public void paintScene(Graphics g, int topY, int bottomY) {
+    StyledPainterImpl painter = new StyledPainterImpl(myPainter);
+    painter.setGraphics(g);
+    paintScene(painter, topY, bottomY);
+  }
+
+  private void paintScene(Painter painter, int topY, int bottomY) {
     for (SceneBuilder renderer : getRenderers()) {
-      renderer.getCanvas().paint(myPainter);
+      renderer.getCanvas().paint(painter, topY, bottomY);
     }
     for (int layer = 0;; layer++) {
       boolean layerPainted = false;
       for (SceneBuilder renderer : getRenderers()) {
         List<Canvas> layers = renderer.getCanvas().getLayers();
         if (layer < layers.size()) {
-          layers.get(layer).paint(myPainter);
+          layers.get(layer).paint(painter, topY, bottomY);
           layerPainted = true;
         }
       }
@@ -42,6 +42,11 @@ public class ChartModelImpl extends ChartModelBase {
 
   private List<Task> myVisibleTasks;
 
+  // Rows of the task tree and position of the first visible task among them
+  private List<Task> myRows;
+
+  private int myFirstVisibleRow;
+
   private final TaskRendererImpl2 myTaskRendererImpl;
 
   private TaskManager taskManager;
@@ -56,7 +61,7 @@ public class ChartModelImpl extends ChartModelBase {
 
   private Set<Task> myHiddenTasks;
 
-  private List<GanttPreviousStateTask> myBaseline;
+  private BaselineIndex myBaseline;
 
   public ChartModelImpl(TaskManager taskManager, TimeUnitStack timeUnitStack, final UIConfiguration projectConfig) {
     super(taskManager, timeUnitStack, projectConfig);
@@ -103,6 +108,27 @@ public class ChartModelImpl extends ChartModelBase {
   @Override
   public void setVisibleTasks(List<Task> visibleTasks) {
     myVisibleTasks = visibleTasks;
+    myRows = null;
+  }
+
+  /**
+   * Sets all rows of the task tree which are not hidden under collapsed tasks. Visible tasks
+   * must be a slice of rows starting at firstVisibleRow. Must be called after {@link #setVisibleTasks(List)}
+   */
+  public void setRows(List<Task> rows, int firstVisibleRow) {
+    myRows = rows;
+    myFirstVisibleRow = firstVisibleRow;
+  }
+
+  /**
+   * @return rows of the task tree or {@code null} if they are not known
+   */
+  List<Task> getRows() {
+    return myRows;
+  }
+
+  int getFirstVisibleRow() {
+    return myFirstVisibleRow;
   }
 
   public void setExplicitlyHiddenTasks(Set<Task> hiddenTasks) {
@@ -249,20 +275,37 @@ public class ChartModelImpl extends ChartModelBase {
   }
 
   public int setBaseline(List<GanttPreviousStateTask> tasks) {
-    myBaseline = tasks;
+    return setBaselineIndex(tasks == null ? null : new BaselineIndex(tasks));
+  }
+
+  private int setBaselineIndex(BaselineIndex baseline) {
+    myBaseline = baseline;
     return (calculateRowHeight());
   }
 
   List<GanttPreviousStateTask> getBaseline() {
+    return myBaseline == null ? null : myBaseline.getTasks();
+  }
+
+  BaselineIndex getBaselineIndex() {
     return myBaseline;
   }
 
+  @Override
+  public void resetOffsets() {
+    super.resetOffsets();
+    if (myBaseline != null) {
+      myBaseline.resetEndDates();
+    }
+  }
+
   @Override
   public ChartModelBase createCopy() {
     ChartModelImpl result = new ChartModelImpl(getTaskManager(), getTimeUnitStack(), getProjectConfig());
     super.setupCopy(result);
     result.setVisibleTasks(getVisibleTasks());
-    result.setBaseline(getBaseline());
+    result.setRows(myRows, myFirstVisibleRow);
+    result.setBaselineIndex(getBaselineIndex());
     return result;
   }
 
@@ -80,6 +80,28 @@ public class StyledPainterImpl implements Painter {
   private final static BasicStroke defaultStroke = new BasicStroke();
 
   public StyledPainterImpl(final ChartUIConfiguration config) {
+    this(config, new Properties());
+    PropertiesUtil.loadProperties(myProperties, "/chart.properties");
+    config.getChartStylesOption().addChangeValueListener(new ChangeValueListener() {
+      @Override
+      public void changeValue(ChangeValueEvent event) {
+        for (Entry<String, String> entry : config.getChartStylesOption().getValues()) {
+          myProperties.put(entry.getKey(), entry.getValue());
+        }
+      }
+    });
+  }
+
+  /**
+   * Creates a painter which shares configuration and style properties with the
+   * given one but paints on its own graphics. Used for painting the same scene
+   * in several threads.
+   */
+  public StyledPainterImpl(StyledPainterImpl prototype) {
+    this(prototype.myConfig, prototype.myProperties);
+  }
+
+  private StyledPainterImpl(final ChartUIConfiguration config, Properties properties) {
     myConfig = config;
     margin = myConfig.getMargin();
 
@@ -104,16 +126,7 @@ public class StyledPainterImpl implements Painter {
     myStyle2painter.put("load.underload.first.last", myResourceLoadPainter);
     myStyle2painter.put("previousStateTask", myPreviousStateTaskRectanglePainter);
 
-    myProperties = new Properties();
-    PropertiesUtil.loadProperties(myProperties, "/chart.properties");
-    config.getChartStylesOption().addChangeValueListener(new ChangeValueListener() {
-      @Override
-      public void changeValue(ChangeValueEvent event) {
-        for (Entry<String, String> entry : config.getChartStylesOption().getValues()) {
-          myProperties.put(entry.getKey(), entry.getValue());
-        }
-      }
-    });
+    myProperties = properties;
     myTextPainter = new TextPainter(myProperties, new Supplier<Font>() {
       public Font get() {
         return config.getChartFont();
@@ -25,7 +25,6 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
-import net.sourceforge.ganttproject.GanttPreviousStateTask;
 import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.TaskActivitiesAlgorithm;
 import net.sourceforge.ganttproject.task.TaskActivity;
@@ -51,7 +50,6 @@ import biz.ganttproject.core.option.DefaultEnumerationOption;
 import biz.ganttproject.core.option.EnumerationOption;
 import biz.ganttproject.core.option.GPOption;
 import biz.ganttproject.core.option.GPOptionGroup;
-import biz.ganttproject.core.time.TimeDuration;
 import biz.ganttproject.core.time.TimeUnit;
 
 import com.google.common.base.Strings;
@@ -278,6 +276,20 @@ public class TaskRendererImpl2 extends ChartRendererBase {
         }
       }
     }
+
+    /**
+     * Builds the remaining partitions from the flattened rows of the task tree, where tasks
+     * hidden under collapsed tasks are already filtered out.
+     *
+     * @param rows all visible rows in their document order
+     * @param firstVisibleRow index of the first task of the viewport partition in rows
+     */
+    void build(List<Task> rows, int firstVisibleRow) {
+      int aboveEnd = Math.min(firstVisibleRow, rows.size());
+      int belowStart = Math.min(aboveEnd + insideViewport.size(), rows.size());
+      aboveViewport.addAll(rows.subList(0, aboveEnd));
+      belowViewport.addAll(rows.subList(belowStart, rows.size()));
+    }
   }
 
   @Override
@@ -292,7 +304,12 @@ public class TaskRendererImpl2 extends ChartRendererBase {
         myModel.getChartUIConfiguration().getHeaderHeight() - myModel.getVerticalOffset());
 
     VerticalPartitioning vp = new VerticalPartitioning(getVisibleTasks());
-    vp.build(getChartModel().getTaskManager().getTaskHierarchy());
+    ChartModelImpl model = (ChartModelImpl) getChartModel();
+    if (model.getRows() == null) {
+      vp.build(getChartModel().getTaskManager().getTaskHierarchy());
+    } else {
+      vp.build(model.getRows(), model.getFirstVisibleRow());
+    }
     OffsetList defaultUnitOffsets = getChartModel().getDefaultUnitOffsets();
 
     renderVisibleTasks(getVisibleTasks(), defaultUnitOffsets);
@@ -399,49 +416,47 @@ public class TaskRendererImpl2 extends ChartRendererBase {
   }
 
   private void renderBaseline(Task t, int rowNum, OffsetList defaultUnitOffsets) {
-    TaskActivitiesAlgorithm alg = new TaskActivitiesAlgorithm(getCalendar());
-    List<GanttPreviousStateTask> baseline = myModel.getBaseline();
-    if (baseline != null) {
-      for (GanttPreviousStateTask taskBaseline : baseline) {
-        if (taskBaseline.getId() == t.getTaskID()) {
-          Date startDate = taskBaseline.getStart().getTime();
-          TimeDuration duration = getChartModel().getTaskManager().createLength(taskBaseline.getDuration());
-          Date endDate = getCalendar().shiftDate(startDate, duration);
-          if (endDate.equals(t.getEnd().getTime())) {
-            return;
-          }
-          List<String> styles = new ArrayList<String>();
-          if (t.isMilestone()) {
-            styles.add("milestone");
-          }
-          if (endDate.compareTo(t.getEnd().getTime()) < 0) {
-            styles.add("later");
-          } else {
-            styles.add("earlier");
-          }
-          List<TaskActivity> baselineActivities = new ArrayList<TaskActivity>();
-          if (t.isMilestone()) {
-            baselineActivities.add(new MilestoneTaskFakeActivity(t, startDate, endDate));
-          } else {
-            alg.recalculateActivities(t, baselineActivities, startDate, endDate);
-          }
-          List<Polygon> baselineRectangles = myBaselineActivityRenderer.renderActivities(rowNum, baselineActivities,
-              defaultUnitOffsets);
-          for (int i = 0; i < baselineRectangles.size(); i++) {
-            Polygon r = baselineRectangles.get(i);
-            r.setStyle("previousStateTask");
-            for (String s : styles) {
-              r.addStyle(s);
-            }
-            if (i == 0) {
-              r.addStyle("start");
-            }
-            if (i == baselineRectangles.size() - 1) {
-              r.addStyle("end");
-            }
-          }
-          return;
-        }
+    BaselineIndex baseline = myModel.getBaselineIndex();
+    if (baseline == null) {
+      return;
+    }
+    int index = baseline.indexOf(t.getTaskID());
+    if (index < 0) {
+      return;
+    }
+    Date startDate = baseline.getStartDate(index);
+    Date endDate = baseline.getEndDate(index, getChartModel().getTaskManager());
+    if (endDate.equals(t.getEnd().getTime())) {
+      return;
+    }
+    List<String> styles = new ArrayList<String>();
+    if (t.isMilestone()) {
+      styles.add("milestone");
+    }
+    if (endDate.compareTo(t.getEnd().getTime()) < 0) {
+      styles.add("later");
+    } else {
+      styles.add("earlier");
+    }
+    List<TaskActivity> baselineActivities = new ArrayList<TaskActivity>();
+    if (t.isMilestone()) {
+      baselineActivities.add(new MilestoneTaskFakeActivity(t, startDate, endDate));
+    } else {
+      new TaskActivitiesAlgorithm(getCalendar()).recalculateActivities(t, baselineActivities, startDate, endDate);
+    }
+    List<Polygon> baselineRectangles = myBaselineActivityRenderer.renderActivities(rowNum, baselineActivities,
+        defaultUnitOffsets);
+    for (int i = 0; i < baselineRectangles.size(); i++) {
+      Polygon r = baselineRectangles.get(i);
+      r.setStyle("previousStateTask");
+      for (String s : styles) {
+        r.addStyle(s);
+      }
+      if (i == 0) {
+        r.addStyle("start");
+      }
+      if (i == baselineRectangles.size() - 1) {
+        r.addStyle("end");
       }
     }
   }
@@ -512,7 +527,7 @@ public class TaskRendererImpl2 extends ChartRendererBase {
 
   int calculateRowHeight() {
     int rowHeight = myLabelsRenderer.calculateRowHeight();
-    if (myModel.getBaseline() != null) {
+    if (myModel.getBaselineIndex() != null) {
       rowHeight = rowHeight + 8;
     }
     return rowHeight;
@@ -18,39 +18,133 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
  */
 package net.sourceforge.ganttproject.chart;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreePath;
+
 import org.jdesktop.swingx.JXTreeTable;
 import org.jdesktop.swingx.treetable.MutableTreeTableNode;
 
-import net.sourceforge.ganttproject.TreeUtil;
+import com.google.common.collect.Lists;
+
 import net.sourceforge.ganttproject.task.Task;
 
 /**
- * Created by IntelliJ IDEA. User: bard
+ * Flattened row model of the task tree: tasks of the tree rows which are not hidden under
+ * collapsed nodes, in their document order, with prefix sums of row heights. Rows are
+ * collected from the tree once after expansion or structure change, and the tasks which
+ * are visible in the viewport are found by a binary search over the offsets.
  */
 public class VisibleNodesFilter {
-  public List<Task> getVisibleNodes(JXTreeTable jtree, int minHeight, int maxHeight, int nodeHeight) {
-    List<MutableTreeTableNode> preorderedNodes = TreeUtil.collectSubtree((MutableTreeTableNode) jtree.getTreeTableModel().getRoot());
-    List<Task> result = new ArrayList<Task>();
-    int currentHeight = 0;
-    for (int i = 1; i < preorderedNodes.size(); i++) {
-      MutableTreeTableNode nextNode = preorderedNodes.get(i);
-      if (false == nextNode.getUserObject() instanceof Task) {
-        continue;
+  private final JXTreeTable myTree;
+  private List<Task> myRows;
+  // myOffsets[i] is the top of the i-th row, the last element is the total height
+  private int[] myOffsets;
+  private int myRowHeight = -1;
+
+  public VisibleNodesFilter(JXTreeTable tree) {
+    myTree = tree;
+    myTree.addTreeExpansionListener(new TreeExpansionListener() {
+      @Override
+      public void treeExpanded(TreeExpansionEvent event) {
+        invalidate();
+      }
+
+      @Override
+      public void treeCollapsed(TreeExpansionEvent event) {
+        invalidate();
+      }
+    });
+    myTree.getTreeTableModel().addTreeModelListener(new TreeModelListener() {
+      @Override
+      public void treeNodesChanged(TreeModelEvent e) {
       }
-      if ((currentHeight + nodeHeight) > minHeight && jtree.isVisible(TreeUtil.createPath(nextNode))) {
-        result.add((Task) nextNode.getUserObject());
+
+      @Override
+      public void treeNodesInserted(TreeModelEvent e) {
+        invalidate();
       }
-      if (jtree.isVisible(TreeUtil.createPath(nextNode))) {
-        currentHeight += nodeHeight;
+
+      @Override
+      public void treeNodesRemoved(TreeModelEvent e) {
+        invalidate();
       }
-      if (currentHeight > minHeight + maxHeight) {
-        break;
+
+      @Override
+      public void treeStructureChanged(TreeModelEvent e) {
+        invalidate();
+      }
+    });
+  }
+
+  public synchronized void invalidate() {
+    myRows = null;
+  }
+
+  /**
+   * @return tasks of all rows which are not hidden under collapsed nodes, in document order
+   */
+  public synchronized List<Task> getRows() {
+    if (myRows == null) {
+      List<Task> rows = Lists.newArrayListWithExpectedSize(myTree.getRowCount());
+      for (int i = 0; i < myTree.getRowCount(); i++) {
+        TreePath path = myTree.getPathForRow(i);
+        Object userObject = path == null ? null : ((MutableTreeTableNode) path.getLastPathComponent()).getUserObject();
+        if (userObject instanceof Task) {
+          rows.add((Task) userObject);
+        }
+      }
+      myRows = Collections.unmodifiableList(rows);
+      myRowHeight = -1;
+    }
+    return myRows;
+  }
+
+  /**
+   * @return index of the first row which ends below the given vertical offset or the number of rows
+   *         if all rows end above it
+   */
+  public synchronized int findFirstRow(int y, int rowHeight) {
+    int[] offsets = getOffsets(rowHeight);
+    int low = 0;
+    int high = offsets.length - 1;
+    // Looking for the first row i such that offsets[i + 1] > y
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (offsets[mid + 1] > y) {
+        high = mid;
+      } else {
+        low = mid + 1;
       }
     }
-    return result;
+    return low;
   }
 
+  /**
+   * @return tasks of the rows which intersect the viewport starting at minHeight with height maxHeight
+   */
+  public synchronized List<Task> getVisibleNodes(int minHeight, int maxHeight, int nodeHeight) {
+    List<Task> rows = getRows();
+    int first = findFirstRow(minHeight, nodeHeight);
+    int last = findFirstRow(minHeight + maxHeight, nodeHeight);
+    return Lists.newArrayList(rows.subList(first, Math.min(last + 1, rows.size())));
+  }
+
+  private int[] getOffsets(int rowHeight) {
+    List<Task> rows = getRows();
+    if (myRowHeight != rowHeight) {
+      int[] offsets = new int[rows.size() + 1];
+      for (int i = 0; i < rows.size(); i++) {
+        offsets[i + 1] = offsets[i] + rowHeight;
+      }
+      myOffsets = offsets;
+      myRowHeight = rowHeight;
+    }
+    return myOffsets;
+  }
 }
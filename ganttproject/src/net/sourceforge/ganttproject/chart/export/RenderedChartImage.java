@@ -20,17 +20,41 @@ package net.sourceforge.ganttproject.chart.export;
 
 import java.awt.Color;
 import java.awt.Dimension;
-import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.DirectColorModel;
 import java.awt.image.Raster;
 import java.awt.image.SampleModel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Maps;
 
 import net.sourceforge.ganttproject.chart.ChartModel;
 import net.sourceforge.ganttproject.chart.SimpleRenderedImage;
 
+/**
+ * Chart image which is rasterized by horizontal tiles. The chart scene is built once
+ * and every tile paints only those primitives which intersect it. Image writers read
+ * tiles from the top to the bottom, so the tiles below the requested one are rasterized
+ * in advance in the worker threads, and the tiles above it are released.
+ */
 public class RenderedChartImage extends SimpleRenderedImage {
+  // Tile height is chosen so that a tile has about this many pixels
+  private static final int TILE_PIXELS = 1 << 21;
+  private static final int MIN_TILE_HEIGHT = 32;
+  private static final int MAX_TILE_HEIGHT = 512;
+  private static final int MAX_THREAD_COUNT = 4;
+
   private BufferedImage myTaskImage;
   ColorModel myColorModel = new DirectColorModel(32, 0x00ff0000, // Red
       0x0000ff00, // Green
@@ -38,11 +62,12 @@ public class RenderedChartImage extends SimpleRenderedImage {
       0x0 // Alpha
   );
   SampleModel mySampleModel;
-  // private final List myVisibleTasks;
-  private int myCurrentTile = -1;
-  private Raster myCurrentRaster;
   private final ChartModel myChartModel;
   private final int headerYOffset;
+  private final int myThreadCount;
+  private final Map<Integer, Future<Raster>> myTiles = Maps.newHashMap();
+  private ThreadPoolExecutor myExecutor;
+  private boolean isSceneBuilt;
 
   public RenderedChartImage(ChartModel chartModel, BufferedImage taskImage, int chartWidth, int chartHeight,
       int headerYOffset) {
@@ -55,50 +80,95 @@ public class RenderedChartImage extends SimpleRenderedImage {
     width = chartWidth + taskImage.getWidth();
     height = chartHeight;
     tileWidth = width;
-    tileHeight = 32;
+    tileHeight = Math.max(MIN_TILE_HEIGHT, Math.min(MAX_TILE_HEIGHT, TILE_PIXELS / Math.max(1, width)));
     this.headerYOffset = headerYOffset;
+    myThreadCount = Math.max(1, Math.min(MAX_THREAD_COUNT, Runtime.getRuntime().availableProcessors()));
   }
 
   public BufferedImage getWholeImage() {
-    BufferedImage chartImage = getChart(0, 0, getWidth(), getHeight(), getWidth(), getHeight());
-    BufferedImage result = new BufferedImage(chartImage.getWidth() + myTaskImage.getWidth(), getHeight(),
+    buildScene();
+    BufferedImage result = new BufferedImage(getWidth() + myTaskImage.getWidth(), getHeight(),
         BufferedImage.TYPE_INT_RGB);
-    Graphics g = result.getGraphics();
+    Graphics2D g = result.createGraphics();
+    g.setColor(Color.white);
+    g.fillRect(0, 0, result.getWidth(), result.getHeight());
     g.drawImage(myTaskImage, 0, 0, null);
     g.translate(myTaskImage.getWidth(), 0);
-    g.drawImage(chartImage, 0, 0, null);
+    g.clipRect(0, 0, getWidth(), getHeight());
+    myChartModel.paintScene(g, 0, getHeight());
+    g.dispose();
     return result;
   }
 
   @Override
-  public Raster getTile(int tileX, int tileY) {
-    if (myCurrentTile != tileY) {
-      int offsety = tileY * getTileHeight() - headerYOffset;
-      BufferedImage tile = getChart(myTaskImage.getWidth(), offsety, getTileWidth(), getTileHeight(), getWidth(),
-          getHeight());
-      Graphics g = tile.getGraphics();
-      g.translate(0, -offsety);
-      g.drawImage(myTaskImage, 0, 0, null);
-      myCurrentRaster = tile.getRaster().createTranslatedChild(0, tileY * getTileHeight());
-      myCurrentTile = tileY;
+  public synchronized Raster getTile(int tileX, int tileY) {
+    buildScene();
+    int lastTile = Math.min(tileY + 2 * myThreadCount, getNumYTiles() - 1);
+    for (Iterator<Integer> keys = myTiles.keySet().iterator(); keys.hasNext();) {
+      Integer key = keys.next();
+      if (key < tileY || key > lastTile) {
+        myTiles.get(key).cancel(false);
+        keys.remove();
+      }
     }
-    return myCurrentRaster;
+    for (int i = tileY; i <= lastTile; i++) {
+      if (!myTiles.containsKey(i)) {
+        final int nextTile = i;
+        myTiles.put(i, getExecutor().submit(new Callable<Raster>() {
+          @Override
+          public Raster call() throws Exception {
+            return rasterizeTile(nextTile);
+          }
+        }));
+      }
+    }
+    try {
+      return myTiles.get(tileY).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  private Raster rasterizeTile(int tileY) {
+    int offsety = tileY * getTileHeight() - headerYOffset;
+    BufferedImage tile = new BufferedImage(getTileWidth(), getTileHeight(), BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = tile.createGraphics();
+    g.setColor(Color.white);
+    g.fillRect(0, 0, getTileWidth(), getTileHeight());
+    g.translate(0, -offsety);
+    g.drawImage(myTaskImage, 0, 0, null);
+    g.translate(myTaskImage.getWidth(), 0);
+    g.clipRect(0, offsety, getTileWidth(), getTileHeight());
+    myChartModel.paintScene(g, offsety, offsety + getTileHeight());
+    g.dispose();
+    return tile.getRaster().createTranslatedChild(0, tileY * getTileHeight());
   }
 
-  protected void paintChart(Graphics g) {
-    myChartModel.paint(g);
+  private void buildScene() {
+    if (!isSceneBuilt) {
+      myChartModel.setBounds(new Dimension(getWidth(), getHeight()));
+      myChartModel.buildScene();
+      isSceneBuilt = true;
+    }
   }
 
-  private BufferedImage getChart(int offsetx, int offsety, int width, int height, int chartWidth, int chartHeight) {
-    BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-    Graphics g2 = result.getGraphics();
-    g2.setColor(Color.white);
-    g2.fillRect(0, 0, width, height);
-    g2.translate(offsetx, -offsety);
-    g2.clipRect(0, offsety, width, height);
-    myChartModel.setBounds(new Dimension(chartWidth, chartHeight));
-    paintChart(g2);
-    // myChartModel.setTuningOptions(ChartModelImpl.TuningOptions.DEFAULT);
-    return result;
+  private ThreadPoolExecutor getExecutor() {
+    if (myExecutor == null) {
+      myExecutor = new ThreadPoolExecutor(myThreadCount, myThreadCount, 1, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+              Thread result = new Thread(r, "Chart image tile");
+              result.setDaemon(true);
+              return result;
+            }
+          });
+      // Nobody tells us when the image is written, so idle threads just die
+      myExecutor.allowCoreThreadTimeOut(true);
+    }
+    return myExecutor;
   }
-}
\ No newline at end of file
+}
@@ -60,16 +60,22 @@ public class ClipboardTaskProcessor {
     return pasteAsChild(selectedTask, null, clipboardContents);
   }
 
-  private List<Task> pasteAsChild(Task pasteRoot, Task anchor, ClipboardContents clipboardContents) {
-    List<Task> result = Lists.newArrayListWithExpectedSize(clipboardContents.getTasks().size());
-    Map<Task, Task> original2copy = Maps.newHashMap();
-    for (Task task : clipboardContents.getTasks()) {
-      Task copy = copyAndInsert(task, pasteRoot, anchor, original2copy, clipboardContents);
-      anchor = copy;
-      result.add(copy);
-    }
-    copyDependencies(clipboardContents, original2copy);
-    copyAssignments(clipboardContents, original2copy);
+  private List<Task> pasteAsChild(final Task pasteRoot, final Task anchor, final ClipboardContents clipboardContents) {
+    final List<Task> result = Lists.newArrayListWithExpectedSize(clipboardContents.getTasks().size());
+    myTaskManager.runBatch(new Runnable() {
+      @Override
+      public void run() {
+        Map<Task, Task> original2copy = Maps.newHashMap();
+        Task prevSibling = anchor;
+        for (Task task : clipboardContents.getTasks()) {
+          Task copy = copyAndInsert(task, pasteRoot, prevSibling, original2copy, clipboardContents);
+          prevSibling = copy;
+          result.add(copy);
+        }
+        copyDependencies(clipboardContents, original2copy);
+        copyAssignments(clipboardContents, original2copy);
+      }
+    });
     return result;
   }
   private void copyAssignments(ClipboardContents clipboardContents, Map<Task, Task> original2copy) {
@@ -44,7 +44,6 @@ import net.sourceforge.ganttproject.chart.ChartModelImpl;
 import net.sourceforge.ganttproject.chart.ChartSelection;
 import net.sourceforge.ganttproject.chart.ChartViewState;
 import net.sourceforge.ganttproject.chart.TaskChartModelFacade;
-import net.sourceforge.ganttproject.chart.VisibleNodesFilter;
 import net.sourceforge.ganttproject.chart.export.ChartImageVisitor;
 import net.sourceforge.ganttproject.chart.item.ChartItem;
 import net.sourceforge.ganttproject.chart.item.TaskBoundaryChartItem;
@@ -173,9 +172,9 @@ public class GanttChartController extends AbstractChartImplementation implements
       model.setRowHeight(myTree.getRowHeight());
       model.setTopTimeUnit(getViewState().getTopTimeUnit());
       model.setBottomTimeUnit(getViewState().getBottomTimeUnit());
-      VisibleNodesFilter visibleNodesFilter = new VisibleNodesFilter();
-      List<Task> visibleTasks = myTree.getVisibleNodes(visibleNodesFilter);
+      List<Task> visibleTasks = myTree.getVisibleNodes();
       model.setVisibleTasks(visibleTasks);
+      myChartModel.setRows(myTree.getVisibleRows(), myTree.getFirstVisibleRow());
       myChartModel.setTimelineTasks(getUIFacade().getCurrentTaskView().getTimelineTasks());
       model.paint(g);
       if (getActiveInteraction() != null) {
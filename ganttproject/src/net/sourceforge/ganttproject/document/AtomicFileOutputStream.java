@@ -0,0 +1,68 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.document;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Replaces the target file with the written data when the stream is closed.
+ * Data is written into a temporary file in the same directory which is renamed over
+ * the target, so the target contains either its old contents or the new ones,
+ * even if the application crashes while saving.
+ */
+public class AtomicFileOutputStream extends TempFileOutputStream {
+  private final Path myTarget;
+
+  public AtomicFileOutputStream(File target) throws IOException {
+    this(resolveTarget(target));
+  }
+
+  private AtomicFileOutputStream(Path target) throws IOException {
+    super(File.createTempFile("." + target.getFileName() + "-", ".tmp", target.getParent().toFile()));
+    myTarget = target;
+  }
+
+  // Symbolic links are kept, the file they point to is replaced
+  private static Path resolveTarget(File target) throws IOException {
+    Path path = target.getAbsoluteFile().toPath();
+    return Files.exists(path) ? path.toRealPath() : path;
+  }
+
+  @Override
+  protected void commit(File tempFile) throws IOException {
+    Path source = tempFile.toPath();
+    if (Files.exists(myTarget)) {
+      try {
+        Files.setPosixFilePermissions(source, Files.getPosixFilePermissions(myTarget));
+      } catch (UnsupportedOperationException e) {
+        // Not a POSIX file system, temporary file has default permissions which is fine
+      }
+    }
+    try {
+      Files.move(source, myTarget, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, myTarget, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -21,7 +21,6 @@ package net.sourceforge.ganttproject.document;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -104,8 +103,8 @@ public class FileDocument extends AbstractDocument {
   }
 
   @Override
-  public OutputStream getOutputStream() throws FileNotFoundException {
-    return new FileOutputStream(file) {
+  public OutputStream getOutputStream() throws IOException {
+    return new AtomicFileOutputStream(file) {
       @Override
       public void close() throws IOException {
         super.close();
@@ -18,12 +18,14 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
  */
 package net.sourceforge.ganttproject.document;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -102,7 +104,18 @@ public class FtpDocument extends AbstractURLDocument {
 
   @Override
   public OutputStream getOutputStream() throws IOException {
-    return myURI.toURL().openConnection().getOutputStream();
+    // Connection is opened only when the whole project has been written
+    return new TempFileOutputStream(File.createTempFile("ftp-", ".gan")) {
+      @Override
+      protected void commit(File tempFile) throws IOException {
+        OutputStream output = myURI.toURL().openConnection().getOutputStream();
+        try {
+          Files.copy(tempFile.toPath(), output);
+        } finally {
+          output.close();
+        }
+      }
+    };
   }
 
   @Override
@@ -19,12 +19,14 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 package net.sourceforge.ganttproject.document;
 
 import java.awt.Color;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import net.sourceforge.ganttproject.IGanttProject;
 import net.sourceforge.ganttproject.gui.GPColorChooser;
@@ -69,6 +71,10 @@ import biz.ganttproject.core.table.ColumnList;
  * @author bard
  */
 class ProxyDocument implements Document {
+  private static final String COMPRESSED_EXTENSION = ".gz";
+
+  private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
   private final Document myPhysicalDocument;
 
   private IGanttProject myProject;
@@ -126,9 +132,16 @@ class ProxyDocument implements Document {
     myPhysicalDocument.releaseLock();
   }
 
+  /**
+   * Compressed projects are recognized by their contents, whatever is the file name
+   */
   @Override
   public InputStream getInputStream() throws IOException {
-    return myPhysicalDocument.getInputStream();
+    InputStream input = new BufferedInputStream(myPhysicalDocument.getInputStream());
+    input.mark(2);
+    int magic = input.read() | (input.read() << 8);
+    input.reset();
+    return magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(input, COMPRESSION_BUFFER_SIZE) : input;
   }
 
   @Override
@@ -186,28 +199,44 @@ class ProxyDocument implements Document {
     // lock.enter();
   }
 
+  /**
+   * Streams the project into the document output. Documents which write into a temporary
+   * file first are left untouched if saving fails.
+   */
   @Override
   public void write() throws IOException {
     GPSaver saver = myParserFactory.newSaver();
-    byte[] buffer;
+    OutputStream output = getOutputStream();
     try {
-      ByteArrayOutputStream bufferStream = new ByteArrayOutputStream();
-      saver.save(bufferStream);
-      bufferStream.flush();
-      buffer = bufferStream.toByteArray();
+      // Saver closes the stream when it is done
+      saver.save(isCompressed() ? new GZIPOutputStream(output, COMPRESSION_BUFFER_SIZE) : output);
     } catch (IOException e) {
+      discard(output);
       getUIFacade().showErrorDialog(e);
       return;
+    } catch (RuntimeException e) {
+      discard(output);
+      throw e;
     }
-    OutputStream output = getOutputStream();
-    try {
-      output.write(buffer);
-      output.flush();
-    } finally {
+    output.close();
+  }
+
+  private static void discard(OutputStream output) throws IOException {
+    if (output instanceof TempFileOutputStream) {
+      ((TempFileOutputStream) output).discard();
+    } else {
       output.close();
     }
   }
 
+  /**
+   * @return {@code true} if this document is a gzip-compressed project, e.g. project.gan.gz
+   */
+  private boolean isCompressed() {
+    String fileName = getFileName();
+    return fileName != null && fileName.toLowerCase().endsWith(COMPRESSED_EXTENSION);
+  }
+
   private TaskManagerImpl getTaskManager() {
     return (TaskManagerImpl) myProject.getTaskManager();
   }
@@ -0,0 +1,133 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.document;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Output stream which writes data into a temporary file and hands the complete file
+ * over to {@link #commit(File)} when the stream is closed. If writing fails midway,
+ * the writer calls {@link #discard()} and whatever the stream was going to replace
+ * stays untouched.
+ *
+ * Data goes to the file channel through a buffer, and the file is synced to disk
+ * before it is committed.
+ */
+public abstract class TempFileOutputStream extends OutputStream {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final File myTempFile;
+  private final FileChannel myChannel;
+  private final ByteBuffer myBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private boolean isClosed;
+
+  protected TempFileOutputStream(File tempFile) throws IOException {
+    myTempFile = tempFile;
+    myChannel = new FileOutputStream(tempFile).getChannel();
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (!myBuffer.hasRemaining()) {
+      flushBuffer();
+    }
+    myBuffer.put((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (len > myBuffer.remaining()) {
+      flushBuffer();
+    }
+    if (len >= BUFFER_SIZE) {
+      writeFully(ByteBuffer.wrap(b, off, len));
+    } else {
+      myBuffer.put(b, off, len);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    flushBuffer();
+  }
+
+  private void flushBuffer() throws IOException {
+    myBuffer.flip();
+    writeFully(myBuffer);
+    myBuffer.clear();
+  }
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      myChannel.write(buffer);
+    }
+  }
+
+  /**
+   * Syncs the written data to disk and commits the temporary file. The temporary file
+   * is deleted afterwards unless the commit has moved it somewhere.
+   */
+  @Override
+  public void close() throws IOException {
+    if (isClosed) {
+      return;
+    }
+    isClosed = true;
+    try {
+      flushBuffer();
+      myChannel.force(true);
+      myChannel.close();
+      commit(myTempFile);
+    } finally {
+      if (myChannel.isOpen()) {
+        myChannel.close();
+      }
+      if (myTempFile.exists()) {
+        myTempFile.delete();
+      }
+    }
+  }
+
+  /**
+   * Closes this stream and deletes the temporary file without committing it.
+   */
+  public void discard() throws IOException {
+    if (isClosed) {
+      return;
+    }
+    isClosed = true;
+    try {
+      myChannel.close();
+    } finally {
+      myTempFile.delete();
+    }
+  }
+
+  /**
+   * Called when the stream is closed and all the data is in the temporary file.
+   *
+   * @param tempFile file with the written data
+   */
+  protected abstract void commit(File tempFile) throws IOException;
+}
@@ -0,0 +1,82 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.document.webdav;
+
+import io.milton.httpclient.Folder;
+import io.milton.httpclient.Resource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Folder listing cache which is passed to Milton hosts. Milton keeps folder children
+ * in this map and reads them from here instead of issuing PROPFIND requests. Listings
+ * expire after the given time, so that changes made by other users show up.
+ */
+class FolderListingCache extends ForwardingMap<Folder, List<Resource>> {
+  private final ConcurrentMap<Folder, List<Resource>> myListings = Maps.newConcurrentMap();
+  private final ConcurrentMap<Folder, Long> myExpirationTimes = Maps.newConcurrentMap();
+  private final long myTtlMs;
+
+  FolderListingCache(long ttlMs) {
+    myTtlMs = ttlMs;
+  }
+
+  @Override
+  protected Map<Folder, List<Resource>> delegate() {
+    return myListings;
+  }
+
+  @Override
+  public List<Resource> get(Object folder) {
+    Long expirationTime = myExpirationTimes.get(folder);
+    if (expirationTime == null || expirationTime < System.currentTimeMillis()) {
+      remove(folder);
+      return null;
+    }
+    return myListings.get(folder);
+  }
+
+  @Override
+  public boolean containsKey(Object folder) {
+    return get(folder) != null;
+  }
+
+  @Override
+  public List<Resource> put(Folder folder, List<Resource> children) {
+    myExpirationTimes.put(folder, System.currentTimeMillis() + myTtlMs);
+    return myListings.put(folder, children);
+  }
+
+  @Override
+  public List<Resource> remove(Object folder) {
+    myExpirationTimes.remove(folder);
+    return myListings.remove(folder);
+  }
+
+  @Override
+  public void clear() {
+    myExpirationTimes.clear();
+    myListings.clear();
+  }
+}
@@ -18,36 +18,42 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
 package net.sourceforge.ganttproject.document.webdav;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
+import net.sourceforge.ganttproject.document.TempFileOutputStream;
 import net.sourceforge.ganttproject.document.webdav.WebDavResource.WebDavException;
 
 
 /**
  * This class implements an OutputStream for documents on
  * WebDAV-enabled-servers. It is a helper class for HttpDocument.
+ * Data is written into a local temporary file which is uploaded when the stream is closed.
  *
  * @see HttpDocument
  * @author Michael Haeusler (michael at akatose.de)
  */
-class HttpDocumentOutputStream extends ByteArrayOutputStream {
+class HttpDocumentOutputStream extends TempFileOutputStream {
 
   private final HttpDocument myDocument;
 
-  HttpDocumentOutputStream(HttpDocument document) {
-    super();
+  HttpDocumentOutputStream(HttpDocument document) throws IOException {
+    super(File.createTempFile("webdav-", ".gan"));
     myDocument = document;
   }
 
   @Override
-  public void close() throws IOException {
-    super.close();
+  protected void commit(File tempFile) throws IOException {
     WebDavResource wr = myDocument.getWebdavResource();
+    InputStream content = new FileInputStream(tempFile);
     try {
-      wr.write(toByteArray());
+      wr.write(content, tempFile.length());
     } catch (WebDavException e) {
       throw new IOException(e);
+    } finally {
+      content.close();
     }
   }
 }
@@ -38,24 +38,30 @@ import com.google.common.collect.Maps;
 /**
  * Caching factory of WebDavResource instances.
  *
+ * Milton hosts are shared by all factories, so HTTP connections and folder listings
+ * are reused when several documents are opened from the same server.
+ *
  * @author dbarashev (Dmitry Barashev)
  */
 class MiltonResourceFactory {
   private static final int TIMEOUT_MS = 30000;
+  private static final long LISTING_TTL_MS = 10000;
   private static class Key {
     String url;
     String username;
     String password;
+    String proxy;
 
-    Key(String url, String username, String password) {
+    Key(String url, String username, String password, String proxy) {
       this.url = url;
       this.username = username;
       this.password = password;
+      this.proxy = proxy;
     }
 
     @Override
     public int hashCode() {
-      return Objects.hashCode(url, username, password);
+      return Objects.hashCode(url, username, password, proxy);
     }
 
     @Override
@@ -64,28 +70,37 @@ class MiltonResourceFactory {
         return false;
       }
       Key that = (Key) obj;
-      return Objects.equal(this.url, that.url) && Objects.equal(this.username, that.username) && Objects.equal(this.password, that.password);
+      return Objects.equal(this.url, that.url) && Objects.equal(this.username, that.username) && Objects.equal(this.password, that.password)
+          && Objects.equal(this.proxy, that.proxy);
     }
   }
 
-  private final Map<String, Host> myHostCache = Maps.newHashMap();
+  private static final Map<Key, Host> ourHostCache = Maps.newHashMap();
+  private static final WebDavContentCache ourContentCache = WebDavContentCache.createDefault();
+
   private final Map<Key, MiltonResourceImpl> myResourceCache = Maps.newHashMap();
   private String myUsername;
   private String myPassword;
   private final StringOption myProxy;
+  private final WebDavContentCache myContentCache;
 
   public MiltonResourceFactory() {
-    myProxy = new DefaultStringOption("");
+    this(null, null, new DefaultStringOption(""));
   }
 
   public MiltonResourceFactory(String username, String password, StringOption proxyOption) {
+    this(username, password, proxyOption, ourContentCache);
+  }
+
+  MiltonResourceFactory(String username, String password, StringOption proxyOption, WebDavContentCache contentCache) {
     myUsername = username;
     myPassword = password;
     myProxy = proxyOption;
+    myContentCache = contentCache;
   }
 
-  MiltonResourceImpl createResource(WebDavUri uri) {
-    Key key = new Key(uri.buildUrl(), myUsername, myPassword);
+  synchronized MiltonResourceImpl createResource(WebDavUri uri) {
+    Key key = new Key(uri.buildUrl(), myUsername, myPassword, myProxy.getValue());
     MiltonResourceImpl result = myResourceCache.get(key);
     if (result == null) {
       result = new MiltonResourceImpl(uri, getHost(uri), this);
@@ -94,24 +109,34 @@ class MiltonResourceFactory {
     return result;
   }
 
-  void clearCache() {
+  /**
+   * Clears resources created by this factory. Folder listings are kept until they expire.
+   */
+  synchronized void clearCache() {
     myResourceCache.clear();
   }
 
-  public void setCredentials(String username, String password) {
+  WebDavContentCache getContentCache() {
+    return myContentCache;
+  }
+
+  public synchronized void setCredentials(String username, String password) {
     myUsername = username;
     myPassword = password;
   }
 
   private Host getHost(WebDavUri uri) {
-    String hostKey = uri.buildRootUrl();
-    Host result = myHostCache.get(hostKey);
-    if (result== null) {
-      result = new Host(uri.hostUrl, uri.rootPath, uri.port, myUsername, myPassword, getProxyDetails(myProxy), TIMEOUT_MS, null, null);
-      result.setSecure(uri.isSecure);
-      // myHostCache.put(hostKey, result);
+    Key hostKey = new Key(uri.buildRootUrl(), myUsername, myPassword, myProxy.getValue());
+    synchronized (ourHostCache) {
+      Host result = ourHostCache.get(hostKey);
+      if (result == null) {
+        result = new Host(uri.hostUrl, uri.rootPath, uri.port, myUsername, myPassword, getProxyDetails(myProxy), TIMEOUT_MS,
+            new FolderListingCache(LISTING_TTL_MS), null);
+        result.setSecure(uri.isSecure);
+        ourHostCache.put(hostKey, result);
+      }
+      return result;
     }
-    return result;
   }
 
   static ProxyDetails getProxyDetails(StringOption proxyOption) {
@@ -29,16 +29,9 @@ import io.milton.httpclient.Host;
 import io.milton.httpclient.HttpException;
 import io.milton.httpclient.ProgressListener;
 import io.milton.httpclient.Resource;
-import io.milton.httpclient.Utils.CancelledException;
 
-import java.io.BufferedOutputStream;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.List;
@@ -46,8 +39,6 @@ import java.util.List;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.common.io.ByteStreams;
-import com.google.common.io.OutputSupplier;
 
 /**
  * Implementation which uses Milton client library.
@@ -232,22 +223,18 @@ public class MiltonResourceImpl implements WebDavResource {
   }
 
   @Override
-  public void write(byte[] byteArray) throws WebDavException {
+  public void write(InputStream content, long contentLength) throws WebDavException {
     MiltonResourceImpl parent = (MiltonResourceImpl) getParent();
     if (!parent.exists()) {
       throw new WebDavException(MessageFormat.format("Folder {0} does not exist", parent.getName()));
     }
     assert parent.myImpl instanceof Folder;
     Folder parentFolder = (Folder) parent.myImpl;
+    myFactory.getContentCache().invalidate(myHost, getUrl());
     try {
-      final java.io.File tempFile = java.io.File.createTempFile("webdav-" + myUrl.hostUrl, "");
-      ByteStreams.write(byteArray, new OutputSupplier<OutputStream>() {
-        @Override
-        public OutputStream getOutput() throws IOException {
-          return new BufferedOutputStream(new FileOutputStream(tempFile));
-        }
-      });
-      parentFolder.uploadFile(getName(), tempFile, null);
+      myImpl = parentFolder.upload(getName(), content, contentLength, PROGRESS_LISTENER_STUB);
+      myExistance = myImpl != null ? Boolean.TRUE : null;
+      parentFolder.flush();
     } catch (NotAuthorizedException e) {
       throw new WebDavException(MessageFormat.format("User {0} is probably not authorized to access {1}", getUsername(), myUrl.hostName), e);
     } catch (BadRequestException e) {
@@ -258,27 +245,20 @@ public class MiltonResourceImpl implements WebDavResource {
       throw new WebDavException(MessageFormat.format("Conflict when accessing {0}", myUrl.hostName), e);
     } catch (NotFoundException e) {
       throw new WebDavException(MessageFormat.format("Resource {0} is not found on {1}", myUrl.path, myUrl.hostName), e);
-    } catch (FileNotFoundException e) {
-      throw new WebDavException(MessageFormat.format("I/O problems when uploading {0} to {1}", myUrl.path, myUrl.hostName), e);
     } catch (IOException e) {
       throw new WebDavException(MessageFormat.format("I/O problems when uploading {0} to {1}", myUrl.path, myUrl.hostName), e);
     }
   }
 
+  /**
+   * Downloads the file with a conditional request and reads the local copy
+   * if the file has not changed since the last download.
+   */
   @Override
   public InputStream getInputStream() throws WebDavException {
     assertExists();
     assert myImpl instanceof File;
-    File file = (File) myImpl;
-    ByteArrayOutputStream content = new ByteArrayOutputStream();
-    try {
-      file.download(content, PROGRESS_LISTENER_STUB);
-      return new ByteArrayInputStream(content.toByteArray());
-    } catch (CancelledException e) {
-      throw new WebDavException("File download has been canceled", e);
-    } catch (HttpException e) {
-      throw new WebDavException(MessageFormat.format("HTTP error {0} while downloading file", e.getResult()), e);
-    }
+    return myFactory.getContentCache().download(myHost, getUrl(), ((File) myImpl).encodedUrl());
   }
 
   @Override
@@ -309,8 +289,12 @@ public class MiltonResourceImpl implements WebDavResource {
   @Override
   public void delete() throws WebDavException {
     assertExists();
+    myFactory.getContentCache().invalidate(myHost, getUrl());
     try {
       myImpl.delete();
+      if (myImpl.parent != null) {
+        myImpl.parent.flush();
+      }
     } catch (NotAuthorizedException e) {
       throw new WebDavException(MessageFormat.format("User {0} is probably not authorized to access {1}", getUsername(), myUrl.hostName), e);
     } catch (BadRequestException e) {
@@ -0,0 +1,306 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+ the Free Software Foundation, either version 3 of the License, or
+ (at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.document.webdav;
+
+import io.milton.httpclient.Host;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.logging.Level;
+
+import net.sourceforge.ganttproject.GPLogger;
+import net.sourceforge.ganttproject.document.AtomicFileOutputStream;
+import net.sourceforge.ganttproject.document.webdav.WebDavResource.WebDavException;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+
+import com.google.common.base.Strings;
+
+/**
+ * Local copies of downloaded WebDAV files. Every copy is stored together with the ETag
+ * which the server sent, and the next download of the same URL is a conditional request.
+ * If the server replies with 304 Not Modified, the local copy is read.
+ *
+ * Files are named after a hash of the URL and the user name, so that different WebDAV users
+ * do not share copies. The cache directory is private to the local user: it is created
+ * with owner-only permissions, and a directory or an entry owned by somebody else is
+ * never read. Copies older than the maximal age are removed, and the least recently used
+ * copies are removed when the total size exceeds the limit.
+ */
+class WebDavContentCache {
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+  private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+  private static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+  private static final long DEFAULT_MAX_AGE_MS = 30L * 24 * 60 * 60 * 1000;
+
+  private final File myDir;
+  private final long myMaxSize;
+  private final long myMaxAgeMs;
+  // null until the directory has been checked, then TRUE if the cache can be used
+  private Boolean isDirUsable;
+
+  WebDavContentCache(File dir) {
+    this(dir, DEFAULT_MAX_SIZE, DEFAULT_MAX_AGE_MS);
+  }
+
+  WebDavContentCache(File dir, long maxSize, long maxAgeMs) {
+    myDir = dir;
+    myMaxSize = maxSize;
+    myMaxAgeMs = maxAgeMs;
+  }
+
+  /**
+   * @return cache in the GanttProject directory in the user home
+   */
+  static WebDavContentCache createDefault() {
+    return new WebDavContentCache(new File(new File(System.getProperty("user.home"), ".ganttproject.d"), "webdav-cache"));
+  }
+
+  /**
+   * @param url URL which identifies the local copy
+   * @param encodedUrl URL to send the request to
+   */
+  InputStream download(Host host, String url, String encodedUrl) throws WebDavException {
+    String key = buildKey(url, host.user);
+    File contentFile = new File(myDir, key + ".content");
+    File etagFile = new File(myDir, key + ".etag");
+    boolean isCacheAvailable = isAvailable();
+    String etag = isCacheAvailable ? readEtag(etagFile, contentFile) : null;
+
+    HttpGet get = new HttpGet(encodedUrl);
+    if (etag != null) {
+      get.setHeader("If-None-Match", etag);
+    }
+    synchronized (host) {
+      try {
+        HttpResponse response = host.getClient().execute(get);
+        HttpEntity entity = response.getEntity();
+        try {
+          int status = response.getStatusLine().getStatusCode();
+          if (status == HttpStatus.SC_NOT_MODIFIED && etag != null) {
+            // Modification time is the last use time for the eviction
+            contentFile.setLastModified(System.currentTimeMillis());
+            return new FileInputStream(contentFile);
+          }
+          if (status == HttpStatus.SC_UNAUTHORIZED) {
+            throw new WebDavException(MessageFormat.format("User {0} is not authorized to access {1}", host.user, url));
+          }
+          if (status < 200 || status >= 300 || entity == null) {
+            throw new WebDavException(MessageFormat.format("HTTP error {0} while downloading file", status));
+          }
+          if (!isCacheAvailable) {
+            return new ByteArrayInputStream(EntityUtils.toByteArray(entity));
+          }
+          Header etagHeader = response.getFirstHeader("ETag");
+          store(entity, contentFile, etagFile, etagHeader == null ? null : etagHeader.getValue());
+          InputStream result = new FileInputStream(contentFile);
+          evict(contentFile);
+          return result;
+        } finally {
+          EntityUtils.consume(entity);
+        }
+      } catch (IOException e) {
+        get.abort();
+        throw new WebDavException(MessageFormat.format("I/O problems when downloading {0}", url), e);
+      }
+    }
+  }
+
+  void invalidate(Host host, String url) {
+    String key = buildKey(url, host.user);
+    new File(myDir, key + ".etag").delete();
+    new File(myDir, key + ".content").delete();
+  }
+
+  /**
+   * Creates the cache directory on the first call. The directory is usable if it is owned
+   * by the current user. Its permissions are reset to owner-only where the file system
+   * supports POSIX permissions.
+   */
+  private synchronized boolean isAvailable() {
+    if (isDirUsable == null) {
+      isDirUsable = prepareDir();
+      if (isDirUsable) {
+        evict(null);
+      }
+    }
+    return isDirUsable;
+  }
+
+  private boolean prepareDir() {
+    Path dir = myDir.toPath();
+    boolean isPosix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    try {
+      if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) {
+        Files.createDirectories(dir.getParent());
+        if (isPosix) {
+          Files.createDirectory(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } else {
+          Files.createDirectory(dir);
+        }
+      }
+      if (!Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS) || !isOwnedByCurrentUser(dir)) {
+        GPLogger.getLogger(WebDavContentCache.class).warning(
+            "WebDAV cache directory " + dir + " is not a directory owned by the current user, cache is disabled");
+        return false;
+      }
+      if (isPosix && !OWNER_ONLY.equals(Files.getPosixFilePermissions(dir, LinkOption.NOFOLLOW_LINKS))) {
+        Files.setPosixFilePermissions(dir, OWNER_ONLY);
+      }
+      return true;
+    } catch (IOException e) {
+      GPLogger.getLogger(WebDavContentCache.class).log(Level.WARNING, "Failed to prepare WebDAV cache directory", e);
+      return false;
+    }
+  }
+
+  private static boolean isOwnedByCurrentUser(Path path) throws IOException {
+    UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+    try {
+      UserPrincipal currentUser = path.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(
+          System.getProperty("user.name"));
+      return owner.equals(currentUser);
+    } catch (IOException e) {
+      return false;
+    } catch (UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Removes the copies which are older than the maximal age, then the least recently used
+   * copies until the total size fits the limit.
+   *
+   * @param keptFile content file which must not be removed, or null
+   */
+  private synchronized void evict(File keptFile) {
+    File[] contentFiles = myDir.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.endsWith(".content");
+      }
+    });
+    if (contentFiles == null) {
+      return;
+    }
+    Arrays.sort(contentFiles, new Comparator<File>() {
+      @Override
+      public int compare(File f1, File f2) {
+        return Long.compare(f2.lastModified(), f1.lastModified());
+      }
+    });
+    long now = System.currentTimeMillis();
+    long totalSize = 0;
+    for (File contentFile : contentFiles) {
+      if (contentFile.equals(keptFile)) {
+        totalSize += contentFile.length();
+        continue;
+      }
+      boolean isExpired = now - contentFile.lastModified() > myMaxAgeMs;
+      if (isExpired || totalSize + contentFile.length() > myMaxSize) {
+        String name = contentFile.getName();
+        new File(myDir, name.substring(0, name.length() - ".content".length()) + ".etag").delete();
+        contentFile.delete();
+      } else {
+        totalSize += contentFile.length();
+      }
+    }
+  }
+
+  // Entries which are not regular files owned by the current user are never read
+  private static String readEtag(File etagFile, File contentFile) {
+    try {
+      if (!isOwnedRegularFile(etagFile.toPath()) || !isOwnedRegularFile(contentFile.toPath())) {
+        return null;
+      }
+    } catch (IOException e) {
+      return null;
+    }
+    try {
+      String etag = new String(Files.readAllBytes(etagFile.toPath()), UTF8);
+      return Strings.emptyToNull(etag);
+    } catch (IOException e) {
+      GPLogger.getLogger(WebDavContentCache.class).log(Level.WARNING, "Failed to read cached ETag", e);
+      return null;
+    }
+  }
+
+  private static boolean isOwnedRegularFile(Path path) throws IOException {
+    return Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS) && isOwnedByCurrentUser(path);
+  }
+
+  // ETag is removed first and written last, so a copy which was not completely written
+  // is never used.
+  private static void store(HttpEntity entity, File contentFile, File etagFile, String etag) throws IOException {
+    etagFile.delete();
+    AtomicFileOutputStream content = new AtomicFileOutputStream(contentFile);
+    try {
+      entity.writeTo(content);
+    } catch (IOException e) {
+      content.discard();
+      throw e;
+    }
+    content.close();
+    if (etag != null) {
+      OutputStream etagOutput = new AtomicFileOutputStream(etagFile);
+      try {
+        etagOutput.write(etag.getBytes(UTF8));
+      } finally {
+        etagOutput.close();
+      }
+    }
+  }
+
+  private static String buildKey(String url, String username) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      digest.update(url.getBytes(UTF8));
+      digest.update((byte) 0);
+      digest.update(Strings.nullToEmpty(username).getBytes(UTF8));
+      return String.format("%040x", new BigInteger(1, digest.digest()));
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
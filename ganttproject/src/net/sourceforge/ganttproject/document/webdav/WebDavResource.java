@@ -151,12 +151,13 @@ public interface WebDavResource {
   boolean isWritable();
 
   /**
-   * Writes data to the resource.
+   * Uploads data to the resource.
    *
-   * @param byteArray data to write
+   * @param content stream with the data to upload
+   * @param contentLength number of bytes in the stream
    * @throws WebDavException if writing fails, e.g. due to network problems
    */
-  void write(byte[] byteArray) throws WebDavException;
+  void write(InputStream content, long contentLength) throws WebDavException;
 
   /**
    * Reads data from the resource.
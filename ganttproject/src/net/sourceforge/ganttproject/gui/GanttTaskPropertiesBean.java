@@ -46,6 +46,8 @@ import javax.swing.JTextField;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SpringLayout;
 
+import net.sourceforge.ganttproject.CustomPropertyDefinition;
+import net.sourceforge.ganttproject.GPLogger;
 import net.sourceforge.ganttproject.GanttProject;
 import net.sourceforge.ganttproject.GanttTask;
 import net.sourceforge.ganttproject.IGanttProject;
@@ -61,6 +63,8 @@ import net.sourceforge.ganttproject.language.GanttLanguage;
 import net.sourceforge.ganttproject.resource.HumanResourceManager;
 import net.sourceforge.ganttproject.roles.RoleManager;
 import net.sourceforge.ganttproject.shape.JPaintCombo;
+import net.sourceforge.ganttproject.task.CustomColumnsException;
+import net.sourceforge.ganttproject.task.CustomColumnsValues;
 import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.TaskContainmentHierarchyFacade;
 import net.sourceforge.ganttproject.task.TaskImpl;
@@ -165,6 +169,9 @@ public class GanttTaskPropertiesBean extends JPanel {
 
   private CustomColumnsPanel myCustomColumnPanel = null;
 
+  // Copy of the custom property values edited in the custom column panel
+  private CustomColumnsValues myCustomValues;
+
   private TaskDependenciesPanel myDependenciesPanel;
 
   private TaskAllocationsPanel myAllocationsPanel;
@@ -312,8 +319,9 @@ public class GanttTaskPropertiesBean extends JPanel {
   }
 
   private void constructCustomColumnPanel() {
+    myCustomValues = (CustomColumnsValues) selectedTasks[0].getCustomValues().clone();
     myCustomColumnPanel = new CustomColumnsPanel(myProject.getTaskCustomColumnManager(), myUIfacade,
-        selectedTasks[0].getCustomValues(), myUIfacade.getTaskTree().getVisibleFields());
+        myCustomValues, myUIfacade.getTaskTree().getVisibleFields());
   }
 
   /** Construct the predecessors tabbed pane */
@@ -444,10 +452,14 @@ public class GanttTaskPropertiesBean extends JPanel {
             myTaskColorOption.getValue()));
       }
 
+      if (i == 0) {
+        myCustomColumnPanel.commit();
+        setCustomValues(mutator, selectedTasks[i]);
+      }
+
       mutator.commit();
       myDependenciesPanel.commit();
       myAllocationsPanel.commit();
-      myCustomColumnPanel.commit();
 
       if (!myShowInTimeline.isSelected()) {
         myUIfacade.getCurrentTaskView().getTimelineTasks().remove(selectedTasks[i]);
@@ -457,6 +469,21 @@ public class GanttTaskPropertiesBean extends JPanel {
     }
   }
 
+  /** Passes the custom property values changed in the panel to the task mutator */
+  private void setCustomValues(TaskMutator mutator, Task task) {
+    for (CustomPropertyDefinition def : myProject.getTaskCustomColumnManager().getDefinitions()) {
+      Object newValue = myCustomValues.hasOwnValue(def) ? myCustomValues.getValue(def) : null;
+      Object oldValue = task.getCustomValues().hasOwnValue(def) ? task.getCustomValues().getValue(def) : null;
+      if (!Objects.equal(oldValue, newValue)) {
+        try {
+          mutator.setCustomProperty(def, newValue);
+        } catch (CustomColumnsException e) {
+          GPLogger.log(e);
+        }
+      }
+    }
+  }
+
   private void setSelectedTaskProperties() {
     myUnpluggedClone = selectedTasks[0].unpluggedClone();
     nameField1.setText(originalName);
@@ -194,7 +194,8 @@ public class ProjectUIFacadeImpl implements ProjectUIFacade {
         }
         File projectfile = fc.getSelectedFile();
         String extension = FileUtil.getExtension(projectfile).toLowerCase();
-        if (!"gan".equals(extension) && !"xml".equals(extension)) {
+        boolean isCompressed = projectfile.getName().toLowerCase().endsWith(".gan.gz");
+        if (!"gan".equals(extension) && !"xml".equals(extension) && !isCompressed) {
           projectfile = FileUtil.replaceExtension(projectfile, "gan");
         }
 
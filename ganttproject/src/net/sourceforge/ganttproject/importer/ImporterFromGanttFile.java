@@ -39,10 +39,12 @@ import net.sourceforge.ganttproject.document.FileDocument;
 import net.sourceforge.ganttproject.document.Document.DocumentException;
 import net.sourceforge.ganttproject.gui.UIFacade;
 import net.sourceforge.ganttproject.resource.HumanResource;
+import net.sourceforge.ganttproject.resource.HumanResourceManager;
 import net.sourceforge.ganttproject.resource.HumanResourceMerger;
 import net.sourceforge.ganttproject.resource.OverwritingMerger;
 import net.sourceforge.ganttproject.resource.HumanResourceMerger.MergeResourcesOption;
 import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskManager;
 import net.sourceforge.ganttproject.task.TaskManagerImpl;
 
 public class ImporterFromGanttFile extends ImporterBase {
@@ -207,19 +209,25 @@ public class ImporterFromGanttFile extends ImporterBase {
       CustomPropertyManager targetResCustomPropertyMgr = targetProject.getResourceCustomPropertyManager();
       targetResCustomPropertyMgr.importData(bufferProject.getResourceCustomPropertyManager());
     }
-    Map<HumanResource, HumanResource> original2ImportedResource = targetProject.getHumanResourceManager().importData(
+    final Map<HumanResource, HumanResource> original2ImportedResource = targetProject.getHumanResourceManager().importData(
         bufferProject.getHumanResourceManager(), new OverwritingMerger(mergeOption));
 
     {
       CustomPropertyManager targetCustomColumnStorage = targetProject.getTaskCustomColumnManager();
-      Map<CustomPropertyDefinition, CustomPropertyDefinition> that2thisCustomDefs = targetCustomColumnStorage.importData(bufferProject.getTaskCustomColumnManager());
-      TaskManagerImpl origTaskManager = (TaskManagerImpl) targetProject.getTaskManager();
+      final Map<CustomPropertyDefinition, CustomPropertyDefinition> that2thisCustomDefs = targetCustomColumnStorage.importData(bufferProject.getTaskCustomColumnManager());
+      final TaskManagerImpl origTaskManager = (TaskManagerImpl) targetProject.getTaskManager();
+      final TaskManager bufferTaskManager = bufferProject.getTaskManager();
+      final HumanResourceManager targetResourceManager = targetProject.getHumanResourceManager();
       try {
         origTaskManager.setEventsEnabled(false);
-        Map<Task, Task> original2ImportedTask = origTaskManager.importData(bufferProject.getTaskManager(),
-            that2thisCustomDefs);
-        origTaskManager.importAssignments(bufferProject.getTaskManager(), targetProject.getHumanResourceManager(),
-            original2ImportedTask, original2ImportedResource);
+        origTaskManager.runBatch(new Runnable() {
+          @Override
+          public void run() {
+            Map<Task, Task> original2ImportedTask = origTaskManager.importData(bufferTaskManager, that2thisCustomDefs);
+            origTaskManager.importAssignments(bufferTaskManager, targetResourceManager,
+                original2ImportedTask, original2ImportedResource);
+          }
+        });
       } finally {
         origTaskManager.setEventsEnabled(true);
       }
@@ -38,6 +38,8 @@ import biz.ganttproject.core.option.DefaultBooleanOption;
 public class CSVOptions {
   private static final Set<TaskDefaultColumn> ourIgnoredTaskColumns = ImmutableSet.of(
       TaskDefaultColumn.TYPE, TaskDefaultColumn.PRIORITY, TaskDefaultColumn.INFO);
+  private static final Set<TaskDefaultColumn> ourDisabledTaskColumns = ImmutableSet.of(
+      TaskDefaultColumn.TOTAL_FLOAT);
   private final Map<String, BooleanOption> myTaskOptions = Maps.newLinkedHashMap();
   private final Map<String, BooleanOption> myResourceOptions = Maps.newLinkedHashMap();
 
@@ -71,7 +73,8 @@ public class CSVOptions {
   }
 
   public BooleanOption createTaskExportOption(TaskDefaultColumn taskColumn) {
-    DefaultBooleanOption result = new DefaultBooleanOption(taskColumn.getStub().getID(), true);
+    DefaultBooleanOption result = new DefaultBooleanOption(taskColumn.getStub().getID(),
+        !ourDisabledTaskColumns.contains(taskColumn));
     myTaskOptions.put(taskColumn.getStub().getID(), result);
     return result;
   }
@@ -109,10 +109,12 @@ public class GanttXMLOpen implements GPParser {
     // Use an instance of ourselves as the SAX event handler
     XmlParser parser = new XmlParser(myTagHandlers, myListeners);
     parser.parse(inStream);
-    myUIFacade.setViewIndex(viewIndex);
-    myUIFacade.setGanttDividerLocation(ganttDividerLocation);
-    if (resourceDividerLocation != 0) {
-      myUIFacade.setResourceDividerLocation(resourceDividerLocation);
+    if (myUIFacade != null) {
+      myUIFacade.setViewIndex(viewIndex);
+      myUIFacade.setGanttDividerLocation(ganttDividerLocation);
+      if (resourceDividerLocation != 0) {
+        myUIFacade.setResourceDividerLocation(resourceDividerLocation);
+      }
     }
     return true;
 
@@ -178,13 +178,14 @@ public class GanttLanguage {
 
   public void setLocale(Locale locale) {
     currentLocale = locale;
-    CalendarFactoryImpl.setLocaleImpl();
     Locale.setDefault(locale);
     int defaultTimezoneOffset = TimeZone.getDefault().getRawOffset() + TimeZone.getDefault().getDSTSavings();
 
     TimeZone utc = TimeZone.getTimeZone("UTC");
     utc.setRawOffset(defaultTimezoneOffset);
     TimeZone.setDefault(utc);
+    // Calendar factory caches the rules of the default time zone, so it is installed after the zone is set
+    CalendarFactoryImpl.setLocaleImpl();
 
     applyDateFormatLocale(getDateFormatLocale(locale));
     i18n = getResourceBundle(locale);
@@ -18,21 +18,29 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
 package net.sourceforge.ganttproject.parser;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.sourceforge.ganttproject.GPLogger;
 import net.sourceforge.ganttproject.gui.UIFacade;
 import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskContainmentHierarchyFacade;
 import net.sourceforge.ganttproject.task.TaskManager;
 import net.sourceforge.ganttproject.task.dependency.TaskDependency;
 import net.sourceforge.ganttproject.task.dependency.TaskDependencyConstraint;
 import net.sourceforge.ganttproject.task.dependency.TaskDependencyException;
 import net.sourceforge.ganttproject.task.dependency.TaskDependency.Hardness;
-import net.sourceforge.ganttproject.task.dependency.constraint.FinishStartConstraintImpl;
 
 import org.xml.sax.Attributes;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
 public class DependencyTagHandler extends AbstractTagHandler implements ParsingListener {
   private final TaskManager myTaskManager;
 
@@ -57,8 +65,7 @@ public class DependencyTagHandler extends AbstractTagHandler implements ParsingL
 
   @Override
   public void parsingFinished() {
-    for (int i = 0; i < getDependencies().size(); i++) {
-      GanttDependStructure ds = getDependencies().get(i);
+    for (GanttDependStructure ds : sortTopologically(getDependencies())) {
       Task dependee = myTaskManager.getTask(ds.taskID);
       Task dependant = myTaskManager.getTask(ds.successorTaskID);
       if (dependee == null || dependant == null) {
@@ -66,14 +73,12 @@ public class DependencyTagHandler extends AbstractTagHandler implements ParsingL
       }
 
       try {
+        TaskDependency.Hardness hardness = myContext.getTasksWithLegacyFixedStart().contains(dependant)
+            ? TaskDependency.Hardness.RUBBER : ds.myHardness;
         TaskDependency dep = myTaskManager.getDependencyCollection().createDependency(dependant, dependee,
-            new FinishStartConstraintImpl());
-        dep.setConstraint(myTaskManager.createConstraint(ds.dependType));
-        dep.setDifference(ds.difference);
-        if (myContext.getTasksWithLegacyFixedStart().contains(dependant)) {
-          dep.setHardness(TaskDependency.Hardness.RUBBER);
-        } else {
-          dep.setHardness(ds.myHardness);
+            myTaskManager.createConstraint(ds.dependType), hardness);
+        if (ds.difference != 0) {
+          dep.setDifference(ds.difference);
         }
       } catch (TaskDependencyException e) {
         GPLogger.log(e);
@@ -81,6 +86,102 @@ public class DependencyTagHandler extends AbstractTagHandler implements ParsingL
     }
   }
 
+  /**
+   * Orders dependencies so that a dependency is added only when the dependee has got all its
+   * incoming dependencies, including those inherited from its supertasks, and all its subtasks
+   * have got theirs. The dependant and its subtree have no successors yet at this moment, so loop
+   * checks and layer updates in the dependency graph stay local instead of walking the already
+   * loaded part of the graph again and again.
+   *
+   * Every task is processed in two steps: it is "entered" when dependencies into it and into
+   * its supertasks have been added, and "finished" when it is entered and its subtasks are
+   * finished. Outgoing dependencies are added when a task gets finished. Dependencies which form
+   * loops are never reached; they go last, in the file order, and the dependency collection
+   * rejects them as usual.
+   */
+  private List<GanttDependStructure> sortTopologically(List<GanttDependStructure> dependencies) {
+    TaskContainmentHierarchyFacade hierarchy = myTaskManager.getTaskHierarchy();
+    Task[] tasks = myTaskManager.getTasks();
+    Map<Task, Integer> task2index = Maps.newHashMapWithExpectedSize(tasks.length);
+    for (int i = 0; i < tasks.length; i++) {
+      task2index.put(tasks[i], i);
+    }
+    int[] enterBlockers = new int[tasks.length];
+    int[] finishBlockers = new int[tasks.length];
+    int[] parents = new int[tasks.length];
+    for (int i = 0; i < tasks.length; i++) {
+      Integer parent = task2index.get(hierarchy.getContainer(tasks[i]));
+      parents[i] = parent == null ? -1 : parent;
+      if (parent != null) {
+        enterBlockers[i]++;
+        finishBlockers[parent]++;
+      }
+      finishBlockers[i]++;
+    }
+    List<List<GanttDependStructure>> outgoing = Lists.newArrayListWithCapacity(tasks.length);
+    for (int i = 0; i < tasks.length; i++) {
+      outgoing.add(null);
+    }
+    for (GanttDependStructure ds : dependencies) {
+      Integer dependee = task2index.get(myTaskManager.getTask(ds.taskID));
+      Integer dependant = task2index.get(myTaskManager.getTask(ds.successorTaskID));
+      if (dependee == null || dependant == null) {
+        continue;
+      }
+      if (outgoing.get(dependee) == null) {
+        outgoing.set(dependee, Lists.<GanttDependStructure>newArrayList());
+      }
+      outgoing.get(dependee).add(ds);
+      enterBlockers[dependant]++;
+    }
+
+    // Non-negative values stand for entering a task, negative ones for finishing
+    Deque<Integer> queue = new ArrayDeque<Integer>();
+    for (int i = 0; i < tasks.length; i++) {
+      if (enterBlockers[i] == 0) {
+        queue.add(i);
+      }
+    }
+    List<GanttDependStructure> result = Lists.newArrayListWithCapacity(dependencies.size());
+    while (!queue.isEmpty()) {
+      int next = queue.poll();
+      if (next >= 0) {
+        for (Task child : hierarchy.getNestedTasks(tasks[next])) {
+          int childIndex = task2index.get(child);
+          if (--enterBlockers[childIndex] == 0) {
+            queue.add(childIndex);
+          }
+        }
+        if (--finishBlockers[next] == 0) {
+          queue.add(-next - 1);
+        }
+      } else {
+        int finished = -next - 1;
+        if (outgoing.get(finished) != null) {
+          for (GanttDependStructure ds : outgoing.get(finished)) {
+            result.add(ds);
+            int dependant = task2index.get(myTaskManager.getTask(ds.successorTaskID));
+            if (--enterBlockers[dependant] == 0) {
+              queue.add(dependant);
+            }
+          }
+        }
+        if (parents[finished] >= 0 && --finishBlockers[parents[finished]] == 0) {
+          queue.add(-parents[finished] - 1);
+        }
+      }
+    }
+    if (result.size() < dependencies.size()) {
+      Set<GanttDependStructure> sorted = Sets.newHashSet(result);
+      for (GanttDependStructure ds : dependencies) {
+        if (!sorted.contains(ds)) {
+          result.add(ds);
+        }
+      }
+    }
+    return result;
+  }
+
   protected void loadDependency(Attributes attrs) {
     if (attrs != null) {
       GanttDependStructure gds = new GanttDependStructure();
@@ -135,7 +236,7 @@ public class DependencyTagHandler extends AbstractTagHandler implements ParsingL
 
   private ParsingContext myContext;
 
-  private class GanttDependStructure {
+  private static class GanttDependStructure {
     public int taskID, successorTaskID;
 
     public int difference = 0;
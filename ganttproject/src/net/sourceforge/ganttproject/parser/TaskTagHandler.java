@@ -22,6 +22,7 @@ import java.awt.Color;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.net.URLDecoder;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +47,8 @@ public class TaskTagHandler extends AbstractTagHandler implements ParsingListene
   private final TaskManager myManager;
   private final TaskTreeUIFacade myTreeFacade;
   private final Map<Integer, Boolean> myTaskIdToExpansionState = Maps.newHashMap();
+  // Tasks of one project usually share few distinct start dates, and date parsing is expensive
+  private final Map<String, Date> myParsedDates = Maps.newHashMap();
   public TaskTagHandler(TaskManager mgr, ParsingContext context, TaskTreeUIFacade treeFacade) {
     super("task");
     myManager = mgr;
@@ -87,7 +90,7 @@ public class TaskTagHandler extends AbstractTagHandler implements ParsingListene
 
     String start = attrs.getValue("start");
     if (start != null) {
-      builder = builder.withStartDate(GanttCalendar.parseXMLDate(start).getTime());
+      builder = builder.withStartDate(parseDate(start));
     }
 
     String duration = attrs.getValue("duration");
@@ -203,6 +206,15 @@ public class TaskTagHandler extends AbstractTagHandler implements ParsingListene
     myContext.pushTask(task);
   }
 
+  private Date parseDate(String xmlDate) {
+    Date result = myParsedDates.get(xmlDate);
+    if (result == null) {
+      result = GanttCalendar.parseXMLDate(xmlDate).getTime();
+      myParsedDates.put(xmlDate, result);
+    }
+    return result;
+  }
+
   private TaskManager getManager() {
     return myManager;
   }
@@ -71,6 +71,7 @@ public class HumanResource implements CustomPropertyHolder {
   }
 
   private HumanResource(HumanResource copy) {
+    myManager = copy.myManager;
     areEventsEnabled = false;
     setId(-1);
     String newName = GanttLanguage.getInstance().formatText("resource.copy.prefix",
@@ -81,7 +82,6 @@ public class HumanResource implements CustomPropertyHolder {
     setPhone(copy.getPhone());
     setRole(copy.getRole());
     setStandardPayRate(copy.getStandardPayRate());
-    myManager = copy.myManager;
     DefaultListModel copyDaysOff = copy.getDaysOff();
     for (int i = 0; i < copyDaysOff.getSize(); i++) {
       myDaysOffList.addElement(copyDaysOff.get(i));
@@ -120,7 +120,9 @@ public class HumanResource implements CustomPropertyHolder {
   }
 
   public void setName(String name) {
+    String oldName = this.name;
     this.name = name;
+    myManager.resourceRenamed(this, oldName);
     fireResourceChanged();
   }
 
@@ -141,7 +143,9 @@ public class HumanResource implements CustomPropertyHolder {
     if (email == null) {
       return;
     }
+    String oldEmail = this.email;
     this.email = email;
+    myManager.resourceEmailChanged(this, oldEmail);
     fireResourceChanged();
   }
 
@@ -182,6 +186,10 @@ public class HumanResource implements CustomPropertyHolder {
     return myDaysOffList;
   }
 
+  public CustomColumnsValues getCustomValues() {
+    return myCustomProperties;
+  }
+
   public Object getCustomField(CustomPropertyDefinition def) {
     return myCustomProperties.getValue(def);
   }
@@ -286,6 +294,9 @@ public class HumanResource implements CustomPropertyHolder {
 
   public void setStandardPayRate(BigDecimal rate) {
     myStandardPayRate = rate;
+    for (ResourceAssignment assignment : myAssignments) {
+      assignment.getTask().getCost().resetCalculatedValue();
+    }
   }
 
   public BigDecimal getStandardPayRate() {
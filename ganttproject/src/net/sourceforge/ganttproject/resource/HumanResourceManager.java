@@ -88,6 +88,12 @@ public class HumanResourceManager {
 
   private List<HumanResource> resources = new ArrayList<HumanResource>();
 
+  private final Map<Integer, HumanResource> myIdIndex = new HashMap<Integer, HumanResource>();
+
+  private final Map<String, List<HumanResource>> myNameIndex = new HashMap<String, List<HumanResource>>();
+
+  private final Map<String, List<HumanResource>> myEmailIndex = new HashMap<String, List<HumanResource>>();
+
   private int nextFreeId = 0;
 
   private final Role myDefaultRole;
@@ -153,19 +159,28 @@ public class HumanResourceManager {
       nextFreeId = resource.getId() + 1;
     }
     resources.add(resource);
+    addToIndices(resource);
     fireResourceAdded(resource);
   }
 
   public HumanResource getById(int id) {
-    // Linear search is not really efficient, but we do not have so many
-    // resources !?
-    HumanResource pr = null;
-    for (int i = 0; i < resources.size(); i++)
-      if (resources.get(i).getId() == id) {
-        pr = resources.get(i);
-        break;
-      }
-    return pr;
+    return myIdIndex.get(id);
+  }
+
+  /**
+   * @return resource with the given name or null. If several resources have the same
+   *         name, the one which was added first is returned
+   */
+  public HumanResource getByName(String name) {
+    return getFirst(myNameIndex, name);
+  }
+
+  /**
+   * @return resource with the given e-mail or null. If several resources have the same
+   *         e-mail, the one which was added first is returned
+   */
+  public HumanResource getByEmail(String email) {
+    return getFirst(myEmailIndex, email);
   }
 
   public List<HumanResource> getResources() {
@@ -178,7 +193,7 @@ public class HumanResourceManager {
 
   public void remove(HumanResource resource) {
     fireResourcesRemoved(new HumanResource[] { resource });
-    resources.remove(resource);
+    removeResource(resource);
   }
 
   public void remove(HumanResource resource, GPUndoManager myUndoManager) {
@@ -187,23 +202,104 @@ public class HumanResourceManager {
       @Override
       public void run() {
         fireResourcesRemoved(new HumanResource[] { res });
-        resources.remove(res);
+        removeResource(res);
       }
     });
   }
 
+  private void removeResource(HumanResource resource) {
+    if (!resources.remove(resource)) {
+      return;
+    }
+    removeFromIndex(myNameIndex, resource.getName(), resource);
+    removeFromIndex(myEmailIndex, resource.getMail(), resource);
+    if (myIdIndex.get(resource.getId()) == resource) {
+      myIdIndex.remove(resource.getId());
+      // Ids are expected to be unique, but if they are not then another resource
+      // with the same id takes the place of the removed one
+      for (HumanResource hr : resources) {
+        if (hr.getId() == resource.getId()) {
+          myIdIndex.put(hr.getId(), hr);
+          break;
+        }
+      }
+    }
+  }
+
   public void save(OutputStream target) {
   }
 
   public void clear() {
     fireCleanup();
     resources.clear();
+    myIdIndex.clear();
+    myNameIndex.clear();
+    myEmailIndex.clear();
   }
 
   public void addView(ResourceView view) {
     myViews.add(view);
   }
 
+  private void addToIndices(HumanResource resource) {
+    if (!myIdIndex.containsKey(resource.getId())) {
+      myIdIndex.put(resource.getId(), resource);
+    }
+    addToIndex(myNameIndex, resource.getName(), resource);
+    addToIndex(myEmailIndex, resource.getMail(), resource);
+  }
+
+  /** Called by resources when their name changes */
+  void resourceRenamed(HumanResource resource, String oldName) {
+    if (removeFromIndex(myNameIndex, oldName, resource)) {
+      addToIndex(myNameIndex, resource.getName(), resource);
+    }
+  }
+
+  /** Called by resources when their e-mail changes */
+  void resourceEmailChanged(HumanResource resource, String oldEmail) {
+    if (removeFromIndex(myEmailIndex, oldEmail, resource)) {
+      addToIndex(myEmailIndex, resource.getMail(), resource);
+    }
+  }
+
+  private static HumanResource getFirst(Map<String, List<HumanResource>> index, String key) {
+    List<HumanResource> values = index.get(key);
+    return values == null ? null : values.get(0);
+  }
+
+  private static void addToIndex(Map<String, List<HumanResource>> index, String key, HumanResource resource) {
+    if (key == null) {
+      return;
+    }
+    List<HumanResource> values = index.get(key);
+    if (values == null) {
+      values = new ArrayList<HumanResource>(1);
+      index.put(key, values);
+    }
+    values.add(resource);
+  }
+
+  /**
+   * @return true if the resource was found in the index under the given key
+   */
+  private static boolean removeFromIndex(Map<String, List<HumanResource>> index, String key, HumanResource resource) {
+    List<HumanResource> values = index.get(key);
+    if (values == null) {
+      return false;
+    }
+    for (int i = 0; i < values.size(); i++) {
+      if (values.get(i) == resource) {
+        values.remove(i);
+        if (values.isEmpty()) {
+          index.remove(key);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void fireResourceAdded(HumanResource resource) {
     ResourceEvent e = new ResourceEvent(this, resource);
     for (Iterator<ResourceView> i = myViews.iterator(); i.hasNext();) {
@@ -262,9 +358,15 @@ public class HumanResourceManager {
   public Map<HumanResource, HumanResource> importData(HumanResourceManager hrManager, HumanResourceMerger merger) {
     Map<HumanResource, HumanResource> foreign2native = new HashMap<HumanResource, HumanResource>();
     List<HumanResource> foreignResources = hrManager.getResources();
+    // Native resources are looked up before new ones are created, so that foreign resources
+    // are matched only against the resources which existed before import
+    HumanResource[] natives = new HumanResource[foreignResources.size()];
+    for (int i = 0; i < foreignResources.size(); i++) {
+      natives[i] = merger.findNative(foreignResources.get(i), this);
+    }
     for (int i = 0; i < foreignResources.size(); i++) {
       HumanResource foreignHR = foreignResources.get(i);
-      HumanResource nativeHR = merger.findNative(foreignHR, this);
+      HumanResource nativeHR = natives[i];
       if (nativeHR == null) {
         nativeHR = create(foreignHR.getName(), nextFreeId);
       }
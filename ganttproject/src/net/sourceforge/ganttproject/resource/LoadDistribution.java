@@ -6,9 +6,10 @@
 package net.sourceforge.ganttproject.resource;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -49,104 +50,108 @@ public class LoadDistribution {
     public final Date endDate;
   }
 
-  private final List<Load> myDaysOff = new LinkedList<Load>();
+  private final List<Load> myDaysOff = new ArrayList<Load>();
 
   private final List<Load> myLoads = new ArrayList<Load>();
 
   private final List<Load> myTasksLoads = new ArrayList<Load>();
 
+  private final Map<Task, List<Load>> mySeparatedTaskLoads = new HashMap<Task, List<Load>>();
+
   private final HumanResource myResource;
 
+  private static final Comparator<Load> START_DATE_COMPARATOR = new Comparator<Load>() {
+    @Override
+    public int compare(Load o1, Load o2) {
+      return o1.startDate.compareTo(o2.startDate);
+    }
+  };
+
+  private static final Comparator<Load> END_DATE_COMPARATOR = new Comparator<Load>() {
+    @Override
+    public int compare(Load o1, Load o2) {
+      return o1.endDate.compareTo(o2.endDate);
+    }
+  };
+
   public LoadDistribution(HumanResource resource) {
-    myLoads.add(new Load(null, null, 0, null));
-    myDaysOff.add(new Load(null, null, 0, null));
     myResource = resource;
+    List<Load> activityLoads = new ArrayList<Load>();
     ResourceAssignment[] assignments = myResource.getAssignments();
     for (int j = 0; j < assignments.length; j++) {
-      processAssignment(assignments[j]);
+      processAssignment(assignments[j], activityLoads);
     }
-    processDaysOff(myResource);
+    List<Load> dayOffLoads = new ArrayList<Load>();
+    processDaysOff(myResource, dayOffLoads);
+
+    myLoads.add(new Load(null, null, 0, null));
+    sweep(activityLoads, myLoads);
+    myDaysOff.add(new Load(null, null, 0, null));
+    sweep(dayOffLoads, myDaysOff);
   }
 
-  private void processDaysOff(HumanResource resource) {
+  private void processDaysOff(HumanResource resource, List<Load> loads) {
     DefaultListModel daysOff = resource.getDaysOff();
     if (daysOff != null) {
       for (int l = 0; l < daysOff.size(); l++) {
-        processDayOff((GanttDaysOff) daysOff.get(l));
+        GanttDaysOff dayOff = (GanttDaysOff) daysOff.get(l);
+        addLoad(dayOff.getStart().getTime(), dayOff.getFinish().getTime(), -1, loads, null);
       }
     }
-
-  }
-
-  private void processDayOff(GanttDaysOff dayOff) {
-    Date dayOffEnd = dayOff.getFinish().getTime();
-    addLoad(dayOff.getStart().getTime(), dayOffEnd, -1, myDaysOff, null);
   }
 
-  private void processAssignment(ResourceAssignment assignment) {
+  private void processAssignment(ResourceAssignment assignment, List<Load> loads) {
     Task task = assignment.getTask();
     for (TaskActivity ta : task.getActivities()) {
-      processActivity(ta, assignment.getLoad());
-    }
-  }
-
-  private void processActivity(TaskActivity activity, float load) {
-    if (activity.getIntensity() == 0) {
-      return;
+      if (ta.getIntensity() == 0) {
+        continue;
+      }
+      addLoad(ta.getStart(), ta.getEnd(), assignment.getLoad(), loads, ta.getOwner());
     }
-    addLoad(activity.getStart(), activity.getEnd(), load, myLoads, activity.getOwner());
   }
 
   private void addLoad(Date startDate, Date endDate, float load, List<Load> loads, Task t) {
     Load taskLoad = new Load(startDate, endDate, load, t);
-
+    loads.add(taskLoad);
     myTasksLoads.add(taskLoad);
+    List<Load> partition = mySeparatedTaskLoads.get(t);
+    if (partition == null) {
+      partition = new ArrayList<Load>();
+      mySeparatedTaskLoads.put(t, partition);
+    }
+    partition.add(taskLoad);
+  }
 
-    int idxStart = -1;
-    float currentLoad = 0;
-    if (startDate == null) {
-      idxStart = 0;
-    } else {
-      for (int i = 1; i < loads.size(); i++) {
-        Load nextLoad = loads.get(i);
-        if (startDate.compareTo(nextLoad.startDate) >= 0) {
-          currentLoad = loads.get(i).load;
-        }
-        if (startDate.compareTo(nextLoad.startDate) > 0) {
-          continue;
-        }
-        idxStart = i;
-        if (startDate.compareTo(nextLoad.startDate) < 0) {
-          loads.add(i, new Load(startDate, null, currentLoad, null));
-        }
-        break;
+  /**
+   * Sweeps over the interval boundaries in chronological order and appends to the result
+   * a load for every distinct boundary date. The value of each load is the total load
+   * of the intervals which are active from its start date up to the start date of the next one.
+   */
+  private static void sweep(List<Load> intervals, List<Load> result) {
+    List<Load> byStart = new ArrayList<Load>(intervals);
+    Collections.sort(byStart, START_DATE_COMPARATOR);
+    List<Load> byEnd = new ArrayList<Load>(intervals);
+    Collections.sort(byEnd, END_DATE_COMPARATOR);
+
+    int startIdx = 0;
+    int endIdx = 0;
+    int activeCount = 0;
+    double currentLoad = 0;
+    while (endIdx < byEnd.size()) {
+      Date nextDate = byEnd.get(endIdx).endDate;
+      if (startIdx < byStart.size() && byStart.get(startIdx).startDate.before(nextDate)) {
+        nextDate = byStart.get(startIdx).startDate;
       }
-    }
-    if (idxStart == -1) {
-      idxStart = loads.size();
-      loads.add(new Load(startDate, null, 0, t));
-    }
-    int idxEnd = -1;
-    if (endDate == null) {
-      idxEnd = loads.size() - 1;
-    } else {
-      for (int i = idxStart; i < loads.size(); i++) {
-        Load nextLoad = loads.get(i);
-        if (endDate.compareTo(nextLoad.startDate) > 0) {
-          nextLoad.load += load;
-          continue;
-        }
-        idxEnd = i;
-        if (endDate.compareTo(nextLoad.startDate) < 0) {
-          Load prevLoad = loads.get(i - 1);
-          loads.add(i, new Load(endDate, null, prevLoad.load - load, null));
-        }
-        break;
+      for (; endIdx < byEnd.size() && byEnd.get(endIdx).endDate.equals(nextDate); endIdx++) {
+        currentLoad -= byEnd.get(endIdx).load;
+        activeCount--;
       }
-    }
-    if (idxEnd == -1) {
-      idxEnd = loads.size();
-      loads.add(new Load(endDate, null, 0, t));
+      for (; startIdx < byStart.size() && byStart.get(startIdx).startDate.equals(nextDate); startIdx++) {
+        currentLoad += byStart.get(startIdx).load;
+        activeCount++;
+      }
+      // Don't let rounding errors produce tiny non-zero loads where nothing is active
+      result.add(new Load(nextDate, null, activeCount == 0 ? 0 : (float) currentLoad, null));
     }
   }
 
@@ -170,19 +175,11 @@ public class LoadDistribution {
     return myTasksLoads;
   }
 
+  /**
+   * @return loads of every task where the resource is assigned, computed in the same pass
+   *   as the total loads. Days off are stored with {@code null} key
+   */
   public Map<Task, List<Load>> getSeparatedTaskLoads() {
-    HashMap<Task, List<Load>> result = new HashMap<Task, List<Load>>();
-    List<Load> taskLoads = getTasksLoads();
-    for (int i = 0; i < taskLoads.size(); i++) {
-      Load nextLoad = taskLoads.get(i);
-      Task nextTask = nextLoad.refTask;
-      List<Load> partition = result.get(nextTask);
-      if (partition == null) {
-        partition = new ArrayList<Load>();
-        result.put(nextTask, partition);
-      }
-      partition.add(nextLoad);
-    }
-    return result;
+    return mySeparatedTaskLoads;
   }
-}
\ No newline at end of file
+}
@@ -18,7 +18,6 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
 package net.sourceforge.ganttproject.resource;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +30,6 @@ import net.sourceforge.ganttproject.CustomProperty;
 
 public class OverwritingMerger implements HumanResourceMerger {
   private final EnumerationOption myMergeOption;
-  private final Map<String, HumanResource> myCache = new HashMap<String, HumanResource>();
 
   public OverwritingMerger(EnumerationOption mergeOption) {
     myMergeOption = mergeOption;
@@ -73,34 +71,12 @@ public class OverwritingMerger implements HumanResourceMerger {
       return nativeMgr.getById(foreign.getId());
     }
     if (MergeResourcesOption.BY_EMAIL.equals(myMergeOption.getValue())) {
-      if (myCache.isEmpty()) {
-        buildEmailCache(nativeMgr);
-      }
-      return myCache.get(foreign.getMail());
+      return nativeMgr.getByEmail(foreign.getMail());
     }
     if (MergeResourcesOption.BY_NAME.equals(myMergeOption.getValue())) {
-      if (myCache.isEmpty()) {
-        buildNameCache(nativeMgr);
-      }
-      return myCache.get(foreign.getName());
+      return nativeMgr.getByName(foreign.getName());
     }
     assert false : "We should not be here. Option ID=" + myMergeOption.getValue();
     return null;
   }
-
-  private void buildNameCache(HumanResourceManager nativeMgr) {
-    List<HumanResource> resources = nativeMgr.getResources();
-    for (int i = 0; i < resources.size(); i++) {
-      HumanResource hr = resources.get(i);
-      myCache.put(hr.getName(), hr);
-    }
-  }
-
-  private void buildEmailCache(HumanResourceManager nativeMgr) {
-    List<HumanResource> resources = nativeMgr.getResources();
-    for (int i = 0; i < resources.size(); i++) {
-      HumanResource hr = resources.get(i);
-      myCache.put(hr.getMail(), hr);
-    }
-  }
 }
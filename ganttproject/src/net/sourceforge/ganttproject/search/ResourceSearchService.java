@@ -19,11 +19,15 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
 package net.sourceforge.ganttproject.search;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import net.sourceforge.ganttproject.IGanttProject;
 import net.sourceforge.ganttproject.gui.UIFacade;
 import net.sourceforge.ganttproject.resource.HumanResource;
+import net.sourceforge.ganttproject.resource.ResourceEvent;
+import net.sourceforge.ganttproject.resource.ResourceView;
 
 /** Search service for resources */
 public class ResourceSearchService extends SearchServiceBase<ResourceSearchService.MySearchResult, HumanResource> {
@@ -33,22 +37,67 @@ public class ResourceSearchService extends SearchServiceBase<ResourceSearchServi
     }
   }
 
+  private static final String[] FIELDS = new String[] { "name", "id", "custom" };
+  private static final int[] FIELD_WEIGHTS = new int[] { 8, 4, 1 };
+
   public ResourceSearchService() {
-    super(UIFacade.RESOURCES_INDEX);
+    super(UIFacade.RESOURCES_INDEX, createIndex());
+  }
+
+  static SearchIndex<HumanResource> createIndex() {
+    return new SearchIndex<HumanResource>(FIELDS, FIELD_WEIGHTS, new SearchIndex.Indexer<HumanResource>() {
+      @Override
+      public String[] getFieldValues(HumanResource hr) {
+        return new String[] { hr.getName(), String.valueOf(hr.getId()),
+            TaskSearchService.getCustomValues(hr.getCustomProperties()) };
+      }
+    }, MODEL_EXECUTOR);
   }
 
   @Override
   public List<MySearchResult> search(String query) {
-    query = query.toLowerCase();
     List<MySearchResult> results = new ArrayList<MySearchResult>();
-    for (HumanResource hr : getProject().getHumanResourceManager().getResources()) {
-      if (isNotEmptyAndContains(hr.getName(), query)) {
-        results.add(new MySearchResult(hr, this));
-      }
+    for (HumanResource hr : searchIndex(query)) {
+      results.add(new MySearchResult(hr, this));
     }
     return results;
   }
 
+  @Override
+  protected Collection<HumanResource> getSearchObjects(IGanttProject project) {
+    return Arrays.asList(project.getHumanResourceManager().getResourcesArray());
+  }
+
+  @Override
+  protected void addIndexListeners(IGanttProject project, SearchIndex<HumanResource> index) {
+    project.getHumanResourceManager().addView(createIndexListener(index));
+  }
+
+  static ResourceView createIndexListener(final SearchIndex<HumanResource> index) {
+    return new ResourceView() {
+      @Override
+      public void resourceAdded(ResourceEvent event) {
+        index.objectChanged(event.getResource());
+      }
+
+      @Override
+      public void resourcesRemoved(ResourceEvent event) {
+        for (HumanResource hr : event.getResources()) {
+          index.objectRemoved(hr);
+        }
+      }
+
+      @Override
+      public void resourceChanged(ResourceEvent e) {
+        index.objectChanged(e.getResource());
+      }
+
+      @Override
+      public void resourceAssignmentsChanged(ResourceEvent e) {
+      }
+    };
+  }
+
   @Override
   public void init(IGanttProject project, UIFacade uiFacade) {
     super.init(project, uiFacade.getResourceTree(), uiFacade);
@@ -62,6 +62,7 @@ public class SearchDialog {
   private JList myResultView;
   private UIFacade.Dialog myDialog;
   private SearchCallback mySearchCallback;
+  private List<SearchService> myServices;
 
   public SearchDialog(IGanttProject project, UIFacade uiFacade) {
     myProject = project;
@@ -150,11 +151,10 @@ public class SearchDialog {
 
   void runSearch(final String text, final SearchCallback callback) {
     myResultViewDataModel.clear();
-    List<SearchService> services = PluginManager.getExtensions(SearchService.EXTENSION_POINT_ID, SearchService.class);
+    List<SearchService> services = getServices();
     final List<Future<List<SearchResult<?>>>> tasks = new ArrayList<Future<List<SearchResult<?>>>>();
     ExecutorService executor = Executors.newFixedThreadPool(services.size());
     for (final SearchService<SearchResult<?>, ?> service : services) {
-      service.init(myProject, myUiFacade);
       tasks.add(executor.submit(new Callable<List<SearchResult<?>>>() {
         @Override
         public List<SearchResult<?>> call() throws Exception {
@@ -188,6 +188,29 @@ public class SearchDialog {
     worker.execute();
   }
 
+  /**
+   * Creates and initializes the search services, which start building their
+   * indices in the background. Called when the search UI is created, so that
+   * the first query doesn't have to wait for the index build.
+   */
+  void initServices() {
+    getServices();
+  }
+
+  /**
+   * Services are created and initialized once, so that they keep their search indices
+   * up to date between the searches
+   */
+  private List<SearchService> getServices() {
+    if (myServices == null) {
+      myServices = PluginManager.getExtensions(SearchService.EXTENSION_POINT_ID, SearchService.class);
+      for (SearchService service : myServices) {
+        service.init(myProject, myUiFacade);
+      }
+    }
+    return myServices;
+  }
+
   protected void processResults(final List<SearchResult<?>> results) {
     SwingUtilities.invokeLater(new Runnable() {
       @Override
@@ -0,0 +1,429 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.search;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * In-memory inverted index of the text fields of search objects. Field values are
+ * lower-cased once, when object is indexed, and split into trigrams. A query is answered by
+ * checking the objects from the shortest posting list of the query trigrams, so the results
+ * are exactly those of a substring search over all objects.
+ *
+ * Query may be restricted to a single field with a prefix like {@code notes:} or {@code id:}.
+ * Results are ranked by the weights of the matching fields, and whole value or word start
+ * matches rank higher. Objects with equal scores keep the order of indexing.
+ *
+ * Changed objects are re-indexed lazily, on the next query. Field values are always read
+ * in the thread which changes the search objects, through the executor passed to the
+ * constructor, while trigrams may be built in any thread. The whole index is rebuilt from a
+ * {@link Snapshot} of the field values. Rebuild is discarded if the index was cleared or
+ * another snapshot was taken meanwhile, and changes reported after the snapshot are applied
+ * on top of it.
+ */
+class SearchIndex<T> {
+  private static final int GRAM_LENGTH = 3;
+
+  interface Indexer<T> {
+    /**
+     * @return values of the index fields, in the order of field names. Values may be {@code null}
+     */
+    String[] getFieldValues(T object);
+  }
+
+  /**
+   * Field values of the search objects, read at some moment
+   */
+  static class Snapshot<T> {
+    private final int myGeneration;
+    private final Map<T, String[]> myValues;
+
+    private Snapshot(int generation, Map<T, String[]> values) {
+      myGeneration = generation;
+      myValues = values;
+    }
+  }
+
+  private static class Document<T> {
+    final T myObject;
+    final int myOrdinal;
+    final String[] myValues;
+    final Set<String> myGrams;
+
+    Document(T object, int ordinal, String[] values, Set<String> grams) {
+      myObject = object;
+      myOrdinal = ordinal;
+      myValues = values;
+      myGrams = grams;
+    }
+  }
+
+  private static class Hit<T> {
+    final Document<T> myDocument;
+    final int myScore;
+
+    Hit(Document<T> document, int score) {
+      myDocument = document;
+      myScore = score;
+    }
+  }
+
+  private static final Comparator<Hit<?>> BY_SCORE = new Comparator<Hit<?>>() {
+    @Override
+    public int compare(Hit<?> o1, Hit<?> o2) {
+      if (o1.myScore != o2.myScore) {
+        return o2.myScore - o1.myScore;
+      }
+      return o1.myDocument.myOrdinal - o2.myDocument.myOrdinal;
+    }
+  };
+
+  private final String[] myFieldNames;
+  private final int[] myFieldWeights;
+  private final Indexer<T> myIndexer;
+  private final Executor myModelExecutor;
+  private Map<T, Document<T>> myDocuments = Maps.newLinkedHashMap();
+  private Map<String, Set<Document<T>>> myPostings = Maps.newHashMap();
+  // Changed objects mapped to the number of the last change
+  private final Map<T, Integer> myChangedObjects = Maps.newLinkedHashMap();
+  // Objects removed while a snapshot is being indexed
+  private final Set<T> myRemovedObjects = Sets.newHashSet();
+  private int myDocumentCount;
+  private int myChangeCount;
+  // Incremented when the index is cleared or a snapshot is taken
+  private int myGeneration;
+  private boolean isRebuildPending;
+  private boolean isStale;
+
+  /**
+   * @param modelExecutor executor which runs reads of the field values in the thread
+   *          which changes the search objects
+   */
+  SearchIndex(String[] fieldNames, int[] fieldWeights, Indexer<T> indexer, Executor modelExecutor) {
+    assert fieldNames.length == fieldWeights.length;
+    myFieldNames = fieldNames;
+    myFieldWeights = fieldWeights;
+    myIndexer = indexer;
+    myModelExecutor = modelExecutor;
+  }
+
+  synchronized void objectChanged(T object) {
+    myChangedObjects.put(object, ++myChangeCount);
+  }
+
+  synchronized void objectRemoved(T object) {
+    myChangedObjects.remove(object);
+    Document<T> document = myDocuments.remove(object);
+    if (document != null) {
+      removePostings(document);
+    }
+    if (isRebuildPending) {
+      myRemovedObjects.add(object);
+    }
+  }
+
+  /**
+   * Removes all objects from the index. Index stays stale until it is rebuilt from a snapshot.
+   */
+  synchronized void clear() {
+    myGeneration++;
+    myChangedObjects.clear();
+    myRemovedObjects.clear();
+    myDocuments = Maps.newLinkedHashMap();
+    myPostings = Maps.newHashMap();
+    myDocumentCount = 0;
+    isRebuildPending = false;
+    isStale = true;
+  }
+
+  /**
+   * @return true if the index was cleared and no snapshot was taken since then
+   */
+  synchronized boolean isStale() {
+    return isStale;
+  }
+
+  /**
+   * Reads field values of the given objects. Should be called in the thread which changes
+   * the objects. Changes reported before this call are no longer needed, because the snapshot
+   * has the current values.
+   */
+  Snapshot<T> snapshot(Collection<T> objects) {
+    Map<T, String[]> values = readValues(objects);
+    synchronized (this) {
+      myGeneration++;
+      myChangedObjects.clear();
+      myRemovedObjects.clear();
+      isRebuildPending = true;
+      isStale = false;
+      return new Snapshot<T>(myGeneration, values);
+    }
+  }
+
+  /**
+   * Replaces the index contents with the snapshot contents, unless the index was cleared or
+   * another snapshot was taken after this one. May be called in any thread.
+   */
+  void rebuild(Snapshot<T> snapshot) {
+    Map<T, Document<T>> documents = Maps.newLinkedHashMap();
+    Map<String, Set<Document<T>>> postings = Maps.newHashMap();
+    int ordinal = 0;
+    for (Map.Entry<T, String[]> entry : snapshot.myValues.entrySet()) {
+      addDocument(documents, postings, entry.getKey(), ordinal++, entry.getValue());
+    }
+    synchronized (this) {
+      if (snapshot.myGeneration != myGeneration) {
+        return;
+      }
+      myDocuments = documents;
+      myPostings = postings;
+      myDocumentCount = ordinal;
+      for (T object : myRemovedObjects) {
+        Document<T> document = myDocuments.remove(object);
+        if (document != null) {
+          removePostings(document);
+        }
+      }
+      myRemovedObjects.clear();
+      isRebuildPending = false;
+    }
+  }
+
+  /**
+   * Replaces the index contents with the given objects. Should be called in the thread
+   * which changes the objects.
+   */
+  void rebuild(Collection<T> objects) {
+    rebuild(snapshot(objects));
+  }
+
+  int size() {
+    update();
+    synchronized (this) {
+      return myDocuments.size();
+    }
+  }
+
+  /**
+   * @return objects which have the query text in one of the index fields or in the
+   * field specified in the query prefix, best matches first
+   */
+  List<T> search(String query) {
+    update();
+    synchronized (this) {
+      return doSearch(query);
+    }
+  }
+
+  private List<T> doSearch(String query) {
+    String text = query.trim().toLowerCase();
+    int field = -1;
+    int colon = text.indexOf(':');
+    if (colon > 0) {
+      field = indexOf(myFieldNames, text.substring(0, colon));
+      if (field >= 0) {
+        text = text.substring(colon + 1).trim();
+      }
+    }
+    if (text.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Collection<Document<T>> candidates = text.length() < GRAM_LENGTH ? myDocuments.values() : findCandidates(text);
+    List<Hit<T>> hits = Lists.newArrayList();
+    for (Document<T> document : candidates) {
+      int score = field >= 0 ? getScore(document, field, text) : getScore(document, text);
+      if (score > 0) {
+        hits.add(new Hit<T>(document, score));
+      }
+    }
+    Collections.sort(hits, BY_SCORE);
+    List<T> result = Lists.newArrayListWithExpectedSize(hits.size());
+    for (Hit<T> hit : hits) {
+      result.add(hit.myDocument.myObject);
+    }
+    return result;
+  }
+
+  private Collection<Document<T>> findCandidates(String text) {
+    Set<Document<T>> result = null;
+    for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+      Set<Document<T>> posting = myPostings.get(text.substring(i, i + GRAM_LENGTH));
+      if (posting == null) {
+        return Collections.emptyList();
+      }
+      if (result == null || posting.size() < result.size()) {
+        result = posting;
+      }
+    }
+    return result;
+  }
+
+  private int getScore(Document<T> document, String text) {
+    int score = 0;
+    for (int i = 0; i < myFieldNames.length; i++) {
+      score += getScore(document, i, text);
+    }
+    return score;
+  }
+
+  private int getScore(Document<T> document, int field, String text) {
+    String value = document.myValues[field];
+    if (value == null) {
+      return 0;
+    }
+    int pos = value.indexOf(text);
+    if (pos < 0) {
+      return 0;
+    }
+    if (value.length() == text.length()) {
+      return myFieldWeights[field] * 4;
+    }
+    if (pos == 0 || !Character.isLetterOrDigit(value.charAt(pos - 1))) {
+      return myFieldWeights[field] * 2;
+    }
+    return myFieldWeights[field];
+  }
+
+  /**
+   * Re-indexes changed objects. Changes reported while a snapshot is being indexed wait
+   * until it is installed.
+   */
+  private void update() {
+    final Map<T, Integer> changes;
+    final int generation;
+    synchronized (this) {
+      if (myChangedObjects.isEmpty() || isRebuildPending) {
+        return;
+      }
+      changes = Maps.newLinkedHashMap(myChangedObjects);
+      generation = myGeneration;
+    }
+    Map<T, String[]> values = readValuesInModelThread(changes.keySet());
+    synchronized (this) {
+      if (generation != myGeneration || isRebuildPending) {
+        return;
+      }
+      for (Map.Entry<T, Integer> change : changes.entrySet()) {
+        T object = change.getKey();
+        Integer lastChange = myChangedObjects.get(object);
+        if (lastChange == null) {
+          // Removed while we were reading the values
+          continue;
+        }
+        if (lastChange.equals(change.getValue())) {
+          myChangedObjects.remove(object);
+        }
+        // Changed objects keep their place among the equally ranked results
+        Document<T> document = myDocuments.remove(object);
+        int ordinal = myDocumentCount;
+        if (document != null) {
+          removePostings(document);
+          ordinal = document.myOrdinal;
+        } else {
+          myDocumentCount++;
+        }
+        addDocument(myDocuments, myPostings, object, ordinal, values.get(object));
+      }
+    }
+  }
+
+  private Map<T, String[]> readValues(Collection<T> objects) {
+    Map<T, String[]> result = Maps.newLinkedHashMap();
+    for (T object : objects) {
+      result.put(object, myIndexer.getFieldValues(object));
+    }
+    return result;
+  }
+
+  private Map<T, String[]> readValuesInModelThread(final Collection<T> objects) {
+    FutureTask<Map<T, String[]>> read = new FutureTask<Map<T, String[]>>(new Callable<Map<T, String[]>>() {
+      @Override
+      public Map<T, String[]> call() {
+        return readValues(objects);
+      }
+    });
+    myModelExecutor.execute(read);
+    try {
+      return read.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private static <T> void addDocument(Map<T, Document<T>> documents, Map<String, Set<Document<T>>> postings,
+      T object, int ordinal, String[] values) {
+    Set<String> grams = Sets.newHashSet();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        continue;
+      }
+      values[i] = values[i].toLowerCase();
+      for (int j = 0; j + GRAM_LENGTH <= values[i].length(); j++) {
+        grams.add(values[i].substring(j, j + GRAM_LENGTH));
+      }
+    }
+    Document<T> document = new Document<T>(object, ordinal, values, grams);
+    documents.put(object, document);
+    for (String gram : grams) {
+      Set<Document<T>> posting = postings.get(gram);
+      if (posting == null) {
+        posting = Sets.newLinkedHashSet();
+        postings.put(gram, posting);
+      }
+      posting.add(document);
+    }
+  }
+
+  private void removePostings(Document<T> document) {
+    for (String gram : document.myGrams) {
+      Set<Document<T>> posting = myPostings.get(gram);
+      if (posting != null) {
+        posting.remove(document);
+        if (posting.isEmpty()) {
+          myPostings.remove(gram);
+        }
+      }
+    }
+  }
+
+  private static int indexOf(String[] values, String value) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i].equals(value)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
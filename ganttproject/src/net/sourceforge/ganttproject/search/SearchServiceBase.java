@@ -18,9 +18,15 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
  */
 package net.sourceforge.ganttproject.search;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import javax.swing.SwingUtilities;
+
+import net.sourceforge.ganttproject.GPLogger;
 import net.sourceforge.ganttproject.IGanttProject;
+import net.sourceforge.ganttproject.ProjectEventListener;
 import net.sourceforge.ganttproject.gui.TreeUiFacade;
 import net.sourceforge.ganttproject.gui.UIFacade;
 
@@ -35,23 +41,112 @@ import net.sourceforge.ganttproject.gui.UIFacade;
  *          target search object type
  */
 abstract class SearchServiceBase<SR extends SearchResult<SO>, SO> implements SearchService<SR, SO> {
+  /** Project model is changed in the event dispatch thread, so field values are read there */
+  static final Executor MODEL_EXECUTOR = new Executor() {
+    @Override
+    public void execute(Runnable command) {
+      if (SwingUtilities.isEventDispatchThread()) {
+        command.run();
+      } else {
+        SwingUtilities.invokeLater(command);
+      }
+    }
+  };
+
   private final int myViewIndex;
   private IGanttProject myProject;
   private TreeUiFacade<SO> myTreeUiFacade;
   private UIFacade myUiFacade;
+  private final SearchIndex<SO> myIndex;
+  private Thread myIndexBuilder;
 
-  protected SearchServiceBase(int viewIndex) {
+  protected SearchServiceBase(int viewIndex, SearchIndex<SO> index) {
     myViewIndex = viewIndex;
+    myIndex = index;
   }
 
   protected void init(IGanttProject project, TreeUiFacade<SO> treeUiFacade, UIFacade uiFacade) {
+    boolean isFirstInit = myProject != project;
     myProject = project;
     myTreeUiFacade = treeUiFacade;
     myUiFacade = uiFacade;
+    if (isFirstInit) {
+      project.addProjectEventListener(new ProjectEventListener.Stub() {
+        @Override
+        public void projectOpened() {
+          rebuildIndex();
+        }
+
+        @Override
+        public void projectClosed() {
+          onModelReset();
+        }
+      });
+      addIndexListeners(project, myIndex);
+      rebuildIndex();
+    }
+  }
+
+  /**
+   * Subscribes index to the changes of search objects
+   */
+  protected abstract void addIndexListeners(IGanttProject project, SearchIndex<SO> index);
+
+  /**
+   * @return all search objects of the project, in the order of search results with equal ranks
+   */
+  protected abstract Collection<SO> getSearchObjects(IGanttProject project);
+
+  /**
+   * Takes a snapshot of the search objects and starts indexing it in a background thread.
+   * Searches wait until it completes. Should be called in the event dispatch thread.
+   */
+  protected void rebuildIndex() {
+    final SearchIndex.Snapshot<SO> snapshot = myIndex.snapshot(getSearchObjects(myProject));
+    Thread indexBuilder = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        myIndex.rebuild(snapshot);
+      }
+    }, "Search index builder");
+    indexBuilder.setDaemon(true);
+    synchronized (this) {
+      myIndexBuilder = indexBuilder;
+    }
+    indexBuilder.start();
   }
 
-  protected static boolean isNotEmptyAndContains(String doc, String query) {
-    return doc != null && doc.toLowerCase().contains(query);
+  /**
+   * Clears the index and schedules its rebuild. When project is re-read by undo or redo,
+   * no events are sent for the new objects, so the rebuild runs after the model has been
+   * re-read, unless the index is rebuilt by that time, e.g. because project was opened.
+   */
+  protected void onModelReset() {
+    myIndex.clear();
+    SwingUtilities.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        if (myIndex.isStale()) {
+          rebuildIndex();
+        }
+      }
+    });
+  }
+
+  protected List<SO> searchIndex(String query) {
+    Thread indexBuilder;
+    synchronized (this) {
+      indexBuilder = myIndexBuilder;
+    }
+    if (indexBuilder != null) {
+      try {
+        indexBuilder.join();
+      } catch (InterruptedException e) {
+        GPLogger.log(e);
+        Thread.currentThread().interrupt();
+      }
+    }
+    return myIndex.search(query);
   }
 
   protected IGanttProject getProject() {
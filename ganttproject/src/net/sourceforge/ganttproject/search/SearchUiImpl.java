@@ -33,6 +33,7 @@ import javax.swing.JList;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 
 import net.sourceforge.ganttproject.IGanttProject;
 import net.sourceforge.ganttproject.gui.UIFacade;
@@ -62,6 +63,15 @@ public class SearchUiImpl implements SearchUi {
       }
     });
     callback.setSearchBox(searchBox);
+    // Task and resource trees are created after this constructor returns,
+    // so the services are initialized once the UI construction is complete.
+    final SearchDialog dialog = callback.myDialog;
+    SwingUtilities.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        dialog.initServices();
+      }
+    });
   }
 
   @Override
@@ -19,11 +19,18 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
 package net.sourceforge.ganttproject.search;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
+import net.sourceforge.ganttproject.CustomProperty;
 import net.sourceforge.ganttproject.IGanttProject;
 import net.sourceforge.ganttproject.gui.UIFacade;
 import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskManager;
+import net.sourceforge.ganttproject.task.event.TaskHierarchyEvent;
+import net.sourceforge.ganttproject.task.event.TaskListenerAdapter;
+import net.sourceforge.ganttproject.task.event.TaskPropertyEvent;
 
 /** Search service for tasks */
 public class TaskSearchService extends SearchServiceBase<TaskSearchService.MySearchResult, Task> {
@@ -33,23 +40,91 @@ public class TaskSearchService extends SearchServiceBase<TaskSearchService.MySea
     }
   }
 
+  private static final String[] FIELDS = new String[] { "name", "id", "notes", "custom" };
+  private static final int[] FIELD_WEIGHTS = new int[] { 8, 4, 2, 1 };
+
   public TaskSearchService() {
-    super(UIFacade.GANTT_INDEX);
+    super(UIFacade.GANTT_INDEX, createIndex());
+  }
+
+  static SearchIndex<Task> createIndex() {
+    return new SearchIndex<Task>(FIELDS, FIELD_WEIGHTS, new SearchIndex.Indexer<Task>() {
+      @Override
+      public String[] getFieldValues(Task t) {
+        return new String[] { t.getName(), String.valueOf(t.getTaskID()), t.getNotes(),
+            getCustomValues(t.getCustomValues().getCustomProperties()) };
+      }
+    }, MODEL_EXECUTOR);
+  }
+
+  static String getCustomValues(List<CustomProperty> properties) {
+    if (properties.isEmpty()) {
+      return null;
+    }
+    StringBuilder result = new StringBuilder();
+    for (CustomProperty property : properties) {
+      String value = property.getValueAsString();
+      if (value != null) {
+        // Line breaks keep the values apart for the word start matches
+        result.append(value).append('\n');
+      }
+    }
+    return result.toString();
   }
 
   @Override
   public List<MySearchResult> search(String query) {
-    query = query.toLowerCase();
     List<MySearchResult> results = new ArrayList<MySearchResult>();
-    for (Task t : getProject().getTaskManager().getTasks()) {
-      if (isNotEmptyAndContains(t.getName(), query) || isNotEmptyAndContains(t.getNotes(), query)
-          || isNotEmptyAndContains(String.valueOf(t.getTaskID()), query)) {
+    TaskManager taskManager = getProject().getTaskManager();
+    for (Task t : searchIndex(query)) {
+      // Nested tasks of a deleted task are removed without events
+      if (taskManager.getTask(t.getTaskID()) == t) {
         results.add(new MySearchResult(t, this));
       }
     }
     return results;
   }
 
+  @Override
+  protected Collection<Task> getSearchObjects(IGanttProject project) {
+    return Arrays.asList(project.getTaskManager().getTasks());
+  }
+
+  @Override
+  protected void addIndexListeners(IGanttProject project, final SearchIndex<Task> index) {
+    project.getTaskManager().addTaskListener(createIndexListener(index));
+    project.getTaskManager().addTaskListener(new TaskListenerAdapter() {
+      @Override
+      public void taskModelReset() {
+        onModelReset();
+      }
+    });
+  }
+
+  static TaskListenerAdapter createIndexListener(final SearchIndex<Task> index) {
+    return new TaskListenerAdapter() {
+      @Override
+      public void taskAdded(TaskHierarchyEvent e) {
+        index.objectChanged(e.getTask());
+      }
+
+      @Override
+      public void taskRemoved(TaskHierarchyEvent e) {
+        index.objectRemoved(e.getTask());
+      }
+
+      @Override
+      public void taskPropertiesChanged(TaskPropertyEvent e) {
+        index.objectChanged(e.getTask());
+      }
+
+      @Override
+      public void taskModelReset() {
+        index.clear();
+      }
+    };
+  }
+
   @Override
   public void init(IGanttProject project, UIFacade uiFacade) {
     super.init(project, uiFacade.getTaskTree(), uiFacade);
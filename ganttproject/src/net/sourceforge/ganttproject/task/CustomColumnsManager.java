@@ -34,11 +34,16 @@ import net.sourceforge.ganttproject.CustomPropertyManager;
  */
 public class CustomColumnsManager implements CustomPropertyManager {
   private final CustomColumnsStorage myStorage;
+  private final CustomColumnsValueStore myValueStore = new CustomColumnsValueStore();
 
   public CustomColumnsManager() {
     myStorage = new CustomColumnsStorage(this);
   }
 
+  CustomColumnsValueStore getValueStore() {
+    return myValueStore;
+  }
+
   private void addNewCustomColumn(CustomColumn customColumn) {
     assert customColumn != null;
     myStorage.addCustomColumn(customColumn);
@@ -83,6 +88,7 @@ public class CustomColumnsManager implements CustomPropertyManager {
   @Override
   public void deleteDefinition(CustomPropertyDefinition def) {
     myStorage.removeCustomColumn(def);
+    myValueStore.removeColumn(def.getID());
   }
 
   void fireDefinitionChanged(int event, CustomPropertyDefinition def, CustomPropertyDefinition oldDef) {
@@ -0,0 +1,411 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.task;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import biz.ganttproject.core.time.CalendarFactory;
+import biz.ganttproject.core.time.GanttCalendar;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Keeps custom property values of all the holders created by one custom property manager,
+ * one column per property definition. Every holder gets a dense slot number which indexes
+ * the column arrays. Integers, doubles, booleans and dates are kept in primitive arrays
+ * and strings are dictionary-encoded. A column which receives a value of some other class,
+ * e.g. after the definition type has been changed, switches to an array of objects.
+ *
+ * Slots of the holders which have been garbage collected are reused.
+ *
+ * The store is shared by all holders of the manager and the holders may be read and written
+ * from any thread, e.g. by the export or the search index, so all access goes through
+ * the store monitor.
+ */
+class CustomColumnsValueStore {
+  private static class SlotReference extends WeakReference<Object> {
+    private final int mySlot;
+
+    SlotReference(Object holder, int slot, ReferenceQueue<Object> queue) {
+      super(holder, queue);
+      mySlot = slot;
+    }
+  }
+
+  private final Map<String, Column> myColumns = Maps.newLinkedHashMap();
+  private final List<SlotReference> mySlotReferences = Lists.newArrayList();
+  private final Deque<Integer> myFreeSlots = new ArrayDeque<Integer>();
+  private final ReferenceQueue<Object> myCollectedHolders = new ReferenceQueue<Object>();
+
+  synchronized int allocateSlot(Object holder) {
+    releaseCollectedSlots();
+    int slot;
+    if (myFreeSlots.isEmpty()) {
+      slot = mySlotReferences.size();
+      mySlotReferences.add(null);
+    } else {
+      slot = myFreeSlots.pop();
+    }
+    mySlotReferences.set(slot, new SlotReference(holder, slot, myCollectedHolders));
+    return slot;
+  }
+
+  // Called with the store monitor held
+  private void releaseCollectedSlots() {
+    for (Reference<?> ref = myCollectedHolders.poll(); ref != null; ref = myCollectedHolders.poll()) {
+      int slot = ((SlotReference) ref).mySlot;
+      for (Column column : myColumns.values()) {
+        column.clear(slot);
+      }
+      mySlotReferences.set(slot, null);
+      myFreeSlots.push(slot);
+    }
+  }
+
+  synchronized Object getValue(int slot, String id) {
+    Column column = myColumns.get(id);
+    return column == null ? null : column.get(slot);
+  }
+
+  synchronized boolean hasValue(int slot, String id) {
+    Column column = myColumns.get(id);
+    return column != null && column.has(slot);
+  }
+
+  synchronized void setValue(int slot, String id, Object value) {
+    if (value == null) {
+      clearValue(slot, id);
+      return;
+    }
+    Column column = myColumns.get(id);
+    if (column == null || (!column.accepts(value) && column.isEmpty())) {
+      column = createColumn(value);
+      myColumns.put(id, column);
+    } else if (!column.accepts(value)) {
+      column = new ObjectColumn(column);
+      myColumns.put(id, column);
+    }
+    column.set(slot, value);
+  }
+
+  synchronized void clearValue(int slot, String id) {
+    Column column = myColumns.get(id);
+    if (column != null) {
+      column.clear(slot);
+    }
+  }
+
+  synchronized void copyValues(int fromSlot, int toSlot) {
+    for (Column column : myColumns.values()) {
+      if (column.has(fromSlot)) {
+        column.set(toSlot, column.get(fromSlot));
+      } else {
+        column.clear(toSlot);
+      }
+    }
+  }
+
+  /**
+   * @return values of the given slot keyed by definition ID, in the order of column creation
+   */
+  synchronized Map<String, Object> getValues(int slot) {
+    Map<String, Object> result = Maps.newLinkedHashMap();
+    for (Map.Entry<String, Column> entry : myColumns.entrySet()) {
+      if (entry.getValue().has(slot)) {
+        result.put(entry.getKey(), entry.getValue().get(slot));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return values of the column with the given definition ID in the given slots,
+   *   null where the slot has no value
+   */
+  synchronized Object[] getColumnValues(String id, int[] slots) {
+    Object[] result = new Object[slots.length];
+    Column column = myColumns.get(id);
+    if (column != null) {
+      for (int i = 0; i < slots.length; i++) {
+        result[i] = column.get(slots[i]);
+      }
+    }
+    return result;
+  }
+
+  synchronized void removeColumn(String id) {
+    myColumns.remove(id);
+  }
+
+  private static Column createColumn(Object value) {
+    if (value instanceof String) {
+      return new StringColumn();
+    }
+    if (value instanceof Integer) {
+      return new IntegerColumn();
+    }
+    if (value instanceof Double) {
+      return new DoubleColumn();
+    }
+    if (value instanceof Boolean) {
+      return new BooleanColumn();
+    }
+    if (value != null && value.getClass() == GanttCalendar.class) {
+      return new DateColumn();
+    }
+    return new ObjectColumn();
+  }
+
+  private static int grow(int length, int slot) {
+    return Math.max(slot + 1, length + (length >> 1) + 16);
+  }
+
+  private static abstract class Column {
+    private final BitSet myPresent = new BitSet();
+
+    boolean has(int slot) {
+      return myPresent.get(slot);
+    }
+
+    Object get(int slot) {
+      return myPresent.get(slot) ? doGet(slot) : null;
+    }
+
+    void set(int slot, Object value) {
+      doSet(slot, value);
+      myPresent.set(slot);
+    }
+
+    void clear(int slot) {
+      if (myPresent.get(slot)) {
+        myPresent.clear(slot);
+        doClear(slot);
+      }
+    }
+
+    boolean isEmpty() {
+      return myPresent.isEmpty();
+    }
+
+    int size() {
+      return myPresent.cardinality();
+    }
+
+    BitSet getPresentSlots() {
+      return myPresent;
+    }
+
+    abstract boolean accepts(Object value);
+
+    abstract Object doGet(int slot);
+
+    abstract void doSet(int slot, Object value);
+
+    void doClear(int slot) {
+    }
+  }
+
+  private static class IntegerColumn extends Column {
+    private int[] myValues = new int[0];
+
+    @Override
+    boolean accepts(Object value) {
+      return value instanceof Integer;
+    }
+
+    @Override
+    Object doGet(int slot) {
+      return myValues[slot];
+    }
+
+    @Override
+    void doSet(int slot, Object value) {
+      if (slot >= myValues.length) {
+        myValues = Arrays.copyOf(myValues, grow(myValues.length, slot));
+      }
+      myValues[slot] = (Integer) value;
+    }
+  }
+
+  private static class DoubleColumn extends Column {
+    private double[] myValues = new double[0];
+
+    @Override
+    boolean accepts(Object value) {
+      return value instanceof Double;
+    }
+
+    @Override
+    Object doGet(int slot) {
+      return myValues[slot];
+    }
+
+    @Override
+    void doSet(int slot, Object value) {
+      if (slot >= myValues.length) {
+        myValues = Arrays.copyOf(myValues, grow(myValues.length, slot));
+      }
+      myValues[slot] = (Double) value;
+    }
+  }
+
+  private static class BooleanColumn extends Column {
+    private final BitSet myValues = new BitSet();
+
+    @Override
+    boolean accepts(Object value) {
+      return value instanceof Boolean;
+    }
+
+    @Override
+    Object doGet(int slot) {
+      return myValues.get(slot);
+    }
+
+    @Override
+    void doSet(int slot, Object value) {
+      myValues.set(slot, (Boolean) value);
+    }
+  }
+
+  /** Keeps dates as milliseconds and creates a new calendar on every read */
+  private static class DateColumn extends Column {
+    private long[] myValues = new long[0];
+
+    @Override
+    boolean accepts(Object value) {
+      return value != null && value.getClass() == GanttCalendar.class;
+    }
+
+    @Override
+    Object doGet(int slot) {
+      return CalendarFactory.createGanttCalendar(new java.util.Date(myValues[slot]));
+    }
+
+    @Override
+    void doSet(int slot, Object value) {
+      if (slot >= myValues.length) {
+        myValues = Arrays.copyOf(myValues, grow(myValues.length, slot));
+      }
+      myValues[slot] = ((GanttCalendar) value).getTimeInMillis();
+    }
+  }
+
+  /**
+   * Keeps codes of the strings in a dictionary. The dictionary is rebuilt when most of its
+   * strings are no longer used.
+   */
+  private static class StringColumn extends Column {
+    private static final int MIN_COMPACTED_DICTIONARY_SIZE = 64;
+    private int[] myCodes = new int[0];
+    private List<String> myDictionary = Lists.newArrayList();
+    private Map<String, Integer> myString2code = Maps.newHashMap();
+
+    @Override
+    boolean accepts(Object value) {
+      return value instanceof String;
+    }
+
+    @Override
+    Object doGet(int slot) {
+      return myDictionary.get(myCodes[slot]);
+    }
+
+    @Override
+    void doSet(int slot, Object value) {
+      if (slot >= myCodes.length) {
+        myCodes = Arrays.copyOf(myCodes, grow(myCodes.length, slot));
+      }
+      Integer code = myString2code.get(value);
+      if (code == null) {
+        if (myDictionary.size() >= MIN_COMPACTED_DICTIONARY_SIZE && myDictionary.size() > 2 * size()) {
+          compact();
+        }
+        code = myDictionary.size();
+        myDictionary.add((String) value);
+        myString2code.put((String) value, code);
+      }
+      myCodes[slot] = code;
+    }
+
+    private void compact() {
+      List<String> dictionary = Lists.newArrayList();
+      Map<String, Integer> string2code = Maps.newHashMap();
+      BitSet present = getPresentSlots();
+      for (int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+        String value = myDictionary.get(myCodes[slot]);
+        Integer code = string2code.get(value);
+        if (code == null) {
+          code = dictionary.size();
+          dictionary.add(value);
+          string2code.put(value, code);
+        }
+        myCodes[slot] = code;
+      }
+      myDictionary = dictionary;
+      myString2code = string2code;
+    }
+  }
+
+  private static class ObjectColumn extends Column {
+    private Object[] myValues = new Object[0];
+
+    ObjectColumn() {
+    }
+
+    ObjectColumn(Column typedColumn) {
+      BitSet present = typedColumn.getPresentSlots();
+      for (int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+        set(slot, typedColumn.get(slot));
+      }
+    }
+
+    @Override
+    boolean accepts(Object value) {
+      return true;
+    }
+
+    @Override
+    Object doGet(int slot) {
+      return myValues[slot];
+    }
+
+    @Override
+    void doSet(int slot, Object value) {
+      if (slot >= myValues.length) {
+        myValues = Arrays.copyOf(myValues, grow(myValues.length, slot));
+      }
+      myValues[slot] = value;
+    }
+
+    @Override
+    void doClear(int slot) {
+      myValues[slot] = null;
+    }
+  }
+}
@@ -19,7 +19,6 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 package net.sourceforge.ganttproject.task;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -33,28 +32,38 @@ import net.sourceforge.ganttproject.CustomPropertyManager;
 import net.sourceforge.ganttproject.language.GanttLanguage;
 
 /**
- * Keeps a map of custom property ID to value.
+ * Custom property values of a task or a resource. Values are kept in the column
+ * store of the custom property manager, this object only knows its slot there.
  * 
  * @author bbaranne Mar 2, 2005 -- initial code
  * @auuthor dbarashev (Dmitry Barashev) -- complete rewrite
  */
 public class CustomColumnsValues implements CustomPropertyHolder, Cloneable {
-  /**
-   * CustomColumnName(String) -> Value (Object)
-   */
-  private final Map<String, Object> mapCustomColumnValue = new HashMap<String, Object>();
   private final CustomPropertyManager myManager;
+  private final CustomColumnsValueStore myStore;
+  private final int mySlot;
 
   /**
    * Creates an instance of CustomColumnsValues.
    */
   public CustomColumnsValues(CustomPropertyManager customPropertyManager) {
     myManager = customPropertyManager;
+    myStore = (customPropertyManager instanceof CustomColumnsManager)
+        ? ((CustomColumnsManager) customPropertyManager).getValueStore() : new CustomColumnsValueStore();
+    mySlot = myStore.allocateSlot(this);
   }
 
   public void setValue(CustomPropertyDefinition def, Object value) throws CustomColumnsException {
     if (value == null) {
-      mapCustomColumnValue.remove(def.getID());
+      myStore.clearValue(mySlot, def.getID());
+      return;
+    }
+    checkValueClass(def, value);
+    myStore.setValue(mySlot, def.getID(), value);
+  }
+
+  static void checkValueClass(CustomPropertyDefinition def, Object value) throws CustomColumnsException {
+    if (value == null) {
       return;
     }
     Class<?> c1 = def.getType();
@@ -63,38 +72,70 @@ public class CustomColumnsValues implements CustomPropertyHolder, Cloneable {
       throw new CustomColumnsException(CustomColumnsException.CLASS_MISMATCH, "Failed to set value=" + value
           + ". value class=" + c2 + ", column class=" + c1);
     }
-    mapCustomColumnValue.put(def.getID(), value);
   }
 
   public Object getValue(CustomPropertyDefinition def) {
-    Object result = mapCustomColumnValue.get(def.getID());
+    Object result = myStore.getValue(mySlot, def.getID());
     return (result == null) ? def.getDefaultValue() : result;
   }
 
+  /**
+   * Reads the values of one custom property from many holders at once. Holders created by
+   * the same custom property manager are read in one pass over the property column, rather
+   * than with a lookup per holder.
+   *
+   * @return values in the order of holders, with the definition default for the holders
+   *   which have no own value
+   */
+  public static List<Object> getColumnValues(CustomPropertyDefinition def, List<CustomColumnsValues> holders) {
+    List<Object> result = new ArrayList<Object>(holders.size());
+    if (holders.isEmpty()) {
+      return result;
+    }
+    CustomColumnsValueStore store = holders.get(0).myStore;
+    int[] slots = new int[holders.size()];
+    for (int i = 0; i < slots.length; i++) {
+      CustomColumnsValues holder = holders.get(i);
+      if (holder.myStore != store) {
+        // Holders of different managers, read them one by one
+        for (CustomColumnsValues h : holders) {
+          result.add(h.getValue(def));
+        }
+        return result;
+      }
+      slots[i] = holder.mySlot;
+    }
+    for (Object value : store.getColumnValues(def.getID(), slots)) {
+      result.add(value == null ? def.getDefaultValue() : value);
+    }
+    return result;
+  }
+
   public boolean hasOwnValue(CustomPropertyDefinition def) {
-    return mapCustomColumnValue.containsKey(def.getID());
+    return myStore.hasValue(mySlot, def.getID());
   }
 
   public void removeCustomColumn(CustomPropertyDefinition definition) {
-    mapCustomColumnValue.remove(definition.getID());
+    myStore.clearValue(mySlot, definition.getID());
   }
 
   @Override
   public Object clone() {
     CustomColumnsValues res = new CustomColumnsValues(myManager);
-    res.mapCustomColumnValue.putAll(this.mapCustomColumnValue);
+    myStore.copyValues(mySlot, res.mySlot);
     return res;
   }
 
   @Override
   public String toString() {
-    return mapCustomColumnValue.toString();
+    return myStore.getValues(mySlot).toString();
   }
 
   @Override
   public List<CustomProperty> getCustomProperties() {
-    List<CustomProperty> result = new ArrayList<CustomProperty>(mapCustomColumnValue.size());
-    for (Entry<String, Object> entry : mapCustomColumnValue.entrySet()) {
+    Map<String, Object> values = myStore.getValues(mySlot);
+    List<CustomProperty> result = new ArrayList<CustomProperty>(values.size());
+    for (Entry<String, Object> entry : values.entrySet()) {
       String id = entry.getKey();
       Object value = entry.getValue();
       CustomPropertyDefinition def = getCustomPropertyDefinition(myManager, id);
@@ -0,0 +1,101 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.task;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.collect.TreeMultiset;
+
+/**
+ * Keeps start and end instants of all project tasks in sorted multisets, so that
+ * project start and end are the first and the last elements.
+ *
+ * Tasks report that their dates have changed and are re-inserted lazily, on the next
+ * query. This way a burst of changes of the same task, which is typical for scheduling,
+ * costs one update, and we don't need to care about the changes of tasks which are not
+ * registered yet.
+ */
+class ProjectBounds {
+  private final TreeMultiset<Long> myStarts = TreeMultiset.create();
+  private final TreeMultiset<Long> myEnds = TreeMultiset.create();
+  // Start and end which are currently in the multisets
+  private final Map<Task, long[]> myRecordedBounds = Maps.newHashMap();
+  private final Set<Task> myChangedTasks = Sets.newHashSet();
+
+  synchronized void taskChanged(Task task) {
+    myChangedTasks.add(task);
+  }
+
+  synchronized void taskRemoved(Task task) {
+    myChangedTasks.remove(task);
+    long[] recorded = myRecordedBounds.remove(task);
+    if (recorded != null) {
+      myStarts.remove(recorded[0]);
+      myEnds.remove(recorded[1]);
+    }
+  }
+
+  synchronized void clear() {
+    myChangedTasks.clear();
+    myRecordedBounds.clear();
+    myStarts.clear();
+    myEnds.clear();
+  }
+
+  /**
+   * @return the earliest task start or {@code null} if there are no tasks
+   */
+  synchronized Date getStart() {
+    update();
+    return myStarts.isEmpty() ? null : new Date(myStarts.firstEntry().getElement());
+  }
+
+  /**
+   * @return the latest task end or {@code null} if there are no tasks
+   */
+  synchronized Date getEnd() {
+    update();
+    return myEnds.isEmpty() ? null : new Date(myEnds.lastEntry().getElement());
+  }
+
+  private void update() {
+    if (myChangedTasks.isEmpty()) {
+      return;
+    }
+    for (Task task : myChangedTasks) {
+      long[] recorded = myRecordedBounds.get(task);
+      if (recorded == null) {
+        recorded = new long[2];
+        myRecordedBounds.put(task, recorded);
+      } else {
+        myStarts.remove(recorded[0]);
+        myEnds.remove(recorded[1]);
+      }
+      recorded[0] = task.getStart().getTimeInMillis();
+      recorded[1] = task.getEnd().getTimeInMillis();
+      myStarts.add(recorded[0]);
+      myEnds.add(recorded[1]);
+    }
+    myChangedTasks.clear();
+  }
+}
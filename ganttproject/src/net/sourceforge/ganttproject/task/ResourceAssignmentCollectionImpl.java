@@ -90,6 +90,7 @@ class ResourceAssignmentCollectionImpl implements ResourceAssignmentCollection {
   @Override
   public void deleteAssignment(HumanResource resource) {
     myAssignments.remove(resource);
+    myTask.getCost().resetCalculatedValue();
   }
 
   private ResourceAssignment auxAddAssignment(HumanResource resource) {
@@ -100,6 +101,7 @@ class ResourceAssignmentCollectionImpl implements ResourceAssignmentCollection {
 
   private void addAssignment(ResourceAssignment assignment) {
     myAssignments.put(assignment.getResource(), assignment);
+    myTask.getCost().resetCalculatedValue();
   }
 
   /**
@@ -143,6 +145,7 @@ class ResourceAssignmentCollectionImpl implements ResourceAssignmentCollection {
     @Override
     public void setLoad(float load) {
       myAssignmentToResource.setLoad(load);
+      myTask.getCost().resetCalculatedValue();
     }
 
     /**
@@ -98,6 +98,11 @@ public interface Task extends MutableTask {
     void setValue(BigDecimal value);
     boolean isCalculated();
     void setCalculated(boolean calculated);
+    /**
+     * Drops the cached calculated value of this task and of all its supertasks.
+     * Should be called when assignments, pay rates or nested tasks change.
+     */
+    void resetCalculatedValue();
   }
 
   Cost getCost();
@@ -0,0 +1,37 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.task;
+
+/**
+ * Recorder is installed into a task manager while some edit runs and it is notified about
+ * the changes of the task model. Undo manager uses it to capture task states before they change.
+ */
+public interface TaskChangeRecorder {
+  /**
+   * Called before attributes of the given task (name, dates, duration, completion, cost, etc.)
+   * are changed either directly or by committing a {@link TaskMutator}
+   */
+  void beforeAttributesChange(Task task);
+
+  /**
+   * Called when tasks are added, removed or moved in the hierarchy or when
+   * dependencies change
+   */
+  void structureChanged();
+}
@@ -53,6 +53,7 @@ import biz.ganttproject.core.time.GanttCalendar;
 import biz.ganttproject.core.time.TimeDuration;
 import biz.ganttproject.core.time.TimeDurationImpl;
 import biz.ganttproject.core.time.impl.GPTimeUnitStack;
+import net.sourceforge.ganttproject.CustomPropertyDefinition;
 import net.sourceforge.ganttproject.GPLogger;
 import net.sourceforge.ganttproject.chart.MilestoneTaskFakeActivity;
 import net.sourceforge.ganttproject.document.AbstractURLDocument;
@@ -233,6 +234,7 @@ public class TaskImpl implements Task {
       @Override
       public void setStart(GanttCalendar start) {
         super.setStart(start);
+        recordChange();
         TaskImpl.this.myEnd = null;
       }
     };
@@ -487,12 +489,11 @@ public class TaskImpl implements Task {
 
   @Override
   public Task[] getNestedTasks() {
-    TaskHierarchyItem[] nestedItems = myTaskHierarchyItem.getNestedItems();
-    Task[] result = new Task[nestedItems.length];
-    for (int i = 0; i < nestedItems.length; i++) {
-      result[i] = nestedItems[i].getTask();
-    }
-    return result;
+    return myTaskHierarchyItem.getNestedTasks();
+  }
+
+  TaskHierarchyItem getHierarchyItem() {
+    return myTaskHierarchyItem;
   }
 
   @Override
@@ -609,7 +610,6 @@ public class TaskImpl implements Task {
 
     private int myIsolationLevel;
 
-    public final Exception myException = new Exception();
     @Override
     public void commit() {
       try {
@@ -644,6 +644,7 @@ public class TaskImpl implements Task {
         myProgressEventSender.fireEvent();
       } finally {
         TaskImpl.this.myMutator = null;
+        onDatesChanged();
       }
       if (myStartChange != null && TaskImpl.this.isSupertask()) {
         TaskImpl.this.adjustNestedTasks();
@@ -684,6 +685,7 @@ public class TaskImpl implements Task {
 
     @Override
     public void setName(final String name) {
+      myPropertiesEventSender.enable();
       myCommands.add(new Runnable() {
         @Override
         public void run() {
@@ -736,6 +738,7 @@ public class TaskImpl implements Task {
       myStartChange.setOldValue(TaskImpl.this.myStart);
       myStartChange.setValue(start);
       myActivities = null;
+      onDatesChanged();
     }
 
     @Override
@@ -747,6 +750,7 @@ public class TaskImpl implements Task {
       myEndChange.setOldValue(TaskImpl.this.myEnd);
       myEndChange.setValue(end);
       myActivities = null;
+      onDatesChanged();
     }
 
     @Override
@@ -839,6 +843,23 @@ public class TaskImpl implements Task {
       });
     }
 
+    @Override
+    public void setCustomProperty(final CustomPropertyDefinition def, final Object value) throws CustomColumnsException {
+      CustomColumnsValues.checkValueClass(def, value);
+      myPropertiesEventSender.enable();
+      myCommands.add(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            TaskImpl.this.customValues.setValue(def, value);
+          } catch (CustomColumnsException e) {
+            // Value class has been checked when the command was added
+            throw new IllegalStateException(e);
+          }
+        }
+      });
+    }
+
     @Override
     public void setWebLink(final String webLink) {
       myCommands.add(new Runnable() {
@@ -851,6 +872,7 @@ public class TaskImpl implements Task {
 
     @Override
     public void setNotes(final String notes) {
+      myPropertiesEventSender.enable();
       myCommands.add(new Runnable() {
         @Override
         public void run() {
@@ -937,29 +959,35 @@ public class TaskImpl implements Task {
 
   @Override
   public void setName(String name) {
+    recordChange();
     myName = (name == null ? null : name.trim());
   }
 
   @Override
   public void setWebLink(String webLink) {
+    recordChange();
     myWebLink = webLink;
   }
 
   @Override
   public void setMilestone(boolean milestone) {
+    recordChange();
     isMilestone = milestone;
     if (milestone) {
       setEnd(null);
     }
+    onDatesChanged();
   }
 
   @Override
   public void setPriority(Priority priority) {
+    recordChange();
     myPriority = priority;
   }
 
   @Override
   public void setStart(GanttCalendar start) {
+    recordChange();
     Date closestWorkingStart = myManager.findClosestWorkingTime(start.getTime());
     start.setTime(closestWorkingStart);
     myStart = start;
@@ -988,24 +1016,28 @@ public class TaskImpl implements Task {
 
   @Override
   public void setEnd(GanttCalendar end) {
+    recordChange();
     myEnd = end;
     recalculateActivities();
   }
 
   @Override
   public void setThirdDate(GanttCalendar third) {
+    recordChange();
     myThird = third;
     // recalculateActivities();
   }
 
   @Override
   public void setThirdDateConstraint(int thirdDateConstraint) {
+    recordChange();
     myThirdDateConstraint = thirdDateConstraint;
     // recalculateActivities();
   }
 
   @Override
   public void shift(TimeDuration shift) {
+    recordChange();
     float unitCount = shift.getLength(myLength.getTimeUnit());
     if (unitCount != 0f) {
       Task resultTask = shift(unitCount);
@@ -1047,6 +1079,7 @@ public class TaskImpl implements Task {
 
   @Override
   public void setDuration(TimeDuration length) {
+    recordChange();
     assert length.getLength() >= 0 : "An attempt to set length=" + length + " to task=" + this;
 
     myLength = length;
@@ -1080,6 +1113,7 @@ public class TaskImpl implements Task {
     if (myLength == null || myManager == null) {
       return;
     }
+    onDatesChanged();
     if (isMilestone) {
       myMilestoneActivity = ImmutableList.<TaskActivity>of(new MilestoneTaskFakeActivity(this));
       return;
@@ -1113,6 +1147,7 @@ public class TaskImpl implements Task {
   @Override
   public void setCompletionPercentage(int percentage) {
     if (percentage != myCompletionPercentage) {
+      recordChange();
       myCompletionPercentage = percentage;
       EventSender progressEventSender = new ProgressEventSender();
       progressEventSender.enable();
@@ -1122,29 +1157,91 @@ public class TaskImpl implements Task {
 
   @Override
   public void setShape(ShapePaint shape) {
+    recordChange();
     myShape = shape;
   }
 
   @Override
   public void setColor(Color color) {
+    recordChange();
     myColor = color;
   }
 
   @Override
   public void setNotes(String notes) {
+    recordChange();
     myNotes = notes;
   }
 
   @Override
   public void setExpand(boolean expand) {
+    recordChange();
     bExpand = expand;
   }
 
   @Override
   public void addNotes(String notes) {
+    recordChange();
     myNotes += notes;
   }
 
+  private void onDatesChanged() {
+    // Calculated cost depends on the duration
+    myCost.resetCalculatedValue();
+    if (!isUnplugged) {
+      myManager.onTaskDatesChanged(this);
+    }
+  }
+
+  private void recordChange() {
+    if (!isUnplugged) {
+      myManager.recordTaskChange(this);
+    }
+  }
+
+  TaskMemento createMemento() {
+    return new TaskMemento(this, myName, myWebLink, isMilestone, isProjectTask, myPriority, myStart.getTimeInMillis(),
+        myEnd == null ? null : myEnd.getTimeInMillis(), myThird == null ? null : myThird.getTimeInMillis(),
+        myThirdDateConstraint, myCompletionPercentage, myLength, myShape, myColor, myNotes, bExpand, critical,
+        myCost.myValue, myCost.isCalculated);
+  }
+
+  void restoreMemento(TaskMemento memento) {
+    GanttCalendar oldStart = myStart;
+    GanttCalendar oldEnd = getEnd();
+    boolean isProgressChanged = myCompletionPercentage != memento.myCompletionPercentage;
+    myName = memento.myName;
+    myWebLink = memento.myWebLink;
+    isMilestone = memento.isMilestone;
+    isProjectTask = memento.isProjectTask;
+    myPriority = memento.myPriority;
+    myStart = CalendarFactory.createGanttCalendar(new Date(memento.myStart));
+    myEnd = memento.myEnd == null ? null : CalendarFactory.createGanttCalendar(new Date(memento.myEnd));
+    myThird = memento.myThird == null ? null : CalendarFactory.createGanttCalendar(new Date(memento.myThird));
+    myThirdDateConstraint = memento.myThirdDateConstraint;
+    myCompletionPercentage = memento.myCompletionPercentage;
+    myLength = memento.myLength;
+    myShape = memento.myShape;
+    myColor = memento.myColor;
+    myNotes = memento.myNotes;
+    bExpand = memento.isExpand;
+    critical = memento.isCritical;
+    myCost.myValue = memento.myCostValue;
+    myCost.isCalculated = memento.isCostCalculated;
+    myCost.resetCalculatedValue();
+    recalculateActivities();
+    if (areEventsEnabled()) {
+      if (oldStart.getTimeInMillis() != myStart.getTimeInMillis()
+          || oldEnd.getTimeInMillis() != getEnd().getTimeInMillis()) {
+        myManager.fireTaskScheduleChanged(this, oldStart, oldEnd);
+      }
+      myManager.fireTaskPropertiesChanged(this);
+      if (isProgressChanged) {
+        myManager.fireTaskProgressChanged(this);
+      }
+    }
+  }
+
   protected void enableEvents(boolean enabled) {
     myEventsEnabled = enabled;
   }
@@ -1188,6 +1285,7 @@ public class TaskImpl implements Task {
 
   @Override
   public void setCritical(boolean critical) {
+    recordChange();
     this.critical = critical;
   }
 
@@ -1232,12 +1330,15 @@ public class TaskImpl implements Task {
 
   @Override
   public void setProjectTask(boolean projectTask) {
+    recordChange();
     isProjectTask = projectTask;
   }
 
   private class CostImpl implements Cost {
     private BigDecimal myValue = BigDecimal.ZERO;
     private boolean isCalculated = true;
+    // Calculated value which stays valid until something it depends on changes
+    private volatile BigDecimal myCalculatedValue;
 
     @Override
     public BigDecimal getValue() {
@@ -1251,12 +1352,33 @@ public class TaskImpl implements Task {
 
     @Override
     public BigDecimal getCalculatedValue() {
-      return new CostAlgorithmImpl().getCalculatedCost(TaskImpl.this);
+      BigDecimal result = myCalculatedValue;
+      if (result == null) {
+        // Nested tasks cache their values too, so the subtree is summed up once
+        result = new CostAlgorithmImpl().getCalculatedCost(TaskImpl.this);
+        myCalculatedValue = result;
+      }
+      return result;
+    }
+
+    @Override
+    public void resetCalculatedValue() {
+      myCalculatedValue = null;
+      if (myTaskHierarchyItem == null) {
+        return;
+      }
+      for (TaskHierarchyItem item = myTaskHierarchyItem.getContainerItem(); item != null; item = item.getContainerItem()) {
+        if (item.getTask() instanceof TaskImpl) {
+          ((TaskImpl) item.getTask()).myCost.myCalculatedValue = null;
+        }
+      }
     }
 
     @Override
     public void setValue(BigDecimal value) {
+      recordChange();
       myValue = value;
+      resetCalculatedValue();
     }
 
     @Override
@@ -1266,7 +1388,9 @@ public class TaskImpl implements Task {
 
     @Override
     public void setCalculated(boolean calculated) {
+      recordChange();
       isCalculated = calculated;
+      resetCalculatedValue();
     }
   }
 
@@ -186,6 +186,24 @@ public interface TaskManager {
 
   void addTaskListener(TaskListener listener);
 
+  /**
+   * Runs a batch of task model mutations. While batch runs, scheduler is suspended and
+   * task events are accumulated rather than sent to listeners. When the outermost batch completes,
+   * scheduler runs once over all changed tasks, and listeners receive a compacted set of events:
+   * at most one schedule, properties and progress event per task.
+   *
+   * @param batch code which mutates the task model
+   */
+  void runBatch(Runnable batch);
+
+  /**
+   * Installs a recorder which is notified about task model changes. Only one recorder
+   * can be installed at a time, pass {@code null} to uninstall it.
+   */
+  void setChangeRecorder(TaskChangeRecorder recorder);
+
+  TaskChangeRecorder getChangeRecorder();
+
   public class Access {
     public static TaskManager newInstance(TaskContainmentHierarchyFacade.Factory containmentFacadeFactory,
         TaskManagerConfig config) {
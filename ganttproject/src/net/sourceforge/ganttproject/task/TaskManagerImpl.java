@@ -16,6 +16,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jdesktop.swingx.treetable.MutableTreeTableNode;
@@ -23,9 +24,7 @@ import org.jdesktop.swingx.treetable.MutableTreeTableNode;
 import biz.ganttproject.core.calendar.AlwaysWorkingTimeCalendarImpl;
 import biz.ganttproject.core.calendar.GPCalendarCalc;
 import biz.ganttproject.core.calendar.GPCalendarListener;
-import biz.ganttproject.core.chart.scene.BarChartActivity;
 import biz.ganttproject.core.chart.scene.gantt.ChartBoundsAlgorithm;
-import biz.ganttproject.core.chart.scene.gantt.ChartBoundsAlgorithm.Result;
 import biz.ganttproject.core.option.DefaultEnumerationOption;
 import biz.ganttproject.core.option.DefaultStringOption;
 import biz.ganttproject.core.option.EnumerationOption;
@@ -37,14 +36,14 @@ import biz.ganttproject.core.time.TimeDurationImpl;
 import biz.ganttproject.core.time.TimeUnit;
 import biz.ganttproject.core.time.TimeUnitStack;
 
-import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
 
 import net.sourceforge.ganttproject.CustomPropertyDefinition;
 import net.sourceforge.ganttproject.CustomPropertyListener;
@@ -61,7 +60,6 @@ import net.sourceforge.ganttproject.resource.HumanResource;
 import net.sourceforge.ganttproject.resource.HumanResourceManager;
 import net.sourceforge.ganttproject.task.algorithm.AdjustTaskBoundsAlgorithm;
 import net.sourceforge.ganttproject.task.algorithm.AlgorithmCollection;
-import net.sourceforge.ganttproject.task.algorithm.CriticalPathAlgorithm;
 import net.sourceforge.ganttproject.task.algorithm.CriticalPathAlgorithmImpl;
 import net.sourceforge.ganttproject.task.algorithm.DependencyGraph;
 import net.sourceforge.ganttproject.task.algorithm.FindPossibleDependeesAlgorithm;
@@ -85,6 +83,7 @@ import net.sourceforge.ganttproject.task.event.TaskHierarchyEvent;
 import net.sourceforge.ganttproject.task.event.TaskListener;
 import net.sourceforge.ganttproject.task.event.TaskPropertyEvent;
 import net.sourceforge.ganttproject.task.event.TaskScheduleEvent;
+import net.sourceforge.ganttproject.task.hierarchy.TaskHierarchyItem;
 import net.sourceforge.ganttproject.task.hierarchy.TaskHierarchyManagerImpl;
 import net.sourceforge.ganttproject.util.collect.Pair;
 
@@ -100,6 +99,8 @@ public class TaskManagerImpl implements TaskManager {
 
   private final AlgorithmCollection myAlgorithmCollection;
 
+  private final CriticalPathAlgorithmImpl myCriticalPathAlgorithm;
+
   private final List<TaskListener> myListeners = new ArrayList<TaskListener>();
 
   private AtomicInteger myMaxID = new AtomicInteger(0);
@@ -156,6 +157,7 @@ public class TaskManagerImpl implements TaskManager {
 
     void addTask(Task task) {
       myId2task.put(new Integer(task.getTaskID()), task);
+      myManager.myProjectBounds.taskChanged(task);
       isModified = true;
     }
 
@@ -174,11 +176,13 @@ public class TaskManagerImpl implements TaskManager {
 
     public void clear() {
       myId2task.clear();
+      myManager.myProjectBounds.clear();
       isModified = true;
     }
 
     public void removeTask(Task task) {
       myId2task.remove(new Integer(task.getTaskID()));
+      myManager.myProjectBounds.taskRemoved(task);
       Task[] nestedTasks = myManager.getTaskHierarchy().getNestedTasks(task);
       for (int i = 0; i < nestedTasks.length; i++) {
         removeTask(nestedTasks[i]);
@@ -199,8 +203,97 @@ public class TaskManagerImpl implements TaskManager {
     }
   }
 
+  private final ProjectBounds myProjectBounds = new ProjectBounds();
+
   private final TaskMap myTaskMap = new TaskMap(this);
 
+  /**
+   * Accumulates events which happen while a batch is running and sends them
+   * to the listeners when the batch completes. Schedule, properties and progress
+   * events are compacted to at most one event per task, other events are sent
+   * in the order they happened.
+   */
+  private class BatchEvents {
+    private final Map<Task, Pair<GanttCalendar, GanttCalendar>> myScheduleChanges = Maps.newLinkedHashMap();
+    private final Set<Task> myPropertyChanges = Sets.newLinkedHashSet();
+    private final Set<Task> myProgressChanges = Sets.newLinkedHashSet();
+    private final List<Runnable> myOrderedEvents = Lists.newArrayList();
+    private boolean isModelReset;
+
+    void scheduleChanged(Task task, GanttCalendar oldStart, GanttCalendar oldEnd) {
+      if (!myScheduleChanges.containsKey(task)) {
+        myScheduleChanges.put(task, Pair.create(oldStart, oldEnd));
+      }
+    }
+
+    void propertiesChanged(Task task) {
+      myPropertyChanges.add(task);
+    }
+
+    void progressChanged(Task task) {
+      myProgressChanges.add(task);
+    }
+
+    void taskRemoved(Task task) {
+      myScheduleChanges.remove(task);
+      myPropertyChanges.remove(task);
+      myProgressChanges.remove(task);
+    }
+
+    void add(Runnable event) {
+      myOrderedEvents.add(event);
+    }
+
+    void modelReset() {
+      myScheduleChanges.clear();
+      myPropertyChanges.clear();
+      myProgressChanges.clear();
+      myOrderedEvents.clear();
+      isModelReset = true;
+    }
+
+    void flush() {
+      List<Runnable> orderedEvents = Lists.newArrayList(myOrderedEvents);
+      Map<Task, Pair<GanttCalendar, GanttCalendar>> scheduleChanges = Maps.newLinkedHashMap(myScheduleChanges);
+      List<Task> propertyChanges = Lists.newArrayList(myPropertyChanges);
+      List<Task> progressChanges = Lists.newArrayList(myProgressChanges);
+      boolean modelReset = isModelReset;
+      myOrderedEvents.clear();
+      myScheduleChanges.clear();
+      myPropertyChanges.clear();
+      myProgressChanges.clear();
+      isModelReset = false;
+
+      if (modelReset) {
+        fireTaskModelReset();
+      }
+      for (Runnable event : orderedEvents) {
+        event.run();
+      }
+      for (Map.Entry<Task, Pair<GanttCalendar, GanttCalendar>> change : scheduleChanges.entrySet()) {
+        Task task = change.getKey();
+        GanttCalendar oldStart = change.getValue().first();
+        GanttCalendar oldEnd = change.getValue().second();
+        if (oldStart.equals(task.getStart()) && oldEnd.equals(task.getEnd())) {
+          continue;
+        }
+        sendTaskScheduleChanged(new TaskScheduleEvent(task, oldStart, oldEnd, task.getStart(), task.getEnd()));
+      }
+      for (Task task : propertyChanges) {
+        sendTaskPropertiesChanged(new TaskPropertyEvent(task));
+      }
+      for (Task task : progressChanges) {
+        sendTaskProgressChanged(new TaskPropertyEvent(task));
+      }
+    }
+  }
+
+  private final BatchEvents myBatchEvents = new BatchEvents();
+
+  private int myBatchDepth = 0;
+
+  private TaskChangeRecorder myChangeRecorder;
+
   private final CustomPropertyListenerImpl myCustomPropertyListener;
 
   private final CustomColumnsManager myCustomColumnsManager;
@@ -271,8 +364,8 @@ public class TaskManagerImpl implements TaskManager {
       }
     };
     ChartBoundsAlgorithm alg5 = new ChartBoundsAlgorithm();
-    CriticalPathAlgorithm alg6 = new CriticalPathAlgorithmImpl(this, getCalendar());
-    myAlgorithmCollection = new AlgorithmCollection(this, alg1, alg2, alg3, alg4, alg5, alg6, myScheduler);
+    myCriticalPathAlgorithm = new CriticalPathAlgorithmImpl(this, myDependencyGraph, getCalendar());
+    myAlgorithmCollection = new AlgorithmCollection(this, alg1, alg2, alg3, alg4, alg5, myCriticalPathAlgorithm, myScheduler);
     addTaskListener(myScheduler.getTaskModelListener());
   }
 
@@ -309,6 +402,7 @@ public class TaskManagerImpl implements TaskManager {
   private void projectClosed() {
     myDependencyGraph.clear();
     myTaskMap.clear();
+    myAlgorithmCollection.getRecalculateTaskCompletionPercentageAlgorithm().reset();
     myMaxID.set(0);
     myDependencyCollection.clear();
     // createRootTask();
@@ -324,6 +418,10 @@ public class TaskManagerImpl implements TaskManager {
   public void deleteTask(Task tasktoRemove) {
     Task container = getTaskHierarchy().getContainer(tasktoRemove);
     myTaskMap.removeTask(tasktoRemove);
+    myAlgorithmCollection.getRecalculateTaskCompletionPercentageAlgorithm().reset();
+    if (container != null) {
+      container.getCost().resetCalculatedValue();
+    }
     fireTaskRemoved(container, tasktoRemove);
   }
 
@@ -347,16 +445,21 @@ public class TaskManagerImpl implements TaskManager {
           myId = getAndIncrementId();
         }
 
-        TaskImpl task = myPrototype == null ?
-            new GanttTask("", CalendarFactory.createGanttCalendar(), 1, TaskManagerImpl.this, myId) : new GanttTask((TaskImpl)myPrototype);
+        TaskImpl task;
+        if (myPrototype == null) {
+          // Start date goes right into the constructor, to avoid calculating activities twice
+          GanttCalendar start = myStartDate == null
+              ? CalendarFactory.createGanttCalendar() : CalendarFactory.createGanttCalendar(myStartDate);
+          task = new GanttTask("", start, 1, TaskManagerImpl.this, myId);
+        } else {
+          task = new GanttTask((TaskImpl)myPrototype);
+          if (myStartDate != null) {
+            task.setStart(CalendarFactory.createGanttCalendar(myStartDate));
+          }
+        }
 
         String name = myName == null ? getTaskNamePrefixOption().getValue() + "_" + task.getTaskID() : myName;
         task.setName(name);
-
-        if (myStartDate != null) {
-          GanttCalendar cal = CalendarFactory.createGanttCalendar(myStartDate);
-          task.setStart(cal);
-        }
         TimeDuration duration;
         if (myDuration != null) {
           duration = myDuration;
@@ -427,6 +530,7 @@ public class TaskManagerImpl implements TaskManager {
     myTaskMap.addTask(task);
     myMaxID.set(Math.max(taskID + 1, myMaxID.get()));
     myDependencyGraph.addTask(task);
+    myAlgorithmCollection.getRecalculateTaskCompletionPercentageAlgorithm().reset();
   }
 
   boolean isRegistered(TaskImpl task) {
@@ -438,39 +542,12 @@ public class TaskManagerImpl implements TaskManager {
     return myTaskMap.size();
   }
 
-  private static Iterable<BarChartActivity<?>> tasksToActivities(Task[] tasks) {
-    return Iterables.transform(Arrays.asList(tasks), new Function<Task, BarChartActivity<?>>() {
-      @Override
-      public BarChartActivity<?> apply(final Task task) {
-        return new BarChartActivity<Task>() {
-          @Override
-          public Date getStart() {
-            return task.getStart().getTime();
-          }
-          @Override
-          public Date getEnd() {
-            return task.getEnd().getTime();
-          }
-          @Override
-          public TimeDuration getDuration() {
-            return task.getDuration();
-          }
-          @Override
-          public Task getOwner() {
-            return task;
-          }
-        };
-      }
-    });
-  }
-
   @Override
   public TimeDuration getProjectLength() {
     if (myTaskMap.isEmpty()) {
       return createLength(getConfig().getTimeUnitStack().getDefaultTimeUnit(), 0);
     }
-    Result result = getAlgorithmCollection().getProjectBoundsAlgorithm().getBounds(tasksToActivities(myTaskMap.getTasks()));
-    return createLength(getConfig().getTimeUnitStack().getDefaultTimeUnit(), result.lowerBound, result.upperBound);
+    return createLength(getConfig().getTimeUnitStack().getDefaultTimeUnit(), myProjectBounds.getStart(), myProjectBounds.getEnd());
   }
 
   @Override
@@ -478,8 +555,7 @@ public class TaskManagerImpl implements TaskManager {
     if (myTaskMap.isEmpty()) {
       return myRoot.getStart().getTime();
     }
-    Result result = getAlgorithmCollection().getProjectBoundsAlgorithm().getBounds(tasksToActivities(myTaskMap.getTasks()));
-    return result.lowerBound;
+    return myProjectBounds.getStart();
   }
 
   @Override
@@ -487,8 +563,7 @@ public class TaskManagerImpl implements TaskManager {
     if (myTaskMap.isEmpty()) {
       return myRoot.getStart().getTime();
     }
-    Result result = getAlgorithmCollection().getProjectBoundsAlgorithm().getBounds(tasksToActivities(myTaskMap.getTasks()));
-    return result.upperBound;
+    return myProjectBounds.getEnd();
   }
 
   @Override
@@ -665,6 +740,55 @@ public class TaskManagerImpl implements TaskManager {
     myListeners.add(listener);
   }
 
+  @Override
+  public void runBatch(Runnable batch) {
+    myBatchDepth++;
+    myScheduler.suspend();
+    try {
+      batch.run();
+    } finally {
+      if (myBatchDepth > 1) {
+        myScheduler.resume();
+        myBatchDepth--;
+      } else {
+        // Scheduler runs while events are still collected, so that
+        // its changes are merged into the same compacted event set
+        try {
+          myScheduler.resume();
+        } finally {
+          myBatchDepth--;
+          myBatchEvents.flush();
+        }
+      }
+    }
+  }
+
+  private boolean isBatchRunning() {
+    return myBatchDepth > 0;
+  }
+
+  @Override
+  public void setChangeRecorder(TaskChangeRecorder recorder) {
+    myChangeRecorder = recorder;
+  }
+
+  @Override
+  public TaskChangeRecorder getChangeRecorder() {
+    return myChangeRecorder;
+  }
+
+  void recordTaskChange(Task task) {
+    if (myChangeRecorder != null) {
+      myChangeRecorder.beforeAttributesChange(task);
+    }
+  }
+
+  private void recordStructureChange() {
+    if (myChangeRecorder != null) {
+      myChangeRecorder.structureChanged();
+    }
+  }
+
   @Override
   public GPCalendarCalc getCalendar() {
     return getConfig().getCalendar();
@@ -691,47 +815,92 @@ public class TaskManagerImpl implements TaskManager {
         for (Task t : getTasks()) {
           t.setEnd(null);
         }
+        // Float is working time, so it changes even if task dates stay the same
+        myCriticalPathAlgorithm.reset();
       }
     };
   }
   public void fireTaskProgressChanged(Task changedTask) {
     if (areEventsEnabled) {
-      TaskPropertyEvent e = new TaskPropertyEvent(changedTask);
-      for (int i = 0; i < myListeners.size(); i++) {
-        TaskListener next = myListeners.get(i);
-        next.taskProgressChanged(e);
+      if (isBatchRunning()) {
+        myBatchEvents.progressChanged(changedTask);
+        return;
       }
+      sendTaskProgressChanged(new TaskPropertyEvent(changedTask));
+    }
+  }
+
+  private void sendTaskProgressChanged(TaskPropertyEvent e) {
+    for (int i = 0; i < myListeners.size(); i++) {
+      TaskListener next = myListeners.get(i);
+      next.taskProgressChanged(e);
     }
   }
 
   void fireTaskScheduleChanged(Task changedTask, GanttCalendar oldStartDate, GanttCalendar oldFinishDate) {
-    myScheduler.run();
+    resetResourceLoads(changedTask);
+    myScheduler.run(changedTask);
     if (areEventsEnabled) {
-      TaskScheduleEvent e = new TaskScheduleEvent(changedTask, oldStartDate, oldFinishDate, changedTask.getStart(),
-          changedTask.getEnd());
-      // List copy = new ArrayList(myListeners);
-      // myListeners.clear();
-      for (int i = 0; i < myListeners.size(); i++) {
-        TaskListener next = myListeners.get(i);
-        next.taskScheduleChanged(e);
+      if (isBatchRunning()) {
+        myBatchEvents.scheduleChanged(changedTask, oldStartDate, oldFinishDate);
+        return;
       }
+      sendTaskScheduleChanged(new TaskScheduleEvent(changedTask, oldStartDate, oldFinishDate, changedTask.getStart(),
+          changedTask.getEnd()));
+    }
+  }
+
+  private void sendTaskScheduleChanged(TaskScheduleEvent e) {
+    // List copy = new ArrayList(myListeners);
+    // myListeners.clear();
+    for (int i = 0; i < myListeners.size(); i++) {
+      TaskListener next = myListeners.get(i);
+      next.taskScheduleChanged(e);
     }
   }
 
   private void fireDependencyAdded(TaskDependency newDependency) {
+    recordStructureChange();
     myDependencyGraph.addDependency(newDependency);
     if (areEventsEnabled) {
-      TaskDependencyEvent e = new TaskDependencyEvent(getDependencyCollection(), newDependency);
-      for (int i = 0; i < myListeners.size(); i++) {
-        TaskListener next = myListeners.get(i);
-        next.dependencyAdded(e);
+      final TaskDependencyEvent e = new TaskDependencyEvent(getDependencyCollection(), newDependency);
+      if (isBatchRunning()) {
+        myBatchEvents.add(new Runnable() {
+          @Override
+          public void run() {
+            sendDependencyAdded(e);
+          }
+        });
+        return;
       }
+      sendDependencyAdded(e);
+    }
+  }
+
+  private void sendDependencyAdded(TaskDependencyEvent e) {
+    for (int i = 0; i < myListeners.size(); i++) {
+      TaskListener next = myListeners.get(i);
+      next.dependencyAdded(e);
     }
   }
 
   private void fireDependencyRemoved(TaskDependency dep) {
+    recordStructureChange();
     myDependencyGraph.removeDependency(dep);
-    TaskDependencyEvent e = new TaskDependencyEvent(getDependencyCollection(), dep);
+    final TaskDependencyEvent e = new TaskDependencyEvent(getDependencyCollection(), dep);
+    if (isBatchRunning()) {
+      myBatchEvents.add(new Runnable() {
+        @Override
+        public void run() {
+          sendDependencyRemoved(e);
+        }
+      });
+      return;
+    }
+    sendDependencyRemoved(e);
+  }
+
+  private void sendDependencyRemoved(TaskDependencyEvent e) {
     for (int i = 0; i < myListeners.size(); i++) {
       TaskListener next = myListeners.get(i);
       next.dependencyRemoved(e);
@@ -739,7 +908,22 @@ public class TaskManagerImpl implements TaskManager {
   }
 
   private void fireDependencyChanged(TaskDependency dep) {
-    TaskDependencyEvent e = new TaskDependencyEvent(getDependencyCollection(), dep);
+    recordStructureChange();
+    myCriticalPathAlgorithm.reset();
+    final TaskDependencyEvent e = new TaskDependencyEvent(getDependencyCollection(), dep);
+    if (isBatchRunning()) {
+      myBatchEvents.add(new Runnable() {
+        @Override
+        public void run() {
+          sendDependencyChanged(e);
+        }
+      });
+      return;
+    }
+    sendDependencyChanged(e);
+  }
+
+  private void sendDependencyChanged(TaskDependencyEvent e) {
     for (int i = 0; i < myListeners.size(); i++) {
       TaskListener next = myListeners.get(i);
       next.dependencyChanged(e);
@@ -747,36 +931,89 @@ public class TaskManagerImpl implements TaskManager {
   }
 
   private void fireTaskAdded(Task task) {
+    recordStructureChange();
     if (areEventsEnabled) {
-      TaskHierarchyEvent e = new TaskHierarchyEvent(this, task, null, getTaskHierarchy().getContainer(task));
-      for (int i = 0; i < myListeners.size(); i++) {
-        TaskListener next = myListeners.get(i);
-        next.taskAdded(e);
+      final TaskHierarchyEvent e = new TaskHierarchyEvent(this, task, null, getTaskHierarchy().getContainer(task));
+      if (isBatchRunning()) {
+        myBatchEvents.add(new Runnable() {
+          @Override
+          public void run() {
+            sendTaskAdded(e);
+          }
+        });
+        return;
       }
+      sendTaskAdded(e);
+    }
+  }
+
+  private void sendTaskAdded(TaskHierarchyEvent e) {
+    for (int i = 0; i < myListeners.size(); i++) {
+      TaskListener next = myListeners.get(i);
+      next.taskAdded(e);
     }
   }
 
   private void fireTaskRemoved(Task container, Task task) {
+    recordStructureChange();
     myDependencyGraph.removeTask(task);
+    resetResourceLoads(task);
     if (areEventsEnabled) {
-      TaskHierarchyEvent e = new TaskHierarchyEvent(this, task, container, null);
-      for (TaskListener l : myListeners) {
-        l.taskRemoved(e);
+      final TaskHierarchyEvent e = new TaskHierarchyEvent(this, task, container, null);
+      if (isBatchRunning()) {
+        myBatchEvents.taskRemoved(task);
+        myBatchEvents.add(new Runnable() {
+          @Override
+          public void run() {
+            sendTaskRemoved(e);
+          }
+        });
+        return;
       }
+      sendTaskRemoved(e);
+    }
+  }
+
+  /**
+   * Load distributions of the resources assigned to the task are cached, and we need to
+   * drop them when task activities change.
+   */
+  private static void resetResourceLoads(Task task) {
+    for (ResourceAssignment assignment : task.getAssignments()) {
+      assignment.getResource().resetLoads();
     }
   }
+
+  private void sendTaskRemoved(TaskHierarchyEvent e) {
+    for (TaskListener l : myListeners) {
+      l.taskRemoved(e);
+    }
+  }
+
   void fireTaskPropertiesChanged(Task task) {
     if (areEventsEnabled) {
-      TaskPropertyEvent e = new TaskPropertyEvent(task);
-      for (int i = 0; i < myListeners.size(); i++) {
-        TaskListener next = myListeners.get(i);
-        next.taskPropertiesChanged(e);
+      if (isBatchRunning()) {
+        myBatchEvents.propertiesChanged(task);
+        return;
       }
+      sendTaskPropertiesChanged(new TaskPropertyEvent(task));
+    }
+  }
+
+  private void sendTaskPropertiesChanged(TaskPropertyEvent e) {
+    for (int i = 0; i < myListeners.size(); i++) {
+      TaskListener next = myListeners.get(i);
+      next.taskPropertiesChanged(e);
     }
   }
 
   private void fireTaskModelReset() {
+    recordStructureChange();
     if (areEventsEnabled) {
+      if (isBatchRunning()) {
+        myBatchEvents.modelReset();
+        return;
+      }
       for (int i = 0; i < myListeners.size(); i++) {
         TaskListener next = myListeners.get(i);
         next.taskModelReset();
@@ -819,6 +1056,9 @@ public class TaskManagerImpl implements TaskManager {
 
     @Override
     public boolean hasNestedTasks(Task container) {
+      if (container instanceof TaskImpl) {
+        return ((TaskImpl) container).getHierarchyItem().hasNestedItems();
+      }
       return container.getNestedTasks().length > 0;
     }
 
@@ -896,6 +1136,9 @@ public class TaskManagerImpl implements TaskManager {
       if (task1 == task2) {
         return 0;
       }
+      if (task1 instanceof TaskImpl && task2 instanceof TaskImpl) {
+        return compareHierarchyItems(((TaskImpl) task1).getHierarchyItem(), ((TaskImpl) task2).getHierarchyItem());
+      }
       List<Task> buffer1 = new ArrayList<Task>();
       for (Task container = task1; container != null; container = getContainer(container)) {
         buffer1.add(0, container);
@@ -941,6 +1184,17 @@ public class TaskManagerImpl implements TaskManager {
       }
     }
 
+    private int compareHierarchyItems(TaskHierarchyItem item1, TaskHierarchyItem item2) {
+      // Tasks which are not under the root task go first, as they do in the path comparison
+      TaskHierarchyItem rootItem = ((TaskImpl) myRoot).getHierarchyItem();
+      boolean isUnderRoot1 = myHierarchyManager.isInSubtree(rootItem, item1);
+      boolean isUnderRoot2 = myHierarchyManager.isInSubtree(rootItem, item2);
+      if (isUnderRoot1 != isUnderRoot2) {
+        return isUnderRoot1 ? 1 : -1;
+      }
+      return myHierarchyManager.compareDocumentOrder(item1, item2);
+    }
+
     @Override
     public boolean contains(Task task) {
       throw new UnsupportedOperationException();
@@ -1136,12 +1390,25 @@ public class TaskManagerImpl implements TaskManager {
     }
   }
 
+  /**
+   * Called by tasks when their start, end or duration might have changed
+   */
+  void onTaskDatesChanged(TaskImpl task) {
+    if (myTaskMap.getTask(task.getTaskID()) == task) {
+      myProjectBounds.taskChanged(task);
+      myCriticalPathAlgorithm.reset();
+      myAlgorithmCollection.getRecalculateTaskCompletionPercentageAlgorithm().reset();
+    }
+  }
+
   void onTaskMoved(TaskImpl task) {
+    recordStructureChange();
     if (!isRegistered(task)) {
       registerTask(task);
     }
     myDependencyGraph.move(task, getTaskHierarchy().getContainer(task));
     myTaskMap.setDirty();
+    myAlgorithmCollection.getRecalculateTaskCompletionPercentageAlgorithm().reset();
   }
 
   public void setEventsEnabled(boolean enabled) {
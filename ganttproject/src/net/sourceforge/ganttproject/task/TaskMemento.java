@@ -0,0 +1,126 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.task;
+
+import java.awt.Color;
+import java.math.BigDecimal;
+
+import biz.ganttproject.core.chart.render.ShapePaint;
+import biz.ganttproject.core.time.TimeDuration;
+
+import com.google.common.base.Objects;
+
+/**
+ * Snapshot of task attributes which can be changed without changing the task model structure.
+ * Dependencies, assignments, custom property values and position in the hierarchy are
+ * not included.
+ *
+ * Memento refers to its task by id, because task objects may be replaced, e.g. when undo
+ * of some other edit re-reads the whole project.
+ */
+public final class TaskMemento {
+  private final int myTaskId;
+  final String myName;
+  final String myWebLink;
+  final boolean isMilestone;
+  final boolean isProjectTask;
+  final Task.Priority myPriority;
+  final long myStart;
+  // Dates are nullable, null end means that it will be calculated from start and duration
+  final Long myEnd;
+  final Long myThird;
+  final int myThirdDateConstraint;
+  final int myCompletionPercentage;
+  final TimeDuration myLength;
+  final ShapePaint myShape;
+  final Color myColor;
+  final String myNotes;
+  final boolean isExpand;
+  final boolean isCritical;
+  final BigDecimal myCostValue;
+  final boolean isCostCalculated;
+
+  TaskMemento(TaskImpl task, String name, String webLink, boolean milestone, boolean projectTask,
+      Task.Priority priority, long start, Long end, Long third, int thirdDateConstraint, int completionPercentage,
+      TimeDuration length, ShapePaint shape, Color color, String notes, boolean expand, boolean critical,
+      BigDecimal costValue, boolean costCalculated) {
+    myTaskId = task.getTaskID();
+    myName = name;
+    myWebLink = webLink;
+    isMilestone = milestone;
+    isProjectTask = projectTask;
+    myPriority = priority;
+    myStart = start;
+    myEnd = end;
+    myThird = third;
+    myThirdDateConstraint = thirdDateConstraint;
+    myCompletionPercentage = completionPercentage;
+    myLength = length;
+    myShape = shape;
+    myColor = color;
+    myNotes = notes;
+    isExpand = expand;
+    isCritical = critical;
+    myCostValue = costValue;
+    isCostCalculated = costCalculated;
+  }
+
+  /**
+   * @return memento of the current state of the given task
+   */
+  public static TaskMemento create(Task task) {
+    return ((TaskImpl) task).createMemento();
+  }
+
+  public int getTaskId() {
+    return myTaskId;
+  }
+
+  /**
+   * Restores attributes of the task with the recorded id in the given task manager and fires
+   * task events. Scheduler is not run on the restored task, so mementos of all tasks which were
+   * changed by some edit should be restored together, preferably in a
+   * {@link TaskManager#runBatch(Runnable)}.
+   *
+   * @return false if the task manager has no task with the recorded id
+   */
+  public boolean restore(TaskManager taskManager) {
+    Task task = taskManager.getTask(myTaskId);
+    if (task == null) {
+      return false;
+    }
+    ((TaskImpl) task).restoreMemento(this);
+    return true;
+  }
+
+  /**
+   * @return true if this memento and the given one record the same state of the same task
+   */
+  public boolean isSameState(TaskMemento that) {
+    return myTaskId == that.myTaskId && myStart == that.myStart && Objects.equal(myEnd, that.myEnd)
+        && Objects.equal(myLength, that.myLength) && myCompletionPercentage == that.myCompletionPercentage
+        && isMilestone == that.isMilestone && isProjectTask == that.isProjectTask && isExpand == that.isExpand
+        && isCritical == that.isCritical && isCostCalculated == that.isCostCalculated
+        && myThirdDateConstraint == that.myThirdDateConstraint && Objects.equal(myThird, that.myThird)
+        && Objects.equal(myName, that.myName) && Objects.equal(myWebLink, that.myWebLink)
+        && Objects.equal(myPriority, that.myPriority) && Objects.equal(myShape, that.myShape)
+        && Objects.equal(myColor, that.myColor) && Objects.equal(myNotes, that.myNotes)
+        && Objects.equal(myCostValue, that.myCostValue);
+  }
+}
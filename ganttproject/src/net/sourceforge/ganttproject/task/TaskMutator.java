@@ -18,6 +18,7 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
  */
 package net.sourceforge.ganttproject.task;
 
+import net.sourceforge.ganttproject.CustomPropertyDefinition;
 import biz.ganttproject.core.time.GanttCalendar;
 
 /**
@@ -37,4 +38,11 @@ public interface TaskMutator extends MutableTask {
   int getCompletionPercentage();
 
   void setThird(GanttCalendar third, int thirdDateConstraint);
+
+  /**
+   * Sets the value of a custom property, or clears it if value is null.
+   *
+   * @throws CustomColumnsException if value class doesn't match the property type
+   */
+  void setCustomProperty(CustomPropertyDefinition def, Object value) throws CustomColumnsException;
 }
@@ -58,7 +58,9 @@ public class TaskNode extends DefaultMutableTreeTableNode {
    *          The name to be set.
    */
   public void setName(String newName) {
-    task.setName(newName);
+    TaskMutator mutator = task.createMutator();
+    mutator.setName(newName);
+    mutator.commit();
   }
 
   /** @return the name of the task. */
@@ -18,6 +18,7 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
 package net.sourceforge.ganttproject.task.algorithm;
 
+import biz.ganttproject.core.time.TimeDuration;
 import net.sourceforge.ganttproject.task.Task;
 
 public interface CriticalPathAlgorithm {
@@ -26,4 +27,16 @@ public interface CriticalPathAlgorithm {
    *         many of them).
    */
   public Task[] getCriticalTasks();
+
+  /**
+   * @return how long the task may be delayed without delaying the project end,
+   *         in working time, or null if task is unknown
+   */
+  public TimeDuration getTotalFloat(Task task);
+
+  /**
+   * @return how long the task may be delayed without delaying any of its dependants,
+   *         in working time, or null if task is unknown
+   */
+  public TimeDuration getFreeFloat(Task task);
 }
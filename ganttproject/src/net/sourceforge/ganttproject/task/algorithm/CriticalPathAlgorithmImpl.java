@@ -18,228 +18,224 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
 package net.sourceforge.ganttproject.task.algorithm;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.logging.Logger;
 
+import biz.ganttproject.core.calendar.GPCalendarActivity;
 import biz.ganttproject.core.calendar.GPCalendarCalc;
-import net.sourceforge.ganttproject.GPLogger;
+import biz.ganttproject.core.time.TimeDuration;
+import biz.ganttproject.core.time.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
 import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskContainmentHierarchyFacade;
 import net.sourceforge.ganttproject.task.TaskManager;
+import net.sourceforge.ganttproject.task.algorithm.DependencyGraph.DependencyEdge;
+import net.sourceforge.ganttproject.task.algorithm.DependencyGraph.ExplicitDependencyImpl;
+import net.sourceforge.ganttproject.task.algorithm.DependencyGraph.Node;
 import net.sourceforge.ganttproject.task.dependency.TaskDependency;
 import net.sourceforge.ganttproject.task.dependency.TaskDependencyConstraint.Collision;
 
+/**
+ * Critical path method over the dependency graph layers. Earliest dates are the scheduled
+ * task dates, because scheduler has already pushed tasks forward along the dependencies.
+ * Latest dates are calculated in one backward pass over the graph nodes in the reverse layer
+ * order, so that all dependants of a task and its supertask are processed before the task itself.
+ *
+ * Results are kept in arrays indexed by the node position and are valid until the next
+ * change of the task dates or the graph structure.
+ */
 public class CriticalPathAlgorithmImpl implements CriticalPathAlgorithm {
-  private static final Logger ourLogger = GPLogger.getLogger(CriticalPathAlgorithm.class);
-
   private final TaskManager myTaskManager;
+  private final DependencyGraph myGraph;
   private final GPCalendarCalc myCalendar;
 
-  public CriticalPathAlgorithmImpl(TaskManager taskManager, GPCalendarCalc calendar) {
+  private boolean isValid;
+  private final Map<Task, Integer> myTaskIndex = new IdentityHashMap<Task, Integer>();
+  private Task[] myTasks;
+  private long[] myEarliestStart;
+  private long[] myEarliestFinish;
+  private long[] myLatestStart;
+  private long[] myLatestFinish;
+  // The latest finish which does not delay earliest start of any dependant
+  private long[] myFreeFinish;
+  // Floats are converted to working time on demand
+  private TimeDuration[] myTotalFloat;
+  private TimeDuration[] myFreeFloat;
+
+  public CriticalPathAlgorithmImpl(TaskManager taskManager, DependencyGraph graph, GPCalendarCalc calendar) {
     myTaskManager = taskManager;
+    myGraph = graph;
     myCalendar = calendar;
-  }
-
-  static class Node {
-    private final Task task;
-    private final List<Task> dependees = new ArrayList<Task>();
-    private int numDependants;
-    private final Date est;
-    private final Date eft;
-    private Date lst;
-    private Date lft;
-    private boolean lftFromSupertask = false;
-
-    public Node(Task t, Set<Task> taskScope) {
-      assert t != null;
-      task = t;
-      est = t.getStart().getTime();
-      eft = t.getEnd().getTime();
-      lst = null;
-      lft = null;
-      numDependants = 0;
-      TaskDependency[] deps = t.getDependenciesAsDependee().toArray();
-      for (int i = 0; i < deps.length; i++) {
-        if (taskScope.contains(deps[i].getDependant())) {
-          numDependants++;
-        }
+    myGraph.addListener(new DependencyGraph.Listener() {
+      @Override
+      public void onChange() {
+        reset();
       }
-      collectDependees(t, taskScope);
-    }
+    });
+  }
 
-    public Node(Task t, Date est, Date eft, Date lst, Date lft, int numDependants, Set<Task> taskScope) {
-      task = t;
-      this.est = est;
-      this.eft = eft;
-      this.lst = lst;
-      this.lft = lft;
-      this.numDependants = numDependants;
-      if (task != null) {
-        collectDependees(task, taskScope);
-      }
-    }
+  /**
+   * Drops calculated dates. Should be called when task dates or dependencies change.
+   */
+  public synchronized void reset() {
+    isValid = false;
+  }
 
-    void collectDependees(Task task, Set<Task> taskScope) {
-      TaskDependency[] deps = task.getDependenciesAsDependant().toArray();
-      for (TaskDependency dep : deps) {
-        if (taskScope.contains(dep.getDependee())) {
-          dependees.add(dep.getDependee());
-        }
+  @Override
+  public synchronized Task[] getCriticalTasks() {
+    validate();
+    List<Task> result = Lists.newArrayList();
+    for (int i = 0; i < myTasks.length; i++) {
+      if (myEarliestStart[i] == myLatestStart[i]) {
+        result.add(myTasks[i]);
       }
     }
-
-    boolean isCritical() {
-      return est.equals(lst);
-    }
-
-    @Override
-    public String toString() {
-      return task == null ? "[Deadline node " + eft + "]" : task.toString();
-    }
+    return result.toArray(new Task[result.size()]);
   }
 
   @Override
-  public Task[] getCriticalTasks() {
-    Date projectEnd = myTaskManager.getProjectEnd();
-    Node fakeFinalNode = new Node(null, projectEnd, projectEnd, projectEnd, projectEnd, 0, null);
-    Task[] tasks = myTaskManager.getTasks();
-    if (tasks.length == 0) {
-      return tasks;
+  public synchronized TimeDuration getTotalFloat(Task task) {
+    validate();
+    Integer index = myTaskIndex.get(task);
+    if (index == null) {
+      return null;
     }
-    Map<Task, Node> task_node = createTaskNodeMap(tasks, fakeFinalNode);
-    for (Node curNode : task_node.values()) {
-      curNode.numDependants += myTaskManager.getTaskHierarchy().getDepth(curNode.task) - 1;
+    if (myTotalFloat[index] == null) {
+      myTotalFloat[index] = getWorkingDuration(myEarliestStart[index], myLatestStart[index]);
     }
-    assert fakeFinalNode.dependees.size() > 0;
-
-    LinkedHashSet<Task> result = new LinkedHashSet<Task>();
-    Processor p = new Processor(task_node, fakeFinalNode);
-    result.addAll(p.run());
-    return result.toArray(new Task[result.size()]);
+    return myTotalFloat[index];
   }
 
-  private Map<Task, Node> createTaskNodeMap(Task[] tasks, Node deadlineNode) {
-    Set<Task> taskScope = new HashSet<Task>(Arrays.asList(tasks));
-    Map<Task, Node> task_node = new HashMap<Task, Node>();
-    for (Task task : tasks) {
-      Node newNode = new Node(task, taskScope);
-      deadlineNode.dependees.add(task);
-      newNode.numDependants++;
-      task_node.put(task, newNode);
+  @Override
+  public synchronized TimeDuration getFreeFloat(Task task) {
+    validate();
+    Integer index = myTaskIndex.get(task);
+    if (index == null) {
+      return null;
     }
-    return task_node;
+    if (myFreeFloat[index] == null) {
+      myFreeFloat[index] = getWorkingDuration(myEarliestFinish[index], myFreeFinish[index]);
+    }
+    return myFreeFloat[index];
   }
 
-  class Processor {
-    private final Map<Task, Node> myTask_Node;
-    private LinkedList<Node> myQueue = new LinkedList<Node>();
-    private final ArrayList<Task> myResult = new ArrayList<Task>();
-    private final Node myDeadlineNode;
-
-    Processor(Map<Task, Node> task_node, Node deadlineNode) {
-      myDeadlineNode = deadlineNode;
-      myTask_Node = task_node;
-      myQueue.add(myDeadlineNode);
+  private void validate() {
+    if (isValid) {
+      return;
     }
-
-    boolean hasMoreInput() {
-      return !myQueue.isEmpty();
+    myTaskIndex.clear();
+    Task[] tasks = myTaskManager.getTasks();
+    if (tasks.length == 0) {
+      myTasks = tasks;
+      myEarliestStart = myEarliestFinish = myLatestStart = myLatestFinish = myFreeFinish = new long[0];
+      myTotalFloat = myFreeFloat = new TimeDuration[0];
+      isValid = true;
+      return;
     }
-
-    List<Task> run() {
-      while (hasMoreInput()) {
-        myQueue = processQueue();
+    Map<Task, Boolean> isRegistered = Maps.newHashMapWithExpectedSize(tasks.length);
+    for (Task task : tasks) {
+      isRegistered.put(task, Boolean.TRUE);
+    }
+    // Tasks in the layer order
+    List<Task> ordered = Lists.newArrayListWithExpectedSize(tasks.length);
+    List<Node> nodes = Lists.newArrayListWithExpectedSize(tasks.length);
+    for (int level = 0;; level++) {
+      Collection<Node> layer = myGraph.getLayer(level);
+      if (layer.isEmpty()) {
+        break;
       }
-      return myResult;
-    }
-
-    private LinkedList<Node> processQueue() {
-      LinkedList<Node> newQueue = new LinkedList<Node>();
-      for (Iterator<Node> nodes = myQueue.iterator(); nodes.hasNext();) {
-        Node curNode = nodes.next();
-        if (curNode.lft == null || curNode.lftFromSupertask) {
-          calculateLatestDates(curNode);
-          Task[] nestedTasks = myTaskManager.getTaskHierarchy().getNestedTasks(curNode.task);
-          for (Task nestedTask : nestedTasks) {
-            Node nested = myTask_Node.get(nestedTask);
-            nested.numDependants -= (myTaskManager.getTaskHierarchy().getDepth(nested.task) - 1);
-            assert nested.numDependants >= 0;
-            if (nested.numDependants == 0) {
-              newQueue.add(nested);
-            }
-            if (curNode.isCritical()) {
-              nested.lft = curNode.lft;
-              nested.lftFromSupertask = true;
-            }
-          }
-
-          if (curNode.isCritical()) {
-            ourLogger.info("\n\nNode=" + curNode + " is critical\n\n");
-            myResult.add(curNode.task);
-          }
-        } else {
-          assert curNode.task == null || curNode.lftFromSupertask;
+      for (Node node : layer) {
+        if (isRegistered.remove(node.getTask()) != null) {
+          ordered.add(node.getTask());
+          nodes.add(node);
         }
-        enqueueDependees(newQueue, curNode);
       }
-      return newQueue;
     }
-
-    private void calculateLatestDates(Node curNode) {
-      ourLogger.info("Calculating latest dates for:" + curNode);
-      curNode.lft = findLatestFinishTime(myTask_Node, curNode);
-      curNode.lst = myCalendar.shiftDate(curNode.lft,
-          myTaskManager.createLength(-curNode.task.getDuration().getLength()));
-      ourLogger.info("latest start date=" + curNode.lst);
-    }
-
-    private void enqueueDependees(LinkedList<Node> newQueue, Node curNode) {
-      for (int i = 0; i < curNode.dependees.size(); i++) {
-        Task dependeeTask = curNode.dependees.get(i);
-        Node dependeeNode = myTask_Node.get(dependeeTask);
-        assert dependeeNode.numDependants > 0;
-        if (--dependeeNode.numDependants == 0) {
-          newQueue.add(dependeeNode);
-        }
+    // Tasks which are unknown to the graph have no dependencies and go to the end
+    for (Task task : tasks) {
+      if (isRegistered.containsKey(task)) {
+        ordered.add(task);
+        nodes.add(null);
       }
     }
 
-    private Date findLatestFinishTime(Map<Task, Node> task_node, Node curNode) {
-      Date result = curNode.lft;
-      Node resultNode = null;
-      TaskDependency[] deps = curNode.task.getDependenciesAsDependee().toArray();
-      for (TaskDependency dep : deps) {
-        Node depNode = task_node.get(dep.getDependant());
-        if (depNode != null) {
-          Date lft = findLatestFinishTime(curNode, depNode, dep);
-          if (result == null || result.after(lft)) {
-            result = lft;
-            resultNode = depNode;
+    int count = ordered.size();
+    myTasks = ordered.toArray(new Task[count]);
+    myEarliestStart = new long[count];
+    myEarliestFinish = new long[count];
+    myLatestStart = new long[count];
+    myLatestFinish = new long[count];
+    myFreeFinish = new long[count];
+    myTotalFloat = new TimeDuration[count];
+    myFreeFloat = new TimeDuration[count];
+    for (int i = 0; i < count; i++) {
+      myTaskIndex.put(myTasks[i], i);
+      myEarliestStart[i] = myTasks[i].getStart().getTimeInMillis();
+      myEarliestFinish[i] = myTasks[i].getEnd().getTimeInMillis();
+    }
+
+    long projectEnd = myTaskManager.getProjectEnd().getTime();
+    TaskContainmentHierarchyFacade hierarchy = myTaskManager.getTaskHierarchy();
+    boolean[] isProcessed = new boolean[count];
+    for (int i = count - 1; i >= 0; i--) {
+      Task task = myTasks[i];
+      long latestFinish = projectEnd;
+      long freeFinish = projectEnd;
+      // Tasks nested into a critical supertask must finish not later than supertask
+      Integer supertaskIndex = myTaskIndex.get(hierarchy.getContainer(task));
+      if (supertaskIndex != null && isProcessed[supertaskIndex]
+          && myEarliestStart[supertaskIndex] == myLatestStart[supertaskIndex]) {
+        latestFinish = Math.min(latestFinish, myLatestFinish[supertaskIndex]);
+      }
+      Node node = nodes.get(i);
+      if (node != null) {
+        for (DependencyEdge edge : node.getOutgoing()) {
+          if (edge instanceof ExplicitDependencyImpl == false) {
+            continue;
           }
+          TaskDependency dep = ((ExplicitDependencyImpl) edge).getDependency();
+          Integer dependantIndex = myTaskIndex.get(dep.getDependant());
+          if (dependantIndex == null || !isProcessed[dependantIndex]) {
+            continue;
+          }
+          latestFinish = Math.min(latestFinish, getLatestFinish(dep, myLatestStart[dependantIndex]));
+          freeFinish = Math.min(freeFinish, getLatestFinish(dep, myEarliestStart[dependantIndex]));
         }
       }
-      if (result == null || result.after(myDeadlineNode.lft)) {
-        result = myDeadlineNode.lft;
-      }
-      ourLogger.info("latest finish time=" + result + " (defined by:" + resultNode + ")");
-      return result;
+      myLatestFinish[i] = latestFinish;
+      myLatestStart[i] = myCalendar.shiftDate(new Date(latestFinish),
+          myTaskManager.createLength(-task.getDuration().getLength())).getTime();
+      myFreeFinish[i] = freeFinish;
+      isProcessed[i] = true;
     }
+    isValid = true;
+  }
 
-    Date findLatestFinishTime(Node curNode, Node depNode, TaskDependency dep) {
-      Collision backwardCollision = dep.getConstraint().getBackwardCollision(depNode.lst);
-      if (backwardCollision == null) {
-        return depNode.lst;
+  /**
+   * @return the latest dependee finish which does not push dependant start beyond the given date
+   */
+  private static long getLatestFinish(TaskDependency dep, long dependantStart) {
+    Collision backwardCollision = dep.getConstraint().getBackwardCollision(new Date(dependantStart));
+    return backwardCollision == null ? dependantStart : backwardCollision.getAcceptableStart().getTimeInMillis();
+  }
+
+  private TimeDuration getWorkingDuration(long from, long to) {
+    if (from == to) {
+      return myTaskManager.createLength(0);
+    }
+    TimeUnit unit = myTaskManager.createLength(0).getTimeUnit();
+    long length = 0;
+    for (GPCalendarActivity activity : myCalendar.getActivities(new Date(Math.min(from, to)), new Date(Math.max(from, to)))) {
+      if (activity.isWorkingTime()) {
+        length += myTaskManager.createLength(unit, activity.getStart(), activity.getEnd()).getLength();
       }
-      return backwardCollision.getAcceptableStart().getTime();
     }
+    return myTaskManager.createLength(from < to ? length : -length);
   }
 }
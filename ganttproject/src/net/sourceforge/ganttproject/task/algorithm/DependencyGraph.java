@@ -18,6 +18,7 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
 */
 package net.sourceforge.ganttproject.task.algorithm;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -127,6 +128,10 @@ public class DependencyGraph {
       myDstNode = dstNode;
     }
 
+    TaskDependency getDependency() {
+      return myDep;
+    }
+
     @Override
     public Range<Date> getStartRange() {
       return myStartRange;
@@ -892,6 +897,76 @@ public class DependencyGraph {
     return removed;
   }
 
+  /**
+   * Finds the candidates which are reachable along the graph edges from the given task or
+   * from any of its subtasks. A dependency of the given task on any of such candidates would
+   * create a loop. Graph is not modified.
+   *
+   * Since edges always go from lower to higher levels, the search doesn't go beyond the highest
+   * candidate level, and it stops as soon as all candidates are found.
+   *
+   * @param dependant task where the search starts
+   * @param candidates tasks to check
+   * @return candidates which are reachable from the dependant
+   */
+  public Set<Task> findReachable(Task dependant, Collection<Task> candidates) {
+    Node root = myNodeMap.get(dependant);
+    if (root == null) {
+      return Collections.emptySet();
+    }
+    BitSet candidateIds = new BitSet();
+    int candidateCount = 0;
+    int maxLevel = -1;
+    for (Task candidate : candidates) {
+      Node node = myNodeMap.get(candidate);
+      if (node != null && !candidateIds.get(candidate.getTaskID())) {
+        candidateIds.set(candidate.getTaskID());
+        candidateCount++;
+        maxLevel = Math.max(maxLevel, node.getLevel());
+      }
+    }
+    Set<Task> result = Sets.newHashSet();
+    if (candidateCount == 0) {
+      return result;
+    }
+    BitSet visited = new BitSet();
+    Deque<Node> stack = Lists.newLinkedList();
+    // Dependency on the dependant is inherited by its subtasks, so they all are search roots
+    Deque<Node> subtree = Lists.newLinkedList();
+    subtree.add(root);
+    while (!subtree.isEmpty()) {
+      Node node = subtree.pollFirst();
+      visited.set(node.getTask().getTaskID());
+      stack.push(node);
+      for (DependencyEdge incoming : node.getIncoming()) {
+        if (incoming instanceof ImplicitSubSuperTaskDependency) {
+          subtree.add(incoming.getSrc());
+        }
+      }
+    }
+    while (!stack.isEmpty()) {
+      Node node = stack.pop();
+      if (candidateIds.get(node.getTask().getTaskID())) {
+        result.add(node.getTask());
+        if (result.size() == candidateCount) {
+          break;
+        }
+      }
+      if (node.getLevel() >= maxLevel) {
+        continue;
+      }
+      for (DependencyEdge outgoing : node.getOutgoing()) {
+        Node dst = outgoing.getDst();
+        int dstId = dst.getTask().getTaskID();
+        if (!visited.get(dstId) && dst.getLevel() <= maxLevel) {
+          visited.set(dstId);
+          stack.push(dst);
+        }
+      }
+    }
+    return result;
+  }
+
   int checkLayerValidity() {
     return myData.checkLayerValidity();
   }
@@ -19,9 +19,11 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
 package net.sourceforge.ganttproject.task.algorithm;
 
 import java.util.ArrayList;
+import java.util.Set;
 
 import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.TaskContainmentHierarchyFacade;
+import net.sourceforge.ganttproject.task.dependency.LoopDetector;
 
 /**
  * Created by IntelliJ IDEA. User: bard
@@ -39,6 +41,11 @@ public abstract class FindPossibleDependeesAlgorithmImpl implements FindPossible
     Task root = myContainmentFacade.getRootTask();
     Task[] nestedTasks = myContainmentFacade.getNestedTasks(root);
     processTask(nestedTasks, dependant, result);
+    // All candidates are checked for loops in one graph traversal
+    Set<Task> looping = new LoopDetector(dependant.getManager()).getLoopingDependees(dependant, result);
+    if (!looping.isEmpty()) {
+      result.removeAll(looping);
+    }
     return result.toArray(new Task[0]);
   }
 
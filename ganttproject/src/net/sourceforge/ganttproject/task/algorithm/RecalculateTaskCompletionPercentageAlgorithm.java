@@ -18,52 +18,139 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
  */
 package net.sourceforge.ganttproject.task.algorithm;
 
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
 import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.TaskContainmentHierarchyFacade;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Calculates completion percentage of supertasks as an average of their nested tasks
+ * completion weighted by durations.
+ *
+ * For every supertask we keep the sums of duration * completion and of durations of
+ * its nested tasks, and for every nested task we keep its current contribution to those
+ * sums. When progress of one task changes, its supertasks are updated by the difference
+ * of contributions, without reading their other nested tasks. The sums are dropped with
+ * {@link #reset()} when task durations or task hierarchy change.
+ */
 public abstract class RecalculateTaskCompletionPercentageAlgorithm extends AlgorithmBase {
+  // Sums of duration * completion percentage and of durations of the nested tasks
+  private final Map<Task, long[]> mySums = Maps.newHashMap();
+  // Contribution of a task to the sums of its supertask
+  private final Map<Task, long[]> myContributions = Maps.newHashMap();
+  // Supertasks completion changes fire events which call us back while we are still running
+  private boolean isRunning;
+
+  /**
+   * Recalculates completion percentage of all supertasks, each one exactly once
+   */
   @Override
-  public void run() {
-    if (!isEnabled()) {
+  public synchronized void run() {
+    if (!isEnabled() || isRunning) {
       return;
     }
     TaskContainmentHierarchyFacade facade = createContainmentFacade();
-    for (Task t : facade.getTasksInDocumentOrder()) {
-      if (!facade.hasNestedTasks(t)) {
-        run(t);
+    reset();
+    // Reversed pre-order with nested tasks pushed in order is a post-order, where
+    // every task goes after all its nested tasks
+    List<Task> preOrder = Lists.newArrayList();
+    Deque<Task> stack = Lists.newLinkedList();
+    stack.push(facade.getRootTask());
+    while (!stack.isEmpty()) {
+      Task head = stack.pop();
+      preOrder.add(head);
+      for (Task nested : facade.getNestedTasks(head)) {
+        stack.push(nested);
       }
     }
+    isRunning = true;
+    try {
+      for (int i = preOrder.size() - 1; i >= 0; i--) {
+        Task task = preOrder.get(i);
+        if (facade.hasNestedTasks(task)) {
+          recalculateSupertaskCompletionPercentage(task, facade);
+        }
+      }
+    } finally {
+      isRunning = false;
+    }
   }
 
-  public void run(Task task) {
-    if (!isEnabled()) {
+  /**
+   * Recalculates completion percentage of the given task, if it is a supertask, and
+   * updates all its supertasks
+   */
+  public synchronized void run(Task task) {
+    if (!isEnabled() || isRunning) {
       return;
     }
     TaskContainmentHierarchyFacade facade = createContainmentFacade();
-    recalculateSupertaskCompletionPercentageBottomUp(task, facade);
+    isRunning = true;
+    try {
+      if (facade.hasNestedTasks(task)) {
+        recalculateSupertaskCompletionPercentage(task, facade);
+      }
+      for (Task supertask = facade.getContainer(task); supertask != null; task = supertask, supertask = facade.getContainer(supertask)) {
+        long[] sums = mySums.get(supertask);
+        if (sums == null) {
+          recalculateSupertaskCompletionPercentage(supertask, facade);
+        } else {
+          updateContribution(task, sums);
+          setCompletionPercentage(supertask, sums);
+        }
+      }
+    } finally {
+      isRunning = false;
+    }
   }
 
-  private void recalculateSupertaskCompletionPercentageBottomUp(Task task, TaskContainmentHierarchyFacade facade) {
-    while (task != null) {
-      recalculateSupertaskCompletionPercentage(task, facade);
-      task = facade.getContainer(task);
+  /**
+   * Drops the sums, so that they will be calculated from scratch next time
+   */
+  public synchronized void reset() {
+    if (!mySums.isEmpty()) {
+      mySums.clear();
+      myContributions.clear();
     }
   }
 
   private void recalculateSupertaskCompletionPercentage(Task task, TaskContainmentHierarchyFacade facade) {
     Task[] nestedTasks = facade.getNestedTasks(task);
     if (nestedTasks.length > 0) {
-      int completedDays = 0;
-      long plannedDays = 0;
+      long[] sums = new long[2];
       for (int i = 0; i < nestedTasks.length; i++) {
-        Task next = nestedTasks[i];
-        long nextDuration = next.isMilestone() ? 1 : next.getDuration().getLength();
-        completedDays += nextDuration * next.getCompletionPercentage();
-        plannedDays += nextDuration;
+        addContribution(nestedTasks[i], sums);
       }
-      int completionPercentage = plannedDays == 0 ? 0 : (int) (completedDays / plannedDays);
-      task.setCompletionPercentage(completionPercentage);
+      mySums.put(task, sums);
+      setCompletionPercentage(task, sums);
+    }
+  }
+
+  private void updateContribution(Task task, long[] sums) {
+    long[] oldContribution = myContributions.get(task);
+    if (oldContribution != null) {
+      sums[0] -= oldContribution[0];
+      sums[1] -= oldContribution[1];
     }
+    addContribution(task, sums);
+  }
+
+  private void addContribution(Task task, long[] sums) {
+    long duration = task.isMilestone() ? 1 : task.getDuration().getLength();
+    long[] contribution = new long[] {duration * task.getCompletionPercentage(), duration};
+    myContributions.put(task, contribution);
+    sums[0] += contribution[0];
+    sums[1] += contribution[1];
+  }
+
+  private static void setCompletionPercentage(Task task, long[] sums) {
+    int completionPercentage = sums[1] == 0 ? 0 : (int) (sums[0] / sums[1]);
+    task.setCompletionPercentage(completionPercentage);
   }
 
   protected abstract TaskContainmentHierarchyFacade createContainmentFacade();
@@ -19,8 +19,12 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
 package net.sourceforge.ganttproject.task.algorithm;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 import biz.ganttproject.core.calendar.GPCalendar;
 import biz.ganttproject.core.calendar.GPCalendar.DayMask;
@@ -30,10 +34,12 @@ import biz.ganttproject.core.time.GanttCalendar;
 import biz.ganttproject.core.time.TimeDuration;
 import biz.ganttproject.core.time.TimeUnit;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.collect.BoundType;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
 
 import net.sourceforge.ganttproject.GPLogger;
 import net.sourceforge.ganttproject.task.Task;
@@ -51,11 +57,33 @@ import net.sourceforge.ganttproject.task.event.TaskListenerAdapter;
  * This class walk the dependency graph and updates start and end dates of tasks
  * according to information returned by dependency edges.
  *
+ * Scheduler can run either a full sweep over all graph layers or an incremental pass
+ * which starts from a changed task and visits only those downstream nodes which
+ * may be affected by the change. Incremental pass processes dirty nodes in the layer order,
+ * so that each node is scheduled after all its changed predecessors.
+ *
  * @author dbarashev
  */
 public class SchedulerImpl extends AlgorithmBase {
+  private static final Comparator<Node> LEVEL_COMPARATOR = new Comparator<Node>() {
+    @Override
+    public int compare(Node o1, Node o2) {
+      return o1.getLevel() - o2.getLevel();
+    }
+  };
   private final DependencyGraph myGraph;
   private boolean isRunning;
+  private boolean isIncremental = true;
+  private boolean isVerificationEnabled = false;
+  private boolean isVerifying = false;
+  private int myVerificationMismatchCount;
+  private final PriorityQueue<Node> myDirtyQueue = new PriorityQueue<Node>(11, LEVEL_COMPARATOR);
+  private final Set<Node> myDirtyNodes = Sets.newHashSet();
+  private boolean isIncrementalRunning;
+  private Node myCurrentNode;
+  private int mySuspendCount;
+  private boolean isFullRunPending;
+  private final Set<Task> myPendingTasks = Sets.newLinkedHashSet();
   private final Supplier<TaskContainmentHierarchyFacade> myTaskHierarchy;
   private final TaskListener myTaskListener;
 
@@ -88,17 +116,197 @@ public class SchedulerImpl extends AlgorithmBase {
     return myTaskListener;
   }
 
+  /**
+   * Switches incremental scheduling on or off. When it is off, every change
+   * triggers a full sweep over the dependency graph.
+   */
+  public void setIncremental(boolean incremental) {
+    isIncremental = incremental;
+  }
+
+  public boolean isIncremental() {
+    return isIncremental;
+  }
+
+  /**
+   * When verification is enabled, every incremental pass is followed by a full sweep,
+   * and any change made by the full sweep is reported as a mismatch.
+   */
+  public void setVerificationEnabled(boolean enabled) {
+    isVerificationEnabled = enabled;
+  }
+
+  int getVerificationMismatchCount() {
+    return myVerificationMismatchCount;
+  }
+
+  /**
+   * Suspends scheduling until the matching {@link #resume()} call. Changes which
+   * happen meanwhile are accumulated and processed in a single pass on resume.
+   * Calls may be nested.
+   */
+  public void suspend() {
+    mySuspendCount++;
+  }
+
+  /**
+   * Resumes scheduling suspended with {@link #suspend()}. When the outermost suspension
+   * ends, runs a full sweep if graph structure has changed, or an incremental pass
+   * seeded from all tasks changed while scheduler was suspended otherwise.
+   */
+  public void resume() {
+    Preconditions.checkState(mySuspendCount > 0, "Scheduler is not suspended");
+    if (--mySuspendCount > 0) {
+      return;
+    }
+    List<Task> pendingTasks = Lists.newArrayList(myPendingTasks);
+    myPendingTasks.clear();
+    if (isFullRunPending) {
+      isFullRunPending = false;
+      run();
+    } else if (!pendingTasks.isEmpty()) {
+      run(pendingTasks);
+    }
+  }
+
   @Override
   public void run() {
     if (!isEnabled() || isRunning) {
       return;
     }
+    if (mySuspendCount > 0) {
+      isFullRunPending = true;
+      return;
+    }
+    isRunning = true;
+    try {
+      doRun();
+    } finally {
+      isRunning = false;
+    }
+  }
+
+  /**
+   * Runs incremental scheduling pass seeded from the given changed task. If scheduler
+   * is already running an incremental pass, nodes downstream of the changed task are added
+   * to the current pass.
+   *
+   * @param changedTask task which start or end date has changed
+   */
+  public void run(Task changedTask) {
+    run(Collections.singletonList(changedTask));
+  }
+
+  /**
+   * Runs incremental scheduling pass seeded from all the given changed tasks.
+   *
+   * @param changedTasks tasks which start or end dates have changed
+   */
+  public void run(Collection<Task> changedTasks) {
+    if (!isEnabled()) {
+      return;
+    }
+    if (mySuspendCount > 0) {
+      myPendingTasks.addAll(changedTasks);
+      return;
+    }
+    if (!isIncremental) {
+      run();
+      return;
+    }
+    if (isRunning) {
+      if (isIncrementalRunning) {
+        for (Task task : changedTasks) {
+          Node node = myGraph.getNode(task);
+          if (node != null) {
+            markDownstreamDirty(node);
+          }
+        }
+      }
+      return;
+    }
+    List<Node> seeds = Lists.newArrayListWithExpectedSize(changedTasks.size());
+    for (Task task : changedTasks) {
+      Node node = myGraph.getNode(task);
+      if (node != null) {
+        seeds.add(node);
+      }
+    }
+    if (seeds.isEmpty()) {
+      return;
+    }
+    isRunning = true;
+    isIncrementalRunning = true;
+    try {
+      doRunIncremental(seeds);
+    } finally {
+      myDirtyQueue.clear();
+      myDirtyNodes.clear();
+      myCurrentNode = null;
+      isIncrementalRunning = false;
+      isRunning = false;
+    }
+    if (isVerificationEnabled) {
+      verify(changedTasks);
+    }
+  }
+
+  private void doRunIncremental(List<Node> seeds) {
+    for (Node seed : seeds) {
+      markDirty(seed);
+      markDownstreamDirty(seed);
+    }
+    while (!myDirtyQueue.isEmpty()) {
+      Node node = myDirtyQueue.poll();
+      myDirtyNodes.remove(node);
+      Date oldStart = node.getTask().getStart().getTime();
+      Date oldEnd = node.getTask().getEnd().getTime();
+      myCurrentNode = node;
+      try {
+        schedule(node);
+      } catch (IllegalArgumentException e) {
+        GPLogger.log(e);
+      } finally {
+        myCurrentNode = null;
+      }
+      if (!oldStart.equals(node.getTask().getStart().getTime()) || !oldEnd.equals(node.getTask().getEnd().getTime())) {
+        markDownstreamDirty(node);
+      }
+    }
+  }
+
+  private void markDownstreamDirty(Node node) {
+    for (DependencyEdge edge : node.getOutgoing()) {
+      if (edge.getDst() != myCurrentNode) {
+        markDirty(edge.getDst());
+      }
+    }
+  }
+
+  private void markDirty(Node node) {
+    // Nodes on the zero layer have no incoming edges, full sweep skips them as well
+    if (node.getLevel() == 0) {
+      return;
+    }
+    if (myDirtyNodes.add(node)) {
+      myDirtyQueue.add(node);
+    }
+  }
+
+  private void verify(Collection<Task> changedTasks) {
+    myVerificationMismatchCount = 0;
     isRunning = true;
+    isVerifying = true;
     try {
       doRun();
     } finally {
+      isVerifying = false;
       isRunning = false;
     }
+    if (myVerificationMismatchCount > 0) {
+      GPLogger.logToLogger("Incremental scheduling pass seeded from tasks=" + changedTasks
+          + " differs from the full sweep in " + myVerificationMismatchCount + " date(s)");
+    }
   }
 
   private void doRun() {
@@ -201,6 +409,9 @@ public class SchedulerImpl extends AlgorithmBase {
     if (task.getEnd().getTime().equals(newEnd)) {
       return;
     }
+    if (isVerifying) {
+      myVerificationMismatchCount++;
+    }
     GanttCalendar newEndCalendar = CalendarFactory.createGanttCalendar(newEnd);
     if (getDiagnostic() != null) {
       getDiagnostic().info("Task #" + task.getTaskID() + " " + task.getName() + "\n\tEND DATE old:" + task.getEnd() + " new:" + newEndCalendar);
@@ -214,6 +425,9 @@ public class SchedulerImpl extends AlgorithmBase {
     if (task.getStart().getTime().equals(newStart)) {
       return;
     }
+    if (isVerifying) {
+      myVerificationMismatchCount++;
+    }
     GanttCalendar newStartCalendar = CalendarFactory.createGanttCalendar(newStart);
     if (getDiagnostic() != null) {
       getDiagnostic().info("Task #" + task.getTaskID() + " " + task.getName() + "\n\tSTART DATE old:" + task.getStart() + " new:" + newStartCalendar);
@@ -40,19 +40,18 @@ public class ShiftTaskTreeAlgorithm {
     myRescheduleAlgorithm = rescheduleAlgorithm;
   }
 
-  public void run(List<Task> tasks, TimeDuration shift, boolean deep) throws AlgorithmException {
-    myTaskManager.setEventsEnabled(false);
+  public void run(final List<Task> tasks, final TimeDuration shift, final boolean deep) throws AlgorithmException {
     try {
-      for (Task t : tasks) {
-        shiftTask(t, shift, deep);
-      }
-      try {
-        myTaskManager.getAlgorithmCollection().getScheduler().run();
-      } catch (TaskDependencyException e) {
-        throw new AlgorithmException("Failed to reschedule the following tasks tasks after move:\n" + tasks, e);
-      }
-    } finally {
-      myTaskManager.setEventsEnabled(true);
+      myTaskManager.runBatch(new Runnable() {
+        @Override
+        public void run() {
+          for (Task t : tasks) {
+            shiftTask(t, shift, deep);
+          }
+        }
+      });
+    } catch (TaskDependencyException e) {
+      throw new AlgorithmException("Failed to reschedule the following tasks tasks after move:\n" + tasks, e);
     }
   }
 
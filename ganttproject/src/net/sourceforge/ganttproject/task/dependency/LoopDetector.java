@@ -18,12 +18,17 @@ Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
 package net.sourceforge.ganttproject.task.dependency;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import net.sourceforge.ganttproject.task.Task;
 import net.sourceforge.ganttproject.task.TaskManager;
-import net.sourceforge.ganttproject.task.algorithm.DependencyGraph;
 
 /**
  * Loop detector answers whether a dependency will create a loop in the
- * dependency graph
+ * dependency graph. It searches for the dependee among the tasks reachable
+ * from the dependant and doesn't modify the graph.
  *
  * @author dbarashev
  */
@@ -35,18 +40,17 @@ public class LoopDetector {
   }
 
   public boolean isLooping(TaskDependency dep) {
-    DependencyGraph graph = myTaskManager.getDependencyGraph();
-    DependencyGraph.Logger oldLogger = graph.getLogger();
-    graph.startTransaction();
-    try {
-      graph.setLogger(DependencyGraph.THROWING_LOGGER);
-      graph.addDependency(dep);
-      return false;
-    } catch (TaskDependencyException e) {
-      return true;
-    } finally {
-      graph.rollbackTransaction();
-      graph.setLogger(oldLogger);
-    }
+    return !getLoopingDependees(dep.getDependant(), Collections.singleton(dep.getDependee())).isEmpty();
+  }
+
+  /**
+   * Checks many dependee candidates at once, with a single graph traversal
+   *
+   * @param dependant dependant task
+   * @param candidates dependee candidates
+   * @return candidates which would create a loop if they become dependees of the given dependant
+   */
+  public Set<Task> getLoopingDependees(Task dependant, Collection<Task> candidates) {
+    return myTaskManager.getDependencyGraph().findReachable(dependant, candidates);
   }
 }
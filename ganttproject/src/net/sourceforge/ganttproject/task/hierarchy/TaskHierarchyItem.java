@@ -18,10 +18,6 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
  */
 package net.sourceforge.ganttproject.task.hierarchy;
 
-import java.util.ArrayList;
-
-import com.google.common.collect.Lists;
-
 import net.sourceforge.ganttproject.task.Task;
 
 public class TaskHierarchyItem {
@@ -33,13 +29,33 @@ public class TaskHierarchyItem {
 
   private TaskHierarchyItem myNextSiblingItem;
 
+  private int myNestedItemCount;
+
+  // Nested items in the order of insertion, built on demand and dropped when nested items change
+  private TaskHierarchyItem[] myNestedItems;
+
+  private Task[] myNestedTasks;
+
+  private final TaskHierarchyManagerImpl myManager;
+
+  // Pre-order labels which are maintained by the manager
+  int myPreOrderIndex;
+
+  int myLastDescendantIndex;
+
   private static final TaskHierarchyItem[] EMPTY_ARRAY = new TaskHierarchyItem[0];
 
+  private static final Task[] EMPTY_TASK_ARRAY = new Task[0];
+
   public TaskHierarchyItem(Task myTask, TaskHierarchyItem containerItem) {
-    this.myTask = myTask;
-    this.myContainerItem = containerItem;
-    if (myContainerItem != null) {
-      myContainerItem.addNestedItem(this);
+    this(myTask, containerItem, containerItem == null ? null : containerItem.myManager);
+  }
+
+  TaskHierarchyItem(Task task, TaskHierarchyItem containerItem, TaskHierarchyManagerImpl manager) {
+    myTask = task;
+    myManager = manager;
+    if (containerItem != null) {
+      containerItem.addNestedItem(this);
     }
   }
 
@@ -51,24 +67,53 @@ public class TaskHierarchyItem {
     return myContainerItem;
   }
 
+  /**
+   * @return nested items in the order of insertion. Returned array is shared and must not be modified.
+   */
   public TaskHierarchyItem[] getNestedItems() {
-    TaskHierarchyItem[] result;
-    if (myFirstNestedItem == null) {
-      result = EMPTY_ARRAY;
-    } else {
-      ArrayList<TaskHierarchyItem> tempList = new ArrayList<TaskHierarchyItem>();
-      for (TaskHierarchyItem nested = myFirstNestedItem; nested != null; nested = nested.myNextSiblingItem) {
-        tempList.add(nested);
+    TaskHierarchyItem[] result = myNestedItems;
+    if (result == null) {
+      if (myFirstNestedItem == null) {
+        result = EMPTY_ARRAY;
+      } else {
+        // Nested items are linked in the reverse order
+        result = new TaskHierarchyItem[myNestedItemCount];
+        int i = result.length;
+        for (TaskHierarchyItem nested = myFirstNestedItem; nested != null; nested = nested.myNextSiblingItem) {
+          result[--i] = nested;
+        }
+      }
+      myNestedItems = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return tasks of the nested items in the order of insertion. Returned array is shared and must not be modified.
+   */
+  public Task[] getNestedTasks() {
+    Task[] result = myNestedTasks;
+    if (result == null) {
+      TaskHierarchyItem[] nestedItems = getNestedItems();
+      result = nestedItems.length == 0 ? EMPTY_TASK_ARRAY : new Task[nestedItems.length];
+      for (int i = 0; i < nestedItems.length; i++) {
+        result[i] = nestedItems[i].getTask();
       }
-      result = Lists.reverse(tempList).toArray(EMPTY_ARRAY);
+      myNestedTasks = result;
     }
     return result;
   }
 
+  public boolean hasNestedItems() {
+    return myFirstNestedItem != null;
+  }
+
   public void addNestedItem(TaskHierarchyItem nested) {
     nested.myNextSiblingItem = myFirstNestedItem;
     nested.myContainerItem = this;
     myFirstNestedItem = nested;
+    myNestedItemCount++;
+    onNestedItemsChanged();
   }
 
   public void delete() {
@@ -81,8 +126,21 @@ public class TaskHierarchyItem {
           ;
         previousSibling.myNextSiblingItem = myNextSiblingItem;
       }
+      myContainerItem.myNestedItemCount--;
+      myContainerItem.onNestedItemsChanged();
       myContainerItem = null;
     }
     myNextSiblingItem = null;
   }
+
+  private void onNestedItemsChanged() {
+    myNestedItems = null;
+    myNestedTasks = null;
+    if (myManager != null) {
+      myManager.invalidateOrder();
+    }
+    if (myTask != null) {
+      myTask.getCost().resetCalculatedValue();
+    }
+  }
 }
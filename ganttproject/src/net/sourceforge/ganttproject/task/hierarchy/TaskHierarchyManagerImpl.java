@@ -18,10 +18,28 @@ along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
  */
 package net.sourceforge.ganttproject.task.hierarchy;
 
+import java.util.Arrays;
+
 import net.sourceforge.ganttproject.task.Task;
 
+/**
+ * Keeps the tree of hierarchy items and maintains their pre-order labels. Labels
+ * are invalidated when any item is added or removed and are recalculated in one pass
+ * over the tree on the next query, so that comparing items in the document order is
+ * a comparison of two integers.
+ *
+ * Document order is also queried from the export and search threads, so labelling
+ * and label reads are guarded by this object's monitor.
+ */
 public class TaskHierarchyManagerImpl {
-  private TaskHierarchyItem myRootItem = new TaskHierarchyItem(null, null);
+  private final TaskHierarchyItem myRootItem = new TaskHierarchyItem(null, null, this);
+
+  private boolean isOrderValid;
+
+  // Items in pre-order, item's label is its index in this array
+  private TaskHierarchyItem[] myOrder = new TaskHierarchyItem[0];
+
+  private int myOrderSize;
 
   public TaskHierarchyItem getRootItem() {
     return myRootItem;
@@ -32,4 +50,78 @@ public class TaskHierarchyManagerImpl {
     return result;
   }
 
+  synchronized void invalidateOrder() {
+    isOrderValid = false;
+  }
+
+  /**
+   * @return negative value if item1 precedes item2 in the pre-order traversal of the hierarchy,
+   *   positive value if it follows item2 and 0 if they are the same item
+   */
+  public synchronized int compareDocumentOrder(TaskHierarchyItem item1, TaskHierarchyItem item2) {
+    validateOrder();
+    int index1 = getIndex(item1);
+    int index2 = getIndex(item2);
+    return index1 < index2 ? -1 : (index1 == index2 ? 0 : 1);
+  }
+
+  /**
+   * @return true if item is the given ancestor or is nested into it at any depth
+   */
+  public synchronized boolean isInSubtree(TaskHierarchyItem ancestor, TaskHierarchyItem item) {
+    validateOrder();
+    int index = getIndex(item);
+    return index >= 0 && index >= getIndex(ancestor) && index <= ancestor.myLastDescendantIndex;
+  }
+
+  private int getIndex(TaskHierarchyItem item) {
+    int index = item.myPreOrderIndex;
+    // Items which were removed from the tree may keep stale labels
+    return index < myOrderSize && myOrder[index] == item ? index : -1;
+  }
+
+  private void validateOrder() {
+    if (isOrderValid) {
+      return;
+    }
+    int size = 0;
+    TaskHierarchyItem[] stack = new TaskHierarchyItem[16];
+    int[] positions = new int[16];
+    int depth = 0;
+    stack[0] = myRootItem;
+    size = label(myRootItem, size);
+    while (depth >= 0) {
+      TaskHierarchyItem[] nested = stack[depth].getNestedItems();
+      int pos = positions[depth];
+      if (pos < nested.length) {
+        positions[depth]++;
+        TaskHierarchyItem child = nested[pos];
+        size = label(child, size);
+        depth++;
+        if (depth == stack.length) {
+          stack = Arrays.copyOf(stack, depth * 2);
+          positions = Arrays.copyOf(positions, depth * 2);
+        }
+        stack[depth] = child;
+        positions[depth] = 0;
+      } else {
+        stack[depth].myLastDescendantIndex = size - 1;
+        depth--;
+      }
+    }
+    for (int i = size; i < myOrderSize; i++) {
+      myOrder[i] = null;
+    }
+    myOrderSize = size;
+    isOrderValid = true;
+  }
+
+  private int label(TaskHierarchyItem item, int index) {
+    if (index == myOrder.length) {
+      myOrder = Arrays.copyOf(myOrder, Math.max(16, index * 2));
+    }
+    myOrder[index] = item;
+    item.myPreOrderIndex = index;
+    return index + 1;
+  }
 }
@@ -27,6 +27,15 @@ import javax.swing.undo.CannotUndoException;
 public interface GPUndoManager {
   void undoableEdit(String localizedName, Runnable runnableEdit);
 
+  /**
+   * Runs an edit which changes only attributes of existing tasks, like dates, duration,
+   * completion or name, either directly or with {@link net.sourceforge.ganttproject.task.TaskMutator}.
+   * Such edit is recorded as a set of task state deltas and does not write project snapshots.
+   * Edits which add, remove or move tasks, change dependencies, resources or custom property values
+   * must use {@link #undoableEdit(String, Runnable)}.
+   */
+  void undoableTaskEdit(String localizedName, Runnable runnableEdit);
+
   boolean canUndo();
 
   boolean canRedo();
@@ -0,0 +1,125 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.undo;
+
+import java.util.List;
+
+import javax.swing.undo.AbstractUndoableEdit;
+import javax.swing.undo.CannotRedoException;
+import javax.swing.undo.CannotUndoException;
+
+import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskManager;
+import net.sourceforge.ganttproject.task.TaskMemento;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Undoable edit which keeps the states of the changed tasks before and after the edit,
+ * so that undo and redo take time proportional to the size of the edit rather than
+ * to the size of the project.
+ */
+class TaskDeltaEditImpl extends AbstractUndoableEdit {
+  private final String myPresentationName;
+
+  private final TaskManager myTaskManager;
+
+  private final List<TaskMemento> myStatesBefore = Lists.newArrayList();
+
+  private final List<TaskMemento> myStatesAfter = Lists.newArrayList();
+
+  private final boolean isStructureChanged;
+
+  TaskDeltaEditImpl(String localizedName, Runnable editImpl, TaskManager taskManager) {
+    myPresentationName = localizedName;
+    myTaskManager = taskManager;
+    TaskDeltaRecorder recorder = new TaskDeltaRecorder(taskManager.getChangeRecorder());
+    taskManager.setChangeRecorder(recorder);
+    try {
+      editImpl.run();
+    } finally {
+      taskManager.setChangeRecorder(recorder.getParent());
+    }
+    isStructureChanged = recorder.isStructureChanged();
+    for (TaskMemento before : recorder.getMementos()) {
+      Task task = taskManager.getTask(before.getTaskId());
+      if (task == null) {
+        continue;
+      }
+      TaskMemento after = TaskMemento.create(task);
+      if (!before.isSameState(after)) {
+        myStatesBefore.add(before);
+        myStatesAfter.add(after);
+      }
+    }
+  }
+
+  /**
+   * @return true if the edit changed something which can't be recorded as task deltas
+   */
+  boolean isStructureChanged() {
+    return isStructureChanged;
+  }
+
+  @Override
+  public void undo() throws CannotUndoException {
+    if (!canRestore(myStatesBefore)) {
+      throw new CannotUndoException();
+    }
+    super.undo();
+    restore(myStatesBefore);
+  }
+
+  @Override
+  public void redo() throws CannotRedoException {
+    if (!canRestore(myStatesAfter)) {
+      throw new CannotRedoException();
+    }
+    super.redo();
+    restore(myStatesAfter);
+  }
+
+  /**
+   * @return true if all the recorded tasks are present in the task manager
+   */
+  private boolean canRestore(List<TaskMemento> states) {
+    for (TaskMemento state : states) {
+      if (myTaskManager.getTask(state.getTaskId()) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void restore(final List<TaskMemento> states) {
+    myTaskManager.runBatch(new Runnable() {
+      @Override
+      public void run() {
+        for (TaskMemento state : states) {
+          state.restore(myTaskManager);
+        }
+      }
+    });
+  }
+
+  @Override
+  public String getPresentationName() {
+    return myPresentationName;
+  }
+}
@@ -0,0 +1,76 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package net.sourceforge.ganttproject.undo;
+
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.ganttproject.task.Task;
+import net.sourceforge.ganttproject.task.TaskChangeRecorder;
+import net.sourceforge.ganttproject.task.TaskMemento;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Records the state of every task before its first change. If some other recorder
+ * was installed when this one started, notifications are passed to it as well.
+ */
+class TaskDeltaRecorder implements TaskChangeRecorder {
+  private final TaskChangeRecorder myParent;
+  private final Map<Task, TaskMemento> myMementos = Maps.newLinkedHashMap();
+  private boolean isStructureChanged;
+
+  TaskDeltaRecorder(TaskChangeRecorder parent) {
+    myParent = parent;
+  }
+
+  @Override
+  public void beforeAttributesChange(Task task) {
+    if (!myMementos.containsKey(task)) {
+      myMementos.put(task, TaskMemento.create(task));
+    }
+    if (myParent != null) {
+      myParent.beforeAttributesChange(task);
+    }
+  }
+
+  @Override
+  public void structureChanged() {
+    isStructureChanged = true;
+    if (myParent != null) {
+      myParent.structureChanged();
+    }
+  }
+
+  TaskChangeRecorder getParent() {
+    return myParent;
+  }
+
+  boolean isStructureChanged() {
+    return isStructureChanged;
+  }
+
+  /**
+   * @return mementos of the recorded tasks before their first change
+   */
+  List<TaskMemento> getMementos() {
+    return Lists.newArrayList(myMementos.values());
+  }
+}
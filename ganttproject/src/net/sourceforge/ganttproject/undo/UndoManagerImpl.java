@@ -26,6 +26,7 @@ import javax.swing.event.UndoableEditListener;
 import javax.swing.undo.CannotRedoException;
 import javax.swing.undo.CannotUndoException;
 import javax.swing.undo.UndoManager;
+import javax.swing.undo.UndoableEdit;
 import javax.swing.undo.UndoableEditSupport;
 
 import net.sourceforge.ganttproject.GPLogger;
@@ -81,7 +82,23 @@ public class UndoManagerImpl implements GPUndoManager {
     }
   }
 
-  private void fireUndoableEditHappened(UndoableEditImpl swingEditImpl) {
+  @Override
+  public void undoableTaskEdit(String localizedName, Runnable editImpl) {
+    TaskDeltaEditImpl edit = new TaskDeltaEditImpl(localizedName, editImpl, myProject.getTaskManager());
+    if (edit.isStructureChanged()) {
+      // We have no snapshot of the project before this edit, so neither this edit
+      // nor the previous ones can be undone reliably
+      GPLogger.getLogger(GPUndoManager.class).warning(
+          "Edit '" + localizedName + "' changed the task model structure and can't be undone");
+      mySwingUndoManager.discardAllEdits();
+      fireUndoOrRedoHappened();
+      return;
+    }
+    mySwingUndoManager.addEdit(edit);
+    fireUndoableEditHappened(edit);
+  }
+
+  private void fireUndoableEditHappened(UndoableEdit swingEditImpl) {
     myUndoEventDispatcher.postEdit(swingEditImpl);
   }
 
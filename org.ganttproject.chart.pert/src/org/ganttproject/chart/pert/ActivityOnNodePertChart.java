@@ -32,12 +32,18 @@ import java.awt.image.RenderedImage;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
 import javax.swing.JScrollPane;
+import javax.swing.SwingWorker;
 
+import net.sourceforge.ganttproject.GPLogger;
 import net.sourceforge.ganttproject.GanttExportSettings;
 import net.sourceforge.ganttproject.IGanttProject;
 import net.sourceforge.ganttproject.chart.Chart;
@@ -66,10 +72,11 @@ public class ActivityOnNodePertChart extends PertChart {
   /** List of graphical nodes (in relation with abstract nodes) */
   private List<GraphicalNode> myGraphicalNodes;
 
-  // private Map myMapPositionListOfNodes;
+  /** Graphical nodes indexed by task ID */
+  private Map<Integer, GraphicalNode> myGraphicalNodeByID;
 
-  /** Number of columns */
-  private int nbCols;
+  /** Worker which calculates the layout, if the layout is not ready yet */
+  private SwingWorker<PertLayout, Object> myLayoutWorker;
 
   /** PERT chart abstraction used to build graph. */
   private PertChartAbstraction myPertAbstraction;
@@ -253,20 +260,10 @@ public class ActivityOnNodePertChart extends PertChart {
       myPertAbstraction = new PertChartAbstraction(myTaskManager);
       myTaskGraphNodes = myPertAbstraction.getTaskGraphNodes();
       myGraphicalNodes = new ArrayList<GraphicalNode>();
+      myGraphicalNodeByID = new HashMap<Integer, GraphicalNode>();
       myGraphicalArrows = new ArrayList<GraphicalArrow>();
-      // myMapPositionListOfNodes = new HashMap();
-      // rowsList = new HashMap();
-      nbCols = 0;
       setBackground(Color.WHITE);
-      this.process();
-      // System.out.println("Position correction");
-      // correctPositionBecauseOfSuperTasks();
-      avoidCrossingNode();
-      avoidCrossingLine();
-      removeEmptyColumn();
-      calculateGraphicalNodesCoordinates();
-      calculateArrowsCoordinates();
-      setPreferredSize(new Dimension(myMaxX, myMaxY));
+      startLayout();
     } else {
       myPertAbstraction = new PertChartAbstraction(myTaskManager);
       myTaskGraphNodes = myPertAbstraction.getTaskGraphNodes();
@@ -274,6 +271,69 @@ public class ActivityOnNodePertChart extends PertChart {
     }
   }
 
+  /**
+   * Calculates the layout of the current task graph in a background thread. The result
+   * is applied in the EDT, and chart is repainted.
+   */
+  private void startLayout() {
+    final List<TaskGraphNode> taskGraphNodes = myTaskGraphNodes;
+    myLayoutWorker = new SwingWorker<PertLayout, Object>() {
+      @Override
+      protected PertLayout doInBackground() throws Exception {
+        return new PertLayout(taskGraphNodes);
+      }
+
+      @Override
+      protected void done() {
+        if (myLayoutWorker != this) {
+          // Chart has been reset or the layout has already been applied
+          return;
+        }
+        try {
+          applyLayout(get());
+        } catch (InterruptedException e) {
+          GPLogger.log(e);
+        } catch (ExecutionException e) {
+          GPLogger.log(e);
+        }
+      }
+    };
+    myLayoutWorker.execute();
+  }
+
+  /** Waits for the layout which is being calculated and applies it immediately. */
+  private void completeLayout() {
+    SwingWorker<PertLayout, Object> layoutWorker = myLayoutWorker;
+    if (layoutWorker == null) {
+      return;
+    }
+    try {
+      applyLayout(layoutWorker.get());
+    } catch (InterruptedException e) {
+      GPLogger.log(e);
+    } catch (ExecutionException e) {
+      GPLogger.log(e);
+    }
+  }
+
+  private void applyLayout(PertLayout layout) {
+    myLayoutWorker = null;
+    for (TaskGraphNode tgn : layout.getNodes()) {
+      GraphicalNode gnode = new GraphicalNode(tgn);
+      gnode.col = layout.getColumn(tgn);
+      gnode.row = layout.getRow(tgn);
+      myGraphicalNodes.add(gnode);
+      myGraphicalNodeByID.put(tgn.getID(), gnode);
+    }
+    calculateGraphicalNodesCoordinates();
+    calculateArrowsCoordinates();
+    // Task graph might have been reloaded while the layout was being calculated
+    updateGraphNodesInfo();
+    setPreferredSize(new Dimension(myMaxX, myMaxY));
+    revalidate();
+    repaint();
+  }
+
   /** Updates the data for each nodes. */
   private void updateGraphNodesInfo() {
     if (myTaskGraphNodes != null) {
@@ -286,15 +346,6 @@ public class ActivityOnNodePertChart extends PertChart {
     }
   }
 
-  private boolean isZeroPosition(TaskGraphNode taskGraphNode) {
-    for (TaskGraphNode t : myTaskGraphNodes) {
-      if (t.getSuccessors().contains(taskGraphNode)) {
-        return false;
-      }
-    }
-    return true;
-  }
-
   private static int getGridX(int x) {
     int res = X_OFFSET;
     int tmp = 0;
@@ -315,296 +366,8 @@ public class ActivityOnNodePertChart extends PertChart {
     return tmp;
   }
 
-  private void process() {
-    for (TaskGraphNode tgn : myTaskGraphNodes) {
-      if (isZeroPosition(tgn)) {
-        add(0, new GraphicalNode(tgn));
-      }
-    }
-
-    // TODO Translate:
-    // ici tous les 0 position sont faits.
-    int col = 0;
-    List<TaskGraphNode> l = getNodesThatAreInASpecificSuccessorPosition(col);
-    while (l != null) {
-      for (TaskGraphNode tnode : l) {
-        GraphicalNode gnode = getGraphicalNodeByID(tnode.getID());
-        if (gnode == null) {
-          gnode = createGraphicalNode(tnode);
-        } else {
-          remove(gnode);
-        }
-        add(col + 1, gnode);
-      }
-      col++;
-      l = getNodesThatAreInASpecificSuccessorPosition(col);
-    }
-  }
-
-  /**
-   * Creates or gets the graphical node corresponding to the taskGrahNode
-   *
-   * @param taskGraphNode
-   */
-  private GraphicalNode createGraphicalNode(TaskGraphNode taskGraphNode) {
-    GraphicalNode res = getGraphicalNodeByID(taskGraphNode.getID());
-    if (res != null) {
-      return res;
-    }
-    return new GraphicalNode(taskGraphNode);
-  }
-
-  private void moveDown(GraphicalNode graphicalNode) {
-    int row = graphicalNode.row;
-    while (this.isOccupied(++row, graphicalNode.col))
-      ;
-    graphicalNode.row = row;
-  }
-
-  private GraphicalNode getNode(int row, int col) {
-    for (GraphicalNode node : getNodeInColumn(col)) {
-      if (node.row == row) {
-        return node;
-      }
-    }
-    return null;
-  }
-
-  private void moveRight(GraphicalNode graphicalNode) {
-    for (TaskGraphNode successor : graphicalNode.node.getSuccessors()) {
-      moveRight(getGraphicalNodeByID(successor.getID()));
-    }
-    int newCol = graphicalNode.col + 1;
-    if (isOccupied(graphicalNode.row, newCol)) {
-      moveRight(getNode(graphicalNode.row, newCol));
-    }
-    graphicalNode.col = newCol;
-    if (newCol == nbCols) {
-      this.nbCols++;
-    }
-  }
-
-  private void remove(GraphicalNode graphicalNode) {
-    myGraphicalNodes.remove(graphicalNode);
-
-    if (graphicalNode.col == -1) {
-      return;
-    }
-
-    for (GraphicalNode gnode : getNodeInColumn(graphicalNode.col)) {
-      if (gnode.row > graphicalNode.row) {
-        gnode.row--;
-      }
-    }
-
-    // int iNbRow = ((Integer)this.rowsList.get(new
-    // Integer(graphicalNode.col))).intValue();
-    // rowsList.put(new Integer(graphicalNode.col), new Integer(iNbRow-1));
-
-    if (graphicalNode.col == nbCols - 1) {
-      List<GraphicalNode> list = getNodeInColumn(this.nbCols - 1);
-      while (list.size() == 0) {
-        nbCols--;
-        list = getNodeInColumn(nbCols - 1);
-      }
-    }
-
-    graphicalNode.row = -1;
-    graphicalNode.col = -1;
-  }
-
   private GraphicalNode getGraphicalNodeByID(int id) {
-    for (GraphicalNode gn : myGraphicalNodes) {
-      if (gn.node.getID() == id) {
-        return gn;
-      }
-    }
-    return null;
-  }
-
-  // TODO Translate:
-  /** ajoute la graphical node dans la map position/liste des successeurs */
-  private void add(int col, GraphicalNode graphicalNode) {
-    myGraphicalNodes.remove(graphicalNode);
-
-    if (nbCols - 1 < col) {
-      nbCols = col + 1;
-    }
-
-    int row = 0;
-    while (isOccupied(row, col)) {
-      row++;
-    }
-
-    graphicalNode.row = row;
-    graphicalNode.col = col;
-
-    myGraphicalNodes.add(graphicalNode);
-
-    // rowsList.put(new Integer(col), new Integer(iNbRow+1));
-  }
-
-  private List<TaskGraphNode> getNodesThatAreInASpecificSuccessorPosition(int col) {
-    List<GraphicalNode> graphicaleNodes = getNodeInColumn(col);
-    if (graphicaleNodes.size() == 0) {
-      return null;
-    }
-
-    List<TaskGraphNode> res = new ArrayList<TaskGraphNode>();
-    for (GraphicalNode gn : graphicaleNodes) {
-      res.addAll(gn.node.getSuccessors());
-    }
-
-    return res;
-  }
-
-  /**
-   * Get the list of GraphicalNode that are in a column.
-   *
-   * @param col
-   *          the column number to look in
-   * @return the list of GraphicalNode in the col
-   */
-  private List<GraphicalNode> getNodeInColumn(int col) {
-    List<GraphicalNode> list = new ArrayList<GraphicalNode>();
-    for (GraphicalNode gnode : myGraphicalNodes) {
-      if (gnode.col == col) {
-        list.add(gnode);
-      }
-    }
-    return list;
-  }
-
-  private boolean isOccupied(int row, int col) {
-    for (GraphicalNode gnode : getNodeInColumn(col)) {
-      if (gnode.row == row) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-  private List<TaskGraphNode> getAncestor(TaskGraphNode tgn) {
-    List<TaskGraphNode> ancestors = new ArrayList<TaskGraphNode>();
-    for (TaskGraphNode tnode : myTaskGraphNodes) {
-      List<TaskGraphNode> successor = tnode.getSuccessors();
-      if (successor.contains(tgn)) {
-        ancestors.add(tnode);
-      }
-    }
-    return ancestors;
-  }
-
-  private boolean isCrossingNode(GraphicalNode gnode) {
-    for (TaskGraphNode ancestor : getAncestor(gnode.node)) {
-      GraphicalNode gancestor = getGraphicalNodeByID(ancestor.getID());
-      if (gancestor.col < gnode.col - 1) {
-        for (int col = gnode.col - 1; col > gancestor.col; col--) {
-          if (this.isOccupied(gnode.row, col)) {
-            return true;
-          }
-        }
-      }
-    }
-    return false;
-  }
-
-  private void avoidCrossingNode() {
-    if (nbCols == 0) {
-      return;
-    }
-
-    int col = nbCols - 1;
-    while (col > 0) {
-      boolean hasmoved = false;
-      for (GraphicalNode gnode : getNodeInColumn(col)) {
-        while (isCrossingNode(gnode)) {
-          moveDown(gnode);
-          hasmoved = true;
-        }
-      }
-      if (hasmoved && col < nbCols - 1) {
-        col++;
-      } else {
-        col--;
-      }
-    }
-  }
-
-  private boolean isCrossingArrow(GraphicalNode gnode) {
-    // search for the successors with the highest and lowest position
-    int maxUp = Integer.MAX_VALUE, maxDown = -1;
-    for (TaskGraphNode successorNode : gnode.node.getSuccessors()) {
-      GraphicalNode successor = getGraphicalNodeByID(successorNode.getID());
-      if (successor.row < maxUp) {
-        maxUp = successor.row;
-      }
-      if (successor.row > maxDown) {
-        maxDown = successor.row;
-      }
-    }
-
-    // Find all other nodes on the same column
-    List<GraphicalNode> otherNodes = this.getNodeInColumn(gnode.col);
-    otherNodes.remove(gnode);
-
-    // TODO Translate
-    // parcours des nodes sur la même colonne
-    List<TaskGraphNode> gnodeSuccessors = gnode.node.getSuccessors();
-    for (GraphicalNode otherNode : otherNodes) {
-      for (TaskGraphNode otherSuccessor : otherNode.node.getSuccessors()) {
-        GraphicalNode otherSuccessorNode = getGraphicalNodeByID(otherSuccessor.getID());
-        if (maxUp < gnode.row) {
-          // some arrows are going up
-          if (otherSuccessorNode.row <= gnode.row && !gnodeSuccessors.contains(otherSuccessor)) {
-            return true;
-          }
-        }
-        if (maxDown > gnode.row) {
-          // some arrow are going down
-          if (otherSuccessorNode.row >= gnode.row && !gnodeSuccessors.contains(otherSuccessor)) {
-            return true;
-          }
-        }
-      }
-    }
-    return false;
-  }
-
-  private void avoidCrossingLine() {
-    boolean restart;
-    do {
-      restart = false;
-      for (int col = 0; col < nbCols && restart == false; col++) {
-        List<GraphicalNode> list = getNodeInColumn(col);
-        if (list.size() > 1) {
-          for (GraphicalNode gnode : list) {
-            if (isCrossingArrow(gnode)) {
-              moveRight(gnode);
-              avoidCrossingNode();
-              // Stop processing and start over
-              restart = true;
-              break;
-            }
-          }
-        }
-      }
-    } while (restart);
-  }
-
-  private void removeEmptyColumn() {
-    for (int col = nbCols - 1; col >= 0; col--) {
-      if (this.getNodeInColumn(col).size() == 0) {
-        if (col != nbCols - 1) {
-          for (int c = col + 1; c < nbCols; c++) {
-            for (GraphicalNode gnode : getNodeInColumn(c)) {
-              gnode.col--;
-            }
-          }
-        }
-        nbCols--;
-      }
-    }
+    return myGraphicalNodeByID.get(id);
   }
 
   @Override
@@ -615,6 +378,8 @@ public class ActivityOnNodePertChart extends PertChart {
 
   @Override
   public RenderedImage getRenderedImage(GanttExportSettings settings) {
+    buildPertChart();
+    completeLayout();
     BufferedImage image = new BufferedImage(myMaxX, myMaxY, BufferedImage.TYPE_INT_RGB);
     Graphics g = image.getGraphics();
     g.fillRect(0, 0, myMaxX, myMaxY);
@@ -630,6 +395,7 @@ public class ActivityOnNodePertChart extends PertChart {
   @Override
   public void reset() {
     myPertAbstraction = null;
+    myLayoutWorker = null;
   }
 
   @Override
@@ -21,6 +21,9 @@ package org.ganttproject.chart.pert;
 import java.util.ArrayList;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
 
 import biz.ganttproject.core.time.TimeDuration;
 
@@ -35,6 +38,8 @@ public class PertChartAbstraction {
 
   private final List<TaskGraphNode> myTaskGraph;
 
+  private final Map<Integer, TaskGraphNode> myTaskGraphNodeByID = Maps.newHashMap();
+
   public PertChartAbstraction(TaskManager taskManager) {
     myTaskManager = taskManager;
     myTaskGraph = new ArrayList<TaskGraphNode>();
@@ -54,7 +59,9 @@ public class PertChartAbstraction {
       TaskDependency[] relationship = dependencies.toArray();
       for (int j = 0; j < relationship.length; j++) {
         Task successor = relationship[j].getDependant();
-        tgn.addSuccessor(getTaskGraphNode(successor));
+        TaskGraphNode successorNode = getTaskGraphNode(successor);
+        tgn.addSuccessor(successorNode);
+        successorNode.addPredecessor(tgn);
       }
     }
   }
@@ -77,6 +84,7 @@ public class PertChartAbstraction {
         res.setType(Type.SUPER);
       }
       myTaskGraph.add(res);
+      myTaskGraphNodeByID.put(task.getTaskID(), res);
     }
     return res;
   }
@@ -92,12 +100,7 @@ public class PertChartAbstraction {
    * @return The <code>TaskGraphNode</code> corresponding to the given task ID.
    */
   public TaskGraphNode getTaskGraphNodeByID(int id) {
-    for (TaskGraphNode tgn : myTaskGraph) {
-      if (tgn.getID() == id) {
-        return tgn;
-      }
-    }
-    return null;
+    return myTaskGraphNodeByID.get(id);
   }
 
   /**
@@ -109,12 +112,15 @@ public class PertChartAbstraction {
 
     private List<TaskGraphNode> successors;
 
+    private List<TaskGraphNode> predecessors;
+
     private int type;
 
     private Task myTask;
 
     TaskGraphNode(Task task) {
       successors = new ArrayList<TaskGraphNode>();
+      predecessors = new ArrayList<TaskGraphNode>();
       myTask = task;
     }
 
@@ -134,6 +140,14 @@ public class PertChartAbstraction {
       return this.successors;
     }
 
+    void addPredecessor(TaskGraphNode predecessor) {
+      this.predecessors.add(predecessor);
+    }
+
+    List<TaskGraphNode> getPredecessors() {
+      return this.predecessors;
+    }
+
     String getName() {
       return myTask.getName();
     }
@@ -0,0 +1,227 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.ganttproject.chart.pert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.ganttproject.chart.pert.PertChartAbstraction.TaskGraphNode;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Layered layout of PERT graph nodes in the grid of columns and rows.
+ *
+ * Node column is the length of the longest path from a node without predecessors,
+ * so every arrow goes to the right. Nodes in the columns are ordered by the barycenters
+ * of their neighbors with a bounded number of alternating left-to-right and right-to-left
+ * sweeps, which removes most of the arrow crossings. Finally rows are assigned in this order,
+ * skipping the rows where an arrow which spans several columns would go through a node.
+ *
+ * Layout works with its own copy of the graph structure and may run outside of the EDT.
+ */
+class PertLayout {
+  private static final int MAX_SWEEPS = 8;
+
+  private final List<TaskGraphNode> myNodes;
+  private final Map<TaskGraphNode, Integer> myIndices = Maps.newHashMap();
+  private final int[][] mySuccessors;
+  private final int[][] myPredecessors;
+  private final int[] myColumns;
+  private final int[] myRows;
+  // Position of the node in its column, used by the crossing reduction
+  private final double[] myPositions;
+  private final List<List<Integer>> myColumnNodes = Lists.newArrayList();
+
+  PertLayout(List<TaskGraphNode> nodes) {
+    myNodes = nodes;
+    int nodeCount = nodes.size();
+    for (int i = 0; i < nodeCount; i++) {
+      myIndices.put(nodes.get(i), i);
+    }
+    mySuccessors = new int[nodeCount][];
+    myPredecessors = new int[nodeCount][];
+    for (int i = 0; i < nodeCount; i++) {
+      mySuccessors[i] = toIndices(nodes.get(i).getSuccessors());
+      myPredecessors[i] = toIndices(nodes.get(i).getPredecessors());
+    }
+    myColumns = new int[nodeCount];
+    myRows = new int[nodeCount];
+    myPositions = new double[nodeCount];
+    assignColumns();
+    reduceCrossings();
+    assignRows();
+  }
+
+  List<TaskGraphNode> getNodes() {
+    return myNodes;
+  }
+
+  int getColumnCount() {
+    return myColumnNodes.size();
+  }
+
+  int getColumn(TaskGraphNode node) {
+    return myColumns[myIndices.get(node)];
+  }
+
+  int getRow(TaskGraphNode node) {
+    return myRows[myIndices.get(node)];
+  }
+
+  private int[] toIndices(List<TaskGraphNode> nodes) {
+    int[] result = new int[nodes.size()];
+    int count = 0;
+    for (TaskGraphNode node : nodes) {
+      Integer index = myIndices.get(node);
+      if (index != null) {
+        result[count++] = index;
+      }
+    }
+    return count == result.length ? result : Arrays.copyOf(result, count);
+  }
+
+  /**
+   * Assigns the longest path columns in the topological order. Nodes which are left
+   * unvisited because of a dependency loop are placed after their visited predecessors.
+   */
+  private void assignColumns() {
+    int nodeCount = myNodes.size();
+    int[] inDegrees = new int[nodeCount];
+    int[] queue = new int[nodeCount];
+    int tail = 0;
+    for (int i = 0; i < nodeCount; i++) {
+      inDegrees[i] = myPredecessors[i].length;
+      if (inDegrees[i] == 0) {
+        queue[tail++] = i;
+      }
+    }
+    BitSet visited = new BitSet(nodeCount);
+    for (int head = 0; head < tail; head++) {
+      int node = queue[head];
+      visited.set(node);
+      for (int successor : mySuccessors[node]) {
+        myColumns[successor] = Math.max(myColumns[successor], myColumns[node] + 1);
+        if (--inDegrees[successor] == 0) {
+          queue[tail++] = successor;
+        }
+      }
+    }
+    for (int node = visited.nextClearBit(0); node < nodeCount; node = visited.nextClearBit(node + 1)) {
+      for (int predecessor : myPredecessors[node]) {
+        if (visited.get(predecessor)) {
+          myColumns[node] = Math.max(myColumns[node], myColumns[predecessor] + 1);
+        }
+      }
+      visited.set(node);
+    }
+    // Nodes come to the columns in the order of the original list
+    for (int i = 0; i < nodeCount; i++) {
+      while (myColumnNodes.size() <= myColumns[i]) {
+        myColumnNodes.add(new ArrayList<Integer>());
+      }
+      List<Integer> column = myColumnNodes.get(myColumns[i]);
+      myPositions[i] = column.size();
+      column.add(i);
+    }
+  }
+
+  private void reduceCrossings() {
+    final double[] barycenters = new double[myNodes.size()];
+    Comparator<Integer> byBarycenter = new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return Double.compare(barycenters[o1], barycenters[o2]);
+      }
+    };
+    for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+      boolean isForward = sweep % 2 == 0;
+      boolean hasChanged = false;
+      int columnCount = myColumnNodes.size();
+      for (int i = 1; i < columnCount; i++) {
+        List<Integer> column = myColumnNodes.get(isForward ? i : columnCount - 1 - i);
+        for (int node : column) {
+          barycenters[node] = getBarycenter(isForward ? myPredecessors[node] : mySuccessors[node], myPositions[node]);
+        }
+        // Sort is stable, so nodes with equal barycenters keep their order
+        Collections.sort(column, byBarycenter);
+        for (int pos = 0; pos < column.size(); pos++) {
+          int node = column.get(pos);
+          if (myPositions[node] != pos) {
+            myPositions[node] = pos;
+            hasChanged = true;
+          }
+        }
+      }
+      if (!hasChanged && sweep > 0) {
+        break;
+      }
+    }
+  }
+
+  private double getBarycenter(int[] neighbors, double defaultValue) {
+    if (neighbors.length == 0) {
+      return defaultValue;
+    }
+    double sum = 0;
+    for (int neighbor : neighbors) {
+      sum += myPositions[neighbor];
+    }
+    return sum / neighbors.length;
+  }
+
+  /**
+   * Assigns rows column by column, in the order of the crossing reduction. Arrow to a node
+   * goes along the node row through the columns between its ends, so a node with such
+   * incoming arrows moves down until these cells are free.
+   */
+  private void assignRows() {
+    List<BitSet> occupied = Lists.newArrayListWithExpectedSize(myColumnNodes.size());
+    for (int col = 0; col < myColumnNodes.size(); col++) {
+      BitSet columnRows = new BitSet();
+      int row = 0;
+      for (int node : myColumnNodes.get(col)) {
+        while (isCrossingNode(node, row, occupied)) {
+          row++;
+        }
+        myRows[node] = row;
+        columnRows.set(row);
+        row++;
+      }
+      occupied.add(columnRows);
+    }
+  }
+
+  private boolean isCrossingNode(int node, int row, List<BitSet> occupied) {
+    for (int predecessor : myPredecessors[node]) {
+      for (int col = myColumns[predecessor] + 1; col < myColumns[node]; col++) {
+        if (occupied.get(col).get(row)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+Copyright 2026 GanttProject Team
+
+This file is part of GanttProject, an opensource project management tool.
+
+GanttProject is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+GanttProject is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with GanttProject.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.ganttproject.chart.pert;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.ganttproject.chart.pert.PertChartAbstraction.TaskGraphNode;
+
+/**
+ * Tests for the columns and rows assigned by {@link PertLayout}
+ */
+public class PertLayoutTest extends TestCase {
+  private static TaskGraphNode createNode() {
+    // Layout reads only the graph structure, so nodes don't need tasks
+    return new TaskGraphNode(null);
+  }
+
+  private static void link(TaskGraphNode predecessor, TaskGraphNode successor) {
+    predecessor.addSuccessor(successor);
+    successor.addPredecessor(predecessor);
+  }
+
+  public void testDiamond() {
+    TaskGraphNode a = createNode();
+    TaskGraphNode b = createNode();
+    TaskGraphNode c = createNode();
+    TaskGraphNode d = createNode();
+    link(a, b);
+    link(a, c);
+    link(b, d);
+    link(c, d);
+    PertLayout layout = new PertLayout(Arrays.asList(d, c, b, a));
+
+    assertEquals(3, layout.getColumnCount());
+    assertEquals(0, layout.getColumn(a));
+    assertEquals(1, layout.getColumn(b));
+    assertEquals(1, layout.getColumn(c));
+    assertEquals(2, layout.getColumn(d));
+
+    assertEquals(0, layout.getRow(a));
+    assertEquals(0, layout.getRow(d));
+    assertTrue(layout.getRow(b) != layout.getRow(c));
+  }
+
+  public void testOrderingRemovesCrossings() {
+    TaskGraphNode a1 = createNode();
+    TaskGraphNode a2 = createNode();
+    TaskGraphNode b1 = createNode();
+    TaskGraphNode b2 = createNode();
+    link(a1, b1);
+    link(a2, b2);
+    // Successors come in the reverse order, so the arrows cross unless the layout reorders them
+    PertLayout layout = new PertLayout(Arrays.asList(a1, a2, b2, b1));
+
+    assertEquals(0, layout.getRow(a1));
+    assertEquals(1, layout.getRow(a2));
+    assertEquals(0, layout.getRow(b1));
+    assertEquals(1, layout.getRow(b2));
+  }
+
+  public void testLongEdge() {
+    TaskGraphNode a = createNode();
+    TaskGraphNode b = createNode();
+    TaskGraphNode c = createNode();
+    link(a, b);
+    link(b, c);
+    link(a, c);
+    PertLayout layout = new PertLayout(Arrays.asList(a, b, c));
+
+    assertEquals(3, layout.getColumnCount());
+    assertEquals(0, layout.getColumn(a));
+    assertEquals(1, layout.getColumn(b));
+    // Longest path wins over the direct dependency
+    assertEquals(2, layout.getColumn(c));
+
+    // Arrow a->c goes through column 1 in the row of c, so b must not be there
+    assertEquals(0, layout.getRow(b));
+    assertEquals(1, layout.getRow(c));
+  }
+
+  public void testDependencyLoop() {
+    TaskGraphNode a = createNode();
+    TaskGraphNode b = createNode();
+    TaskGraphNode c = createNode();
+    link(a, b);
+    link(b, c);
+    link(c, b);
+    PertLayout layout = new PertLayout(Arrays.asList(a, b, c));
+
+    assertEquals(0, layout.getColumn(a));
+    assertTrue(layout.getColumn(b) > layout.getColumn(a));
+    assertTrue(layout.getColumn(c) > layout.getColumn(a));
+  }
+}